@@ -0,0 +1,21 @@
+package com.lunaroj.config;
+
+import com.baomidou.mybatisplus.extension.plugins.MybatisPlusInterceptor;
+import com.baomidou.mybatisplus.extension.plugins.inner.DynamicTableNameInnerInterceptor;
+import com.lunaroj.submission.SubmissionCodeTableRouter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MybatisPlusConfig {
+
+    @Bean
+    public MybatisPlusInterceptor mybatisPlusInterceptor() {
+        MybatisPlusInterceptor interceptor = new MybatisPlusInterceptor();
+        // submission_code 按月分表
+        interceptor.addInnerInterceptor(new DynamicTableNameInnerInterceptor(
+                (sql, tableName) -> SubmissionCodeTableRouter.resolve(tableName)
+        ));
+        return interceptor;
+    }
+}
@@ -0,0 +1,30 @@
+package com.lunaroj.constant;
+
+/**
+ * contest.mode 取值。
+ */
+public enum ContestMode {
+    ACM(0),
+    OI(1),
+    IOI(2),
+    PRACTICE(3);
+
+    private static final ContestMode[] BY_CODE = values();
+
+    private final int code;
+
+    ContestMode(int code) {
+        this.code = code;
+    }
+
+    public int getCode() {
+        return code;
+    }
+
+    public static ContestMode fromCode(int code) {
+        if (code < 0 || code >= BY_CODE.length) {
+            throw new IllegalArgumentException("unknown contest mode: " + code);
+        }
+        return BY_CODE[code];
+    }
+}
@@ -0,0 +1,34 @@
+package com.lunaroj.constant;
+
+/**
+ * contest.judge_priority 取值，越低越优先。
+ */
+public enum JudgePriority {
+    // 重要比赛/考试
+    IMPORTANT_CONTEST(0),
+    // 普通比赛
+    CONTEST(1),
+    // 公共题库等练习
+    PRACTICE(2),
+    // 在线 IDE
+    IDE(3);
+
+    private static final JudgePriority[] BY_LEVEL = values();
+
+    private final int level;
+
+    JudgePriority(int level) {
+        this.level = level;
+    }
+
+    public int getLevel() {
+        return level;
+    }
+
+    public static JudgePriority fromLevel(Integer level) {
+        if (level == null || level < 0 || level >= BY_LEVEL.length) {
+            return PRACTICE;
+        }
+        return BY_LEVEL[level];
+    }
+}
@@ -0,0 +1,31 @@
+package com.lunaroj.constant;
+
+/**
+ * submission.language / problem.std_language 取值。
+ */
+public enum SubmissionLanguage {
+    CPP(0),
+    C(1),
+    PYTHON(2),
+    JAVA(3),
+    TEXT(4);
+
+    private static final SubmissionLanguage[] BY_CODE = values();
+
+    private final int code;
+
+    SubmissionLanguage(int code) {
+        this.code = code;
+    }
+
+    public int getCode() {
+        return code;
+    }
+
+    public static SubmissionLanguage fromCode(int code) {
+        if (code < 0 || code >= BY_CODE.length) {
+            throw new IllegalArgumentException("unknown submission language: " + code);
+        }
+        return BY_CODE[code];
+    }
+}
@@ -0,0 +1,44 @@
+package com.lunaroj.constant;
+
+/**
+ * submission.status 取值，状态机 WT0/WT1 -> CI -> RI -> 终态。
+ */
+public enum SubmissionStatus {
+    WT0(0),
+    WT1(1),
+    CI(2),
+    RI(3),
+    AC(4),
+    PE(5),
+    WA(6),
+    TLE(7),
+    MLE(8),
+    OLE(9),
+    RE(10),
+    CE(11),
+    SE(12),
+    NT(13);
+
+    private static final SubmissionStatus[] BY_CODE = values();
+
+    private final int code;
+
+    SubmissionStatus(int code) {
+        this.code = code;
+    }
+
+    public int getCode() {
+        return code;
+    }
+
+    public boolean isFinal() {
+        return code >= AC.code;
+    }
+
+    public static SubmissionStatus fromCode(int code) {
+        if (code < 0 || code >= BY_CODE.length) {
+            throw new IllegalArgumentException("unknown submission status: " + code);
+        }
+        return BY_CODE[code];
+    }
+}
@@ -0,0 +1,12 @@
+package com.lunaroj.constant;
+
+public final class SystemConfigKeys {
+
+    public static final String REGISTER_ENABLED = "register_enabled";
+    public static final String SUBMIT_INTERVAL_MILLIS = "submit_interval_millis";
+    public static final String MAX_CODE_LENGTH = "max_code_length";
+    public static final String TESTCASE_UPLOAD_DAILY_BYTES = "testcase_upload_daily_bytes";
+
+    private SystemConfigKeys() {
+    }
+}
@@ -0,0 +1,40 @@
+package com.lunaroj.controller;
+
+import com.lunaroj.common.error.ErrorCode;
+import com.lunaroj.common.exception.BusinessException;
+import com.lunaroj.common.response.ApiResponse;
+import com.lunaroj.security.JwtUserPrincipal;
+import com.lunaroj.submission.SubmissionListService;
+import com.lunaroj.submission.model.SubmissionListPage;
+import com.lunaroj.submission.model.SubmissionQuery;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/submissions")
+@RequiredArgsConstructor
+public class SubmissionController {
+
+    private final SubmissionListService submissionListService;
+
+    @GetMapping
+    public ApiResponse<SubmissionListPage> list(
+            @AuthenticationPrincipal JwtUserPrincipal principal,
+            SubmissionQuery query,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int pageSize
+    ) {
+        return ApiResponse.success(submissionListService.list(query, requireUserId(principal), cursor, pageSize));
+    }
+
+    private Long requireUserId(JwtUserPrincipal principal) {
+        if (principal == null || principal.getUserId() == null) {
+            throw new BusinessException(ErrorCode.UNAUTHORIZED);
+        }
+        return principal.getUserId();
+    }
+}
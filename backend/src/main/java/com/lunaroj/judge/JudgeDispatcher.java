@@ -0,0 +1,202 @@
+package com.lunaroj.judge;
+
+import com.lunaroj.constant.JudgePriority;
+import com.lunaroj.constant.SubmissionStatus;
+import com.lunaroj.judge.model.JudgeResult;
+import com.lunaroj.judge.model.JudgeTask;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 评测调度：提交按优先级入队，调度线程每拿到一个沙箱槽位就取出当前最优先的任务，
+ * 在独立的虚拟线程上交给 {@link JudgeRunner}，并记录每个提交的排队、编译、运行耗时。
+ * 槽位数按 CPU 核数限定，等待编译与沙箱 HTTP 调用不占用平台线程，同时避免超卖 CPU 造成计时抖动。
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "lunaroj.judge", name = "enabled", havingValue = "true")
+public class JudgeDispatcher {
+
+    private final JudgeTaskQueue queue = new JudgeTaskQueue();
+    private final JudgeRunner judgeRunner;
+    private final JudgeSlots slots;
+    private final List<JudgeResultListener> listeners;
+    private final JudgeProperties judgeProperties;
+
+    private final Map<JudgePriority, Timer> queueWaitTimers = new EnumMap<>(JudgePriority.class);
+    private final Timer compileTimer;
+    private final Timer runTimer;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final ExecutorService judgeExecutor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("judge-task-", 0).factory()
+    );
+
+    private Thread dispatchThread;
+    private volatile boolean running;
+
+    public JudgeDispatcher(
+            JudgeRunner judgeRunner,
+            JudgeSlots slots,
+            List<JudgeResultListener> listeners,
+            JudgeProperties judgeProperties,
+            MeterRegistry meterRegistry
+    ) {
+        this.judgeRunner = judgeRunner;
+        this.slots = slots;
+        this.listeners = List.copyOf(listeners);
+        this.judgeProperties = judgeProperties;
+        for (JudgePriority priority : JudgePriority.values()) {
+            queueWaitTimers.put(priority, Timer.builder("lunaroj.judge.queue.wait")
+                    .tag("priority", priority.name())
+                    .register(meterRegistry));
+            Gauge.builder("lunaroj.judge.queue.size", queue, q -> q.size(priority))
+                    .tag("priority", priority.name())
+                    .register(meterRegistry);
+        }
+        this.compileTimer = Timer.builder("lunaroj.judge.compile").register(meterRegistry);
+        this.runTimer = Timer.builder("lunaroj.judge.run").register(meterRegistry);
+        Gauge.builder("lunaroj.judge.slots.total", slots, JudgeSlots::total).register(meterRegistry);
+        // 含测试点并行借用的槽位
+        Gauge.builder("lunaroj.judge.slots.busy", slots, JudgeSlots::busy).register(meterRegistry);
+        Gauge.builder("lunaroj.judge.inflight", inFlight, AtomicInteger::get).register(meterRegistry);
+        Gauge.builder("lunaroj.judge.slots.saturation", this, JudgeDispatcher::saturation).register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        dispatchThread = Thread.ofPlatform()
+                .name("judge-dispatcher")
+                .daemon(true)
+                .start(this::dispatchLoop);
+        log.info("评测调度已启动: slots={}", slots.total());
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (dispatchThread != null) {
+            dispatchThread.interrupt();
+        }
+        judgeExecutor.shutdown();
+        try {
+            if (!judgeExecutor.awaitTermination(judgeProperties.getShutdownTimeoutMillis(), TimeUnit.MILLISECONDS)) {
+                judgeExecutor.shutdownNow();
+            }
+        } catch (InterruptedException ex) {
+            judgeExecutor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public void submit(JudgeTask task) {
+        if (task.getPriority() == null) {
+            task.setPriority(JudgePriority.PRACTICE);
+        }
+        task.setEnqueuedAtNanos(System.nanoTime());
+        queue.offer(task);
+    }
+
+    public int queueSize() {
+        return queue.size();
+    }
+
+    public double saturation() {
+        return (double) slots.busy() / slots.total();
+    }
+
+    private void dispatchLoop() {
+        while (running) {
+            JudgeTask task;
+            try {
+                // 先占槽位再取任务，保证槽位空出时取到的是那一刻最优先的任务
+                slots.acquire();
+                try {
+                    task = queue.take();
+                } catch (InterruptedException ex) {
+                    slots.release();
+                    throw ex;
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            inFlight.incrementAndGet();
+            try {
+                judgeExecutor.execute(() -> {
+                    try {
+                        execute(task);
+                    } finally {
+                        inFlight.decrementAndGet();
+                        slots.release();
+                    }
+                });
+            } catch (RejectedExecutionException ex) {
+                inFlight.decrementAndGet();
+                slots.release();
+                queue.offer(task);
+                return;
+            }
+        }
+    }
+
+    void execute(JudgeTask task) {
+        long queueWaitNanos = System.nanoTime() - task.getEnqueuedAtNanos();
+        queueWaitTimers.get(task.getPriority()).record(queueWaitNanos, TimeUnit.NANOSECONDS);
+
+        JudgeResult result;
+        try {
+            result = judgeRunner.judge(task, status -> notifyStatus(task, status));
+        } catch (Exception ex) {
+            log.error("评测异常: submissionId={}", task.getSubmissionId(), ex);
+            result = new JudgeResult();
+            result.setSubmissionId(task.getSubmissionId());
+            result.setStatus(SubmissionStatus.SE);
+            result.setTotalCount(task.getTestcases().size());
+            result.setJudgedAt(LocalDateTime.now());
+        }
+        result.setQueueWaitMillis(TimeUnit.NANOSECONDS.toMillis(queueWaitNanos));
+        compileTimer.record(result.getCompileMillis(), TimeUnit.MILLISECONDS);
+        runTimer.record(result.getRunMillis(), TimeUnit.MILLISECONDS);
+        log.info("评测完成: submissionId={}, status={}, queueWaitMs={}, compileMs={}, runMs={}",
+                task.getSubmissionId(), result.getStatus(), result.getQueueWaitMillis(),
+                result.getCompileMillis(), result.getRunMillis());
+
+        for (JudgeResultListener listener : listeners) {
+            try {
+                listener.onJudged(task, result);
+            } catch (Exception ex) {
+                log.error("评测结果回调失败: submissionId={}, listener={}",
+                        task.getSubmissionId(), listener.getClass().getSimpleName(), ex);
+            }
+        }
+    }
+
+    private void notifyStatus(JudgeTask task, SubmissionStatus status) {
+        for (JudgeResultListener listener : listeners) {
+            try {
+                listener.onStatusChanged(task, status);
+            } catch (Exception ex) {
+                log.warn("评测状态回调失败: submissionId={}, status={}, error={}",
+                        task.getSubmissionId(), status, ex.getMessage());
+            }
+        }
+    }
+}
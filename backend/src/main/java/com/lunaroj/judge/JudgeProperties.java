@@ -0,0 +1,92 @@
+package com.lunaroj.judge;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "lunaroj.judge")
+public class JudgeProperties {
+
+    private boolean enabled = false;
+
+    // 每个 CPU 核心允许同时占用的沙箱槽位数
+    private int slotsPerCore = 1;
+
+    // 沙箱槽位总数，0 表示按 CPU 核数 * slotsPerCore 计算
+    private int slots = 0;
+
+    // 单个提交的测试点默认并行度，实际并发受空闲槽位限制；题目可在 JudgeTask 中单独指定
+    private int caseParallelism = 4;
+
+    // 停机时等待在途评测完成的最长时间
+    private long shutdownTimeoutMillis = 30000;
+
+    private long outputLimitBytes = 16L * 1024 * 1024;
+
+    // 本地测试点存储（MinIO 替身）根目录，testcase.input_path/output_path 相对该目录解析
+    private String testcaseDir = "temp/testcases";
+
+    private TestcaseCache testcaseCache = new TestcaseCache();
+
+    private CompileCache compileCache = new CompileCache();
+
+    private ResultWriter resultWriter = new ResultWriter();
+
+    private GoJudge goJudge = new GoJudge();
+
+    public int resolveSlots() {
+        if (slots > 0) {
+            return slots;
+        }
+        return Math.max(1, Runtime.getRuntime().availableProcessors() * Math.max(1, slotsPerCore));
+    }
+
+    @Data
+    public static class TestcaseCache {
+
+        // 评测机本地缓存目录，文件按 SHA-256 命名
+        private String dir = "temp/testcase-cache";
+
+        private long maxBytes = 4L * 1024 * 1024 * 1024;
+    }
+
+    @Data
+    public static class CompileCache {
+
+        private boolean enabled = true;
+
+        // 编译产物缓存目录，文件按 SHA-256(语言, 编译命令, 代码) 命名
+        private String dir = "temp/compile-cache";
+
+        private long maxBytes = 1024L * 1024 * 1024;
+    }
+
+    @Data
+    public static class ResultWriter {
+
+        // 批量写回间隔，由 @Scheduled 读取
+        private long flushIntervalMillis = 200;
+
+        // 单条多行语句最多包含的行数
+        private int maxBatchSize = 500;
+
+        // 重放日志目录
+        private String logDir = "temp/judge-result-log";
+
+        // 单条记录连续写回失败达到该次数后移入死信文件
+        private int maxAttempts = 3;
+    }
+
+    @Data
+    public static class GoJudge {
+
+        private String baseUrl = "http://127.0.0.1:5050";
+
+        private long requestTimeoutMillis = 60000;
+
+        // 编译环境标识（如 go-judge 镜像标签或编译器版本），参与编译缓存的键；升级编译器时修改以作废旧缓存
+        private String compilerVersion = "";
+    }
+}
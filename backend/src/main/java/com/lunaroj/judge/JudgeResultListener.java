@@ -0,0 +1,16 @@
+package com.lunaroj.judge;
+
+import com.lunaroj.constant.SubmissionStatus;
+import com.lunaroj.judge.model.JudgeResult;
+import com.lunaroj.judge.model.JudgeTask;
+
+/**
+ * 评测进度回调，在评测线程上同步调用，实现方不应阻塞。
+ */
+public interface JudgeResultListener {
+
+    default void onStatusChanged(JudgeTask task, SubmissionStatus status) {
+    }
+
+    void onJudged(JudgeTask task, JudgeResult result);
+}
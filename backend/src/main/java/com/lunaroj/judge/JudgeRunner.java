@@ -0,0 +1,311 @@
+package com.lunaroj.judge;
+
+import com.lunaroj.constant.SubmissionLanguage;
+import com.lunaroj.constant.SubmissionStatus;
+import com.lunaroj.judge.checker.OutputChecker;
+import com.lunaroj.judge.compile.CompileCache;
+import com.lunaroj.judge.model.CaseResult;
+import com.lunaroj.judge.model.JudgeResult;
+import com.lunaroj.judge.model.JudgeTask;
+import com.lunaroj.judge.model.TestcaseSpec;
+import com.lunaroj.judge.sandbox.CompileResult;
+import com.lunaroj.judge.sandbox.JudgeSandbox;
+import com.lunaroj.judge.sandbox.RunRequest;
+import com.lunaroj.judge.sandbox.RunResult;
+import com.lunaroj.judge.scoring.ScoringConfig;
+import com.lunaroj.judge.scoring.ScoringConfigParser;
+import com.lunaroj.judge.testcase.CachedTestcase;
+import com.lunaroj.judge.testcase.TestcaseCache;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * 执行单个评测任务：编译 -> 运行各测试点并比对 -> 汇总。
+ * 测试点按并行度借用空闲槽位在虚拟线程上同时运行，结果按 sort_order 合并，首个非 AC 的测试点决定最终状态。
+ * 按 scoring_config 提前终止：全部通过才得分时首个失败后不再启动新的测试点，子任务中首个失败后跳过该组余下测试点，
+ * 被跳过的测试点不出现在 caseResults 中。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "lunaroj.judge", name = "enabled", havingValue = "true")
+public class JudgeRunner {
+
+    private static final ThreadFactory CASE_THREAD_FACTORY = Thread.ofVirtual().name("judge-case-", 0).factory();
+
+    private final JudgeSandbox judgeSandbox;
+    private final JudgeSlots judgeSlots;
+    private final CompileCache compileCache;
+    private final TestcaseCache testcaseCache;
+    private final OutputChecker outputChecker;
+    private final ScoringConfigParser scoringConfigParser;
+    private final JudgeProperties judgeProperties;
+
+    public JudgeResult judge(JudgeTask task, Consumer<SubmissionStatus> progress) {
+        JudgeResult result = new JudgeResult();
+        result.setSubmissionId(task.getSubmissionId());
+        List<TestcaseSpec> testcases = task.getTestcases().stream()
+                .sorted(Comparator.comparingInt(TestcaseSpec::getSortOrder))
+                .toList();
+        result.setTotalCount(testcases.size());
+        ScoringConfig scoring = scoringConfigParser.parse(task.getScoringConfig());
+        if (testcases.isEmpty()) {
+            result.setStatus(SubmissionStatus.NT);
+            result.setJudgedAt(LocalDateTime.now());
+            return result;
+        }
+
+        if (task.getLanguage() == SubmissionLanguage.TEXT) {
+            // 填空题：提交内容即输出，无需沙箱
+            progress.accept(SubmissionStatus.RI);
+            long runStartNanos = System.nanoTime();
+            ByteBuffer answer = ByteBuffer.wrap(
+                    task.getCode() == null ? new byte[0] : task.getCode().getBytes(StandardCharsets.UTF_8)
+            );
+            // 填空题不占沙箱，顺序比对即可
+            judgeCases(testcases, scoring, 1, result, testcase -> {
+                SubmissionStatus status;
+                try (CachedTestcase expected = acquireOutput(testcase)) {
+                    status = outputChecker.check(expected.map(), answer, task.getCompareMode());
+                } catch (IOException ex) {
+                    throw new UncheckedIOException("failed to read expected output of testcase " + testcase.getTestcaseId(), ex);
+                }
+                return new CaseResult(testcase.getSortOrder(), status, 0, 0);
+            });
+            result.setRunMillis(elapsedMillis(runStartNanos));
+            return summarize(result, scoring);
+        }
+
+        progress.accept(SubmissionStatus.CI);
+        long compileStartNanos = System.nanoTime();
+        CompileResult compileResult = compileCache.compile(task.getLanguage(), task.getCode());
+        result.setCompileMillis(elapsedMillis(compileStartNanos));
+        result.setCompileOutput(StringUtils.hasText(compileResult.getOutput()) ? compileResult.getOutput() : null);
+        if (!compileResult.isSuccess()) {
+            result.setStatus(SubmissionStatus.CE);
+            result.setJudgedAt(LocalDateTime.now());
+            return result;
+        }
+
+        progress.accept(SubmissionStatus.RI);
+        long runStartNanos = System.nanoTime();
+        try {
+            int parallelism = task.getCaseParallelism() > 0
+                    ? task.getCaseParallelism()
+                    : judgeProperties.getCaseParallelism();
+            judgeCases(testcases, scoring, parallelism, result,
+                    testcase -> runOneCase(task, compileResult.getArtifactId(), testcase));
+        } finally {
+            releaseQuietly(compileResult.getArtifactId());
+        }
+        result.setRunMillis(elapsedMillis(runStartNanos));
+        return summarize(result, scoring);
+    }
+
+    private void judgeCases(
+            List<TestcaseSpec> testcases,
+            ScoringConfig scoring,
+            int parallelism,
+            JudgeResult result,
+            Function<TestcaseSpec, CaseResult> judgeOne
+    ) {
+        // 调度器已为本提交占用一个槽位，其余按需借用
+        int borrowed = judgeSlots.tryAcquireUpTo(Math.min(parallelism, testcases.size()) - 1);
+        try {
+            CaseResult[] caseResults = new CaseResult[testcases.size()];
+            // 组号 -> 该组已失败测试点的最小下标
+            Map<Integer, Integer> firstFailures = new ConcurrentHashMap<>();
+            AtomicInteger next = new AtomicInteger();
+            Runnable worker = () -> {
+                int index;
+                while ((index = next.getAndIncrement()) < testcases.size()) {
+                    TestcaseSpec testcase = testcases.get(index);
+                    int group = scoring.groupOf(testcase.getSortOrder());
+                    Integer firstFailure = group >= 0 ? firstFailures.get(group) : null;
+                    if (firstFailure != null && firstFailure < index) {
+                        // 该组得分已确定为 0，不再占用沙箱；只跳过更靠后的测试点，
+                        // 最终结果取自下标最小的失败测试点，与并行度和完成顺序无关
+                        continue;
+                    }
+                    CaseResult caseResult;
+                    try {
+                        caseResult = judgeOne.apply(testcase);
+                    } catch (RuntimeException ex) {
+                        next.set(testcases.size());
+                        throw ex;
+                    }
+                    caseResults[index] = caseResult;
+                    if (group >= 0 && caseResult.getStatus() != SubmissionStatus.AC) {
+                        firstFailures.merge(group, index, Math::min);
+                    }
+                }
+            };
+            if (borrowed == 0) {
+                worker.run();
+            } else {
+                runConcurrently(worker, borrowed + 1);
+            }
+            for (CaseResult caseResult : caseResults) {
+                if (caseResult != null) {
+                    result.getCaseResults().add(caseResult);
+                }
+            }
+        } finally {
+            judgeSlots.release(borrowed);
+        }
+    }
+
+    private static void runConcurrently(Runnable worker, int workers) {
+        List<Future<?>> futures = new ArrayList<>(workers);
+        try (ExecutorService executor = Executors.newThreadPerTaskExecutor(CASE_THREAD_FACTORY)) {
+            for (int i = 0; i < workers; i++) {
+                futures.add(executor.submit(worker));
+            }
+        }
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException ex) {
+                if (ex.getCause() instanceof RuntimeException runtimeException) {
+                    throw runtimeException;
+                }
+                throw new IllegalStateException(ex.getCause());
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("interrupted while judging testcases", ex);
+            }
+        }
+    }
+
+    private CaseResult runOneCase(JudgeTask task, String artifactId, TestcaseSpec testcase) {
+        try (CachedTestcase input = acquireInput(testcase); CachedTestcase expected = acquireOutput(testcase)) {
+            RunRequest request = new RunRequest();
+            request.setLanguage(task.getLanguage());
+            request.setArtifactId(artifactId);
+            request.setInputFile(input.path());
+            request.setTimeLimitMillis(task.getTimeLimitMillis());
+            request.setMemoryLimitKb(task.getMemoryLimitKb());
+            request.setOutputLimitBytes(judgeProperties.getOutputLimitBytes());
+            RunResult runResult = judgeSandbox.run(request);
+
+            SubmissionStatus status = switch (runResult.getStatus()) {
+                case OK -> outputChecker.check(
+                        expected.map(),
+                        ByteBuffer.wrap(runResult.getStdout() == null ? new byte[0] : runResult.getStdout()),
+                        task.getCompareMode()
+                );
+                case TIME_LIMIT_EXCEEDED -> SubmissionStatus.TLE;
+                case MEMORY_LIMIT_EXCEEDED -> SubmissionStatus.MLE;
+                case OUTPUT_LIMIT_EXCEEDED -> SubmissionStatus.OLE;
+                case RUNTIME_ERROR -> SubmissionStatus.RE;
+                case SYSTEM_ERROR -> SubmissionStatus.SE;
+            };
+            return new CaseResult(testcase.getSortOrder(), status, runResult.getTimeMillis(), runResult.getMemoryKb());
+        } catch (IOException ex) {
+            throw new UncheckedIOException("failed to load testcase " + testcase.getTestcaseId(), ex);
+        }
+    }
+
+    private JudgeResult summarize(JudgeResult result, ScoringConfig scoring) {
+        SubmissionStatus finalStatus = SubmissionStatus.AC;
+        int passCount = 0;
+        Integer timeUsed = null;
+        Integer memoryUsed = null;
+        for (CaseResult caseResult : result.getCaseResults()) {
+            if (caseResult.getStatus() == SubmissionStatus.AC) {
+                passCount++;
+            } else if (finalStatus == SubmissionStatus.AC) {
+                finalStatus = caseResult.getStatus();
+            }
+            timeUsed = max(timeUsed, caseResult.getTimeMillis());
+            memoryUsed = max(memoryUsed, caseResult.getMemoryKb());
+        }
+        result.setStatus(finalStatus);
+        result.setPassCount(passCount);
+        result.setScore(score(result, scoring));
+        result.setTimeUsed(timeUsed);
+        result.setMemoryUsed(memoryUsed);
+        result.setJudgedAt(LocalDateTime.now());
+        return result;
+    }
+
+    private static int score(JudgeResult result, ScoringConfig scoring) {
+        if (scoring.getType() == ScoringConfig.Type.PER_CASE) {
+            // 各测试点等分
+            return result.getTotalCount() == 0 ? 0 : result.getPassCount() * ScoringConfig.FULL_SCORE / result.getTotalCount();
+        }
+        int groupCount = scoring.getGroups().size();
+        boolean[] judged = new boolean[groupCount];
+        boolean[] failed = new boolean[groupCount];
+        for (CaseResult caseResult : result.getCaseResults()) {
+            int group = scoring.groupOf(caseResult.getSortOrder());
+            if (group >= 0) {
+                judged[group] = true;
+                failed[group] |= caseResult.getStatus() != SubmissionStatus.AC;
+            }
+        }
+        int score = 0;
+        for (int group = 0; group < groupCount; group++) {
+            if (judged[group] && !failed[group]) {
+                score += scoring.groupScore(group);
+            }
+        }
+        return Math.min(score, ScoringConfig.FULL_SCORE);
+    }
+
+    private CachedTestcase acquireInput(TestcaseSpec testcase) throws IOException {
+        if (!StringUtils.hasText(testcase.getInputPath())) {
+            throw new IllegalStateException("testcase " + testcase.getTestcaseId() + " has no input file");
+        }
+        return testcaseCache.acquire(testcase.getInputPath(), testcase.getInputHash());
+    }
+
+    private CachedTestcase acquireOutput(TestcaseSpec testcase) throws IOException {
+        if (!StringUtils.hasText(testcase.getOutputPath())) {
+            throw new IllegalStateException("testcase " + testcase.getTestcaseId() + " has no output file");
+        }
+        return testcaseCache.acquire(testcase.getOutputPath(), testcase.getOutputHash());
+    }
+
+    private void releaseQuietly(String artifactId) {
+        try {
+            judgeSandbox.release(artifactId);
+        } catch (Exception ex) {
+            log.warn("释放编译产物失败: artifactId={}, error={}", artifactId, ex.getMessage());
+        }
+    }
+
+    private static Integer max(Integer current, Integer value) {
+        if (value == null) {
+            return current;
+        }
+        return current == null ? value : Math.max(current, value);
+    }
+
+    private static long elapsedMillis(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+}
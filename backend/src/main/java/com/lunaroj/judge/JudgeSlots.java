@@ -0,0 +1,57 @@
+package com.lunaroj.judge;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Semaphore;
+
+/**
+ * 沙箱槽位：每个槽位对应一个可同时运行的沙箱进程。
+ * 调度器为每个提交阻塞占用一个槽位；{@link JudgeRunner} 并行跑测试点时只用 tryAcquire 借用空闲槽位，
+ * 借不到就少开并发，不会因为等待槽位与调度器互相阻塞。
+ */
+@Component
+@ConditionalOnProperty(prefix = "lunaroj.judge", name = "enabled", havingValue = "true")
+public class JudgeSlots {
+
+    private final int total;
+    private final Semaphore permits;
+
+    public JudgeSlots(JudgeProperties judgeProperties) {
+        this.total = judgeProperties.resolveSlots();
+        this.permits = new Semaphore(total, true);
+    }
+
+    public void acquire() throws InterruptedException {
+        permits.acquire();
+    }
+
+    public void release() {
+        permits.release();
+    }
+
+    /**
+     * 尽量借用至多 max 个空闲槽位，返回实际借到的数量。
+     */
+    public int tryAcquireUpTo(int max) {
+        int acquired = 0;
+        while (acquired < max && permits.tryAcquire()) {
+            acquired++;
+        }
+        return acquired;
+    }
+
+    public void release(int count) {
+        if (count > 0) {
+            permits.release(count);
+        }
+    }
+
+    public int total() {
+        return total;
+    }
+
+    public int busy() {
+        return total - permits.availablePermits();
+    }
+}
@@ -0,0 +1,99 @@
+package com.lunaroj.judge;
+
+import com.lunaroj.constant.JudgePriority;
+import com.lunaroj.judge.model.JudgeTask;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 按优先级分桶的阻塞队列：总是先取优先级最高(level 最小)的非空桶，同一桶内 FIFO。
+ */
+public class JudgeTaskQueue {
+
+    private final ArrayDeque<JudgeTask>[] buckets;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private int size;
+
+    @SuppressWarnings("unchecked")
+    public JudgeTaskQueue() {
+        JudgePriority[] priorities = JudgePriority.values();
+        buckets = new ArrayDeque[priorities.length];
+        for (int i = 0; i < priorities.length; i++) {
+            buckets[i] = new ArrayDeque<>();
+        }
+    }
+
+    public void offer(JudgeTask task) {
+        JudgePriority priority = task.getPriority() == null ? JudgePriority.PRACTICE : task.getPriority();
+        lock.lock();
+        try {
+            buckets[priority.getLevel()].addLast(task);
+            size++;
+            notEmpty.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public JudgeTask take() throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            while (size == 0) {
+                notEmpty.await();
+            }
+            return pollFirstNonEmpty();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // 超时返回 NULL
+    public JudgeTask poll(long timeout, TimeUnit unit) throws InterruptedException {
+        long nanos = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            while (size == 0) {
+                if (nanos <= 0) {
+                    return null;
+                }
+                nanos = notEmpty.awaitNanos(nanos);
+            }
+            return pollFirstNonEmpty();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size(JudgePriority priority) {
+        lock.lock();
+        try {
+            return buckets[priority.getLevel()].size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private JudgeTask pollFirstNonEmpty() {
+        for (ArrayDeque<JudgeTask> bucket : buckets) {
+            JudgeTask task = bucket.pollFirst();
+            if (task != null) {
+                size--;
+                return task;
+            }
+        }
+        throw new IllegalStateException("judge queue size out of sync");
+    }
+}
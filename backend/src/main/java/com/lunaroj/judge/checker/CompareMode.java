@@ -0,0 +1,13 @@
+package com.lunaroj.judge.checker;
+
+/**
+ * 常规评测的输出比对方式。
+ */
+public enum CompareMode {
+    // 逐字节一致
+    EXACT,
+    // 忽略行末空白与文末空行
+    TRAILING_WHITESPACE,
+    // 按空白分隔的 token 序列一致
+    TOKEN
+}
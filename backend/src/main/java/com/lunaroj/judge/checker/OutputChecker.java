@@ -0,0 +1,34 @@
+package com.lunaroj.judge.checker;
+
+import com.lunaroj.constant.SubmissionStatus;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+
+/**
+ * 常规评测比对：按 {@link CompareMode} 一致为 AC；不一致但去掉全部空白后一致为 PE；否则 WA。
+ * 默认忽略行末空白与文末空行。
+ */
+@Component
+public class OutputChecker {
+
+    public SubmissionStatus check(byte[] expected, byte[] actual) {
+        return check(ByteBuffer.wrap(expected), ByteBuffer.wrap(actual));
+    }
+
+    public SubmissionStatus check(ByteBuffer expected, ByteBuffer actual) {
+        return check(expected, actual, CompareMode.TRAILING_WHITESPACE);
+    }
+
+    public SubmissionStatus check(ByteBuffer expected, ByteBuffer actual, CompareMode mode) {
+        boolean accepted = switch (mode) {
+            case EXACT -> OutputComparator.exact(expected, actual);
+            case TRAILING_WHITESPACE -> OutputComparator.ignoringTrailingWhitespace(expected, actual);
+            case TOKEN -> OutputComparator.tokens(expected, actual);
+        };
+        if (accepted) {
+            return SubmissionStatus.AC;
+        }
+        return OutputComparator.ignoringAllWhitespace(expected, actual) ? SubmissionStatus.PE : SubmissionStatus.WA;
+    }
+}
@@ -0,0 +1,132 @@
+package com.lunaroj.judge.checker;
+
+import java.nio.ByteBuffer;
+
+/**
+ * 基于 {@link ByteBuffer} 的流式输出比对，适用于堆内数组与 mmap 文件。
+ * 只用绝对下标读取 position 到 limit 之间的字节，不修改缓冲区状态，不做解码，过程中不分配对象，
+ * 遇到第一处不一致立即返回。空白按 ASCII 判断：空格与 \t \n \u000B \f \r。
+ */
+public final class OutputComparator {
+
+    private OutputComparator() {
+    }
+
+    public static boolean exact(ByteBuffer expected, ByteBuffer actual) {
+        return expected.mismatch(actual) == -1;
+    }
+
+    /**
+     * 逐行比对，忽略每行行末空白以及文末的空白行。
+     */
+    public static boolean ignoringTrailingWhitespace(ByteBuffer expected, ByteBuffer actual) {
+        int i = expected.position();
+        int expectedLimit = expected.limit();
+        int j = actual.position();
+        int actualLimit = actual.limit();
+        while (i < expectedLimit && j < actualLimit) {
+            int expectedLineEnd = lineEnd(expected, i, expectedLimit);
+            int actualLineEnd = lineEnd(actual, j, actualLimit);
+            int expectedContentEnd = trimTrailing(expected, i, expectedLineEnd);
+            int actualContentEnd = trimTrailing(actual, j, actualLineEnd);
+            if (expectedContentEnd - i != actualContentEnd - j) {
+                return false;
+            }
+            while (i < expectedContentEnd) {
+                if (expected.get(i++) != actual.get(j++)) {
+                    return false;
+                }
+            }
+            i = expectedLineEnd + 1;
+            j = actualLineEnd + 1;
+        }
+        return isBlank(expected, i, expectedLimit) && isBlank(actual, j, actualLimit);
+    }
+
+    /**
+     * 按空白分隔的 token 序列比对，空白的种类与数量不影响结果。
+     */
+    public static boolean tokens(ByteBuffer expected, ByteBuffer actual) {
+        int i = expected.position();
+        int expectedLimit = expected.limit();
+        int j = actual.position();
+        int actualLimit = actual.limit();
+        while (true) {
+            i = skipWhitespace(expected, i, expectedLimit);
+            j = skipWhitespace(actual, j, actualLimit);
+            if (i == expectedLimit || j == actualLimit) {
+                return i == expectedLimit && j == actualLimit;
+            }
+            while (i < expectedLimit && j < actualLimit) {
+                byte left = expected.get(i);
+                byte right = actual.get(j);
+                if (isWhitespace(left) || isWhitespace(right)) {
+                    break;
+                }
+                if (left != right) {
+                    return false;
+                }
+                i++;
+                j++;
+            }
+            // 两侧的当前 token 必须同时结束
+            boolean expectedTokenEnded = i == expectedLimit || isWhitespace(expected.get(i));
+            boolean actualTokenEnded = j == actualLimit || isWhitespace(actual.get(j));
+            if (!expectedTokenEnded || !actualTokenEnded) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * 去掉全部空白后是否一致，用于区分 PE 与 WA。
+     */
+    public static boolean ignoringAllWhitespace(ByteBuffer expected, ByteBuffer actual) {
+        int i = expected.position();
+        int expectedLimit = expected.limit();
+        int j = actual.position();
+        int actualLimit = actual.limit();
+        while (true) {
+            i = skipWhitespace(expected, i, expectedLimit);
+            j = skipWhitespace(actual, j, actualLimit);
+            if (i == expectedLimit || j == actualLimit) {
+                return i == expectedLimit && j == actualLimit;
+            }
+            if (expected.get(i++) != actual.get(j++)) {
+                return false;
+            }
+        }
+    }
+
+    private static int lineEnd(ByteBuffer buffer, int from, int limit) {
+        int index = from;
+        while (index < limit && buffer.get(index) != '\n') {
+            index++;
+        }
+        return index;
+    }
+
+    private static int trimTrailing(ByteBuffer buffer, int from, int end) {
+        int index = end;
+        while (index > from && isWhitespace(buffer.get(index - 1))) {
+            index--;
+        }
+        return index;
+    }
+
+    private static int skipWhitespace(ByteBuffer buffer, int from, int limit) {
+        int index = from;
+        while (index < limit && isWhitespace(buffer.get(index))) {
+            index++;
+        }
+        return index;
+    }
+
+    private static boolean isBlank(ByteBuffer buffer, int from, int limit) {
+        return skipWhitespace(buffer, from, limit) >= limit;
+    }
+
+    private static boolean isWhitespace(byte value) {
+        return value == ' ' || (value >= '\t' && value <= '\r');
+    }
+}
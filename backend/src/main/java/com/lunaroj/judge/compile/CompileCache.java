@@ -0,0 +1,289 @@
+package com.lunaroj.judge.compile;
+
+import com.lunaroj.constant.SubmissionLanguage;
+import com.lunaroj.judge.JudgeProperties;
+import com.lunaroj.judge.sandbox.CompileResult;
+import com.lunaroj.judge.sandbox.JudgeSandbox;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * 编译产物缓存：键为 SHA-256(语言, 编译命令, 代码)，产物从沙箱导出后存放在本地磁盘，按总字节数 LRU 淘汰。
+ * 命中时把产物重新上传到沙箱，跳过编译；重判与重复提交的代码因此只编译一次。
+ * 同一键的并发编译只执行一次。只缓存编译成功的结果。
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "lunaroj.judge", name = "enabled", havingValue = "true")
+public class CompileCache {
+
+    private static final String ARTIFACT_SUFFIX = ".bin";
+    private static final String OUTPUT_SUFFIX = ".log";
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private final JudgeSandbox judgeSandbox;
+    private final boolean enabled;
+    private final Path cacheDir;
+    private final long maxBytes;
+    private final Counter hitCounter;
+    private final Counter missCounter;
+
+    // 访问顺序，首个即最久未使用；由 this 保护
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private long totalBytes;
+
+    public CompileCache(JudgeSandbox judgeSandbox, JudgeProperties judgeProperties, MeterRegistry meterRegistry) {
+        JudgeProperties.CompileCache properties = judgeProperties.getCompileCache();
+        this.judgeSandbox = judgeSandbox;
+        this.enabled = properties.isEnabled();
+        this.cacheDir = Paths.get(properties.getDir()).toAbsolutePath().normalize();
+        this.maxBytes = properties.getMaxBytes();
+        this.hitCounter = Counter.builder("lunaroj.judge.compile.cache")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.missCounter = Counter.builder("lunaroj.judge.compile.cache")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        Gauge.builder("lunaroj.judge.compile.cache.bytes", this, CompileCache::totalBytes).register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void loadExisting() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        Files.createDirectories(cacheDir);
+        List<Path> artifacts = new ArrayList<>();
+        List<Path> files = new ArrayList<>();
+        try (Stream<Path> stream = Files.list(cacheDir)) {
+            stream.filter(Files::isRegularFile).forEach(files::add);
+        }
+        for (Path file : files) {
+            String name = file.getFileName().toString();
+            if (name.endsWith(TEMP_SUFFIX)) {
+                Files.deleteIfExists(file);
+            } else if (name.endsWith(ARTIFACT_SUFFIX)) {
+                artifacts.add(file);
+            }
+        }
+        artifacts.sort(Comparator.comparingLong(CompileCache::lastModifiedMillis));
+        synchronized (this) {
+            for (Path artifact : artifacts) {
+                String name = artifact.getFileName().toString();
+                Entry entry = new Entry(name.substring(0, name.length() - ARTIFACT_SUFFIX.length()));
+                entry.ready = true;
+                entry.size = sizeOf(entry);
+                entries.put(entry.key, entry);
+                totalBytes += entry.size;
+            }
+        }
+        log.info("编译缓存已加载: dir={}, artifacts={}, bytes={}", cacheDir, entries.size(), totalBytes);
+        evictIfNeeded();
+    }
+
+    /**
+     * 与 {@link JudgeSandbox#compile} 语义相同：成功时返回的 artifactId 由调用方释放。
+     */
+    public CompileResult compile(SubmissionLanguage language, String code) {
+        if (!enabled) {
+            return judgeSandbox.compile(language, code);
+        }
+        String key = keyOf(language, judgeSandbox.compileFingerprint(language), code);
+        Entry entry;
+        synchronized (this) {
+            entry = entries.computeIfAbsent(key, Entry::new);
+            entry.refCount++;
+        }
+        try {
+            // 持锁期间会阻塞在沙箱 HTTP 调用上；评测跑在虚拟线程上，用 ReentrantLock 而非 synchronized，避免钉住载体线程
+            entry.lock.lock();
+            try {
+                if (entry.ready) {
+                    CompileResult cached = restore(entry);
+                    if (cached != null) {
+                        hitCounter.increment();
+                        return cached;
+                    }
+                }
+                missCounter.increment();
+                CompileResult result = judgeSandbox.compile(language, code);
+                if (result.isSuccess()) {
+                    store(entry, result);
+                }
+                return result;
+            } finally {
+                entry.lock.unlock();
+            }
+        } finally {
+            release(entry);
+            evictIfNeeded();
+        }
+    }
+
+    synchronized long totalBytes() {
+        return totalBytes;
+    }
+
+    /**
+     * 本地文件缺失或损坏时丢弃条目并返回 null，由调用方重新编译；上传到沙箱失败不是条目的问题，原样抛出，条目保留。
+     */
+    private CompileResult restore(Entry entry) {
+        String output;
+        try {
+            if (sizeOf(entry) != entry.size) {
+                throw new IOException("size changed");
+            }
+            Path outputFile = outputFile(entry);
+            output = Files.exists(outputFile) ? Files.readString(outputFile) : "";
+        } catch (IOException ex) {
+            log.warn("编译缓存文件缺失或损坏，重新编译: key={}, error={}", entry.key, ex.getMessage());
+            discard(entry);
+            return null;
+        }
+        try {
+            return CompileResult.success(judgeSandbox.importArtifact(artifactFile(entry)), output);
+        } catch (IOException ex) {
+            throw new IllegalStateException("sandbox artifact import failed: " + ex.getMessage(), ex);
+        }
+    }
+
+    private void store(Entry entry, CompileResult result) {
+        Path artifactTemp = null;
+        Path outputTemp = null;
+        try {
+            artifactTemp = Files.createTempFile(cacheDir, entry.key, TEMP_SUFFIX);
+            outputTemp = Files.createTempFile(cacheDir, entry.key, TEMP_SUFFIX);
+            judgeSandbox.exportArtifact(result.getArtifactId(), artifactTemp);
+            Files.writeString(outputTemp, result.getOutput() == null ? "" : result.getOutput());
+            // 产物文件最后落盘，存在即表示条目完整
+            Files.move(outputTemp, outputFile(entry), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            Files.move(artifactTemp, artifactFile(entry), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            long size = sizeOf(entry);
+            synchronized (this) {
+                entry.size = size;
+                entry.ready = true;
+                totalBytes += size;
+            }
+        } catch (IOException ex) {
+            log.warn("写入编译缓存失败: key={}, error={}", entry.key, ex.getMessage());
+        } finally {
+            deleteQuietly(artifactTemp);
+            deleteQuietly(outputTemp);
+        }
+    }
+
+    private void discard(Entry entry) {
+        synchronized (this) {
+            totalBytes -= entry.size;
+            entry.size = 0;
+            entry.ready = false;
+        }
+        deleteQuietly(artifactFile(entry));
+        deleteQuietly(outputFile(entry));
+    }
+
+    private synchronized void release(Entry entry) {
+        entry.refCount--;
+        if (entry.refCount == 0 && !entry.ready) {
+            entries.remove(entry.key, entry);
+        }
+    }
+
+    private synchronized void evictIfNeeded() {
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (totalBytes > maxBytes && iterator.hasNext()) {
+            Entry entry = iterator.next();
+            if (entry.refCount > 0 || !entry.ready) {
+                continue;
+            }
+            iterator.remove();
+            totalBytes -= entry.size;
+            // 持锁删除，避免删掉同名条目随后重新写入的文件
+            deleteQuietly(artifactFile(entry));
+            deleteQuietly(outputFile(entry));
+        }
+    }
+
+    private long sizeOf(Entry entry) throws IOException {
+        Path outputFile = outputFile(entry);
+        return Files.size(artifactFile(entry)) + (Files.exists(outputFile) ? Files.size(outputFile) : 0);
+    }
+
+    private Path artifactFile(Entry entry) {
+        return cacheDir.resolve(entry.key + ARTIFACT_SUFFIX);
+    }
+
+    private Path outputFile(Entry entry) {
+        return cacheDir.resolve(entry.key + OUTPUT_SUFFIX);
+    }
+
+    static String keyOf(SubmissionLanguage language, String fingerprint, String code) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+        digest.update(language.name().getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+        digest.update((fingerprint == null ? "" : fingerprint).getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+        digest.update((code == null ? "" : code).getBytes(StandardCharsets.UTF_8));
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ex) {
+            log.warn("删除编译缓存文件失败: file={}, error={}", file, ex.getMessage());
+        }
+    }
+
+    private static long lastModifiedMillis(Path file) {
+        try {
+            return Files.getLastModifiedTime(file).toMillis();
+        } catch (IOException ex) {
+            return 0L;
+        }
+    }
+
+    private static final class Entry {
+
+        private final String key;
+        // 同一键的编译、恢复串行执行
+        private final ReentrantLock lock = new ReentrantLock();
+        private int refCount;
+        private long size;
+        private volatile boolean ready;
+
+        private Entry(String key) {
+            this.key = key;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.lunaroj.judge.model;
+
+import com.lunaroj.constant.SubmissionStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CaseResult {
+
+    private int sortOrder;
+
+    private SubmissionStatus status;
+
+    private Integer timeMillis;
+
+    private Integer memoryKb;
+}
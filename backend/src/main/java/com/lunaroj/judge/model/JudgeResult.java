@@ -0,0 +1,41 @@
+package com.lunaroj.judge.model;
+
+import com.lunaroj.constant.SubmissionStatus;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class JudgeResult {
+
+    private Long submissionId;
+
+    private SubmissionStatus status;
+
+    // 所有测试点中的最大值，CE 时为 NULL
+    private Integer timeUsed;
+
+    private Integer memoryUsed;
+
+    private int passCount;
+
+    private int totalCount;
+
+    // 满分 100
+    private int score;
+
+    private String compileOutput;
+
+    private List<CaseResult> caseResults = new ArrayList<>();
+
+    private LocalDateTime judgedAt;
+
+    // 延迟拆分：入队等待、编译、运行评测
+    private long queueWaitMillis;
+
+    private long compileMillis;
+
+    private long runMillis;
+}
@@ -0,0 +1,48 @@
+package com.lunaroj.judge.model;
+
+import com.lunaroj.constant.JudgePriority;
+import com.lunaroj.constant.SubmissionLanguage;
+import com.lunaroj.judge.checker.CompareMode;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class JudgeTask {
+
+    private Long submissionId;
+
+    private Long userId;
+
+    private Long problemId;
+
+    // NULL 表示练习提交
+    private Long contestId;
+
+    private LocalDateTime submittedAt;
+
+    private SubmissionLanguage language;
+
+    private String code;
+
+    private JudgePriority priority = JudgePriority.PRACTICE;
+
+    private int timeLimitMillis;
+
+    private int memoryLimitKb;
+
+    // 测试点并行度，0 表示使用 lunaroj.judge.case-parallelism
+    private int caseParallelism;
+
+    private CompareMode compareMode = CompareMode.TRAILING_WHITESPACE;
+
+    // problem.scoring_config 原文，NULL 表示各测试点等分
+    private String scoringConfig;
+
+    private List<TestcaseSpec> testcases = new ArrayList<>();
+
+    // 入队时刻，由调度器写入
+    private long enqueuedAtNanos;
+}
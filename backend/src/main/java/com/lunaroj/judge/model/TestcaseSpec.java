@@ -0,0 +1,19 @@
+package com.lunaroj.judge.model;
+
+import lombok.Data;
+
+@Data
+public class TestcaseSpec {
+
+    private Long testcaseId;
+
+    private int sortOrder;
+
+    private String inputPath;
+
+    private String outputPath;
+
+    private String inputHash;
+
+    private String outputHash;
+}
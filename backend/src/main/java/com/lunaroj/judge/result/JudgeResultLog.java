@@ -0,0 +1,197 @@
+package com.lunaroj.judge.result;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * 评测结果重放日志：每行一条 JSON，写入后 fsync。按段滚动，
+ * 一批结果提交到 MySQL 后删除其所在的段；启动时读回所有残留的段。
+ */
+@Slf4j
+final class JudgeResultLog implements Closeable {
+
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String DEAD_LETTER_FILE = "dead-letter.log";
+
+    private final Path dir;
+    private final ObjectMapper objectMapper;
+
+    // append 内含 fsync，调用方是评测虚拟线程，用 ReentrantLock 而非 synchronized，避免钉住载体线程
+    private final ReentrantLock lock = new ReentrantLock();
+
+    // 已封存、尚未确认写入数据库的段，按序号升序
+    private final List<Path> sealed = new ArrayList<>();
+    private FileChannel current;
+    private Path currentPath;
+    private long nextSequence;
+
+    JudgeResultLog(Path dir, ObjectMapper objectMapper) {
+        this.dir = dir;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * 读回残留的段并开启新段，返回待重放的记录。
+     */
+    List<ResultRecord> open() throws IOException {
+        lock.lock();
+        try {
+            Files.createDirectories(dir);
+            List<Path> segments = new ArrayList<>();
+            try (Stream<Path> stream = Files.list(dir)) {
+                stream.filter(JudgeResultLog::isSegment).forEach(segments::add);
+            }
+            segments.sort(null);
+            List<ResultRecord> records = new ArrayList<>();
+            for (Path segment : segments) {
+                readSegment(segment, records);
+                nextSequence = Math.max(nextSequence, sequenceOf(segment) + 1);
+            }
+            sealed.addAll(segments);
+            openNextSegment();
+            return records;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void append(ResultRecord record) throws IOException {
+        lock.lock();
+        try {
+            write(current, record);
+            current.force(false);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 反复写回失败的记录追加到死信文件，启动时不重放，需人工处理。
+     */
+    void deadLetter(List<ResultRecord> records) throws IOException {
+        if (records.isEmpty()) {
+            return;
+        }
+        lock.lock();
+        try (FileChannel channel = FileChannel.open(dir.resolve(DEAD_LETTER_FILE), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            for (ResultRecord record : records) {
+                write(channel, record);
+            }
+            channel.force(false);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 封存当前段并开启新段，返回此刻所有已封存的段。
+     */
+    List<Path> rotate() throws IOException {
+        lock.lock();
+        try {
+            current.close();
+            sealed.add(currentPath);
+            openNextSegment();
+            return List.copyOf(sealed);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    boolean hasSealed() {
+        lock.lock();
+        try {
+            return !sealed.isEmpty();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 段内记录已提交到数据库后调用。
+     */
+    void delete(List<Path> segments) {
+        lock.lock();
+        try {
+            for (Path segment : segments) {
+                try {
+                    Files.deleteIfExists(segment);
+                    sealed.remove(segment);
+                } catch (IOException ex) {
+                    log.warn("删除评测结果日志段失败: segment={}, error={}", segment, ex.getMessage());
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            if (current != null) {
+                current.close();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void write(FileChannel channel, ResultRecord record) throws IOException {
+        byte[] line = (objectMapper.writeValueAsString(record) + "\n").getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.wrap(line);
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private void openNextSegment() throws IOException {
+        currentPath = dir.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, nextSequence++, SEGMENT_SUFFIX));
+        current = FileChannel.open(currentPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+    }
+
+    private void readSegment(Path segment, List<ResultRecord> records) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(segment, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    records.add(objectMapper.readValue(line, ResultRecord.class));
+                } catch (IOException ex) {
+                    // 崩溃时写了一半的末行
+                    log.warn("跳过无法解析的评测结果日志行: segment={}, error={}", segment, ex.getMessage());
+                }
+            }
+        }
+    }
+
+    private static boolean isSegment(Path file) {
+        String name = file.getFileName().toString();
+        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX) && Files.isRegularFile(file);
+    }
+
+    private static long sequenceOf(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+}
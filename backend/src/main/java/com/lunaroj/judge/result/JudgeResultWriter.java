@@ -0,0 +1,398 @@
+package com.lunaroj.judge.result;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lunaroj.constant.SubmissionStatus;
+import com.lunaroj.judge.JudgeProperties;
+import com.lunaroj.judge.JudgeResultListener;
+import com.lunaroj.judge.model.CaseResult;
+import com.lunaroj.judge.model.JudgeResult;
+import com.lunaroj.judge.model.JudgeTask;
+import com.lunaroj.mapper.ProblemMapper;
+import com.lunaroj.mapper.SubmissionCodeMapper;
+import com.lunaroj.mapper.SubmissionMapper;
+import com.lunaroj.model.entity.ProblemEntity;
+import com.lunaroj.model.entity.SubmissionCodeEntity;
+import com.lunaroj.model.entity.SubmissionEntity;
+import com.lunaroj.submission.SubmissionCodeTableRouter;
+import com.lunaroj.submission.SubmissionPartitions;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * 评测结果批量写回：结果先写入重放日志再进入内存队列，定时把一批结果合并为多行 UPDATE
+ * (submission、submission_code、problem 计数) 在一个事务内提交，提交成功后删除对应日志段。
+ * 同一提交在一批内多次出现时只写最后一次；题目计数由提交原状态到新状态的变化得出，
+ * 重放已提交的记录或重复写回同一结果不会重复累加，按题目 id 升序更新以固定加锁顺序。
+ * 一批写回失败且不是数据库暂时不可用时，二分拆开分别提交，单条记录连续失败 maxAttempts 次后移入死信文件，
+ * 不会因为一条坏记录堵住后面所有结果。
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "lunaroj.judge", name = "enabled", havingValue = "true")
+public class JudgeResultWriter implements JudgeResultListener {
+
+    private static final int APPEND_ATTEMPTS = 3;
+    private static final long APPEND_RETRY_BACKOFF_MILLIS = 50;
+
+    private final SubmissionMapper submissionMapper;
+    private final SubmissionCodeMapper submissionCodeMapper;
+    private final ProblemMapper problemMapper;
+    private final TransactionOperations transactionOperations;
+    private final ObjectMapper objectMapper;
+    private final JudgeResultLog resultLog;
+    private final int maxBatchSize;
+    private final int maxAttempts;
+
+    // 单条记录连续写回失败的次数，仅由 flush 访问
+    private final Map<Long, Integer> failedAttempts = new HashMap<>();
+
+    // 由 pendingLock 保护；追加日志与入队在同一把锁内，保证日志滚动与队列交换一致。
+    // 追加日志含 fsync，调用方是评测虚拟线程，用 ReentrantLock 而非 synchronized，避免钉住载体线程
+    private final ReentrantLock pendingLock = new ReentrantLock();
+    private List<ResultRecord> pending = new ArrayList<>();
+
+    public JudgeResultWriter(
+            SubmissionMapper submissionMapper,
+            SubmissionCodeMapper submissionCodeMapper,
+            ProblemMapper problemMapper,
+            TransactionOperations transactionOperations,
+            ObjectMapper objectMapper,
+            JudgeProperties judgeProperties
+    ) {
+        this.submissionMapper = submissionMapper;
+        this.submissionCodeMapper = submissionCodeMapper;
+        this.problemMapper = problemMapper;
+        this.transactionOperations = transactionOperations;
+        this.objectMapper = objectMapper;
+        this.resultLog = new JudgeResultLog(
+                Paths.get(judgeProperties.getResultWriter().getLogDir()).toAbsolutePath().normalize(),
+                objectMapper
+        );
+        this.maxBatchSize = Math.max(1, judgeProperties.getResultWriter().getMaxBatchSize());
+        this.maxAttempts = Math.max(1, judgeProperties.getResultWriter().getMaxAttempts());
+    }
+
+    @PostConstruct
+    public void recover() throws IOException {
+        List<ResultRecord> replayed = resultLog.open();
+        if (!replayed.isEmpty()) {
+            pendingLock.lock();
+            try {
+                replayed.addAll(pending);
+                pending = replayed;
+            } finally {
+                pendingLock.unlock();
+            }
+            log.info("重放评测结果日志: records={}", replayed.size());
+        }
+    }
+
+    /**
+     * 写入重放日志失败时短暂退避后重试；仍失败则只放入内存队列照常写回，不丢弃结果，
+     * 否则提交会一直停在评测中。这样的结果在写回前进程崩溃会丢失。
+     */
+    @Override
+    public void onJudged(JudgeTask task, JudgeResult result) {
+        ResultRecord record = toRecord(task, result);
+        for (int attempt = 1; ; attempt++) {
+            boolean lastAttempt = attempt >= APPEND_ATTEMPTS || Thread.currentThread().isInterrupted();
+            pendingLock.lock();
+            try {
+                resultLog.append(record);
+                pending.add(record);
+                return;
+            } catch (IOException ex) {
+                if (lastAttempt) {
+                    log.error("写入评测结果日志失败，结果仅保留在内存中等待写回: submissionId={}",
+                            record.getSubmissionId(), ex);
+                    pending.add(record);
+                    return;
+                }
+                log.warn("写入评测结果日志失败，稍后重试: submissionId={}, attempt={}, error={}",
+                        record.getSubmissionId(), attempt, ex.getMessage());
+            } finally {
+                pendingLock.unlock();
+            }
+            try {
+                Thread.sleep(APPEND_RETRY_BACKOFF_MILLIS * attempt);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Scheduled(
+            initialDelayString = "${lunaroj.judge.result-writer.flush-interval-millis:200}",
+            fixedDelayString = "${lunaroj.judge.result-writer.flush-interval-millis:200}"
+    )
+    public synchronized void flush() {
+        List<ResultRecord> batch;
+        List<Path> segments;
+        pendingLock.lock();
+        try {
+            if (pending.isEmpty() && !resultLog.hasSealed()) {
+                return;
+            }
+            try {
+                segments = resultLog.rotate();
+            } catch (IOException ex) {
+                log.error("滚动评测结果日志失败，本轮不写回", ex);
+                return;
+            }
+            batch = pending;
+            pending = new ArrayList<>();
+        } finally {
+            pendingLock.unlock();
+        }
+        List<ResultRecord> retained = new ArrayList<>();
+        List<ResultRecord> poisoned = new ArrayList<>();
+        int written = writeSplitting(latestBySubmission(batch), retained, poisoned);
+        if (written == 0 && poisoned.isEmpty() && !retained.isEmpty()) {
+            // 整批未写入，日志段原样保留
+            requeue(retained);
+            return;
+        }
+        try {
+            resultLog.deadLetter(poisoned);
+            // 保留的记录先写入新段，才能删除旧段
+            for (ResultRecord record : retained) {
+                resultLog.append(record);
+            }
+        } catch (IOException ex) {
+            log.error("写入评测结果日志失败，保留旧日志段", ex);
+            retained.addAll(poisoned);
+            requeue(retained);
+            return;
+        }
+        requeue(retained);
+        resultLog.delete(segments);
+    }
+
+    @PreDestroy
+    public void shutdown() throws IOException {
+        flush();
+        resultLog.close();
+    }
+
+    int pendingCount() {
+        pendingLock.lock();
+        try {
+            return pending.size();
+        } finally {
+            pendingLock.unlock();
+        }
+    }
+
+    /**
+     * 在一个事务内写回 records，失败且非暂时性错误时二分重试；返回写入成功的记录数。
+     */
+    private int writeSplitting(List<ResultRecord> records, List<ResultRecord> retained, List<ResultRecord> poisoned) {
+        if (records.isEmpty()) {
+            return 0;
+        }
+        try {
+            transactionOperations.executeWithoutResult(status -> write(records));
+            for (ResultRecord record : records) {
+                failedAttempts.remove(record.getSubmissionId());
+            }
+            return records.size();
+        } catch (Exception ex) {
+            if (isTransient(ex)) {
+                log.warn("评测结果写回失败，等待下次重试: records={}, error={}", records.size(), ex.getMessage());
+                retained.addAll(records);
+                return 0;
+            }
+            if (records.size() > 1) {
+                int mid = records.size() / 2;
+                return writeSplitting(records.subList(0, mid), retained, poisoned)
+                        + writeSplitting(records.subList(mid, records.size()), retained, poisoned);
+            }
+            ResultRecord record = records.get(0);
+            int attempts = failedAttempts.merge(record.getSubmissionId(), 1, Integer::sum);
+            if (attempts >= maxAttempts) {
+                log.error("评测结果写回失败次数达到上限，移入死信文件: submissionId={}, attempts={}",
+                        record.getSubmissionId(), attempts, ex);
+                failedAttempts.remove(record.getSubmissionId());
+                poisoned.add(record);
+            } else {
+                log.warn("评测结果写回失败，等待下次重试: submissionId={}, attempts={}, error={}",
+                        record.getSubmissionId(), attempts, ex.getMessage());
+                retained.add(record);
+            }
+            return 0;
+        }
+    }
+
+    private void requeue(List<ResultRecord> records) {
+        if (records.isEmpty()) {
+            return;
+        }
+        pendingLock.lock();
+        try {
+            records.addAll(pending);
+            pending = records;
+        } finally {
+            pendingLock.unlock();
+        }
+    }
+
+    /**
+     * records 已按提交去重并按 id 升序。
+     */
+    private void write(List<ResultRecord> records) {
+        // 加锁读出原状态，计数按状态变化累加，重复写回同一结果时增量为 0
+        Map<Long, Integer> previousStatus = new HashMap<>();
+        List<Long> ids = records.stream().map(ResultRecord::getSubmissionId).toList();
+        inChunks(ids, chunk -> submissionMapper.selectStatusForUpdate(chunk)
+                .forEach(row -> previousStatus.put(row.getId(), row.getStatus())));
+        Map<Long, ProblemEntity> deltas = new TreeMap<>();
+        for (ResultRecord record : records) {
+            if (record.getProblemId() == null) {
+                continue;
+            }
+            Integer previous = previousStatus.get(record.getSubmissionId());
+            int submitDelta = countedInSubmits(record.getStatus()) - (previous != null ? countedInSubmits(previous) : 0);
+            int acceptDelta = accepted(record.getStatus()) - (previous != null ? accepted(previous) : 0);
+            if (submitDelta == 0 && acceptDelta == 0) {
+                continue;
+            }
+            ProblemEntity delta = deltas.computeIfAbsent(record.getProblemId(), problemId -> {
+                ProblemEntity entity = new ProblemEntity();
+                entity.setId(problemId);
+                entity.setAcceptCount(0);
+                entity.setSubmitCount(0);
+                return entity;
+            });
+            delta.setSubmitCount(delta.getSubmitCount() + submitDelta);
+            delta.setAcceptCount(delta.getAcceptCount() + acceptDelta);
+        }
+        List<SubmissionEntity> submissions = new ArrayList<>(records.size());
+        // submission_code 按月分表，每个月表各自批量更新
+        Map<YearMonth, List<SubmissionCodeEntity>> codesByMonth = new TreeMap<>();
+        for (ResultRecord record : records) {
+            submissions.add(toSubmission(record));
+            codesByMonth.computeIfAbsent(SubmissionPartitions.monthOf(record.getSubmissionId()), month -> new ArrayList<>())
+                    .add(toSubmissionCode(record));
+        }
+        inChunks(submissions, submissionMapper::updateJudgeResultBatch);
+        codesByMonth.forEach((month, codes) -> SubmissionCodeTableRouter.route(month, () -> {
+            inChunks(codes, submissionCodeMapper::updateJudgeOutputBatch);
+            return null;
+        }));
+        inChunks(new ArrayList<>(deltas.values()), problemMapper::addCountsBatch);
+    }
+
+    private static List<ResultRecord> latestBySubmission(List<ResultRecord> batch) {
+        Map<Long, ResultRecord> latest = new TreeMap<>();
+        for (ResultRecord record : batch) {
+            latest.put(record.getSubmissionId(), record);
+        }
+        return new ArrayList<>(latest.values());
+    }
+
+    // 终态才计入提交数；SE 是系统原因，之后会重判，不计入题目统计
+    private static int countedInSubmits(int status) {
+        return status >= SubmissionStatus.AC.getCode() && status != SubmissionStatus.SE.getCode() ? 1 : 0;
+    }
+
+    private static int accepted(int status) {
+        return status == SubmissionStatus.AC.getCode() ? 1 : 0;
+    }
+
+    private static boolean isTransient(Throwable ex) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof TransientDataAccessException
+                    || cause instanceof RecoverableDataAccessException
+                    || cause instanceof DataAccessResourceFailureException
+                    || cause instanceof CannotCreateTransactionException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private <T> void inChunks(List<T> rows, Consumer<List<T>> statement) {
+        for (int from = 0; from < rows.size(); from += maxBatchSize) {
+            statement.accept(rows.subList(from, Math.min(rows.size(), from + maxBatchSize)));
+        }
+    }
+
+    private ResultRecord toRecord(JudgeTask task, JudgeResult result) {
+        ResultRecord record = new ResultRecord();
+        record.setSubmissionId(task.getSubmissionId());
+        record.setProblemId(task.getProblemId());
+        record.setStatus(result.getStatus().getCode());
+        record.setScore(result.getScore());
+        record.setTimeUsed(result.getTimeUsed());
+        record.setMemoryUsed(result.getMemoryUsed());
+        record.setPassCount(result.getPassCount());
+        record.setTotalCount(result.getTotalCount());
+        record.setJudgedAt(result.getJudgedAt());
+        record.setCompileOutput(result.getCompileOutput());
+        if (result.getStatus() != SubmissionStatus.CE) {
+            record.setCaseResults(caseResultsJson(result.getCaseResults()));
+        }
+        return record;
+    }
+
+    private String caseResultsJson(List<CaseResult> caseResults) {
+        List<Map<String, Object>> items = new ArrayList<>(caseResults.size());
+        for (CaseResult caseResult : caseResults) {
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("sortOrder", caseResult.getSortOrder());
+            item.put("status", caseResult.getStatus().getCode());
+            item.put("timeMillis", caseResult.getTimeMillis());
+            item.put("memoryKb", caseResult.getMemoryKb());
+            items.add(item);
+        }
+        try {
+            return objectMapper.writeValueAsString(items);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static SubmissionEntity toSubmission(ResultRecord record) {
+        SubmissionEntity submission = new SubmissionEntity();
+        submission.setId(record.getSubmissionId());
+        submission.setStatus(record.getStatus());
+        submission.setScore(record.getScore());
+        submission.setTimeUsed(record.getTimeUsed());
+        submission.setMemoryUsed(record.getMemoryUsed());
+        submission.setPassCount(record.getPassCount());
+        submission.setTotalCount(record.getTotalCount());
+        submission.setJudgedAt(record.getJudgedAt());
+        return submission;
+    }
+
+    private static SubmissionCodeEntity toSubmissionCode(ResultRecord record) {
+        SubmissionCodeEntity code = new SubmissionCodeEntity();
+        code.setSubmissionId(record.getSubmissionId());
+        code.setCompileOutput(record.getCompileOutput());
+        code.setCaseResults(record.getCaseResults());
+        return code;
+    }
+}
@@ -0,0 +1,35 @@
+package com.lunaroj.judge.result;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 一次评测完成需要写回数据库的全部内容，也是重放日志中的一行。
+ */
+@Data
+public class ResultRecord {
+
+    private Long submissionId;
+
+    private Long problemId;
+
+    private int status;
+
+    private int score;
+
+    private Integer timeUsed;
+
+    private Integer memoryUsed;
+
+    private int passCount;
+
+    private int totalCount;
+
+    private LocalDateTime judgedAt;
+
+    private String compileOutput;
+
+    // submission_code.case_results 的 JSON 原文，CE 时为 NULL
+    private String caseResults;
+}
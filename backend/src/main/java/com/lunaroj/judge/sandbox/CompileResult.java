@@ -0,0 +1,26 @@
+package com.lunaroj.judge.sandbox;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CompileResult {
+
+    private boolean success;
+
+    // 沙箱内缓存的可执行文件标识，编译失败时为 NULL
+    private String artifactId;
+
+    private String output;
+
+    public static CompileResult success(String artifactId, String output) {
+        return new CompileResult(true, artifactId, output);
+    }
+
+    public static CompileResult failure(String output) {
+        return new CompileResult(false, null, output);
+    }
+}
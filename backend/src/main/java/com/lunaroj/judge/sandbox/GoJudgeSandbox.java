@@ -0,0 +1,277 @@
+package com.lunaroj.judge.sandbox;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lunaroj.constant.SubmissionLanguage;
+import com.lunaroj.judge.JudgeProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * go-judge REST 后端：编译产物通过 copyOutCached 留在 go-judge 文件缓存中，运行时按 fileId 拷入。
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "lunaroj.judge", name = "enabled", havingValue = "true")
+public class GoJudgeSandbox implements JudgeSandbox {
+
+    private static final List<String> ENV = List.of("PATH=/usr/local/bin:/usr/bin:/bin", "HOME=/tmp");
+    private static final long COMPILE_CPU_LIMIT_NANOS = 10_000_000_000L;
+    private static final long COMPILE_MEMORY_LIMIT_BYTES = 512L * 1024 * 1024;
+    private static final int COMPILE_OUTPUT_LIMIT_BYTES = 64 * 1024;
+    private static final int STDERR_LIMIT_BYTES = 10 * 1024;
+    private static final int PROC_LIMIT = 64;
+
+    private record LanguageProfile(String sourceName, String artifactName, List<String> compileArgs, List<String> runArgs) {
+    }
+
+    private static final Map<SubmissionLanguage, LanguageProfile> PROFILES = Map.of(
+            SubmissionLanguage.CPP, new LanguageProfile(
+                    "main.cpp", "main",
+                    List.of("/usr/bin/g++", "main.cpp", "-o", "main", "-O2", "-std=c++20", "-DONLINE_JUDGE", "-lm"),
+                    List.of("main")
+            ),
+            SubmissionLanguage.C, new LanguageProfile(
+                    "main.c", "main",
+                    List.of("/usr/bin/gcc", "main.c", "-o", "main", "-O2", "-std=c11", "-DONLINE_JUDGE", "-lm"),
+                    List.of("main")
+            ),
+            SubmissionLanguage.PYTHON, new LanguageProfile(
+                    "main.py", "main.py",
+                    List.of("/usr/bin/python3", "-m", "py_compile", "main.py"),
+                    List.of("/usr/bin/python3", "main.py")
+            ),
+            SubmissionLanguage.JAVA, new LanguageProfile(
+                    "Main.java", "Main.jar",
+                    List.of("/bin/sh", "-c", "javac -encoding UTF-8 Main.java && jar cf Main.jar *.class"),
+                    List.of("/usr/bin/java", "-cp", "Main.jar", "Main")
+            )
+    );
+
+    private final JudgeProperties judgeProperties;
+    private final ObjectMapper objectMapper;
+    private final HttpClient httpClient;
+
+    public GoJudgeSandbox(JudgeProperties judgeProperties, ObjectMapper objectMapper) {
+        this.judgeProperties = judgeProperties;
+        this.objectMapper = objectMapper;
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    @Override
+    public CompileResult compile(SubmissionLanguage language, String code) {
+        LanguageProfile profile = profileOf(language);
+        Map<String, Object> cmd = new LinkedHashMap<>();
+        cmd.put("args", profile.compileArgs());
+        cmd.put("env", ENV);
+        cmd.put("files", List.of(
+                Map.of("content", ""),
+                Map.of("name", "stdout", "max", COMPILE_OUTPUT_LIMIT_BYTES),
+                Map.of("name", "stderr", "max", COMPILE_OUTPUT_LIMIT_BYTES)
+        ));
+        cmd.put("cpuLimit", COMPILE_CPU_LIMIT_NANOS);
+        cmd.put("clockLimit", COMPILE_CPU_LIMIT_NANOS * 2);
+        cmd.put("memoryLimit", COMPILE_MEMORY_LIMIT_BYTES);
+        cmd.put("procLimit", PROC_LIMIT);
+        cmd.put("copyIn", Map.of(profile.sourceName(), Map.of("content", code == null ? "" : code)));
+        cmd.put("copyOut", List.of("stdout", "stderr"));
+        cmd.put("copyOutCached", List.of(profile.artifactName()));
+
+        JsonNode result = execute(cmd);
+        String output = (result.path("files").path("stdout").asText("") + result.path("files").path("stderr").asText("")).strip();
+        String artifactId = result.path("fileIds").path(profile.artifactName()).asText(null);
+        if (!"Accepted".equals(result.path("status").asText()) || artifactId == null) {
+            if (artifactId != null) {
+                release(artifactId);
+            }
+            return CompileResult.failure(output.isEmpty() ? result.path("error").asText("") : output);
+        }
+        return CompileResult.success(artifactId, output);
+    }
+
+    @Override
+    public RunResult run(RunRequest request) {
+        LanguageProfile profile = profileOf(request.getLanguage());
+        long cpuLimitNanos = request.getTimeLimitMillis() * 1_000_000L;
+        Map<String, Object> cmd = new LinkedHashMap<>();
+        cmd.put("args", profile.runArgs());
+        cmd.put("env", ENV);
+        cmd.put("files", List.of(
+                Map.of("src", request.getInputFile().toAbsolutePath().toString()),
+                Map.of("name", "stdout", "max", request.getOutputLimitBytes()),
+                Map.of("name", "stderr", "max", STDERR_LIMIT_BYTES)
+        ));
+        cmd.put("cpuLimit", cpuLimitNanos);
+        cmd.put("clockLimit", cpuLimitNanos * 3);
+        cmd.put("memoryLimit", request.getMemoryLimitKb() * 1024L);
+        cmd.put("procLimit", PROC_LIMIT);
+        cmd.put("copyIn", Map.of(profile.artifactName(), Map.of("fileId", request.getArtifactId())));
+        // stdout 留在 go-judge 文件缓存中再按原始字节下载：内联在 JSON 里会被当作 UTF-8 字符串解码，
+        // 非法字节被替换，逐字节比对随之失真
+        cmd.put("copyOut", List.of("stderr"));
+        cmd.put("copyOutCached", List.of("stdout"));
+
+        JsonNode result = execute(cmd);
+        RunResult runResult = new RunResult();
+        runResult.setStatus(mapStatus(result.path("status").asText()));
+        runResult.setTimeMillis((int) (result.path("time").asLong() / 1_000_000L));
+        runResult.setMemoryKb((int) (result.path("memory").asLong() / 1024L));
+        runResult.setStdout(downloadOutput(result.path("fileIds").path("stdout").asText(null)));
+        runResult.setMessage(result.path("files").path("stderr").asText(null));
+        return runResult;
+    }
+
+    @Override
+    public void release(String artifactId) {
+        if (artifactId == null) {
+            return;
+        }
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl() + "/file/" + artifactId))
+                .timeout(Duration.ofMillis(judgeProperties.getGoJudge().getRequestTimeoutMillis()))
+                .DELETE()
+                .build();
+        try {
+            httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+        } catch (IOException ex) {
+            log.warn("删除 go-judge 缓存文件失败: fileId={}, error={}", artifactId, ex.getMessage());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public String compileFingerprint(SubmissionLanguage language) {
+        return judgeProperties.getGoJudge().getCompilerVersion() + "\n" + String.join(" ", profileOf(language).compileArgs());
+    }
+
+    @Override
+    public void exportArtifact(String artifactId, Path target) throws IOException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl() + "/file/" + artifactId))
+                .timeout(Duration.ofMillis(judgeProperties.getGoJudge().getRequestTimeoutMillis()))
+                .GET()
+                .build();
+        HttpResponse<Path> response = send(request, HttpResponse.BodyHandlers.ofFile(target));
+        if (response.statusCode() != 200) {
+            throw new IOException("go-judge responded " + response.statusCode() + " for file " + artifactId);
+        }
+    }
+
+    @Override
+    public String importArtifact(Path source) throws IOException {
+        String boundary = "lunaroj-" + UUID.randomUUID();
+        byte[] head = ("--" + boundary + "\r\n"
+                + "Content-Disposition: form-data; name=\"file\"; filename=\"" + source.getFileName() + "\"\r\n"
+                + "Content-Type: application/octet-stream\r\n\r\n").getBytes(StandardCharsets.UTF_8);
+        byte[] tail = ("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.UTF_8);
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl() + "/file"))
+                .timeout(Duration.ofMillis(judgeProperties.getGoJudge().getRequestTimeoutMillis()))
+                .header("Content-Type", "multipart/form-data; boundary=" + boundary)
+                .POST(HttpRequest.BodyPublishers.concat(
+                        HttpRequest.BodyPublishers.ofByteArray(head),
+                        HttpRequest.BodyPublishers.ofFile(source),
+                        HttpRequest.BodyPublishers.ofByteArray(tail)
+                ))
+                .build();
+        HttpResponse<byte[]> response = send(request, HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != 200) {
+            throw new IOException("go-judge responded " + response.statusCode() + " when uploading " + source);
+        }
+        // 响应体是 JSON 字符串形式的 fileId
+        return objectMapper.readValue(response.body(), String.class);
+    }
+
+    private byte[] downloadOutput(String fileId) {
+        if (fileId == null) {
+            return new byte[0];
+        }
+        try {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl() + "/file/" + fileId))
+                    .timeout(Duration.ofMillis(judgeProperties.getGoJudge().getRequestTimeoutMillis()))
+                    .GET()
+                    .build();
+            HttpResponse<byte[]> response = send(request, HttpResponse.BodyHandlers.ofByteArray());
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("go-judge responded " + response.statusCode() + " for file " + fileId);
+            }
+            return response.body();
+        } catch (IOException ex) {
+            throw new IllegalStateException("go-judge request failed: " + ex.getMessage(), ex);
+        } finally {
+            release(fileId);
+        }
+    }
+
+    private <T> HttpResponse<T> send(HttpRequest request, HttpResponse.BodyHandler<T> bodyHandler) throws IOException {
+        try {
+            return httpClient.send(request, bodyHandler);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IOException("go-judge request interrupted", ex);
+        }
+    }
+
+    private JsonNode execute(Map<String, Object> cmd) {
+        try {
+            byte[] body = objectMapper.writeValueAsBytes(Map.of("cmd", List.of(cmd)));
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl() + "/run"))
+                    .timeout(Duration.ofMillis(judgeProperties.getGoJudge().getRequestTimeoutMillis()))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+                    .build();
+            HttpResponse<byte[]> response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("go-judge responded " + response.statusCode());
+            }
+            JsonNode results = objectMapper.readTree(response.body());
+            if (!results.isArray() || results.isEmpty()) {
+                throw new IllegalStateException("go-judge returned no result");
+            }
+            return results.get(0);
+        } catch (IOException ex) {
+            throw new IllegalStateException("go-judge request failed: " + ex.getMessage(), ex);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("go-judge request interrupted", ex);
+        }
+    }
+
+    private RunStatus mapStatus(String status) {
+        return switch (status) {
+            case "Accepted" -> RunStatus.OK;
+            case "Time Limit Exceeded" -> RunStatus.TIME_LIMIT_EXCEEDED;
+            case "Memory Limit Exceeded" -> RunStatus.MEMORY_LIMIT_EXCEEDED;
+            case "Output Limit Exceeded" -> RunStatus.OUTPUT_LIMIT_EXCEEDED;
+            case "Nonzero Exit Status", "Signalled" -> RunStatus.RUNTIME_ERROR;
+            default -> RunStatus.SYSTEM_ERROR;
+        };
+    }
+
+    private LanguageProfile profileOf(SubmissionLanguage language) {
+        LanguageProfile profile = PROFILES.get(language);
+        if (profile == null) {
+            throw new IllegalArgumentException("language not supported by sandbox: " + language);
+        }
+        return profile;
+    }
+
+    private String baseUrl() {
+        String baseUrl = judgeProperties.getGoJudge().getBaseUrl();
+        return baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+    }
+}
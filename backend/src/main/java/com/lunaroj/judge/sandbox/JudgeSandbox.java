@@ -0,0 +1,33 @@
+package com.lunaroj.judge.sandbox;
+
+import com.lunaroj.constant.SubmissionLanguage;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * 沙箱后端。编译产物留在沙箱侧，通过 artifactId 引用，评测结束后由调用方释放。
+ */
+public interface JudgeSandbox {
+
+    CompileResult compile(SubmissionLanguage language, String code);
+
+    RunResult run(RunRequest request);
+
+    void release(String artifactId);
+
+    /**
+     * 编译器与编译参数的描述，参与编译缓存的键；编译命令变化后旧缓存自然失效。
+     */
+    String compileFingerprint(SubmissionLanguage language);
+
+    /**
+     * 把沙箱中的编译产物下载到本地文件。
+     */
+    void exportArtifact(String artifactId, Path target) throws IOException;
+
+    /**
+     * 把本地编译产物上传到沙箱，返回新的 artifactId，同样需要调用方释放。
+     */
+    String importArtifact(Path source) throws IOException;
+}
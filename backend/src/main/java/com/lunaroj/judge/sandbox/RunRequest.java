@@ -0,0 +1,22 @@
+package com.lunaroj.judge.sandbox;
+
+import com.lunaroj.constant.SubmissionLanguage;
+import lombok.Data;
+
+import java.nio.file.Path;
+
+@Data
+public class RunRequest {
+
+    private SubmissionLanguage language;
+
+    private String artifactId;
+
+    private Path inputFile;
+
+    private int timeLimitMillis;
+
+    private int memoryLimitKb;
+
+    private long outputLimitBytes;
+}
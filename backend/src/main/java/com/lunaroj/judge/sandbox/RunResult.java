@@ -0,0 +1,17 @@
+package com.lunaroj.judge.sandbox;
+
+import lombok.Data;
+
+@Data
+public class RunResult {
+
+    private RunStatus status;
+
+    private int timeMillis;
+
+    private int memoryKb;
+
+    private byte[] stdout;
+
+    private String message;
+}
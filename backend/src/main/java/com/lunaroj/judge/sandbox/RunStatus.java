@@ -0,0 +1,11 @@
+package com.lunaroj.judge.sandbox;
+
+public enum RunStatus {
+    // 正常退出，输出待比对
+    OK,
+    TIME_LIMIT_EXCEEDED,
+    MEMORY_LIMIT_EXCEEDED,
+    OUTPUT_LIMIT_EXCEEDED,
+    RUNTIME_ERROR,
+    SYSTEM_ERROR
+}
@@ -0,0 +1,77 @@
+package com.lunaroj.judge.scoring;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 解析后的 problem.scoring_config，满分 100。
+ * <ul>
+ *     <li>缺省或 {@code {"type":"case"}}：各测试点等分，逐个全部评测</li>
+ *     <li>{@code {"type":"all"}}：全部通过才得满分，首个失败的测试点之后不再评测</li>
+ *     <li>{@code {"type":"group","groups":[{"score":30,"cases":[1,2]},...]}}：子任务，
+ *     cases 为测试点 sort_order；组内全部通过才得该组分数，组内首个失败后跳过该组余下测试点；
+ *     未归入任何组的测试点照常评测但不计分</li>
+ * </ul>
+ */
+public final class ScoringConfig {
+
+    public static final int FULL_SCORE = 100;
+
+    public static final ScoringConfig PER_CASE = new ScoringConfig(Type.PER_CASE, List.of());
+    public static final ScoringConfig ALL_OR_NOTHING = new ScoringConfig(
+            Type.ALL_OR_NOTHING,
+            List.of(new Group(FULL_SCORE, List.of()))
+    );
+
+    public enum Type {
+        PER_CASE,
+        ALL_OR_NOTHING,
+        GROUP
+    }
+
+    public record Group(int score, List<Integer> cases) {
+    }
+
+    private final Type type;
+    private final List<Group> groups;
+    private final Map<Integer, Integer> groupBySortOrder = new HashMap<>();
+
+    private ScoringConfig(Type type, List<Group> groups) {
+        this.type = type;
+        this.groups = List.copyOf(groups);
+        for (int index = 0; index < this.groups.size(); index++) {
+            for (Integer sortOrder : this.groups.get(index).cases()) {
+                // 同一测试点出现在多个组时以第一个为准
+                groupBySortOrder.putIfAbsent(sortOrder, index);
+            }
+        }
+    }
+
+    public static ScoringConfig grouped(List<Group> groups) {
+        return new ScoringConfig(Type.GROUP, groups);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public List<Group> getGroups() {
+        return groups;
+    }
+
+    /**
+     * 测试点所属组的下标；-1 表示不属于任何组，失败后不影响其他测试点。
+     */
+    public int groupOf(int sortOrder) {
+        return switch (type) {
+            case PER_CASE -> -1;
+            case ALL_OR_NOTHING -> 0;
+            case GROUP -> groupBySortOrder.getOrDefault(sortOrder, -1);
+        };
+    }
+
+    public int groupScore(int group) {
+        return groups.get(group).score();
+    }
+}
@@ -0,0 +1,65 @@
+package com.lunaroj.judge.scoring;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 解析 problem.scoring_config。格式不合法时按各测试点等分处理，不让评测因配置问题失败。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ScoringConfigParser {
+
+    private final ObjectMapper objectMapper;
+
+    public ScoringConfig parse(String scoringConfig) {
+        if (!StringUtils.hasText(scoringConfig)) {
+            return ScoringConfig.PER_CASE;
+        }
+        try {
+            JsonNode root = objectMapper.readTree(scoringConfig);
+            String type = root.path("type").asText("case").toLowerCase(Locale.ROOT);
+            return switch (type) {
+                case "case" -> ScoringConfig.PER_CASE;
+                case "all" -> ScoringConfig.ALL_OR_NOTHING;
+                case "group" -> parseGroups(root.path("groups"));
+                default -> throw new IllegalArgumentException("unknown scoring type: " + type);
+            };
+        } catch (Exception ex) {
+            log.warn("scoring_config 解析失败，按测试点等分: config={}, error={}", scoringConfig, ex.getMessage());
+            return ScoringConfig.PER_CASE;
+        }
+    }
+
+    private static ScoringConfig parseGroups(JsonNode groupsNode) {
+        if (!groupsNode.isArray() || groupsNode.isEmpty()) {
+            throw new IllegalArgumentException("groups must be a non-empty array");
+        }
+        List<ScoringConfig.Group> groups = new ArrayList<>();
+        for (JsonNode groupNode : groupsNode) {
+            int score = groupNode.path("score").asInt(-1);
+            JsonNode casesNode = groupNode.path("cases");
+            if (score < 0 || !casesNode.isArray()) {
+                throw new IllegalArgumentException("group requires score >= 0 and cases array");
+            }
+            List<Integer> cases = new ArrayList<>();
+            for (JsonNode caseNode : casesNode) {
+                if (!caseNode.canConvertToInt()) {
+                    throw new IllegalArgumentException("case sort_order must be an integer");
+                }
+                cases.add(caseNode.asInt());
+            }
+            groups.add(new ScoringConfig.Group(score, cases));
+        }
+        return ScoringConfig.grouped(groups);
+    }
+}
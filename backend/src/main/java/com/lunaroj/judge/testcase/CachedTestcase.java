@@ -0,0 +1,43 @@
+package com.lunaroj.judge.testcase;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+
+/**
+ * 对缓存中测试点文件的一次引用，持有期间文件不会被淘汰。
+ */
+public final class CachedTestcase implements AutoCloseable {
+
+    private final TestcaseCache testcaseCache;
+    private final TestcaseCache.Entry entry;
+    private boolean closed;
+
+    CachedTestcase(TestcaseCache testcaseCache, TestcaseCache.Entry entry) {
+        this.testcaseCache = testcaseCache;
+        this.entry = entry;
+    }
+
+    public Path path() {
+        return entry.file();
+    }
+
+    public long size() {
+        return entry.size();
+    }
+
+    /**
+     * 只读映射视图，各次调用返回独立的 position/limit，底层映射在同一文件的所有引用间共享。
+     */
+    public ByteBuffer map() throws IOException {
+        return testcaseCache.map(entry);
+    }
+
+    @Override
+    public void close() {
+        if (!closed) {
+            closed = true;
+            testcaseCache.release(entry);
+        }
+    }
+}
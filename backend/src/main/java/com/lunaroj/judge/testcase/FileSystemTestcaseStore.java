@@ -0,0 +1,43 @@
+package com.lunaroj.judge.testcase;
+
+import com.lunaroj.judge.JudgeProperties;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * 以本地目录代替 MinIO 的测试点存储，objectPath 相对 lunaroj.judge.testcase-dir 解析，用于单机部署和离线测试。
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "lunaroj.judge", name = "enabled", havingValue = "true")
+public class FileSystemTestcaseStore implements TestcaseStore {
+
+    private final JudgeProperties judgeProperties;
+
+    @Override
+    public InputStream open(String objectPath) throws IOException {
+        return Files.newInputStream(resolve(objectPath));
+    }
+
+    @Override
+    public String version(String objectPath) throws IOException {
+        Path path = resolve(objectPath);
+        return Files.size(path) + "-" + Files.getLastModifiedTime(path).toMillis();
+    }
+
+    private Path resolve(String objectPath) {
+        Path root = Paths.get(judgeProperties.getTestcaseDir()).toAbsolutePath().normalize();
+        Path path = root.resolve(objectPath).normalize();
+        if (!path.startsWith(root)) {
+            throw new IllegalStateException("testcase path escapes testcase dir: " + objectPath);
+        }
+        return path;
+    }
+}
@@ -0,0 +1,285 @@
+package com.lunaroj.judge.testcase;
+
+import com.lunaroj.judge.JudgeProperties;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * 评测机本地的测试点缓存，按 SHA-256 内容寻址：同一份数据无论被多少道题、多少次提交引用，只下载一次。
+ * <ul>
+ *     <li>总占用按字节数上限做 LRU 淘汰，正在使用（引用计数非 0）的文件不会被淘汰</li>
+ *     <li>新下载的文件边下边算哈希，落盘前校验；启动时发现的旧文件在首次使用时才校验</li>
+ *     <li>同一文件的并发未命中只下载一次</li>
+ *     <li>文件以只读 mmap 暴露，比对器直接读页缓存，不拷贝到堆上</li>
+ * </ul>
+ * 缺少哈希的测试点按 objectPath 与存储侧版本寻址，不做校验；数据被替换后版本变化，旧文件不再命中，随 LRU 淘汰。
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "lunaroj.judge", name = "enabled", havingValue = "true")
+public class TestcaseCache {
+
+    private static final Pattern SHA256 = Pattern.compile("[0-9a-f]{64}");
+    private static final String PATH_KEY_PREFIX = "path-";
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private final TestcaseStore testcaseStore;
+    private final Path cacheDir;
+    private final long maxBytes;
+
+    // 访问顺序，首个即最久未使用；由 this 保护
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private long totalBytes;
+
+    public TestcaseCache(TestcaseStore testcaseStore, JudgeProperties judgeProperties) {
+        this.testcaseStore = testcaseStore;
+        this.cacheDir = Paths.get(judgeProperties.getTestcaseCache().getDir()).toAbsolutePath().normalize();
+        this.maxBytes = judgeProperties.getTestcaseCache().getMaxBytes();
+    }
+
+    @PostConstruct
+    public void loadExisting() throws IOException {
+        Files.createDirectories(cacheDir);
+        List<Path> files = new ArrayList<>();
+        try (Stream<Path> stream = Files.list(cacheDir)) {
+            stream.filter(Files::isRegularFile).forEach(files::add);
+        }
+        files.sort(Comparator.comparingLong(TestcaseCache::lastModifiedMillis));
+        synchronized (this) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                if (name.endsWith(TEMP_SUFFIX)) {
+                    Files.deleteIfExists(file);
+                    continue;
+                }
+                if (!SHA256.matcher(name).matches() && !name.startsWith(PATH_KEY_PREFIX)) {
+                    continue;
+                }
+                Entry entry = new Entry(name, file);
+                entry.ready = true;
+                entry.size = Files.size(file);
+                entries.put(name, entry);
+                totalBytes += entry.size;
+            }
+        }
+        log.info("测试点缓存已加载: dir={}, files={}, bytes={}", cacheDir, entries.size(), totalBytes);
+        evictIfNeeded();
+    }
+
+    /**
+     * 取得测试点文件的本地副本，使用完毕后必须关闭返回的句柄。
+     */
+    public CachedTestcase acquire(String objectPath, String sha256) throws IOException {
+        if (objectPath == null || objectPath.isBlank()) {
+            throw new IllegalArgumentException("testcase object path is empty");
+        }
+        String expectedHash = normalizeHash(sha256);
+        String key = expectedHash != null
+                ? expectedHash
+                : PATH_KEY_PREFIX + sha256Hex(objectPath + "\0" + testcaseStore.version(objectPath));
+        Entry entry;
+        synchronized (this) {
+            entry = entries.computeIfAbsent(key, name -> new Entry(name, cacheDir.resolve(name)));
+            entry.refCount++;
+        }
+        try {
+            // 下载与校验哈希都在锁内；评测跑在虚拟线程上，用 ReentrantLock 而非 synchronized，避免钉住载体线程
+            entry.lock.lock();
+            try {
+                prepare(entry, objectPath, expectedHash);
+            } finally {
+                entry.lock.unlock();
+            }
+        } catch (IOException | RuntimeException ex) {
+            release(entry);
+            throw ex;
+        }
+        evictIfNeeded();
+        return new CachedTestcase(this, entry);
+    }
+
+    synchronized long totalBytes() {
+        return totalBytes;
+    }
+
+    synchronized void release(Entry entry) {
+        entry.refCount--;
+        if (entry.refCount == 0 && !entry.ready) {
+            // 下载失败的占位项
+            entries.remove(entry.key, entry);
+        }
+    }
+
+    private void prepare(Entry entry, String objectPath, String expectedHash) throws IOException {
+        if (entry.ready && !entry.verified && expectedHash != null) {
+            String actualHash = hashOf(entry.file);
+            if (expectedHash.equals(actualHash)) {
+                entry.verified = true;
+            } else {
+                log.warn("测试点缓存文件校验失败，重新下载: file={}, actual={}", entry.file, actualHash);
+                discard(entry);
+            }
+        }
+        if (entry.ready) {
+            return;
+        }
+        Path temp = Files.createTempFile(cacheDir, entry.key, TEMP_SUFFIX);
+        try {
+            MessageDigest digest = newDigest();
+            try (InputStream in = new DigestInputStream(testcaseStore.open(objectPath), digest);
+                 OutputStream out = Files.newOutputStream(temp)) {
+                in.transferTo(out);
+            }
+            String actualHash = HexFormat.of().formatHex(digest.digest());
+            if (expectedHash != null && !expectedHash.equals(actualHash)) {
+                throw new IOException("testcase hash mismatch: path=" + objectPath
+                        + ", expected=" + expectedHash + ", actual=" + actualHash);
+            }
+            Files.move(temp, entry.file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        long size = Files.size(entry.file);
+        synchronized (this) {
+            entry.size = size;
+            entry.ready = true;
+            entry.verified = expectedHash != null;
+            totalBytes += size;
+        }
+    }
+
+    private void discard(Entry entry) throws IOException {
+        synchronized (this) {
+            totalBytes -= entry.size;
+            entry.size = 0;
+            entry.ready = false;
+            entry.verified = false;
+            entry.mapped = null;
+        }
+        Files.deleteIfExists(entry.file);
+    }
+
+    private synchronized void evictIfNeeded() {
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (totalBytes > maxBytes && iterator.hasNext()) {
+            Entry entry = iterator.next();
+            if (entry.refCount > 0 || !entry.ready) {
+                continue;
+            }
+            iterator.remove();
+            totalBytes -= entry.size;
+            // 持锁删除，避免删掉同名条目随后重新下载的文件
+            try {
+                Files.deleteIfExists(entry.file);
+            } catch (IOException ex) {
+                log.warn("删除测试点缓存文件失败: file={}, error={}", entry.file, ex.getMessage());
+            }
+        }
+    }
+
+    ByteBuffer map(Entry entry) throws IOException {
+        entry.lock.lock();
+        try {
+            if (entry.mapped == null) {
+                if (entry.size > Integer.MAX_VALUE) {
+                    throw new IOException("testcase too large to map: " + entry.file);
+                }
+                try (FileChannel channel = FileChannel.open(entry.file, StandardOpenOption.READ)) {
+                    entry.mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, entry.size);
+                }
+            }
+            return entry.mapped.duplicate();
+        } finally {
+            entry.lock.unlock();
+        }
+    }
+
+    private static String hashOf(Path file) throws IOException {
+        MessageDigest digest = newDigest();
+        try (InputStream in = new DigestInputStream(Files.newInputStream(file), digest)) {
+            in.transferTo(OutputStream.nullOutputStream());
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static String normalizeHash(String sha256) {
+        if (sha256 == null) {
+            return null;
+        }
+        String hash = sha256.trim().toLowerCase(Locale.ROOT);
+        return SHA256.matcher(hash).matches() ? hash : null;
+    }
+
+    private static String sha256Hex(String value) {
+        return HexFormat.of().formatHex(newDigest().digest(value.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static long lastModifiedMillis(Path file) {
+        try {
+            return Files.getLastModifiedTime(file).toMillis();
+        } catch (IOException ex) {
+            return 0L;
+        }
+    }
+
+    static final class Entry {
+
+        private final String key;
+        private final Path file;
+        // 同一文件的下载、校验与映射串行执行
+        private final ReentrantLock lock = new ReentrantLock();
+        private int refCount;
+        private long size;
+        private volatile boolean ready;
+        private volatile boolean verified;
+        private ByteBuffer mapped;
+
+        private Entry(String key, Path file) {
+            this.key = key;
+            this.file = file;
+        }
+
+        Path file() {
+            return file;
+        }
+
+        long size() {
+            return size;
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.lunaroj.judge.testcase;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * 测试点文件的远端存储（MinIO），objectPath 即 testcase.input_path / output_path。
+ */
+public interface TestcaseStore {
+
+    InputStream open(String objectPath) throws IOException;
+
+    /**
+     * 对象当前版本的标识（MinIO 为 ETag，本地目录为大小与修改时间），内容被替换后随之变化。
+     * 缺少哈希的测试点以它参与缓存键。
+     */
+    String version(String objectPath) throws IOException;
+}
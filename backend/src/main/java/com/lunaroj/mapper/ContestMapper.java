@@ -0,0 +1,21 @@
+package com.lunaroj.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.lunaroj.model.entity.ContestEntity;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Mapper
+public interface ContestMapper extends BaseMapper<ContestEntity> {
+
+    // 开始时间落在 [from, to) 内的未删除比赛
+    @Select("""
+            SELECT * FROM contest
+            WHERE start_at >= #{from} AND start_at < #{to} AND deleted_at IS NULL
+            """)
+    List<ContestEntity> selectStartingBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+}
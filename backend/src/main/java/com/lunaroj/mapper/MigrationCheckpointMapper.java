@@ -0,0 +1,20 @@
+package com.lunaroj.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.lunaroj.model.entity.MigrationCheckpointEntity;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+
+@Mapper
+public interface MigrationCheckpointMapper extends BaseMapper<MigrationCheckpointEntity> {
+
+    @Insert("""
+            INSERT INTO migration_checkpoint (job_id, module, last_source_id, report, updated_at)
+            VALUES (#{jobId}, #{module}, #{lastSourceId}, #{report}, #{updatedAt})
+            ON DUPLICATE KEY UPDATE
+                last_source_id = VALUES(last_source_id),
+                report = VALUES(report),
+                updated_at = VALUES(updated_at)
+            """)
+    int upsert(MigrationCheckpointEntity checkpoint);
+}
@@ -0,0 +1,31 @@
+package com.lunaroj.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.lunaroj.model.entity.ProblemEntity;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Update;
+
+import java.util.List;
+
+@Mapper
+public interface ProblemMapper extends BaseMapper<ProblemEntity> {
+
+    /**
+     * 多行累加计数；传入实体的 acceptCount/submitCount 表示增量而非绝对值。
+     */
+    @Update("""
+            <script>
+            UPDATE problem
+            SET accept_count = accept_count + CASE id
+                    <foreach collection="deltas" item="d">WHEN #{d.id} THEN #{d.acceptCount} </foreach>
+                    ELSE 0 END,
+                submit_count = submit_count + CASE id
+                    <foreach collection="deltas" item="d">WHEN #{d.id} THEN #{d.submitCount} </foreach>
+                    ELSE 0 END
+            WHERE id IN
+            <foreach collection="deltas" item="d" open="(" separator="," close=")">#{d.id}</foreach>
+            </script>
+            """)
+    int addCountsBatch(@Param("deltas") List<ProblemEntity> deltas);
+}
@@ -0,0 +1,29 @@
+package com.lunaroj.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.lunaroj.model.entity.SubmissionCodeEntity;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Update;
+
+import java.util.List;
+
+@Mapper
+public interface SubmissionCodeMapper extends BaseMapper<SubmissionCodeEntity> {
+
+    // 多行 UPDATE，写入编译输出与测试点结果
+    @Update("""
+            <script>
+            UPDATE submission_code
+            SET compile_output = CASE submission_id
+                    <foreach collection="codes" item="c">WHEN #{c.submissionId} THEN #{c.compileOutput} </foreach>
+                END,
+                case_results = CASE submission_id
+                    <foreach collection="codes" item="c">WHEN #{c.submissionId} THEN #{c.caseResults} </foreach>
+                END
+            WHERE submission_id IN
+            <foreach collection="codes" item="c" open="(" separator="," close=")">#{c.submissionId}</foreach>
+            </script>
+            """)
+    int updateJudgeOutputBatch(@Param("codes") List<SubmissionCodeEntity> codes);
+}
@@ -0,0 +1,121 @@
+package com.lunaroj.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.lunaroj.model.entity.SubmissionEntity;
+import com.lunaroj.submission.SubmissionCursor;
+import com.lunaroj.submission.model.SubmissionQuery;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+
+import java.util.List;
+
+@Mapper
+public interface SubmissionMapper extends BaseMapper<SubmissionEntity> {
+
+    /**
+     * 比赛内已出终态的提交，仅取榜单计算需要的列，按 id 升序。minId 取比赛开始时刻对应的 id，用于裁剪分区。
+     */
+    @Select("""
+            SELECT id, user_id, problem_id, status, score, created_at
+            FROM submission
+            WHERE contest_id = #{contestId} AND status >= #{minStatus} AND id >= #{minId}
+            ORDER BY id
+            """)
+    List<SubmissionEntity> selectContestResults(
+            @Param("contestId") Long contestId,
+            @Param("minStatus") int minStatus,
+            @Param("minId") long minId
+    );
+
+    /**
+     * 按 id 倒序的键集分页，cursor 为 NULL 时取第一页。雪花 id 随提交时间递增，id 倒序即提交时间倒序。
+     * 等值条件分别落在 idx_user、idx_problem_status（需同时筛 status）、idx_contest_user（需同时筛 user）上，
+     * InnoDB 二级索引隐含主键 id，无需排序即可从游标处反向扫描；id 上界同时用于裁剪分区。
+     */
+    @Select("""
+            <script>
+            SELECT id, user_id, problem_id, contest_id, code_length, language, status, score,
+                   time_used, memory_used, created_at
+            FROM submission
+            <where>
+                <if test="q.userId != null">AND user_id = #{q.userId}</if>
+                <if test="q.problemId != null">AND problem_id = #{q.problemId}</if>
+                <if test="q.contestId != null">AND contest_id = #{q.contestId}</if>
+                <if test="q.status != null">AND status = #{q.status}</if>
+                <if test="q.language != null">AND language = #{q.language}</if>
+                <if test="q.practiceOnly">AND contest_id IS NULL</if>
+                <if test="cursor != null">AND id &lt; #{cursor.id}</if>
+            </where>
+            ORDER BY id DESC
+            LIMIT #{limit}
+            </script>
+            """)
+    List<SubmissionEntity> selectPageByCursor(
+            @Param("q") SubmissionQuery query,
+            @Param("cursor") SubmissionCursor cursor,
+            @Param("limit") int limit
+    );
+
+    // 数到 cap 为止，避免大结果集上的全量 COUNT(*)
+    @Select("""
+            <script>
+            SELECT COUNT(*) FROM (
+                SELECT 1 FROM submission
+            <where>
+                <if test="q.userId != null">AND user_id = #{q.userId}</if>
+                <if test="q.problemId != null">AND problem_id = #{q.problemId}</if>
+                <if test="q.contestId != null">AND contest_id = #{q.contestId}</if>
+                <if test="q.status != null">AND status = #{q.status}</if>
+                <if test="q.language != null">AND language = #{q.language}</if>
+                <if test="q.practiceOnly">AND contest_id IS NULL</if>
+            </where>
+                LIMIT #{cap}
+            ) t
+            </script>
+            """)
+    long countCapped(@Param("q") SubmissionQuery query, @Param("cap") int cap);
+
+    // 加锁读取原状态，评测结果写回时按状态变化计算题目计数增量
+    @Select("""
+            <script>
+            SELECT id, problem_id, status FROM submission
+            WHERE id IN
+            <foreach collection="ids" item="id" open="(" separator="," close=")">#{id}</foreach>
+            FOR UPDATE
+            </script>
+            """)
+    List<SubmissionEntity> selectStatusForUpdate(@Param("ids") List<Long> ids);
+
+    // 多行 UPDATE，写回评测结果
+    @Update("""
+            <script>
+            UPDATE submission
+            SET status = CASE id
+                    <foreach collection="results" item="r">WHEN #{r.id} THEN #{r.status} </foreach>
+                END,
+                score = CASE id
+                    <foreach collection="results" item="r">WHEN #{r.id} THEN #{r.score} </foreach>
+                END,
+                time_used = CASE id
+                    <foreach collection="results" item="r">WHEN #{r.id} THEN #{r.timeUsed} </foreach>
+                END,
+                memory_used = CASE id
+                    <foreach collection="results" item="r">WHEN #{r.id} THEN #{r.memoryUsed} </foreach>
+                END,
+                pass_count = CASE id
+                    <foreach collection="results" item="r">WHEN #{r.id} THEN #{r.passCount} </foreach>
+                END,
+                total_count = CASE id
+                    <foreach collection="results" item="r">WHEN #{r.id} THEN #{r.totalCount} </foreach>
+                END,
+                judged_at = CASE id
+                    <foreach collection="results" item="r">WHEN #{r.id} THEN #{r.judgedAt} </foreach>
+                END
+            WHERE id IN
+            <foreach collection="results" item="r" open="(" separator="," close=")">#{r.id}</foreach>
+            </script>
+            """)
+    int updateJudgeResultBatch(@Param("results") List<SubmissionEntity> results);
+}
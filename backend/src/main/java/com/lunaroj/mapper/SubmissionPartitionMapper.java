@@ -0,0 +1,81 @@
+package com.lunaroj.mapper;
+
+import com.baomidou.mybatisplus.annotation.InterceptorIgnore;
+import com.lunaroj.submission.SubmissionPartitionBound;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+
+import java.util.List;
+
+/**
+ * submission 分区与 submission_code 月表的维护 DDL。表名、分区名只来自 SubmissionPartitions 生成的固定格式，
+ * 因而可以直接拼接。这里的 submission_code 指基表本身（建表模板、分表前的旧数据），不经动态表名路由。
+ */
+@Mapper
+@InterceptorIgnore(dynamicTableName = "true")
+public interface SubmissionPartitionMapper {
+
+    // 未分区的表返回一个 NULL
+    @Select("""
+            SELECT PARTITION_NAME
+            FROM information_schema.PARTITIONS
+            WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'submission'
+            ORDER BY PARTITION_ORDINAL_POSITION
+            """)
+    List<String> selectSubmissionPartitions();
+
+    @Select("""
+            SELECT TABLE_NAME
+            FROM information_schema.TABLES
+            WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME LIKE 'submission\\_code\\_%'
+            ORDER BY TABLE_NAME
+            """)
+    List<String> selectCodeTables();
+
+    // 按主键两端取值，不扫表；空表返回 NULL
+    @Select("SELECT MIN(id) FROM submission")
+    Long selectMinSubmissionId();
+
+    @Select("SELECT MAX(id) FROM submission")
+    Long selectMaxSubmissionId();
+
+    // 一条语句从 p_max 中切出若干连续的月分区，p_max 中的数据只复制一次；分区须按上界升序
+    @Update("""
+            <script>
+            ALTER TABLE submission REORGANIZE PARTITION p_max INTO (
+                <foreach collection="partitions" item="p">PARTITION ${p.name} VALUES LESS THAN (${p.upperBound}),
+                </foreach>
+                PARTITION p_max VALUES LESS THAN MAXVALUE
+            )
+            </script>
+            """)
+    void addSubmissionPartitions(@Param("partitions") List<SubmissionPartitionBound> partitions);
+
+    @Update("CREATE TABLE IF NOT EXISTS ${table} LIKE submission_code")
+    void createCodeTable(@Param("table") String table);
+
+    // 分表前的代码都在 submission_code 中，按 id 范围复制到对应月表；已存在的行跳过，可重复执行
+    @Update("""
+            INSERT IGNORE INTO ${table}
+            SELECT * FROM submission_code WHERE submission_id >= #{minId} AND submission_id < #{maxId}
+            """)
+    int copyLegacyCode(@Param("table") String table, @Param("minId") long minId, @Param("maxId") long maxId);
+
+    // 归档表结构同 submission，但不分区，用于 EXCHANGE PARTITION
+    @Update("CREATE TABLE IF NOT EXISTS ${table} LIKE submission")
+    void createArchiveTable(@Param("table") String table);
+
+    @Update("ALTER TABLE ${table} REMOVE PARTITIONING")
+    void removePartitioning(@Param("table") String table);
+
+    @Update("ALTER TABLE submission EXCHANGE PARTITION ${partition} WITH TABLE ${table}")
+    void exchangeSubmissionPartition(@Param("partition") String partition, @Param("table") String table);
+
+    @Update("ALTER TABLE submission DROP PARTITION ${partition}")
+    void dropSubmissionPartition(@Param("partition") String partition);
+
+    @Update("RENAME TABLE ${from} TO ${to}")
+    void renameTable(@Param("from") String from, @Param("to") String to);
+}
@@ -2,10 +2,46 @@ package com.lunaroj.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.lunaroj.model.entity.UserEntity;
+import org.apache.ibatis.annotations.Insert;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Update;
+
+import java.util.List;
 
 @Mapper
 public interface UserMapper extends BaseMapper<UserEntity> {
-}
 
+    // 多行 INSERT，id 需由调用方预先分配
+    @Insert("""
+            <script>
+            INSERT INTO `user` (id, username, password, nickname, email, email_verified, permission_group_id,
+                profile, default_code_public, last_login_at, created_at, updated_at, deleted_at)
+            VALUES
+            <foreach collection="users" item="u" separator=",">
+                (#{u.id}, #{u.username}, #{u.password}, #{u.nickname}, #{u.email}, #{u.emailVerified},
+                #{u.permissionGroupId}, #{u.profile}, #{u.defaultCodePublic}, #{u.lastLoginAt},
+                #{u.createdAt}, #{u.updatedAt}, #{u.deletedAt})
+            </foreach>
+            </script>
+            """)
+    int insertBatch(@Param("users") List<UserEntity> users);
 
+    // 多行 UPDATE，批量写回最近登录时间；取库中值与新值的较大者，多实例或重试时不会回退
+    @Update("""
+            <script>
+            UPDATE `user`
+            SET last_login_at = GREATEST(
+                    COALESCE(last_login_at, CASE id
+                        <foreach collection="users" item="u">WHEN #{u.id} THEN #{u.lastLoginAt} </foreach>
+                    END),
+                    CASE id
+                        <foreach collection="users" item="u">WHEN #{u.id} THEN #{u.lastLoginAt} </foreach>
+                    END
+                )
+            WHERE id IN
+            <foreach collection="users" item="u" open="(" separator="," close=")">#{u.id}</foreach>
+            </script>
+            """)
+    int updateLastLoginBatch(@Param("users") List<UserEntity> users);
+}
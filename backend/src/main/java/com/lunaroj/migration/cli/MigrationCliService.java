@@ -1,9 +1,11 @@
 package com.lunaroj.migration.cli;
 
+import com.lunaroj.migration.core.MigrationCheckpointStore;
 import com.lunaroj.migration.model.ExecutionConfig;
 import com.lunaroj.migration.model.MigrationProfile;
 import com.lunaroj.migration.model.SourceDatabaseConfig;
 import com.lunaroj.migration.module.user.EmailConflictPolicy;
+import com.lunaroj.migration.module.user.UserMigrationCheckpoint;
 import com.lunaroj.migration.module.user.UserMigrationReport;
 import com.lunaroj.migration.module.user.UserMigrationService;
 import com.lunaroj.migration.module.user.UserModuleConfig;
@@ -20,6 +22,7 @@ import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Supplier;
 
 @Service
 @RequiredArgsConstructor
@@ -31,6 +34,7 @@ public class MigrationCliService {
     private final MigrationProfileStore profileStore;
     private final UserMigrationService userMigrationService;
     private final MigrationReportWriter reportWriter;
+    private final MigrationCheckpointStore checkpointStore;
 
     public void launch() {
         io.println("");
@@ -39,13 +43,15 @@ public class MigrationCliService {
             io.println("");
             io.println("1) New migration task (wizard)");
             io.println("2) Run from saved profile");
-            io.println("3) Exit");
+            io.println("3) Resume job");
+            io.println("4) Exit");
             int choice = io.promptIntWithDefault("Select", 1, 1);
 
             switch (choice) {
                 case 1 -> runWizard();
                 case 2 -> runFromSavedProfile();
-                case 3 -> {
+                case 3 -> resumeJob();
+                case 4 -> {
                     io.println("Exit.");
                     return;
                 }
@@ -100,7 +106,7 @@ public class MigrationCliService {
             String defaultName = "migration-user-" + LocalDateTime.now().format(PROFILE_NAME_FORMATTER) + ".json";
             String fileName = io.promptWithDefault("Profile file name", defaultName);
             try {
-                Path savedPath = profileStore.saveProfile(sanitizeForStorage(profile), fileName);
+                Path savedPath = profileStore.saveProfile(profile.copyWithoutSecrets(), fileName);
                 io.println("Profile saved: " + savedPath);
             } catch (IOException ex) {
                 io.println("Failed to save profile: " + ex.getMessage());
@@ -144,6 +150,54 @@ public class MigrationCliService {
             return;
         }
 
+        promptMissingSecrets(profile);
+
+        if (io.promptYesNo("Override dry run", false)) {
+            profile.getExecution().setDryRun(io.promptYesNo("Dry run", true));
+        }
+        runProfile(profile);
+    }
+
+    private void resumeJob() {
+        List<UserMigrationCheckpoint> checkpoints = new ArrayList<>();
+        try {
+            for (Path path : checkpointStore.listUserCheckpoints()) {
+                UserMigrationCheckpoint checkpoint = checkpointStore.loadUserCheckpoint(path);
+                if (!checkpoint.isCompleted()) {
+                    checkpoints.add(checkpoint);
+                }
+            }
+        } catch (IOException ex) {
+            io.println("Failed to load checkpoints: " + ex.getMessage());
+            return;
+        }
+        if (checkpoints.isEmpty()) {
+            io.println("No unfinished job found.");
+            return;
+        }
+
+        io.println("");
+        io.println("[Unfinished jobs]");
+        for (int i = 0; i < checkpoints.size(); i++) {
+            UserMigrationCheckpoint checkpoint = checkpoints.get(i);
+            io.println((i + 1) + ") " + checkpoint.getJobId()
+                    + " processed=" + checkpoint.getReport().getProcessed() + "/" + checkpoint.getReport().getSourceTotal()
+                    + " lastSourceId=" + checkpoint.getLastSourceId()
+                    + " updatedAt=" + checkpoint.getUpdatedAt());
+        }
+        int choice = io.promptIntWithDefault("Select job index", 1, 1);
+        if (choice > checkpoints.size()) {
+            io.println("Invalid job index.");
+            return;
+        }
+
+        UserMigrationCheckpoint checkpoint = checkpoints.get(choice - 1);
+        MigrationProfile profile = checkpoint.getProfile();
+        promptMissingSecrets(profile);
+        runMigration(() -> userMigrationService.resume(checkpoint, profile));
+    }
+
+    private void promptMissingSecrets(MigrationProfile profile) {
         if (profile.getSource() != null && !StringUtils.hasText(profile.getSource().getPassword())) {
             profile.getSource().setPassword(io.promptPassword("Source database password"));
         }
@@ -153,16 +207,15 @@ public class MigrationCliService {
                 && !StringUtils.hasText(profile.getModules().getUser().getFixedPassword())) {
             profile.getModules().getUser().setFixedPassword(io.promptPassword("Fixed password"));
         }
-
-        if (io.promptYesNo("Override dry run", false)) {
-            profile.getExecution().setDryRun(io.promptYesNo("Dry run", true));
-        }
-        runProfile(profile);
     }
 
     private void runProfile(MigrationProfile profile) {
+        runMigration(() -> userMigrationService.migrate(profile));
+    }
+
+    private void runMigration(Supplier<UserMigrationReport> migration) {
         try {
-            UserMigrationReport report = userMigrationService.migrate(profile);
+            UserMigrationReport report = migration.get();
             Path reportPath = reportWriter.writeUserReport(report);
             io.println("Migration done.");
             io.println("Job ID: " + report.getJobId());
@@ -173,6 +226,10 @@ public class MigrationCliService {
             io.println("Updated: " + report.getUpdated());
             io.println("Skipped: " + report.getSkipped());
             io.println("Failed: " + report.getFailed());
+            io.println(String.format("Elapsed: %d ms (%.1f rows/s)", report.getElapsedMillis(), report.getRowsPerSecond()));
+            io.println("Stage millis: read=" + report.getSourceReadMillis()
+                    + ", prefetch=" + report.getPrefetchMillis()
+                    + ", write=" + report.getWriteMillis());
             io.println("Report file: " + reportPath);
         } catch (Exception ex) {
             io.println("Migration failed: " + ex.getMessage());
@@ -185,31 +242,6 @@ public class MigrationCliService {
         return choice == 1 ? UserPasswordMode.FIXED : UserPasswordMode.RANDOM_UNLOGIN;
     }
 
-    private MigrationProfile sanitizeForStorage(MigrationProfile profile) {
-        MigrationProfile copy = new MigrationProfile();
-        copy.getSource().setHost(profile.getSource().getHost());
-        copy.getSource().setPort(profile.getSource().getPort());
-        copy.getSource().setDb(profile.getSource().getDb());
-        copy.getSource().setUser(profile.getSource().getUser());
-        copy.getSource().setPassword(null);
-
-        copy.getExecution().setBatchSize(profile.getExecution().getBatchSize());
-        copy.getExecution().setDryRun(profile.getExecution().getDryRun());
-        copy.getExecution().setFailFast(profile.getExecution().getFailFast());
-        copy.getExecution().setIssueLimit(profile.getExecution().getIssueLimit());
-
-        UserModuleConfig srcUser = profile.getModules().getUser();
-        UserModuleConfig dstUser = copy.getModules().getUser();
-        dstUser.setEnabled(srcUser.getEnabled());
-        dstUser.setStatusFilter(srcUser.getStatusFilter() == null ? null : new ArrayList<>(srcUser.getStatusFilter()));
-        dstUser.setPasswordMode(srcUser.getPasswordMode());
-        dstUser.setFixedPassword(null);
-        dstUser.setConflictPolicy(srcUser.getConflictPolicy());
-        dstUser.setEmailConflictPolicy(srcUser.getEmailConflictPolicy());
-        dstUser.setImportProfile(srcUser.getImportProfile());
-        return copy;
-    }
-
     private UsernameConflictPolicy selectUsernameConflictPolicy() {
         io.println("Username conflict policy: 1) skip 2) rename 3) overwrite-safe");
         int choice = io.promptIntWithDefault("Select", 1, 1);
@@ -0,0 +1,88 @@
+package com.lunaroj.migration.core;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lunaroj.mapper.MigrationCheckpointMapper;
+import com.lunaroj.migration.module.user.UserMigrationCheckpoint;
+import com.lunaroj.migration.module.user.UserMigrationReport;
+import com.lunaroj.model.entity.MigrationCheckpointEntity;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+@Component
+@RequiredArgsConstructor
+public class MigrationCheckpointStore {
+
+    private static final String USER_CHECKPOINT_SUFFIX = "-user-checkpoint.json";
+    private static final String USER_MODULE = "user";
+
+    private final ObjectMapper objectMapper;
+    private final MigrationPathResolver pathResolver;
+    private final MigrationCheckpointMapper checkpointMapper;
+
+    public Path saveUserCheckpoint(UserMigrationCheckpoint checkpoint) throws IOException {
+        Path checkpointsDir = pathResolver.checkpointsDir();
+        Files.createDirectories(checkpointsDir);
+        Path path = checkpointsDir.resolve(checkpoint.getJobId() + USER_CHECKPOINT_SUFFIX);
+        // 先写临时文件再原子替换，进程中途退出也不会留下半个 checkpoint
+        Path tempPath = checkpointsDir.resolve(checkpoint.getJobId() + USER_CHECKPOINT_SUFFIX + ".tmp");
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(tempPath.toFile(), checkpoint);
+        Files.move(tempPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return path;
+    }
+
+    public List<Path> listUserCheckpoints() throws IOException {
+        Path checkpointsDir = pathResolver.checkpointsDir();
+        if (!Files.exists(checkpointsDir)) {
+            return List.of();
+        }
+        try (Stream<Path> stream = Files.list(checkpointsDir)) {
+            return stream
+                    .filter(path -> path.getFileName().toString().endsWith(USER_CHECKPOINT_SUFFIX))
+                    .sorted(Comparator.comparing(path -> path.getFileName().toString()))
+                    .toList();
+        }
+    }
+
+    public UserMigrationCheckpoint loadUserCheckpoint(Path path) throws IOException {
+        return objectMapper.readValue(path.toFile(), UserMigrationCheckpoint.class);
+    }
+
+    /**
+     * 在批次写入所在的事务中记录已提交的最大源 id 与累计报告。
+     * 文件 checkpoint 在事务提交后才落盘，两者之间进程退出时，续跑以这里的记录为准，不会重放已提交的批次。
+     */
+    public void saveCommittedUserProgress(String jobId, long lastSourceId, UserMigrationReport report) throws IOException {
+        MigrationCheckpointEntity entity = new MigrationCheckpointEntity();
+        entity.setJobId(jobId);
+        entity.setModule(USER_MODULE);
+        entity.setLastSourceId(lastSourceId);
+        entity.setReport(objectMapper.writeValueAsString(report));
+        entity.setUpdatedAt(LocalDateTime.now());
+        checkpointMapper.upsert(entity);
+    }
+
+    /**
+     * 读取数据库中已提交的进度，只填充 jobId、lastSourceId 与 report；没有记录时返回 null。
+     */
+    public UserMigrationCheckpoint findCommittedUserProgress(String jobId) throws IOException {
+        MigrationCheckpointEntity entity = checkpointMapper.selectById(jobId);
+        if (entity == null) {
+            return null;
+        }
+        UserMigrationCheckpoint checkpoint = new UserMigrationCheckpoint();
+        checkpoint.setJobId(entity.getJobId());
+        checkpoint.setLastSourceId(entity.getLastSourceId());
+        checkpoint.setUpdatedAt(entity.getUpdatedAt());
+        checkpoint.setReport(objectMapper.readValue(entity.getReport(), UserMigrationReport.class));
+        return checkpoint;
+    }
+}
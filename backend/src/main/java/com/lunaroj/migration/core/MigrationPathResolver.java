@@ -23,6 +23,10 @@ public class MigrationPathResolver {
         return baseDir().resolve("reports");
     }
 
+    public Path checkpointsDir() {
+        return baseDir().resolve("checkpoints");
+    }
+
     private Path resolveRepoRoot(Path cwd) {
         if (Files.isDirectory(cwd.resolve("backend")) && Files.isDirectory(cwd.resolve("docs"))) {
             return cwd;
@@ -13,4 +13,3 @@ public class ExecutionConfig {
 
     private Integer issueLimit = 200;
 }
-
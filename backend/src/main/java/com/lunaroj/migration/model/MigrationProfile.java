@@ -1,7 +1,10 @@
 package com.lunaroj.migration.model;
 
+import com.lunaroj.migration.module.user.UserModuleConfig;
 import lombok.Data;
 
+import java.util.ArrayList;
+
 @Data
 public class MigrationProfile {
 
@@ -10,5 +13,30 @@ public class MigrationProfile {
     private ExecutionConfig execution = new ExecutionConfig();
 
     private ModulesConfig modules = new ModulesConfig();
-}
 
+    // 用于落盘的副本，去掉源库密码与固定密码
+    public MigrationProfile copyWithoutSecrets() {
+        MigrationProfile copy = new MigrationProfile();
+        copy.getSource().setHost(source.getHost());
+        copy.getSource().setPort(source.getPort());
+        copy.getSource().setDb(source.getDb());
+        copy.getSource().setUser(source.getUser());
+        copy.getSource().setPassword(null);
+
+        copy.getExecution().setBatchSize(execution.getBatchSize());
+        copy.getExecution().setDryRun(execution.getDryRun());
+        copy.getExecution().setFailFast(execution.getFailFast());
+        copy.getExecution().setIssueLimit(execution.getIssueLimit());
+
+        UserModuleConfig srcUser = modules.getUser();
+        UserModuleConfig dstUser = copy.getModules().getUser();
+        dstUser.setEnabled(srcUser.getEnabled());
+        dstUser.setStatusFilter(srcUser.getStatusFilter() == null ? null : new ArrayList<>(srcUser.getStatusFilter()));
+        dstUser.setPasswordMode(srcUser.getPasswordMode());
+        dstUser.setFixedPassword(null);
+        dstUser.setConflictPolicy(srcUser.getConflictPolicy());
+        dstUser.setEmailConflictPolicy(srcUser.getEmailConflictPolicy());
+        dstUser.setImportProfile(srcUser.getImportProfile());
+        return copy;
+    }
+}
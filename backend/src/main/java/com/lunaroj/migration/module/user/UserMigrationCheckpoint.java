@@ -0,0 +1,24 @@
+package com.lunaroj.migration.module.user;
+
+import com.lunaroj.migration.model.MigrationProfile;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+public class UserMigrationCheckpoint {
+
+    private String jobId;
+
+    // 不含密码的任务配置，续跑时需重新输入
+    private MigrationProfile profile;
+
+    // 最后一个已提交批次中的最大源用户 id
+    private long lastSourceId;
+
+    private boolean completed;
+
+    private LocalDateTime updatedAt;
+
+    private UserMigrationReport report;
+}
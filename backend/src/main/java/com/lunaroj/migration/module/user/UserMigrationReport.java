@@ -29,6 +29,17 @@ public class UserMigrationReport {
 
     private long failed;
 
+    private long elapsedMillis;
+
+    private double rowsPerSecond;
+
+    // 各阶段累计耗时
+    private long sourceReadMillis;
+
+    private long prefetchMillis;
+
+    private long writeMillis;
+
     private boolean issueLimitReached;
 
     private List<UserMigrationIssue> issues = new ArrayList<>();
@@ -1,25 +1,41 @@
 package com.lunaroj.migration.module.user;
 
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.toolkit.IdWorker;
 import com.baomidou.mybatisplus.core.toolkit.Wrappers;
 import com.lunaroj.constant.PermissionGroupNames;
 import com.lunaroj.mapper.UserMapper;
+import com.lunaroj.migration.core.MigrationCheckpointStore;
 import com.lunaroj.migration.model.ExecutionConfig;
 import com.lunaroj.migration.model.MigrationProfile;
 import com.lunaroj.migration.model.SourceDatabaseConfig;
 import com.lunaroj.migration.source.ScnuojSourceClient;
+import com.lunaroj.migration.source.ScnuojUserCursor;
 import com.lunaroj.model.entity.UserEntity;
+import com.lunaroj.security.UnloginablePassword;
 import com.lunaroj.service.PermissionGroupService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.util.StringUtils;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 import java.util.regex.Pattern;
 
 @Slf4j
@@ -33,14 +49,31 @@ public class UserMigrationService {
     private final UserMapper userMapper;
     private final PasswordEncoder passwordEncoder;
     private final PermissionGroupService permissionGroupService;
+    private final MigrationCheckpointStore checkpointStore;
+    private final TransactionTemplate transactionTemplate;
 
     public void testConnection(SourceDatabaseConfig sourceConfig) {
-        try (ScnuojSourceClient sourceClient = new ScnuojSourceClient(sourceConfig)) {
+        try (ScnuojSourceClient sourceClient = openSource(sourceConfig)) {
             sourceClient.testConnection();
         }
     }
 
     public UserMigrationReport migrate(MigrationProfile profile) {
+        return run(profile, null);
+    }
+
+    /**
+     * 从 checkpoint 续跑：沿用原任务的 jobId 与累计计数，从最后一个已提交批次之后的源 id 继续读取。
+     * 文件 checkpoint 落后于数据库中随批次提交的进度时以数据库为准。profile 为补齐了密码的任务配置。
+     */
+    public UserMigrationReport resume(UserMigrationCheckpoint checkpoint, MigrationProfile profile) {
+        if (checkpoint.isCompleted()) {
+            throw new IllegalArgumentException("checkpoint " + checkpoint.getJobId() + " is already completed");
+        }
+        return run(profile, checkpoint);
+    }
+
+    private UserMigrationReport run(MigrationProfile profile, UserMigrationCheckpoint checkpoint) {
         UserModuleConfig moduleConfig = profile.getModules().getUser();
         if (moduleConfig == null || !Boolean.TRUE.equals(moduleConfig.getEnabled())) {
             throw new IllegalArgumentException("user module is not enabled");
@@ -53,77 +86,144 @@ public class UserMigrationService {
         boolean failFast = Boolean.TRUE.equals(executionConfig.getFailFast());
         int issueLimit = safeIssueLimit(executionConfig.getIssueLimit());
 
-        UserMigrationReport report = new UserMigrationReport();
-        report.setJobId(LocalDateTime.now().format(JOB_ID_FORMATTER));
+        UserMigrationReport report;
+        long afterSourceId;
+        if (checkpoint == null) {
+            report = new UserMigrationReport();
+            report.setJobId(LocalDateTime.now().format(JOB_ID_FORMATTER));
+            report.setStartedAt(LocalDateTime.now());
+            afterSourceId = 0L;
+        } else {
+            UserMigrationCheckpoint committed = latestCommittedProgress(checkpoint);
+            report = committed.getReport();
+            report.setFinishedAt(null);
+            afterSourceId = committed.getLastSourceId();
+            log.info("Resuming user migration. jobId={}, lastSourceId={}, processed={}",
+                    report.getJobId(), afterSourceId, report.getProcessed());
+        }
         report.setDryRun(dryRun);
-        report.setStartedAt(LocalDateTime.now());
-
-        Long rootGroupId = permissionGroupService.getGroupIdByName(PermissionGroupNames.ROOT);
-        Long adminGroupId = permissionGroupService.getGroupIdByName(PermissionGroupNames.ADMIN);
-        Long userGroupId = permissionGroupService.getGroupIdByName(PermissionGroupNames.USER);
+        long jobStartNanos = System.nanoTime();
+        long priorElapsedMillis = report.getElapsedMillis();
+        long lastCommittedSourceId = afterSourceId;
+        MigrationProfile storedProfile = profile.copyWithoutSecrets();
+
+        MigrationJob job = new MigrationJob(
+                moduleConfig,
+                dryRun,
+                failFast,
+                issueLimit,
+                permissionGroupService.getGroupIdByName(PermissionGroupNames.ROOT),
+                permissionGroupService.getGroupIdByName(PermissionGroupNames.ADMIN),
+                permissionGroupService.getGroupIdByName(PermissionGroupNames.USER),
+                dryRun ? null : encodeFixedPassword(moduleConfig),
+                report
+        );
 
-        try (ScnuojSourceClient sourceClient = new ScnuojSourceClient(profile.getSource())) {
+        try (ScnuojSourceClient sourceClient = openSource(profile.getSource())) {
             long total = sourceClient.countUsers(moduleConfig.getStatusFilter());
             report.setSourceTotal(total);
 
-            int offset = 0;
-            while (true) {
-                List<ScnuojUserRecord> records = sourceClient.fetchUsers(
-                        moduleConfig.getStatusFilter(),
-                        Boolean.TRUE.equals(moduleConfig.getImportProfile()),
-                        offset,
-                        batchSize
-                );
-                if (records.isEmpty()) {
-                    break;
-                }
+            try (ScnuojUserCursor cursor = sourceClient.openUserCursor(
+                    moduleConfig.getStatusFilter(),
+                    Boolean.TRUE.equals(moduleConfig.getImportProfile()),
+                    afterSourceId,
+                    batchSize
+            )) {
+                while (true) {
+                    long readStartNanos = System.nanoTime();
+                    boolean hasNext = cursor.hasNext();
+                    report.setSourceReadMillis(report.getSourceReadMillis() + elapsedMillis(readStartNanos));
+                    if (!hasNext) {
+                        break;
+                    }
 
-                for (ScnuojUserRecord record : records) {
-                    try {
-                        processOneRecord(record, moduleConfig, dryRun, rootGroupId, adminGroupId, userGroupId, report, issueLimit);
-                    } catch (Exception ex) {
-                        report.setFailed(report.getFailed() + 1);
-                        addIssue(report, issueLimit, new UserMigrationIssue(
-                                record.getId(),
-                                record.getUsername(),
-                                "failed",
-                                ex.getMessage()
-                        ));
-                        if (failFast) {
-                            throw ex;
-                        }
+                    List<ScnuojUserRecord> records = cursor.next();
+                    if (dryRun) {
+                        processBatch(records, job);
+                    } else {
+                        long batchLastSourceId = records.get(records.size() - 1).getId();
+                        // 批次写入与进度记录同一事务提交，续跑时不会重放已写入的批次
+                        transactionTemplate.executeWithoutResult(status -> {
+                            processBatch(records, job);
+                            report.setElapsedMillis(priorElapsedMillis + elapsedMillis(jobStartNanos));
+                            saveCommittedProgress(report, batchLastSourceId);
+                        });
+                        lastCommittedSourceId = batchLastSourceId;
+                        saveCheckpoint(storedProfile, report, lastCommittedSourceId, false);
                     }
-                    report.setProcessed(report.getProcessed() + 1);
+                    log.info("User migration progress: {}/{}", report.getProcessed(), total);
                 }
-
-                offset += records.size();
-                log.info("User migration progress: {}/{}", report.getProcessed(), total);
             }
         } catch (Exception ex) {
-            report.setFinishedAt(LocalDateTime.now());
-            log.error("User migration failed. jobId={}", report.getJobId(), ex);
+            finishReport(report, jobStartNanos, priorElapsedMillis);
+            log.error("User migration failed, resume from the last checkpoint. jobId={}", report.getJobId(), ex);
             throw new IllegalStateException("user migration failed: " + ex.getMessage(), ex);
         }
 
-        report.setFinishedAt(LocalDateTime.now());
+        finishReport(report, jobStartNanos, priorElapsedMillis);
+        if (!dryRun) {
+            saveCheckpoint(storedProfile, report, lastCommittedSourceId, true);
+        }
+        log.info("User migration finished. jobId={}, processed={}, elapsedMillis={}, rowsPerSecond={}",
+                report.getJobId(), report.getProcessed(), report.getElapsedMillis(), report.getRowsPerSecond());
         return report;
     }
 
-    private void processOneRecord(
+    /**
+     * 一个批次分三段处理：一次 IN 查询预取冲突数据 -> 内存中逐条决策 -> 多行 INSERT。
+     * 决策阶段按源顺序串行执行，批内先到的记录会占用用户名/邮箱，与逐条处理的结果一致。
+     */
+    private void processBatch(List<ScnuojUserRecord> records, MigrationJob job) {
+        UserMigrationReport report = job.report();
+
+        long prefetchStartNanos = System.nanoTime();
+        BatchLookup lookup = prefetch(records, job.config());
+        report.setPrefetchMillis(report.getPrefetchMillis() + elapsedMillis(prefetchStartNanos));
+
+        List<PendingInsert> pendingInserts = new ArrayList<>();
+        List<PendingUpdate> pendingUpdates = new ArrayList<>();
+        for (ScnuojUserRecord record : records) {
+            try {
+                planOneRecord(record, job, lookup, pendingInserts, pendingUpdates);
+            } catch (Exception ex) {
+                recordFailure(job, record.getId(), record.getUsername(), ex);
+            }
+            report.setProcessed(report.getProcessed() + 1);
+        }
+        if (job.dryRun()) {
+            report.setInserted(report.getInserted() + pendingInserts.size());
+            return;
+        }
+
+        long writeStartNanos = System.nanoTime();
+        writeInserts(pendingInserts, job);
+        for (PendingUpdate pending : pendingUpdates) {
+            try {
+                userMapper.updateById(pending.entity());
+            } catch (Exception ex) {
+                report.setUpdated(report.getUpdated() - 1);
+                recordFailure(job, pending.sourceUserId(), pending.username(), ex);
+            }
+        }
+        report.setWriteMillis(report.getWriteMillis() + elapsedMillis(writeStartNanos));
+    }
+
+    private void planOneRecord(
             ScnuojUserRecord record,
-            UserModuleConfig config,
-            boolean dryRun,
-            Long rootGroupId,
-            Long adminGroupId,
-            Long userGroupId,
-            UserMigrationReport report,
-            int issueLimit
+            MigrationJob job,
+            BatchLookup lookup,
+            List<PendingInsert> pendingInserts,
+            List<PendingUpdate> pendingUpdates
     ) {
+        UserModuleConfig config = job.config();
+        UserMigrationReport report = job.report();
+        int issueLimit = job.issueLimit();
+
         String username = normalize(record.getUsername());
         if (!isValidUsername(username)) {
             if (config.getConflictPolicy() == UsernameConflictPolicy.RENAME) {
                 username = generateRenamedUsername(record.getId());
-                username = ensureUniqueUsername(username);
+                username = ensureUniqueUsername(username, lookup);
             } else {
                 report.setSkipped(report.getSkipped() + 1);
                 addIssue(report, issueLimit, new UserMigrationIssue(record.getId(), record.getUsername(), "skipped", "invalid username"));
@@ -131,7 +231,7 @@ public class UserMigrationService {
             }
         }
 
-        UserEntity existingByUsername = findActiveByUsername(username);
+        UserEntity existingByUsername = lookup.findByUsername(username);
         if (existingByUsername != null) {
             if (config.getConflictPolicy() == UsernameConflictPolicy.SKIP) {
                 report.setSkipped(report.getSkipped() + 1);
@@ -139,13 +239,16 @@ public class UserMigrationService {
                 return;
             }
             if (config.getConflictPolicy() == UsernameConflictPolicy.RENAME) {
-                username = ensureUniqueUsername(generateRenamedUsername(record.getId()));
+                username = ensureUniqueUsername(generateRenamedUsername(record.getId()), lookup);
                 addIssue(report, issueLimit, new UserMigrationIssue(record.getId(), record.getUsername(), "renamed", "username conflict"));
-                existingByUsername = null;
             } else if (config.getConflictPolicy() == UsernameConflictPolicy.OVERWRITE_SAFE) {
                 if (isSafeOverwrite(existingByUsername, normalize(record.getEmail()))) {
-                    if (!dryRun) {
-                        updateExistingUser(existingByUsername.getId(), record, existingByUsername.getUsername(), rootGroupId, adminGroupId, userGroupId, config);
+                    if (!job.dryRun()) {
+                        pendingUpdates.add(new PendingUpdate(
+                                record.getId(),
+                                username,
+                                toUpdatedUserEntity(existingByUsername.getId(), record, existingByUsername.getUsername(), job)
+                        ));
                     }
                     report.setUpdated(report.getUpdated() + 1);
                     addIssue(report, issueLimit, new UserMigrationIssue(record.getId(), username, "updated", "safe overwrite"));
@@ -164,7 +267,7 @@ public class UserMigrationService {
         }
 
         if (StringUtils.hasText(email)) {
-            UserEntity existingByEmail = findActiveByEmail(email);
+            UserEntity existingByEmail = lookup.findByEmail(email);
             if (existingByEmail != null) {
                 if (config.getEmailConflictPolicy() == EmailConflictPolicy.SKIP_USER) {
                     report.setSkipped(report.getSkipped() + 1);
@@ -176,29 +279,150 @@ public class UserMigrationService {
             }
         }
 
-        if (!dryRun) {
-            UserEntity newUser = toNewUserEntity(record, username, email, rootGroupId, adminGroupId, userGroupId, config);
-            userMapper.insert(newUser);
+        UserEntity newUser = toNewUserEntity(record, username, email, job);
+        lookup.claim(newUser);
+        pendingInserts.add(new PendingInsert(record.getId(), newUser));
+    }
+
+    private BatchLookup prefetch(List<ScnuojUserRecord> records, UserModuleConfig config) {
+        Set<String> usernames = new LinkedHashSet<>();
+        Set<String> emails = new LinkedHashSet<>();
+        boolean rename = config.getConflictPolicy() == UsernameConflictPolicy.RENAME;
+        for (ScnuojUserRecord record : records) {
+            String username = normalize(record.getUsername());
+            if (isValidUsername(username)) {
+                usernames.add(username);
+            }
+            if (rename) {
+                usernames.add(generateRenamedUsername(record.getId()));
+            }
+            String email = normalize(record.getEmail());
+            if (StringUtils.hasText(email) && email.length() <= 191) {
+                emails.add(email);
+            }
+        }
+
+        BatchLookup lookup = new BatchLookup(usernames);
+        if (usernames.isEmpty() && emails.isEmpty()) {
+            return lookup;
         }
-        report.setInserted(report.getInserted() + 1);
+        LambdaQueryWrapper<UserEntity> query = Wrappers.<UserEntity>lambdaQuery()
+                .isNull(UserEntity::getDeletedAt);
+        if (usernames.isEmpty()) {
+            query.in(UserEntity::getEmail, emails);
+        } else if (emails.isEmpty()) {
+            query.in(UserEntity::getUsername, usernames);
+        } else {
+            query.and(wrapper -> wrapper.in(UserEntity::getUsername, usernames)
+                    .or()
+                    .in(UserEntity::getEmail, emails));
+        }
+        for (UserEntity existing : userMapper.selectList(query)) {
+            lookup.claim(existing);
+        }
+        return lookup;
     }
 
-    private UserEntity toNewUserEntity(
-            ScnuojUserRecord record,
-            String username,
-            String email,
-            Long rootGroupId,
-            Long adminGroupId,
-            Long userGroupId,
-            UserModuleConfig config
-    ) {
+    private void writeInserts(List<PendingInsert> pendingInserts, MigrationJob job) {
+        if (pendingInserts.isEmpty()) {
+            return;
+        }
+        UserMigrationReport report = job.report();
+        List<UserEntity> entities = pendingInserts.stream().map(PendingInsert::entity).toList();
+        try {
+            userMapper.insertBatch(entities);
+            report.setInserted(report.getInserted() + entities.size());
+            return;
+        } catch (Exception ex) {
+            log.warn("Batch insert of {} users failed, retrying row by row: {}", entities.size(), ex.getMessage());
+        }
+        // 多行 INSERT 整体失败时逐行重试，把失败归因到具体记录；failFast 时在第一条真正失败的记录处中止，
+        // 已逐行写入的记录随本批事务回滚
+        for (PendingInsert pending : pendingInserts) {
+            try {
+                userMapper.insert(pending.entity());
+                report.setInserted(report.getInserted() + 1);
+            } catch (Exception ex) {
+                recordFailure(job, pending.sourceUserId(), pending.entity().getUsername(), ex);
+            }
+        }
+    }
+
+    private void recordFailure(MigrationJob job, Long sourceUserId, String username, Exception ex) {
+        UserMigrationReport report = job.report();
+        report.setFailed(report.getFailed() + 1);
+        addIssue(report, job.issueLimit(), new UserMigrationIssue(sourceUserId, username, "failed", ex.getMessage()));
+        if (job.failFast()) {
+            if (ex instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(ex.getMessage(), ex);
+        }
+    }
+
+    private void saveCommittedProgress(UserMigrationReport report, long lastSourceId) {
+        try {
+            checkpointStore.saveCommittedUserProgress(report.getJobId(), lastSourceId, report);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private UserMigrationCheckpoint latestCommittedProgress(UserMigrationCheckpoint checkpoint) {
+        UserMigrationCheckpoint committed;
+        try {
+            committed = checkpointStore.findCommittedUserProgress(checkpoint.getJobId());
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        if (committed == null || committed.getLastSourceId() <= checkpoint.getLastSourceId()) {
+            return checkpoint;
+        }
+        log.info("Checkpoint file is behind committed progress. jobId={}, fileLastSourceId={}, committedLastSourceId={}",
+                checkpoint.getJobId(), checkpoint.getLastSourceId(), committed.getLastSourceId());
+        return committed;
+    }
+
+    private void saveCheckpoint(MigrationProfile storedProfile, UserMigrationReport report, long lastSourceId, boolean completed) {
+        UserMigrationCheckpoint checkpoint = new UserMigrationCheckpoint();
+        checkpoint.setJobId(report.getJobId());
+        checkpoint.setProfile(storedProfile);
+        checkpoint.setLastSourceId(lastSourceId);
+        checkpoint.setCompleted(completed);
+        checkpoint.setUpdatedAt(LocalDateTime.now());
+        checkpoint.setReport(report);
+        try {
+            checkpointStore.saveUserCheckpoint(checkpoint);
+        } catch (IOException ex) {
+            log.warn("Failed to write user migration checkpoint. jobId={}: {}", report.getJobId(), ex.getMessage());
+        }
+    }
+
+    ScnuojSourceClient openSource(SourceDatabaseConfig sourceConfig) {
+        return new ScnuojSourceClient(sourceConfig);
+    }
+
+    private void finishReport(UserMigrationReport report, long jobStartNanos, long priorElapsedMillis) {
+        report.setFinishedAt(LocalDateTime.now());
+        long elapsedMillis = priorElapsedMillis + elapsedMillis(jobStartNanos);
+        report.setElapsedMillis(elapsedMillis);
+        report.setRowsPerSecond(elapsedMillis == 0 ? report.getProcessed() : report.getProcessed() * 1000.0 / elapsedMillis);
+    }
+
+    private long elapsedMillis(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+
+    private UserEntity toNewUserEntity(ScnuojUserRecord record, String username, String email, MigrationJob job) {
+        UserModuleConfig config = job.config();
         UserEntity entity = new UserEntity();
+        entity.setId(IdWorker.getId());
         entity.setUsername(username);
-        entity.setPassword(buildEncodedPassword(config));
+        entity.setPassword(buildEncodedPassword(job));
         entity.setNickname(resolveNickname(record.getNickname(), username));
         entity.setEmail(email);
         entity.setEmailVerified(record.getIsVerifyEmail() != null && record.getIsVerifyEmail() == 1);
-        entity.setPermissionGroupId(resolvePermissionGroupId(record.getRole(), rootGroupId, adminGroupId, userGroupId));
+        entity.setPermissionGroupId(resolvePermissionGroupId(record.getRole(), job));
         entity.setProfile(Boolean.TRUE.equals(config.getImportProfile()) ? normalize(record.getPersonalIntro()) : null);
         entity.setDefaultCodePublic(Boolean.FALSE);
         entity.setCreatedAt(record.getCreatedAt() == null ? LocalDateTime.now() : record.getCreatedAt());
@@ -207,26 +431,19 @@ public class UserMigrationService {
         return entity;
     }
 
-    private void updateExistingUser(
-            Long userId,
-            ScnuojUserRecord record,
-            String username,
-            Long rootGroupId,
-            Long adminGroupId,
-            Long userGroupId,
-            UserModuleConfig config
-    ) {
+    private UserEntity toUpdatedUserEntity(Long userId, ScnuojUserRecord record, String username, MigrationJob job) {
+        UserModuleConfig config = job.config();
         UserEntity entity = new UserEntity();
         entity.setId(userId);
-        entity.setPassword(buildEncodedPassword(config));
+        entity.setPassword(buildEncodedPassword(job));
         entity.setNickname(resolveNickname(record.getNickname(), username));
         entity.setEmail(normalizeEmailForUpdate(record.getEmail()));
         entity.setEmailVerified(record.getIsVerifyEmail() != null && record.getIsVerifyEmail() == 1);
-        entity.setPermissionGroupId(resolvePermissionGroupId(record.getRole(), rootGroupId, adminGroupId, userGroupId));
+        entity.setPermissionGroupId(resolvePermissionGroupId(record.getRole(), job));
         entity.setProfile(Boolean.TRUE.equals(config.getImportProfile()) ? normalize(record.getPersonalIntro()) : null);
         entity.setDefaultCodePublic(Boolean.FALSE);
         entity.setUpdatedAt(record.getUpdatedAt() == null ? LocalDateTime.now() : record.getUpdatedAt());
-        userMapper.updateById(entity);
+        return entity;
     }
 
     private String normalizeEmailForUpdate(String sourceEmail) {
@@ -249,22 +466,10 @@ public class UserMigrationService {
         );
     }
 
-    private UserEntity findActiveByEmail(String email) {
-        if (!StringUtils.hasText(email)) {
-            return null;
-        }
-        return userMapper.selectOne(
-                Wrappers.<UserEntity>lambdaQuery()
-                        .eq(UserEntity::getEmail, email)
-                        .isNull(UserEntity::getDeletedAt)
-                        .last("LIMIT 1")
-        );
-    }
-
-    private String ensureUniqueUsername(String baseUsername) {
+    private String ensureUniqueUsername(String baseUsername, BatchLookup lookup) {
         String candidate = baseUsername;
         int suffix = 1;
-        while (findActiveByUsername(candidate) != null) {
+        while (isUsernameTaken(candidate, lookup)) {
             String suffixText = "_" + suffix;
             int maxBaseLength = 64 - suffixText.length();
             String head = baseUsername.length() > maxBaseLength ? baseUsername.substring(0, maxBaseLength) : baseUsername;
@@ -274,6 +479,14 @@ public class UserMigrationService {
         return candidate;
     }
 
+    private boolean isUsernameTaken(String username, BatchLookup lookup) {
+        if (lookup.findByUsername(username) != null) {
+            return true;
+        }
+        // 带后缀的候选名不在预取范围内，需单独查询
+        return !lookup.isPrefetchedUsername(username) && findActiveByUsername(username) != null;
+    }
+
     private String generateRenamedUsername(Long sourceId) {
         String idPart = sourceId == null ? UUID.randomUUID().toString().replace("-", "").substring(0, 10) : String.valueOf(sourceId);
         String candidate = "legacy_" + idPart;
@@ -297,26 +510,31 @@ public class UserMigrationService {
         return nickname;
     }
 
-    private String buildEncodedPassword(UserModuleConfig config) {
-        String rawPassword;
-        if (config.getPasswordMode() == UserPasswordMode.FIXED) {
-            rawPassword = config.getFixedPassword();
-        } else {
-            rawPassword = UUID.randomUUID().toString() + "#" + UUID.randomUUID();
+    // FIXED 模式下所有账号密码相同，整个任务只哈希一次
+    private String encodeFixedPassword(UserModuleConfig config) {
+        if (config.getPasswordMode() != UserPasswordMode.FIXED) {
+            return null;
         }
-        return passwordEncoder.encode(rawPassword);
+        return passwordEncoder.encode(config.getFixedPassword());
     }
 
-    private Long resolvePermissionGroupId(Integer sourceRole, Long rootGroupId, Long adminGroupId, Long userGroupId) {
+    private String buildEncodedPassword(MigrationJob job) {
+        if (job.config().getPasswordMode() == UserPasswordMode.FIXED) {
+            return job.fixedPasswordHash();
+        }
+        return UnloginablePassword.generate();
+    }
+
+    private Long resolvePermissionGroupId(Integer sourceRole, MigrationJob job) {
         if (sourceRole != null) {
             if (sourceRole == 30) {
-                return rootGroupId;
+                return job.rootGroupId();
             }
             if (sourceRole == 20) {
-                return adminGroupId;
+                return job.adminGroupId();
             }
         }
-        return userGroupId;
+        return job.userGroupId();
     }
 
     private boolean isSafeOverwrite(UserEntity existing, String sourceEmail) {
@@ -382,4 +600,64 @@ public class UserMigrationService {
             config.setEnabled(Boolean.TRUE);
         }
     }
+
+    private record MigrationJob(
+            UserModuleConfig config,
+            boolean dryRun,
+            boolean failFast,
+            int issueLimit,
+            Long rootGroupId,
+            Long adminGroupId,
+            Long userGroupId,
+            String fixedPasswordHash,
+            UserMigrationReport report
+    ) {
+    }
+
+    private record PendingInsert(Long sourceUserId, UserEntity entity) {
+    }
+
+    private record PendingUpdate(Long sourceUserId, String username, UserEntity entity) {
+    }
+
+    /**
+     * 单个批次的用户名/邮箱占用表。键统一转小写，与 MySQL 默认的大小写不敏感排序规则保持一致。
+     */
+    private static final class BatchLookup {
+
+        private final Set<String> prefetchedUsernames = new HashSet<>();
+        private final Map<String, UserEntity> usersByUsername = new HashMap<>();
+        private final Map<String, UserEntity> usersByEmail = new HashMap<>();
+
+        private BatchLookup(Set<String> prefetchedUsernames) {
+            for (String username : prefetchedUsernames) {
+                this.prefetchedUsernames.add(lowerCase(username));
+            }
+        }
+
+        private boolean isPrefetchedUsername(String username) {
+            return prefetchedUsernames.contains(lowerCase(username));
+        }
+
+        private UserEntity findByUsername(String username) {
+            return StringUtils.hasText(username) ? usersByUsername.get(lowerCase(username)) : null;
+        }
+
+        private UserEntity findByEmail(String email) {
+            return StringUtils.hasText(email) ? usersByEmail.get(lowerCase(email)) : null;
+        }
+
+        private void claim(UserEntity user) {
+            if (StringUtils.hasText(user.getUsername())) {
+                usersByUsername.putIfAbsent(lowerCase(user.getUsername()), user);
+            }
+            if (StringUtils.hasText(user.getEmail())) {
+                usersByEmail.putIfAbsent(lowerCase(user.getEmail()), user);
+            }
+        }
+
+        private static String lowerCase(String text) {
+            return text.toLowerCase(Locale.ROOT);
+        }
+    }
 }
@@ -2,10 +2,11 @@ package com.lunaroj.migration.source;
 
 import com.lunaroj.migration.model.SourceDatabaseConfig;
 import com.lunaroj.migration.module.user.ScnuojUserRecord;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
-import org.springframework.jdbc.datasource.DriverManagerDataSource;
 import org.springframework.util.StringUtils;
 
 import java.sql.Timestamp;
@@ -14,15 +15,25 @@ import java.util.List;
 
 public class ScnuojSourceClient implements AutoCloseable {
 
+    // 预读线程最多领先消费者的页数
+    private static final int PREFETCH_PAGES = 1;
+
+    private final HikariDataSource dataSource;
     private final NamedParameterJdbcTemplate jdbcTemplate;
 
     public ScnuojSourceClient(SourceDatabaseConfig sourceConfig) {
         validateConfig(sourceConfig);
-        DriverManagerDataSource dataSource = new DriverManagerDataSource();
-        dataSource.setDriverClassName("com.mysql.cj.jdbc.Driver");
-        dataSource.setUrl(buildJdbcUrl(sourceConfig));
-        dataSource.setUsername(sourceConfig.getUser());
-        dataSource.setPassword(sourceConfig.getPassword());
+        HikariConfig hikariConfig = new HikariConfig();
+        hikariConfig.setPoolName("scnuoj-source");
+        hikariConfig.setDriverClassName("com.mysql.cj.jdbc.Driver");
+        hikariConfig.setJdbcUrl(buildJdbcUrl(sourceConfig));
+        hikariConfig.setUsername(sourceConfig.getUser());
+        hikariConfig.setPassword(sourceConfig.getPassword());
+        // 整个任务复用同一条连接
+        hikariConfig.setMaximumPoolSize(1);
+        hikariConfig.setMinimumIdle(1);
+        hikariConfig.setReadOnly(true);
+        this.dataSource = new HikariDataSource(hikariConfig);
         this.jdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
     }
 
@@ -37,7 +48,16 @@ public class ScnuojSourceClient implements AutoCloseable {
         return count == null ? 0L : count;
     }
 
-    public List<ScnuojUserRecord> fetchUsers(List<Integer> statuses, boolean importProfile, int offset, int limit) {
+    public ScnuojUserCursor openUserCursor(List<Integer> statuses, boolean importProfile, long afterId, int pageSize) {
+        return new ScnuojUserCursor(
+                (lastId, limit) -> fetchUsersAfter(statuses, importProfile, lastId, limit),
+                afterId,
+                pageSize,
+                PREFETCH_PAGES
+        );
+    }
+
+    public List<ScnuojUserRecord> fetchUsersAfter(List<Integer> statuses, boolean importProfile, long lastId, int limit) {
         String profileSelect = importProfile ? ", p.personal_intro AS personalIntro " : ", NULL AS personalIntro ";
         String profileJoin = importProfile ? "LEFT JOIN `user_profile` p ON p.user_id = u.id " : "";
         String sql = "SELECT u.id, u.username, u.nickname, u.email, u.role, u.status, " +
@@ -45,13 +65,13 @@ public class ScnuojSourceClient implements AutoCloseable {
                 profileSelect +
                 "FROM `user` u " +
                 profileJoin +
-                "WHERE u.status IN (:statuses) " +
-                "ORDER BY u.id ASC LIMIT :limit OFFSET :offset";
+                "WHERE u.status IN (:statuses) AND u.id > :lastId " +
+                "ORDER BY u.id ASC LIMIT :limit";
 
         MapSqlParameterSource params = new MapSqlParameterSource()
                 .addValue("statuses", statuses)
-                .addValue("limit", limit)
-                .addValue("offset", offset);
+                .addValue("lastId", lastId)
+                .addValue("limit", limit);
         return jdbcTemplate.query(sql, params, rowMapper());
     }
 
@@ -102,7 +122,7 @@ public class ScnuojSourceClient implements AutoCloseable {
 
     @Override
     public void close() {
-        // DriverManagerDataSource does not need explicit close.
+        dataSource.close();
     }
 }
 
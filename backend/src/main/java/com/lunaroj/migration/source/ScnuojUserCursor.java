@@ -0,0 +1,137 @@
+package com.lunaroj.migration.source;
+
+import com.lunaroj.migration.module.user.ScnuojUserRecord;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 按 id 递增逐页读取源库用户。后台线程按 keyset 预读，队列容量即最多领先消费者的页数，
+ * 消费者处理变慢时读取线程会阻塞，内存占用与源表大小无关。
+ * 读取失败不经过队列，记在 failure 上：消费者取完已缓冲的页后抛出，队列满时也不会丢失。
+ */
+public final class ScnuojUserCursor implements Iterator<List<ScnuojUserRecord>>, AutoCloseable {
+
+    @FunctionalInterface
+    interface PageFetcher {
+
+        List<ScnuojUserRecord> fetchAfter(long lastId, int limit);
+    }
+
+    private record Page(List<ScnuojUserRecord> records) {
+    }
+
+    private static final Page END = new Page(List.of());
+    // 取不到页时检查读取线程状态的间隔
+    private static final long POLL_MILLIS = 100L;
+
+    private final BlockingQueue<Page> pages;
+    private final Thread reader;
+    private volatile Throwable failure;
+
+    private Page next;
+    private boolean finished;
+
+    ScnuojUserCursor(PageFetcher fetcher, long afterId, int pageSize, int prefetchPages) {
+        this.pages = new ArrayBlockingQueue<>(Math.max(1, prefetchPages));
+        this.reader = new Thread(() -> readPages(fetcher, afterId, pageSize), "scnuoj-user-reader");
+        this.reader.setDaemon(true);
+        this.reader.start();
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next != null) {
+            return true;
+        }
+        if (finished) {
+            return false;
+        }
+        Page page = pollPage();
+        if (page == END) {
+            finished = true;
+            return false;
+        }
+        next = page;
+        return true;
+    }
+
+    private Page pollPage() {
+        while (true) {
+            Page page;
+            try {
+                page = pages.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("source reader interrupted", ex);
+            }
+            if (page != null) {
+                return page;
+            }
+            Throwable error = failure;
+            if (error != null) {
+                finished = true;
+                if (error instanceof RuntimeException runtimeException) {
+                    throw runtimeException;
+                }
+                if (error instanceof Error fatal) {
+                    throw fatal;
+                }
+                throw new IllegalStateException(error);
+            }
+            // 读取线程已退出且没有留下结束页，只可能是被 close 中断
+            if (!reader.isAlive() && pages.isEmpty() && failure == null) {
+                finished = true;
+                throw new IllegalStateException("source reader stopped");
+            }
+        }
+    }
+
+    @Override
+    public List<ScnuojUserRecord> next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        List<ScnuojUserRecord> records = next.records();
+        next = null;
+        return records;
+    }
+
+    @Override
+    public void close() {
+        finished = true;
+        reader.interrupt();
+        pages.clear();
+    }
+
+    boolean readerAlive() {
+        return reader.isAlive();
+    }
+
+    private void readPages(PageFetcher fetcher, long afterId, int pageSize) {
+        long lastId = afterId;
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                List<ScnuojUserRecord> records = fetcher.fetchAfter(lastId, pageSize);
+                if (records.isEmpty()) {
+                    pages.put(END);
+                    return;
+                }
+                pages.put(new Page(records));
+                if (records.size() < pageSize) {
+                    pages.put(END);
+                    return;
+                }
+                lastId = records.get(records.size() - 1).getId();
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch (Throwable ex) {
+            failure = ex;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.lunaroj.model.bo;
+
+import com.lunaroj.constant.SystemConfigKeys;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.util.StringUtils;
+
+import java.util.Map;
+
+/**
+ * 某一时刻全部 system_config 的不可变快照，常用项在构造时解析为强类型字段。
+ */
+@Slf4j
+@Getter
+public final class SystemConfigSnapshot {
+
+    private static final boolean DEFAULT_REGISTER_ENABLED = true;
+    private static final long DEFAULT_SUBMIT_INTERVAL_MILLIS = 1000L;
+    private static final long DEFAULT_MAX_CODE_LENGTH = 65535L;
+    private static final long DEFAULT_TESTCASE_UPLOAD_DAILY_BYTES = 0L;
+
+    private final long version;
+    private final Map<String, String> values;
+
+    private final boolean registerEnabled;
+    private final long submitIntervalMillis;
+    private final long maxCodeLength;
+    // 0 表示不限制
+    private final long testcaseUploadDailyBytes;
+
+    public SystemConfigSnapshot(long version, Map<String, String> values) {
+        this.version = version;
+        this.values = Map.copyOf(values);
+        this.registerEnabled = getBoolean(SystemConfigKeys.REGISTER_ENABLED, DEFAULT_REGISTER_ENABLED);
+        this.submitIntervalMillis = getLong(SystemConfigKeys.SUBMIT_INTERVAL_MILLIS, DEFAULT_SUBMIT_INTERVAL_MILLIS);
+        this.maxCodeLength = getLong(SystemConfigKeys.MAX_CODE_LENGTH, DEFAULT_MAX_CODE_LENGTH);
+        this.testcaseUploadDailyBytes = getLong(
+                SystemConfigKeys.TESTCASE_UPLOAD_DAILY_BYTES,
+                DEFAULT_TESTCASE_UPLOAD_DAILY_BYTES
+        );
+    }
+
+    public String getString(String configKey, String defaultValue) {
+        String configValue = values.get(configKey);
+        if (!StringUtils.hasText(configValue)) {
+            return defaultValue;
+        }
+        return configValue;
+    }
+
+    public boolean getBoolean(String configKey, boolean defaultValue) {
+        String configValue = getString(configKey, null);
+        if (!StringUtils.hasText(configValue)) {
+            return defaultValue;
+        }
+        return Boolean.parseBoolean(configValue);
+    }
+
+    public long getLong(String configKey, long defaultValue) {
+        String configValue = getString(configKey, null);
+        if (!StringUtils.hasText(configValue)) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(configValue.trim());
+        } catch (NumberFormatException ex) {
+            log.warn("无效的 long 配置值: key={}, value={}, 使用默认值={}", configKey, configValue, defaultValue);
+            return defaultValue;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.lunaroj.model.entity;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@TableName("contest")
+public class ContestEntity {
+
+    @TableId(type = IdType.ASSIGN_ID)
+    private Long id;
+
+    private String displayId;
+    private String title;
+    private String description;
+    private Long problemSetId;
+    private Long teamId;
+    private Integer mode;
+    private LocalDateTime startAt;
+    private LocalDateTime endAt;
+    private LocalDateTime freezeAt;
+    private LocalDateTime unfreezeAt;
+    private Integer penalty;
+    private Integer accessMode;
+    private Integer visibility;
+    private Boolean rankVisible;
+    private Boolean submitInfoVisible;
+    private Integer judgePriority;
+    private String inviteCode;
+    private Boolean enableClar;
+    private Boolean enableBalloon;
+    private Boolean enablePrint;
+    private Long createdBy;
+    private LocalDateTime createdAt;
+    private Long updatedBy;
+    private LocalDateTime updatedAt;
+    private LocalDateTime deletedAt;
+}
@@ -0,0 +1,21 @@
+package com.lunaroj.model.entity;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@TableName("migration_checkpoint")
+public class MigrationCheckpointEntity {
+
+    @TableId(value = "job_id", type = IdType.INPUT)
+    private String jobId;
+
+    private String module;
+    private Long lastSourceId;
+    private String report;
+    private LocalDateTime updatedAt;
+}
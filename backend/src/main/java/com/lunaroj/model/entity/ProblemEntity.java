@@ -0,0 +1,48 @@
+package com.lunaroj.model.entity;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@TableName("problem")
+public class ProblemEntity {
+
+    @TableId(type = IdType.ASSIGN_ID)
+    private Long id;
+
+    private String displayId;
+    private String title;
+    private String description;
+    private String inputDescription;
+    private String outputDescription;
+    private String samples;
+    private String note;
+    private Integer timeLimit;
+    private Integer memoryLimit;
+    private Integer difficulty;
+    private Boolean difficultySource;
+    private String solution;
+    private Boolean solutionVisible;
+    private String stdCode;
+    private Integer stdLanguage;
+    private Boolean stdVisible;
+    private Integer judgeMode;
+    private String scoringConfig;
+    private String spjCode;
+    private Integer spjLanguage;
+    private Integer acceptCount;
+    private Integer submitCount;
+    private Integer status;
+    private Long reviewedBy;
+    private LocalDateTime reviewedAt;
+    private Long createdBy;
+    private LocalDateTime createdAt;
+    private Long updatedBy;
+    private LocalDateTime updatedAt;
+    private Long deletedBy;
+    private LocalDateTime deletedAt;
+}
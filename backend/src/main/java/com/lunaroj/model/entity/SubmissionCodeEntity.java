@@ -0,0 +1,19 @@
+package com.lunaroj.model.entity;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.Data;
+
+@Data
+@TableName("submission_code")
+public class SubmissionCodeEntity {
+
+    @TableId(type = IdType.INPUT)
+    private Long submissionId;
+
+    private String code;
+    private String compileOutput;
+    // JSON 数组原文
+    private String caseResults;
+}
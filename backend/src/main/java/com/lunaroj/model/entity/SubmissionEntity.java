@@ -0,0 +1,32 @@
+package com.lunaroj.model.entity;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@TableName("submission")
+public class SubmissionEntity {
+
+    @TableId(type = IdType.ASSIGN_ID)
+    private Long id;
+
+    private Long userId;
+    private Long problemId;
+    private Long problemSetId;
+    private Long contestId;
+    private Integer codeLength;
+    private Integer language;
+    private Integer status;
+    private Integer score;
+    private Integer timeUsed;
+    private Integer memoryUsed;
+    private Integer passCount;
+    private Integer totalCount;
+    private Boolean isPublic;
+    private LocalDateTime judgedAt;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,52 @@
+package com.lunaroj.scoreboard;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.lunaroj.mapper.ContestMapper;
+import com.lunaroj.model.entity.ContestEntity;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * 比赛元数据缓存。同一比赛的并发未命中只回表一次；过了刷新间隔后由首个访问者触发后台刷新，
+ * 期间所有请求继续拿到旧值。不存在或已删除的比赛同样缓存，防止缓存穿透。
+ */
+@Component
+public class ContestCache {
+
+    private final ContestMapper contestMapper;
+    private final LoadingCache<Long, Optional<ContestEntity>> contests;
+
+    public ContestCache(ContestMapper contestMapper, ScoreboardProperties scoreboardProperties) {
+        this.contestMapper = contestMapper;
+        this.contests = Caffeine.newBuilder()
+                .maximumSize(1024)
+                .refreshAfterWrite(Duration.ofMillis(scoreboardProperties.getContestRefreshMillis()))
+                .expireAfterWrite(Duration.ofMillis(scoreboardProperties.getContestExpireMillis()))
+                .build(this::load);
+    }
+
+    public ContestEntity find(Long contestId) {
+        if (contestId == null) {
+            return null;
+        }
+        return contests.get(contestId).orElse(null);
+    }
+
+    public void put(ContestEntity contest) {
+        contests.put(contest.getId(), Optional.of(contest).filter(value -> value.getDeletedAt() == null));
+    }
+
+    public void evict(Long contestId) {
+        if (contestId != null) {
+            contests.invalidate(contestId);
+        }
+    }
+
+    private Optional<ContestEntity> load(Long contestId) {
+        return Optional.ofNullable(contestMapper.selectById(contestId))
+                .filter(contest -> contest.getDeletedAt() == null);
+    }
+}
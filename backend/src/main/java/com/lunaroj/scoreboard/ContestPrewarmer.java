@@ -0,0 +1,60 @@
+package com.lunaroj.scoreboard;
+
+import com.lunaroj.mapper.ContestMapper;
+import com.lunaroj.model.entity.ContestEntity;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 定时扫描即将开始的比赛，提前载入比赛元数据和榜单首页，避免开赛瞬间所有参赛者同时击穿缓存。
+ * 元数据每轮都会刷新，以便赛前修改的封榜时间等配置生效；榜单只在进入预热窗口时加载一次。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ContestPrewarmer {
+
+    private final ContestMapper contestMapper;
+    private final ContestCache contestCache;
+    private final ContestScoreboard contestScoreboard;
+    private final OiScoreboard oiScoreboard;
+    private final ScoreboardProperties scoreboardProperties;
+
+    // 仅由调度线程访问
+    private final Set<Long> warmedContestIds = new HashSet<>();
+
+    @Scheduled(
+            initialDelayString = "${lunaroj.scoreboard.prewarm-initial-delay-millis:10000}",
+            fixedDelayString = "${lunaroj.scoreboard.prewarm-interval-millis:30000}"
+    )
+    public void prewarm() {
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            List<ContestEntity> contests = contestMapper.selectStartingBetween(
+                    now,
+                    now.plus(Duration.ofMillis(scoreboardProperties.getPrewarmLeadMillis()))
+            );
+            Set<Long> upcomingIds = new HashSet<>();
+            for (ContestEntity contest : contests) {
+                upcomingIds.add(contest.getId());
+                contestCache.put(contest);
+                if (warmedContestIds.add(contest.getId())) {
+                    contestScoreboard.warm(contest, scoreboardProperties.getPrewarmPageSize());
+                    oiScoreboard.warm(contest);
+                    log.info("预热比赛榜单: contestId={}, startAt={}", contest.getId(), contest.getStartAt());
+                }
+            }
+            warmedContestIds.retainAll(upcomingIds);
+        } catch (Exception ex) {
+            log.warn("预热比赛缓存失败: {}", ex.getMessage());
+        }
+    }
+}
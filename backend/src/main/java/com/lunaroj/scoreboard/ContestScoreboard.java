@@ -0,0 +1,426 @@
+package com.lunaroj.scoreboard;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.lunaroj.common.error.ErrorCode;
+import com.lunaroj.common.exception.BusinessException;
+import com.lunaroj.constant.ContestMode;
+import com.lunaroj.constant.SubmissionStatus;
+import com.lunaroj.judge.JudgeResultListener;
+import com.lunaroj.judge.model.JudgeResult;
+import com.lunaroj.judge.model.JudgeTask;
+import com.lunaroj.mapper.SubmissionMapper;
+import com.lunaroj.model.entity.ContestEntity;
+import com.lunaroj.model.entity.SubmissionEntity;
+import com.lunaroj.scoreboard.model.ScoreboardCell;
+import com.lunaroj.scoreboard.model.ScoreboardPage;
+import com.lunaroj.scoreboard.model.ScoreboardRow;
+import com.lunaroj.submission.SubmissionPartitions;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * ACM 比赛实时榜单，存放在 Redis：
+ * <ul>
+ *     <li>{@code scoreboard:{contestId}:live:rank} 实时榜 ZSET，member 为 userId，分值见 {@link PackedScore}</li>
+ *     <li>{@code scoreboard:{contestId}:live:user:{userId}} 该用户各题状态 HASH</li>
+ *     <li>{@code frozen} 前缀的同构键为封榜视图，封榜后的提交只记为待定</li>
+ * </ul>
+ * 每个评测结果通过一次 Lua 调用原子地更新两套视图；读取一页只需 ZREVRANGE 加一次流水线 HGETALL，
+ * 不再回表聚合 submission。罚时按提交 id 顺序计算，与评测完成顺序无关；重判后调用 {@link #rebuild} 从 submission 表重建。
+ */
+@Slf4j
+@Component
+public class ContestScoreboard implements JudgeResultListener {
+
+    private static final String KEY_PREFIX = "scoreboard:{";
+    private static final String LIVE = "}:live";
+    private static final String FROZEN = "}:frozen";
+    private static final String RANK_SUFFIX = ":rank";
+    private static final String USER_SUFFIX = ":user:";
+    private static final int DEFAULT_PENALTY_MINUTES = 20;
+    private static final long MAX_PAGE_SIZE = 200;
+
+    // KEYS: 实时榜 rank/user，可选封榜 rank/user；
+    // ARGV: userId, problemId, 是否 AC, 分钟数, 每次罚时, 封榜视图是否只记待定, 提交 id。
+    // 格子为 "accepted,tries,acMinute,pending,acId[,rejectId...]"：记录最早一次 AC 的提交 id 及其之前的错误提交 id，
+    // 评测完成顺序与提交顺序不一致时仍按提交顺序计罚时；同一提交重复到达不会重复计入。用户总分由各格重新汇总。
+    private static final RedisScript<Long> RECORD_SCRIPT = new DefaultRedisScript<>("""
+            -- 雪花 id 超出 double 精度，按十进制字符串比较
+            local function before(a, b)
+                if #a ~= #b then
+                    return #a < #b
+                end
+                return a < b
+            end
+            local function parse(cell)
+                local c = {accepted = 0, tries = 0, acMinute = -1, pending = 0, acId = '0', rejects = {}}
+                if not cell then
+                    return c
+                end
+                local i = 0
+                for value in string.gmatch(cell, '[^,]+') do
+                    i = i + 1
+                    if i == 1 then
+                        c.accepted = tonumber(value)
+                    elseif i == 2 then
+                        c.tries = tonumber(value)
+                    elseif i == 3 then
+                        c.acMinute = tonumber(value)
+                    elseif i == 4 then
+                        c.pending = tonumber(value)
+                    elseif i == 5 then
+                        c.acId = value
+                    else
+                        c.rejects[#c.rejects + 1] = value
+                    end
+                end
+                return c
+            end
+            local function format(c)
+                local cell = c.accepted .. ',' .. c.tries .. ',' .. c.acMinute .. ',' .. c.pending .. ',' .. c.acId
+                for _, id in ipairs(c.rejects) do
+                    cell = cell .. ',' .. id
+                end
+                return cell
+            end
+            local function score(userKey, perTry)
+                local solved, penalty, lastAc = 0, 0, 0
+                for _, cell in ipairs(redis.call('HVALS', userKey)) do
+                    local c = parse(cell)
+                    if c.accepted == 1 then
+                        solved = solved + 1
+                        penalty = penalty + c.acMinute + c.tries * perTry
+                        lastAc = math.max(lastAc, c.acMinute)
+                    end
+                end
+                solved = math.min(solved, %1$d)
+                penalty = math.min(penalty, %2$d)
+                lastAc = math.min(lastAc, %3$d)
+                return solved * %4$d + (%2$d - penalty) * %5$d + (%3$d - lastAc)
+            end
+            local function apply(rankKey, userKey, pendingOnly)
+                local submissionId = ARGV[7]
+                local c = parse(redis.call('HGET', userKey, ARGV[2]))
+                if pendingOnly then
+                    if c.accepted == 1 then
+                        return
+                    end
+                    c.pending = c.pending + 1
+                elseif ARGV[3] == '1' then
+                    if c.accepted == 1 and not before(submissionId, c.acId) then
+                        return
+                    end
+                    c.accepted, c.acId, c.acMinute = 1, submissionId, tonumber(ARGV[4])
+                else
+                    if c.accepted == 1 and before(c.acId, submissionId) then
+                        return
+                    end
+                    for _, id in ipairs(c.rejects) do
+                        if id == submissionId then
+                            return
+                        end
+                    end
+                    c.rejects[#c.rejects + 1] = submissionId
+                end
+                if c.accepted == 1 then
+                    -- AC 之后的错误提交不计罚时，也不会再被用到
+                    local kept = {}
+                    for _, id in ipairs(c.rejects) do
+                        if before(id, c.acId) then
+                            kept[#kept + 1] = id
+                        end
+                    end
+                    c.rejects = kept
+                end
+                c.tries = #c.rejects
+                redis.call('HSET', userKey, ARGV[2], format(c))
+                redis.call('ZADD', rankKey, string.format('%%.0f', score(userKey, tonumber(ARGV[5]))), ARGV[1])
+            end
+            apply(KEYS[1], KEYS[2], false)
+            if #KEYS == 4 then
+                apply(KEYS[3], KEYS[4], ARGV[6] == '1')
+            end
+            return 1
+            """.formatted(
+            PackedScore.MAX_SOLVED,
+            PackedScore.MAX_PENALTY,
+            PackedScore.MAX_MINUTE,
+            PackedScore.SOLVED_UNIT,
+            PackedScore.PENALTY_UNIT
+    ), Long.class);
+
+    private record PageKey(Long contestId, boolean frozen, long offset, long size) {
+    }
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final ContestCache contestCache;
+    private final SubmissionMapper submissionMapper;
+    // 同一页的并发读取合并为一次 Redis 访问，过期后后台刷新并先返回旧页
+    private final LoadingCache<PageKey, ScoreboardPage> pages;
+
+    public ContestScoreboard(
+            StringRedisTemplate stringRedisTemplate,
+            ContestCache contestCache,
+            SubmissionMapper submissionMapper,
+            ScoreboardProperties scoreboardProperties
+    ) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.contestCache = contestCache;
+        this.submissionMapper = submissionMapper;
+        this.pages = Caffeine.newBuilder()
+                .maximumSize(4096)
+                .refreshAfterWrite(Duration.ofMillis(scoreboardProperties.getPageRefreshMillis()))
+                .expireAfterWrite(Duration.ofMillis(scoreboardProperties.getPageExpireMillis()))
+                .build(this::loadPage);
+    }
+
+    @Override
+    public void onJudged(JudgeTask task, JudgeResult result) {
+        if (task.getContestId() == null || result.getStatus() == null) {
+            return;
+        }
+        try {
+            ContestEntity contest = contestCache.find(task.getContestId());
+            if (contest != null) {
+                record(contest, task.getUserId(), task.getProblemId(), task.getSubmissionId(), task.getSubmittedAt(),
+                        result.getStatus());
+            }
+        } catch (Exception ex) {
+            log.warn("更新比赛榜单失败: contestId={}, submissionId={}, error={}",
+                    task.getContestId(), task.getSubmissionId(), ex.getMessage());
+        }
+    }
+
+    /**
+     * 累计一次赛时提交。非 ACM 赛制、比赛时间外的提交以及 CE/SE/NT 等不计入榜单的结果会被忽略。
+     */
+    public void record(
+            ContestEntity contest,
+            Long userId,
+            Long problemId,
+            Long submissionId,
+            LocalDateTime submittedAt,
+            SubmissionStatus status
+    ) {
+        Boolean accepted = verdictOf(status);
+        if (accepted == null || userId == null || problemId == null || submissionId == null || submittedAt == null
+                || !isAcm(contest) || submittedAt.isBefore(contest.getStartAt())
+                || !submittedAt.isBefore(contest.getEndAt())) {
+            return;
+        }
+        long minute = Duration.between(contest.getStartAt(), submittedAt).toMinutes();
+        int penalty = contest.getPenalty() == null ? DEFAULT_PENALTY_MINUTES : contest.getPenalty();
+        Long contestId = contest.getId();
+        List<String> keys = new ArrayList<>(4);
+        keys.add(rankKey(contestId, LIVE));
+        keys.add(userKey(contestId, LIVE, userId));
+        boolean pendingOnly = false;
+        if (contest.getFreezeAt() != null) {
+            keys.add(rankKey(contestId, FROZEN));
+            keys.add(userKey(contestId, FROZEN, userId));
+            pendingOnly = !submittedAt.isBefore(contest.getFreezeAt());
+        }
+        stringRedisTemplate.execute(
+                RECORD_SCRIPT,
+                keys,
+                String.valueOf(userId),
+                String.valueOf(problemId),
+                accepted ? "1" : "0",
+                String.valueOf(minute),
+                String.valueOf(penalty),
+                pendingOnly ? "1" : "0",
+                String.valueOf(submissionId)
+        );
+    }
+
+    /**
+     * 清空两套视图后按提交顺序重放 submission 表中的赛时结果。重判结果写回后调用；
+     * 重建期间到达的评测结果若尚未写回数据库会被覆盖，应在重判全部完成后再重建。
+     */
+    public void rebuild(Long contestId) {
+        ContestEntity contest = contestCache.find(contestId);
+        if (contest == null || !isAcm(contest)) {
+            throw new BusinessException(ErrorCode.CONTEST_NOT_FOUND);
+        }
+        long startNanos = System.nanoTime();
+        List<SubmissionEntity> submissions = submissionMapper.selectContestResults(
+                contestId,
+                SubmissionStatus.AC.getCode(),
+                SubmissionPartitions.idLowerBound(contest.getStartAt())
+        );
+        clear(contestId);
+        for (SubmissionEntity submission : submissions) {
+            record(contest, submission.getUserId(), submission.getProblemId(), submission.getId(),
+                    submission.getCreatedAt(), SubmissionStatus.fromCode(submission.getStatus()));
+        }
+        pages.asMap().keySet().removeIf(key -> key.contestId().equals(contestId));
+        log.info("重建 ACM 榜单: contestId={}, submissions={}, elapsedMillis={}",
+                contestId, submissions.size(), Duration.ofNanos(System.nanoTime() - startNanos).toMillis());
+    }
+
+    /**
+     * 读取一页榜单。liveView 为 true 时总是返回实时榜（比赛管理员），否则封榜期间返回封榜视图。
+     * 返回的页可能被多个请求共享，调用方不得修改。
+     */
+    public ScoreboardPage page(Long contestId, boolean liveView, long pageNo, long pageSize) {
+        ContestEntity contest = contestCache.find(contestId);
+        if (contest == null) {
+            throw new BusinessException(ErrorCode.CONTEST_NOT_FOUND);
+        }
+        boolean frozen = !liveView && isFrozen(contest, LocalDateTime.now());
+        long size = Math.min(Math.max(pageSize, 1), MAX_PAGE_SIZE);
+        long offset = (Math.max(pageNo, 1) - 1) * size;
+        return pages.get(new PageKey(contestId, frozen, offset, size));
+    }
+
+    /**
+     * 比赛开始前预先载入首页，开赛瞬间的请求直接命中缓存。
+     */
+    public void warm(ContestEntity contest, long pageSize) {
+        if (!isAcm(contest)) {
+            return;
+        }
+        long size = Math.min(Math.max(pageSize, 1), MAX_PAGE_SIZE);
+        pages.refresh(new PageKey(contest.getId(), false, 0, size));
+        if (contest.getFreezeAt() != null) {
+            pages.refresh(new PageKey(contest.getId(), true, 0, size));
+        }
+    }
+
+    private void clear(Long contestId) {
+        List<String> keys = new ArrayList<>();
+        for (String view : List.of(LIVE, FROZEN)) {
+            String rankKey = rankKey(contestId, view);
+            Set<String> userIds = stringRedisTemplate.opsForZSet().range(rankKey, 0, -1);
+            if (userIds != null) {
+                for (String userId : userIds) {
+                    keys.add(userKey(contestId, view, Long.valueOf(userId)));
+                }
+            }
+            keys.add(rankKey);
+        }
+        stringRedisTemplate.delete(keys);
+    }
+
+    private ScoreboardPage loadPage(PageKey key) {
+        Long contestId = key.contestId();
+        boolean frozen = key.frozen();
+        String view = frozen ? FROZEN : LIVE;
+        long offset = key.offset();
+        long size = key.size();
+
+        ScoreboardPage page = new ScoreboardPage();
+        page.setContestId(contestId);
+        page.setFrozen(frozen);
+        ZSetOperations<String, String> rankings = stringRedisTemplate.opsForZSet();
+        String rankKey = rankKey(contestId, view);
+        Long total = rankings.zCard(rankKey);
+        page.setTotal(total == null ? 0 : total);
+        Set<ZSetOperations.TypedTuple<String>> entries = rankings.reverseRangeWithScores(rankKey, offset, offset + size - 1);
+        if (entries == null || entries.isEmpty()) {
+            return page;
+        }
+
+        List<String> userKeys = new ArrayList<>(entries.size());
+        long previousScore = -1;
+        long rank = 0;
+        long position = offset;
+        for (ZSetOperations.TypedTuple<String> entry : entries) {
+            long score = entry.getScore() == null ? 0 : entry.getScore().longValue();
+            position++;
+            if (rank == 0) {
+                // 首行可能与上一页末尾并列，按严格更高分的人数定名次
+                Long higher = rankings.count(rankKey, score + 1, Double.POSITIVE_INFINITY);
+                rank = (higher == null ? 0 : higher) + 1;
+            } else if (score != previousScore) {
+                rank = position;
+            }
+            previousScore = score;
+
+            ScoreboardRow row = new ScoreboardRow();
+            row.setRank(rank);
+            row.setUserId(Long.valueOf(entry.getValue()));
+            row.setSolved(PackedScore.solved(score));
+            row.setPenaltyMinutes(PackedScore.penaltyMinutes(score));
+            page.getRows().add(row);
+            userKeys.add(userKey(contestId, view, row.getUserId()));
+        }
+
+        List<Object> cellMaps = stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            hashGetAll(connection, userKeys);
+            return null;
+        });
+        for (int i = 0; i < page.getRows().size() && i < cellMaps.size(); i++) {
+            if (cellMaps.get(i) instanceof Map<?, ?> cells) {
+                ScoreboardRow row = page.getRows().get(i);
+                cells.forEach((problemId, cell) -> row.getCells().put(
+                        Long.valueOf(problemId.toString()),
+                        parseCell(cell.toString())
+                ));
+            }
+        }
+        return page;
+    }
+
+    static boolean isFrozen(ContestEntity contest, LocalDateTime now) {
+        LocalDateTime freezeAt = contest.getFreezeAt();
+        if (freezeAt == null || now.isBefore(freezeAt)) {
+            return false;
+        }
+        LocalDateTime unfreezeAt = contest.getUnfreezeAt();
+        return unfreezeAt == null || now.isBefore(unfreezeAt);
+    }
+
+    private static boolean isAcm(ContestEntity contest) {
+        return contest.getMode() != null && contest.getMode() == ContestMode.ACM.getCode()
+                && contest.getStartAt() != null && contest.getEndAt() != null;
+    }
+
+    private static Boolean verdictOf(SubmissionStatus status) {
+        return switch (status) {
+            case AC -> true;
+            case PE, WA, TLE, MLE, OLE, RE -> false;
+            default -> null;
+        };
+    }
+
+    private static void hashGetAll(RedisConnection connection, List<String> keys) {
+        for (String key : keys) {
+            connection.hashCommands().hGetAll(key.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private static ScoreboardCell parseCell(String value) {
+        String[] parts = value.split(",");
+        ScoreboardCell cell = new ScoreboardCell();
+        cell.setAccepted("1".equals(parts[0]));
+        cell.setTries(Integer.parseInt(parts[1]));
+        int acMinute = Integer.parseInt(parts[2]);
+        cell.setAcMinute(acMinute < 0 ? null : acMinute);
+        cell.setPending(Integer.parseInt(parts[3]));
+        return cell;
+    }
+
+    private static String rankKey(Long contestId, String view) {
+        return KEY_PREFIX + contestId + view + RANK_SUFFIX;
+    }
+
+    private static String userKey(Long contestId, String view, Long userId) {
+        return KEY_PREFIX + contestId + view + USER_SUFFIX + userId;
+    }
+}
@@ -0,0 +1,149 @@
+package com.lunaroj.scoreboard;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.lunaroj.common.error.ErrorCode;
+import com.lunaroj.common.exception.BusinessException;
+import com.lunaroj.constant.ContestMode;
+import com.lunaroj.constant.SubmissionStatus;
+import com.lunaroj.judge.JudgeResultListener;
+import com.lunaroj.judge.model.JudgeResult;
+import com.lunaroj.judge.model.JudgeTask;
+import com.lunaroj.mapper.SubmissionMapper;
+import com.lunaroj.model.entity.ContestEntity;
+import com.lunaroj.model.entity.SubmissionEntity;
+import com.lunaroj.scoreboard.model.OiScoreboardPage;
+import com.lunaroj.submission.SubmissionPartitions;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * OI/IOI 比赛榜单：每场比赛在内存中维护一个 {@link ScoreMatrix}，评测结果到达时增量更新；
+ * 仅在冷启动（首次访问或缓存淘汰后）以及重判后 {@link #invalidate} 时从 submission 表重建。
+ * OI 取每题最后一次提交的得分，IOI 取最高分。
+ */
+@Slf4j
+@Component
+public class OiScoreboard implements JudgeResultListener {
+
+    private static final long MAX_PAGE_SIZE = 200;
+
+    private final ContestCache contestCache;
+    private final SubmissionMapper submissionMapper;
+    private final Cache<Long, ScoreMatrix> boards = Caffeine.newBuilder()
+            .maximumSize(64)
+            .expireAfterAccess(Duration.ofHours(6))
+            .build();
+
+    public OiScoreboard(ContestCache contestCache, SubmissionMapper submissionMapper) {
+        this.contestCache = contestCache;
+        this.submissionMapper = submissionMapper;
+    }
+
+    @Override
+    public void onJudged(JudgeTask task, JudgeResult result) {
+        if (task.getContestId() == null || result.getStatus() == null) {
+            return;
+        }
+        try {
+            ContestEntity contest = contestCache.find(task.getContestId());
+            if (contest == null || !isScored(contest)) {
+                return;
+            }
+            ScoreMatrix matrix = boardOf(contest);
+            synchronized (matrix) {
+                apply(matrix, contest, task.getUserId(), task.getProblemId(), task.getSubmissionId(),
+                        task.getSubmittedAt(), result.getStatus(), result.getScore());
+            }
+        } catch (Exception ex) {
+            log.warn("更新 OI 榜单失败: contestId={}, submissionId={}, error={}",
+                    task.getContestId(), task.getSubmissionId(), ex.getMessage());
+        }
+    }
+
+    public OiScoreboardPage page(Long contestId, long pageNo, long pageSize) {
+        ContestEntity contest = contestCache.find(contestId);
+        if (contest == null || !isScored(contest)) {
+            throw new BusinessException(ErrorCode.CONTEST_NOT_FOUND);
+        }
+        long size = Math.min(Math.max(pageSize, 1), MAX_PAGE_SIZE);
+        long offset = (Math.max(pageNo, 1) - 1) * size;
+        ScoreMatrix matrix = boardOf(contest);
+        OiScoreboardPage page;
+        synchronized (matrix) {
+            page = matrix.page(offset, size);
+        }
+        page.setContestId(contestId);
+        return page;
+    }
+
+    /**
+     * 比赛开始前建好空榜单，开赛后的首批请求无需回表。
+     */
+    public void warm(ContestEntity contest) {
+        if (isScored(contest)) {
+            boardOf(contest);
+        }
+    }
+
+    /**
+     * 丢弃内存中的榜单，下次访问时从 submission 表重建。重判后调用。
+     */
+    public void invalidate(Long contestId) {
+        if (contestId != null) {
+            boards.invalidate(contestId);
+        }
+    }
+
+    private ScoreMatrix boardOf(ContestEntity contest) {
+        return boards.get(contest.getId(), id -> rebuild(contest));
+    }
+
+    private ScoreMatrix rebuild(ContestEntity contest) {
+        long startNanos = System.nanoTime();
+        List<SubmissionEntity> submissions = submissionMapper.selectContestResults(
+                contest.getId(),
+                SubmissionStatus.AC.getCode(),
+                SubmissionPartitions.idLowerBound(contest.getStartAt())
+        );
+        ScoreMatrix matrix = new ScoreMatrix(contest.getMode() == ContestMode.IOI.getCode());
+        for (SubmissionEntity submission : submissions) {
+            apply(matrix, contest, submission.getUserId(), submission.getProblemId(), submission.getId(),
+                    submission.getCreatedAt(), SubmissionStatus.fromCode(submission.getStatus()),
+                    submission.getScore() == null ? 0 : submission.getScore());
+        }
+        log.info("重建 OI 榜单: contestId={}, submissions={}, elapsedMillis={}",
+                contest.getId(), submissions.size(), Duration.ofNanos(System.nanoTime() - startNanos).toMillis());
+        return matrix;
+    }
+
+    private static void apply(
+            ScoreMatrix matrix,
+            ContestEntity contest,
+            Long userId,
+            Long problemId,
+            Long submissionId,
+            LocalDateTime submittedAt,
+            SubmissionStatus status,
+            int score
+    ) {
+        // SE/NT 是系统原因，不计入；CE 按 0 分计
+        if (!status.isFinal() || status == SubmissionStatus.SE || status == SubmissionStatus.NT
+                || userId == null || problemId == null || submissionId == null || submittedAt == null
+                || submittedAt.isBefore(contest.getStartAt()) || !submittedAt.isBefore(contest.getEndAt())) {
+            return;
+        }
+        int minute = (int) Duration.between(contest.getStartAt(), submittedAt).toMinutes();
+        matrix.apply(userId, problemId, submissionId, Math.max(score, 0), minute);
+    }
+
+    private static boolean isScored(ContestEntity contest) {
+        return contest.getMode() != null
+                && (contest.getMode() == ContestMode.OI.getCode() || contest.getMode() == ContestMode.IOI.getCode())
+                && contest.getStartAt() != null && contest.getEndAt() != null;
+    }
+}
@@ -0,0 +1,43 @@
+package com.lunaroj.scoreboard;
+
+/**
+ * ACM 榜单的 ZSET 分值：过题数、总罚时、最后一次 AC 时刻压进一个不超过 2^52 的整数，
+ * 以 double 存储无精度损失，ZREVRANGE 的顺序即排名顺序。
+ * 罚时和最后 AC 时刻越小越好，按各自上限取补后存放。
+ * <pre>
+ * | solved (8 bit) | MAX_PENALTY - penalty (24 bit) | MAX_MINUTE - lastAcMinute (20 bit) |
+ * </pre>
+ * 编码规则需与 {@link ContestScoreboard} 中的 Lua 脚本保持一致。
+ */
+public final class PackedScore {
+
+    static final long MAX_SOLVED = (1L << 8) - 1;
+    static final long MAX_PENALTY = (1L << 24) - 1;
+    static final long MAX_MINUTE = (1L << 20) - 1;
+    static final long SOLVED_UNIT = 1L << 44;
+    static final long PENALTY_UNIT = 1L << 20;
+
+    private PackedScore() {
+    }
+
+    public static long pack(long solved, long penaltyMinutes, long lastAcMinute) {
+        long clampedSolved = Math.min(Math.max(solved, 0), MAX_SOLVED);
+        long clampedPenalty = Math.min(Math.max(penaltyMinutes, 0), MAX_PENALTY);
+        long clampedMinute = Math.min(Math.max(lastAcMinute, 0), MAX_MINUTE);
+        return clampedSolved * SOLVED_UNIT
+                + (MAX_PENALTY - clampedPenalty) * PENALTY_UNIT
+                + (MAX_MINUTE - clampedMinute);
+    }
+
+    public static long solved(long score) {
+        return score / SOLVED_UNIT;
+    }
+
+    public static long penaltyMinutes(long score) {
+        return MAX_PENALTY - (score % SOLVED_UNIT) / PENALTY_UNIT;
+    }
+
+    public static long lastAcMinute(long score) {
+        return MAX_MINUTE - score % PENALTY_UNIT;
+    }
+}
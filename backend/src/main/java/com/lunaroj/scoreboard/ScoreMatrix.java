@@ -0,0 +1,176 @@
+package com.lunaroj.scoreboard;
+
+import com.lunaroj.scoreboard.model.OiScoreboardPage;
+import com.lunaroj.scoreboard.model.OiScoreboardRow;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * 单场 OI/IOI 比赛的得分矩阵：用户下标 × 题目下标 -> 计分提交的分数与时刻，全部存放在基本类型数组中。
+ * 每个评测结果只改动一个格子和该用户的总分，排名集合按 (总分降序, 用时升序, userId) 维护，
+ * 更新为 O(log n)，读取一页无需重新聚合。非线程安全，由 {@link OiScoreboard} 按比赛加锁访问。
+ */
+final class ScoreMatrix {
+
+    private static final int UNSCORED = -1;
+
+    // true: IOI 取最高分；false: OI 取最后一次提交
+    private final boolean keepBest;
+
+    private final Map<Long, Integer> userIndex = new HashMap<>();
+    private final Map<Long, Integer> problemIndex = new HashMap<>();
+    private long[] userIds = new long[16];
+    private long[] problemIds = new long[4];
+    private int userCount;
+    private int problemCount;
+
+    // 行主序，每个用户占 problemIds.length 列
+    private int[] scores;
+    private int[] minutes;
+    private long[] submissionIds;
+    private int[] totals = new int[16];
+    private long[] totalMinutes = new long[16];
+
+    private final TreeSet<Integer> order = new TreeSet<>(this::compareUsers);
+
+    ScoreMatrix(boolean keepBest) {
+        this.keepBest = keepBest;
+        allocateCells(userIds.length, problemIds.length);
+    }
+
+    /**
+     * 累计一次提交，返回该用户的计分格子是否发生变化。重复应用同一提交不会改变结果。
+     */
+    boolean apply(long userId, long problemId, long submissionId, int score, int minute) {
+        int user = userIndexOf(userId);
+        // 新题目可能扩容列数，先取题目下标再计算偏移
+        int problem = problemIndexOf(problemId);
+        int cell = user * problemIds.length + problem;
+        int previousScore = scores[cell];
+        if (previousScore != UNSCORED && !replaces(cell, submissionId, score, minute)) {
+            return false;
+        }
+        order.remove(user);
+        if (previousScore != UNSCORED) {
+            totals[user] -= previousScore;
+            totalMinutes[user] -= minutes[cell];
+        }
+        scores[cell] = score;
+        minutes[cell] = minute;
+        submissionIds[cell] = submissionId;
+        totals[user] += score;
+        totalMinutes[user] += minute;
+        order.add(user);
+        return true;
+    }
+
+    OiScoreboardPage page(long offset, long size) {
+        OiScoreboardPage page = new OiScoreboardPage();
+        page.setTotal(userCount);
+        long position = 0;
+        long rank = 0;
+        int previousTotal = Integer.MIN_VALUE;
+        Iterator<Integer> users = order.iterator();
+        while (users.hasNext() && position < offset + size) {
+            int user = users.next();
+            position++;
+            // 总分相同名次相同，用时只决定展示顺序
+            if (totals[user] != previousTotal) {
+                rank = position;
+                previousTotal = totals[user];
+            }
+            if (position <= offset) {
+                continue;
+            }
+            OiScoreboardRow row = new OiScoreboardRow();
+            row.setRank(rank);
+            row.setUserId(userIds[user]);
+            row.setTotalScore(totals[user]);
+            int base = user * problemIds.length;
+            for (int problem = 0; problem < problemCount; problem++) {
+                if (scores[base + problem] != UNSCORED) {
+                    row.getScores().put(problemIds[problem], scores[base + problem]);
+                }
+            }
+            page.getRows().add(row);
+        }
+        return page;
+    }
+
+    private boolean replaces(int cell, long submissionId, int score, int minute) {
+        if (keepBest) {
+            return score > scores[cell] || (score == scores[cell] && minute < minutes[cell]);
+        }
+        return submissionId > submissionIds[cell];
+    }
+
+    private int compareUsers(int left, int right) {
+        int byTotal = Integer.compare(totals[right], totals[left]);
+        if (byTotal != 0) {
+            return byTotal;
+        }
+        int byMinutes = Long.compare(totalMinutes[left], totalMinutes[right]);
+        if (byMinutes != 0) {
+            return byMinutes;
+        }
+        return Long.compare(userIds[left], userIds[right]);
+    }
+
+    private int userIndexOf(long userId) {
+        Integer index = userIndex.get(userId);
+        if (index != null) {
+            return index;
+        }
+        if (userCount == userIds.length) {
+            int capacity = userIds.length * 2;
+            userIds = Arrays.copyOf(userIds, capacity);
+            totals = Arrays.copyOf(totals, capacity);
+            totalMinutes = Arrays.copyOf(totalMinutes, capacity);
+            growCells(capacity, problemIds.length, problemIds.length);
+        }
+        int user = userCount++;
+        userIds[user] = userId;
+        userIndex.put(userId, user);
+        order.add(user);
+        return user;
+    }
+
+    private int problemIndexOf(long problemId) {
+        Integer index = problemIndex.get(problemId);
+        if (index != null) {
+            return index;
+        }
+        if (problemCount == problemIds.length) {
+            int capacity = problemIds.length * 2;
+            growCells(userIds.length, problemIds.length, capacity);
+            problemIds = Arrays.copyOf(problemIds, capacity);
+        }
+        int problem = problemCount++;
+        problemIds[problem] = problemId;
+        problemIndex.put(problemId, problem);
+        return problem;
+    }
+
+    private void growCells(int userCapacity, int oldStride, int newStride) {
+        int[] oldScores = scores;
+        int[] oldMinutes = minutes;
+        long[] oldSubmissionIds = submissionIds;
+        allocateCells(userCapacity, newStride);
+        for (int user = 0; user < userCount; user++) {
+            System.arraycopy(oldScores, user * oldStride, scores, user * newStride, problemCount);
+            System.arraycopy(oldMinutes, user * oldStride, minutes, user * newStride, problemCount);
+            System.arraycopy(oldSubmissionIds, user * oldStride, submissionIds, user * newStride, problemCount);
+        }
+    }
+
+    private void allocateCells(int userCapacity, int problemCapacity) {
+        scores = new int[userCapacity * problemCapacity];
+        minutes = new int[userCapacity * problemCapacity];
+        submissionIds = new long[userCapacity * problemCapacity];
+        Arrays.fill(scores, UNSCORED);
+    }
+}
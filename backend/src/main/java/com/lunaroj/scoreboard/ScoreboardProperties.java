@@ -0,0 +1,28 @@
+package com.lunaroj.scoreboard;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "lunaroj.scoreboard")
+public class ScoreboardProperties {
+
+    // 比赛元数据超过该时长后，下一次读取触发后台刷新，刷新完成前返回旧值
+    private long contestRefreshMillis = 30000;
+
+    // 比赛元数据无访问时的最长保留时间
+    private long contestExpireMillis = 600000;
+
+    // 榜单页缓存的后台刷新间隔，即榜单可见延迟的上限
+    private long pageRefreshMillis = 1000;
+
+    private long pageExpireMillis = 10000;
+
+    // 提前多久预热即将开始的比赛
+    private long prewarmLeadMillis = 300000;
+
+    // 预热的首页条数，与前端默认分页一致
+    private long prewarmPageSize = 50;
+}
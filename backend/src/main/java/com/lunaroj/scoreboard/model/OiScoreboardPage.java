@@ -0,0 +1,16 @@
+package com.lunaroj.scoreboard.model;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class OiScoreboardPage {
+
+    private Long contestId;
+
+    private long total;
+
+    private List<OiScoreboardRow> rows = new ArrayList<>();
+}
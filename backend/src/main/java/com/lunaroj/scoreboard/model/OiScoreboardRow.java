@@ -0,0 +1,19 @@
+package com.lunaroj.scoreboard.model;
+
+import lombok.Data;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Data
+public class OiScoreboardRow {
+
+    private long rank;
+
+    private Long userId;
+
+    private int totalScore;
+
+    // problemId -> 计分提交的得分，仅包含有提交的题目
+    private Map<Long, Integer> scores = new LinkedHashMap<>();
+}
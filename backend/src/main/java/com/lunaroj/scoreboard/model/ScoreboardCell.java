@@ -0,0 +1,18 @@
+package com.lunaroj.scoreboard.model;
+
+import lombok.Data;
+
+@Data
+public class ScoreboardCell {
+
+    private boolean accepted;
+
+    // AC 前的错误尝试次数
+    private int tries;
+
+    // AC 时刻，距比赛开始的分钟数
+    private Integer acMinute;
+
+    // 封榜后提交、结果对当前视图隐藏的次数
+    private int pending;
+}
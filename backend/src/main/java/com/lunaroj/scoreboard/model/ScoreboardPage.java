@@ -0,0 +1,19 @@
+package com.lunaroj.scoreboard.model;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class ScoreboardPage {
+
+    private Long contestId;
+
+    // 当前返回的是否为封榜视图
+    private boolean frozen;
+
+    private long total;
+
+    private List<ScoreboardRow> rows = new ArrayList<>();
+}
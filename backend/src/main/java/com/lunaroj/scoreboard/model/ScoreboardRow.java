@@ -0,0 +1,21 @@
+package com.lunaroj.scoreboard.model;
+
+import lombok.Data;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Data
+public class ScoreboardRow {
+
+    private long rank;
+
+    private Long userId;
+
+    private long solved;
+
+    private long penaltyMinutes;
+
+    // problemId -> 该题状态，仅包含有提交的题目
+    private Map<Long, ScoreboardCell> cells = new LinkedHashMap<>();
+}
@@ -0,0 +1,139 @@
+package com.lunaroj.security;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * access token 黑名单近端缓存。
+ * 登出时用一个 Lua 脚本写入 Redis 并广播 jti，各实例在本地维护未过期的 jti 集合，鉴权时无需访问 Redis；
+ * 另有定时全量同步兜底 pub/sub 丢消息，保证吊销在一个同步周期内传播到所有实例。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AccessTokenBlacklist implements MessageListener {
+
+    // 黑名单键与索引由同一个脚本写入，共用哈希标签落在同一 slot，Redis Cluster 下才不会 CROSSSLOT
+    private static final String AUTH_BLACKLIST_KEY_PREFIX = "auth:blacklist:{idx}:";
+    private static final String AUTH_BLACKLIST_INDEX_KEY = "auth:blacklist:{idx}:index";
+    private static final String AUTH_BLACKLIST_CHANNEL = "auth:blacklist:channel";
+    private static final String MESSAGE_SEPARATOR = ":";
+
+    // KEYS: 黑名单键, 索引；ARGV: jti, 过期时间戳(ms), 有效期(ms), 当前时间戳(ms), 广播频道, 广播消息
+    private static final RedisScript<Long> REVOKE_SCRIPT = new DefaultRedisScript<>("""
+            redis.call('SET', KEYS[1], '1', 'PX', ARGV[3])
+            redis.call('ZADD', KEYS[2], ARGV[2], ARGV[1])
+            redis.call('ZREMRANGEBYSCORE', KEYS[2], '-inf', ARGV[4])
+            redis.call('PUBLISH', ARGV[5], ARGV[6])
+            return 1
+            """, Long.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedisMessageListenerContainer redisMessageListenerContainer;
+
+    // jti -> access token 过期时间戳(ms)
+    private final Map<String, Long> revokedTokens = new ConcurrentHashMap<>();
+    private volatile boolean synchronizedOnce = false;
+
+    @PostConstruct
+    public void subscribe() {
+        redisMessageListenerContainer.addMessageListener(this, new ChannelTopic(AUTH_BLACKLIST_CHANNEL));
+    }
+
+    public void revoke(String jti, long expireAtMillis) {
+        if (!StringUtils.hasText(jti)) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        long ttlMillis = expireAtMillis - now;
+        if (ttlMillis <= 0) {
+            return;
+        }
+        stringRedisTemplate.execute(
+                REVOKE_SCRIPT,
+                List.of(AUTH_BLACKLIST_KEY_PREFIX + jti, AUTH_BLACKLIST_INDEX_KEY),
+                jti,
+                String.valueOf(expireAtMillis),
+                String.valueOf(ttlMillis),
+                String.valueOf(now),
+                AUTH_BLACKLIST_CHANNEL,
+                jti + MESSAGE_SEPARATOR + expireAtMillis
+        );
+        revokedTokens.put(jti, expireAtMillis);
+    }
+
+    public boolean isRevoked(String jti) {
+        if (!StringUtils.hasText(jti)) {
+            return false;
+        }
+        Long expireAtMillis = revokedTokens.get(jti);
+        if (expireAtMillis != null) {
+            if (expireAtMillis > System.currentTimeMillis()) {
+                return true;
+            }
+            revokedTokens.remove(jti, expireAtMillis);
+            return false;
+        }
+        if (synchronizedOnce) {
+            return false;
+        }
+        // 首次同步完成前本地集合不完整，退回逐请求查询
+        return Boolean.TRUE.equals(stringRedisTemplate.hasKey(AUTH_BLACKLIST_KEY_PREFIX + jti));
+    }
+
+    @Scheduled(
+            initialDelayString = "${app.security.blacklist.initial-sync-delay-millis:0}",
+            fixedDelayString = "${app.security.blacklist.sync-interval-millis:30000}"
+    )
+    public void synchronize() {
+        long now = System.currentTimeMillis();
+        try {
+            Set<ZSetOperations.TypedTuple<String>> entries = stringRedisTemplate.opsForZSet()
+                    .rangeByScoreWithScores(AUTH_BLACKLIST_INDEX_KEY, now, Double.POSITIVE_INFINITY);
+            if (entries != null) {
+                for (ZSetOperations.TypedTuple<String> entry : entries) {
+                    if (entry.getValue() != null && entry.getScore() != null) {
+                        revokedTokens.put(entry.getValue(), entry.getScore().longValue());
+                    }
+                }
+            }
+            revokedTokens.values().removeIf(expireAtMillis -> expireAtMillis <= now);
+            synchronizedOnce = true;
+        } catch (Exception ex) {
+            log.warn("同步 access token 黑名单失败: {}", ex.getMessage());
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int separatorIndex = body.lastIndexOf(MESSAGE_SEPARATOR);
+        if (separatorIndex <= 0) {
+            return;
+        }
+        try {
+            long expireAtMillis = Long.parseLong(body.substring(separatorIndex + 1));
+            revokedTokens.put(body.substring(0, separatorIndex), expireAtMillis);
+        } catch (NumberFormatException ex) {
+            log.warn("无效的黑名单广播消息: {}", body);
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.lunaroj.security;
+
+import cn.hutool.captcha.CaptchaUtil;
+import cn.hutool.captcha.LineCaptcha;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.awt.Font;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 预渲染的验证码池。绘制验证码与 PNG 编码每张耗时数毫秒，改由专用线程在后台完成：
+ * 池为有界队列，低于低水位时唤醒补充线程补满；请求线程只取一张，池空时才退回同步绘制。
+ * 每张验证码只发放一次，id 在发放时生成。启动时按每种字体各绘制一张，预先加载字体与图片编码器。
+ */
+@Slf4j
+@Component
+public class CaptchaPool {
+
+    private static final int CAPTCHA_WIDTH = 180;
+    private static final int CAPTCHA_HEIGHT = 64;
+    private static final int CAPTCHA_CODE_COUNT = 4;
+    private static final int CAPTCHA_INTERFERE_LINE_COUNT = 45;
+    private static final String[] CAPTCHA_FONT_FAMILIES = {
+            "Times New Roman",
+            "Georgia",
+            "Cambria",
+            "Consolas",
+            "Serif"
+    };
+    private static final int CAPTCHA_FONT_MIN_SIZE = 42;
+    private static final int CAPTCHA_FONT_MAX_SIZE = 48;
+    // 补满后的最长休眠时间，兜底错过的唤醒
+    private static final long REFILL_IDLE_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final BlockingQueue<RenderedCaptcha> captchas;
+    private final int lowWater;
+    private volatile Thread refillThread;
+    private volatile boolean running;
+
+    public CaptchaPool(
+            @Value("${app.security.captcha.pool-size:256}") int poolSize,
+            @Value("${app.security.captcha.pool-low-water:64}") int lowWater
+    ) {
+        int capacity = Math.max(1, poolSize);
+        this.captchas = new ArrayBlockingQueue<>(capacity);
+        this.lowWater = Math.min(Math.max(0, lowWater), capacity - 1);
+    }
+
+    @PostConstruct
+    public void start() {
+        long startNanos = System.nanoTime();
+        for (String family : CAPTCHA_FONT_FAMILIES) {
+            captchas.offer(render(family));
+        }
+        log.info("验证码字体预热完成: fonts={}, elapsedMillis={}",
+                CAPTCHA_FONT_FAMILIES.length, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+        running = true;
+        refillThread = Thread.ofPlatform().name("captcha-refill").daemon(true).start(this::refillLoop);
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        Thread thread = refillThread;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    /**
+     * 取一张未发放过的验证码。
+     */
+    public RenderedCaptcha take() {
+        RenderedCaptcha captcha = captchas.poll();
+        if (captchas.size() < lowWater) {
+            Thread thread = refillThread;
+            if (thread != null) {
+                LockSupport.unpark(thread);
+            }
+        }
+        return captcha != null ? captcha : render(randomFamily());
+    }
+
+    int size() {
+        return captchas.size();
+    }
+
+    private void refillLoop() {
+        while (running) {
+            try {
+                if (captchas.size() < lowWater) {
+                    while (running && captchas.offer(render(randomFamily()))) {
+                        // 补满为止
+                    }
+                }
+            } catch (RuntimeException ex) {
+                log.warn("预渲染验证码失败: {}", ex.getMessage());
+            }
+            LockSupport.parkNanos(this, REFILL_IDLE_NANOS);
+        }
+    }
+
+    private static RenderedCaptcha render(String family) {
+        LineCaptcha captcha = CaptchaUtil.createLineCaptcha(
+                CAPTCHA_WIDTH,
+                CAPTCHA_HEIGHT,
+                CAPTCHA_CODE_COUNT,
+                CAPTCHA_INTERFERE_LINE_COUNT
+        );
+        captcha.setFont(complexFont(family));
+        return new RenderedCaptcha(captcha.getCode().toLowerCase(Locale.ROOT), captcha.getImageBase64Data());
+    }
+
+    private static String randomFamily() {
+        return CAPTCHA_FONT_FAMILIES[ThreadLocalRandom.current().nextInt(CAPTCHA_FONT_FAMILIES.length)];
+    }
+
+    private static Font complexFont(String family) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int style = Font.BOLD;
+        if (random.nextBoolean()) {
+            style |= Font.ITALIC;
+        }
+        int size = random.nextInt(CAPTCHA_FONT_MIN_SIZE, CAPTCHA_FONT_MAX_SIZE + 1);
+        return new Font(family, style, size);
+    }
+
+    public record RenderedCaptcha(String code, String imageBase64) {
+    }
+}
@@ -10,7 +10,6 @@ import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
@@ -31,7 +30,6 @@ import java.util.regex.Pattern;
 @RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
-    private static final String AUTH_BLACKLIST_KEY_PREFIX = "auth:blacklist:";
     private static final Set<String> PUBLIC_GET_PREFIXES = Set.of(
             "/api/problems",
             "/api/problem-sets",
@@ -44,7 +42,8 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private static final Pattern PUBLIC_USER_PROFILE_PATTERN = Pattern.compile("^/api/users/[^/]+/profile$");
 
     private final JwtTokenProvider jwtTokenProvider;
-    private final StringRedisTemplate stringRedisTemplate;
+    private final AccessTokenBlacklist accessTokenBlacklist;
+    private final TokenGenerations tokenGenerations;
     private final ObjectMapper objectMapper;
 
     @Override
@@ -77,10 +76,13 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             if (!jwtTokenProvider.isAccessToken(claims)) {
                 throw new BusinessException(ErrorCode.TOKEN_INVALID);
             }
-            if (isBlacklisted(claims.getId())) {
+            if (accessTokenBlacklist.isRevoked(claims.getId())) {
                 throw new BusinessException(ErrorCode.UNAUTHORIZED, "登录态已退出");
             }
             Long userId = Long.valueOf(claims.getSubject());
+            if (!tokenGenerations.isCurrent(userId, jwtTokenProvider.getGeneration(claims))) {
+                throw new BusinessException(ErrorCode.UNAUTHORIZED, "登录态已失效");
+            }
             String username = jwtTokenProvider.getUsername(claims);
             JwtUserPrincipal principal = new JwtUserPrincipal(userId, username);
 
@@ -94,14 +96,6 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
     }
 
-    private boolean isBlacklisted(String jti) {
-        if (!StringUtils.hasText(jti)) {
-            return false;
-        }
-        Boolean hasKey = stringRedisTemplate.hasKey(AUTH_BLACKLIST_KEY_PREFIX + jti);
-        return Boolean.TRUE.equals(hasKey);
-    }
-
     private void writeUnauthorizedResponse(HttpServletResponse response, String message) throws IOException {
         response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
         response.setContentType(MediaType.APPLICATION_JSON_VALUE);
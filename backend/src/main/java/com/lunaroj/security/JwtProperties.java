@@ -13,5 +13,9 @@ public class JwtProperties {
     private String secret;
     private long accessTokenExpireSeconds;
     private long refreshTokenExpireSeconds;
+    private long verifiedTokenCacheMaximumSize = 10000;
+    // 本地缓存的用户令牌代数，超过同步间隔后下一次读取触发后台重读 Redis，兜底广播丢失
+    private long generationCacheMaximumSize = 100000;
+    private long generationSyncMillis = 30000;
 }
 
@@ -1,63 +1,104 @@
 package com.lunaroj.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import com.lunaroj.common.exception.BusinessException;
 import com.lunaroj.common.error.ErrorCode;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
-import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.Instant;
+import java.util.Base64;
 import java.util.Date;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 @Component
-@RequiredArgsConstructor
 public class JwtTokenProvider {
 
     private static final String CLAIM_TOKEN_TYPE = "tokenType";
     private static final String CLAIM_USERNAME = "username";
     private static final String CLAIM_PERMISSION_GROUP = "permissionGroup";
+    private static final String CLAIM_GENERATION = "generation";
 
     private final JwtProperties jwtProperties;
+    private final SecretKey signingKey;
+    private final JwtParser jwtParser;
+    // 已验签的 Claims，按 token 摘要缓存到 token 过期为止，避免每个请求重复验签与反序列化
+    private final Cache<String, Claims> verifiedClaimsCache;
+
+    public JwtTokenProvider(JwtProperties jwtProperties) {
+        this.jwtProperties = jwtProperties;
+        this.signingKey = Keys.hmacShaKeyFor(jwtProperties.getSecret().getBytes(StandardCharsets.UTF_8));
+        this.jwtParser = Jwts.parser()
+                .verifyWith(signingKey)
+                .build();
+        this.verifiedClaimsCache = Caffeine.newBuilder()
+                .maximumSize(Math.max(0L, jwtProperties.getVerifiedTokenCacheMaximumSize()))
+                .expireAfter(new ClaimsExpiry())
+                .build();
+    }
 
-    public String createAccessToken(Long userId, String username, String permissionGroup) {
+    public String createAccessToken(Long userId, String username, String permissionGroup, long generation) {
         return createToken(
                 userId,
                 username,
                 permissionGroup,
+                generation,
                 JwtTokenType.ACCESS,
-                jwtProperties.getAccessTokenExpireSeconds()
+                jwtProperties.getAccessTokenExpireSeconds(),
+                newTokenId()
         );
     }
 
-    public String createRefreshToken(Long userId, String username, String permissionGroup) {
+    /**
+     * 使用调用方预先生成的 jti，便于先登记会话再签发令牌。
+     */
+    public String createRefreshToken(Long userId, String username, String permissionGroup, long generation, String tokenId) {
         return createToken(
                 userId,
                 username,
                 permissionGroup,
+                generation,
                 JwtTokenType.REFRESH,
-                jwtProperties.getRefreshTokenExpireSeconds()
+                jwtProperties.getRefreshTokenExpireSeconds(),
+                tokenId
         );
     }
 
+    public String newTokenId() {
+        return UUID.randomUUID().toString().replace("-", "");
+    }
+
     public Claims parseClaims(String token) {
-        try {
-            return Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload();
-        } catch (ExpiredJwtException ex) {
-            throw new BusinessException(ErrorCode.TOKEN_EXPIRED);
-        } catch (JwtException | IllegalArgumentException ex) {
+        if (token == null || token.isBlank()) {
             throw new BusinessException(ErrorCode.TOKEN_INVALID);
         }
+        String cacheKey = digest(token);
+        Claims cached = verifiedClaimsCache.getIfPresent(cacheKey);
+        if (cached != null) {
+            if (isExpired(cached)) {
+                verifiedClaimsCache.invalidate(cacheKey);
+                throw new BusinessException(ErrorCode.TOKEN_EXPIRED);
+            }
+            return cached;
+        }
+
+        Claims claims = verify(token);
+        if (claims.getExpiration() != null) {
+            verifiedClaimsCache.put(cacheKey, claims);
+        }
+        return claims;
     }
 
     public boolean isAccessToken(Claims claims) {
@@ -72,12 +113,32 @@ public class JwtTokenProvider {
         return claims.get(CLAIM_USERNAME, String.class);
     }
 
+    /**
+     * 签发时用户的令牌代数，缺少该声明的旧令牌视为第 0 代。
+     */
+    public long getGeneration(Claims claims) {
+        Object generation = claims.get(CLAIM_GENERATION);
+        return generation instanceof Number number ? number.longValue() : 0L;
+    }
+
+    private Claims verify(String token) {
+        try {
+            return jwtParser.parseSignedClaims(token).getPayload();
+        } catch (ExpiredJwtException ex) {
+            throw new BusinessException(ErrorCode.TOKEN_EXPIRED);
+        } catch (JwtException | IllegalArgumentException ex) {
+            throw new BusinessException(ErrorCode.TOKEN_INVALID);
+        }
+    }
+
     private String createToken(
             Long userId,
             String username,
             String permissionGroup,
+            long generation,
             JwtTokenType tokenType,
-            long expireSeconds
+            long expireSeconds,
+            String tokenId
     ) {
         Instant now = Instant.now();
         Instant expireAt = now.plusSeconds(expireSeconds);
@@ -87,17 +148,45 @@ public class JwtTokenProvider {
                 .subject(String.valueOf(userId))
                 .claim(CLAIM_USERNAME, username)
                 .claim(CLAIM_PERMISSION_GROUP, permissionGroup)
+                .claim(CLAIM_GENERATION, generation)
                 .claim(CLAIM_TOKEN_TYPE, tokenType.getValue())
-                .id(UUID.randomUUID().toString().replace("-", ""))
+                .id(tokenId)
                 .issuedAt(Date.from(now))
                 .expiration(Date.from(expireAt))
-                .signWith(getSigningKey())
+                .signWith(signingKey)
                 .compact();
     }
 
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtProperties.getSecret().getBytes(StandardCharsets.UTF_8));
+    private static boolean isExpired(Claims claims) {
+        Date expiration = claims.getExpiration();
+        return expiration != null && expiration.getTime() <= System.currentTimeMillis();
     }
-}
 
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 not available", ex);
+        }
+    }
+
+    private static final class ClaimsExpiry implements Expiry<String, Claims> {
+
+        @Override
+        public long expireAfterCreate(String key, Claims claims, long currentTime) {
+            long ttlMillis = claims.getExpiration().getTime() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0L, ttlMillis));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
 
+        @Override
+        public long expireAfterRead(String key, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
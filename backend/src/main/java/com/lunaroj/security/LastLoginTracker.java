@@ -0,0 +1,99 @@
+package com.lunaroj.security;
+
+import com.lunaroj.mapper.UserMapper;
+import com.lunaroj.model.entity.UserEntity;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 最近登录时间的合并写回：登录只在内存里记下时间，定时按 id 升序合并为多行 UPDATE 写回，关闭时再写一次。
+ * 同一用户在一个周期内多次登录只写最后一次；写回失败的记录放回队列等待下次重试。
+ * 进程崩溃会丢失最后一个周期内的登录时间。
+ */
+@Slf4j
+@Component
+public class LastLoginTracker {
+
+    private final UserMapper userMapper;
+    private final int maxBatchSize;
+
+    private final ConcurrentHashMap<Long, LocalDateTime> pending = new ConcurrentHashMap<>();
+
+    public LastLoginTracker(
+            UserMapper userMapper,
+            @Value("${app.security.last-login.max-batch-size:500}") int maxBatchSize
+    ) {
+        this.userMapper = userMapper;
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+    }
+
+    public void record(Long userId, LocalDateTime loginAt) {
+        pending.merge(userId, loginAt, LastLoginTracker::later);
+    }
+
+    @Scheduled(
+            initialDelayString = "${app.security.last-login.flush-interval-millis:5000}",
+            fixedDelayString = "${app.security.last-login.flush-interval-millis:5000}"
+    )
+    public synchronized void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        // 按 id 升序取出，固定加锁顺序
+        Map<Long, LocalDateTime> drained = new TreeMap<>();
+        for (Long userId : pending.keySet()) {
+            LocalDateTime loginAt = pending.remove(userId);
+            if (loginAt != null) {
+                drained.put(userId, loginAt);
+            }
+        }
+        List<UserEntity> batch = new ArrayList<>(Math.min(drained.size(), maxBatchSize));
+        for (Map.Entry<Long, LocalDateTime> entry : drained.entrySet()) {
+            UserEntity user = new UserEntity();
+            user.setId(entry.getKey());
+            user.setLastLoginAt(entry.getValue());
+            batch.add(user);
+            if (batch.size() == maxBatchSize) {
+                write(batch);
+                batch = new ArrayList<>(maxBatchSize);
+            }
+        }
+        if (!batch.isEmpty()) {
+            write(batch);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    int pendingCount() {
+        return pending.size();
+    }
+
+    private void write(List<UserEntity> batch) {
+        try {
+            userMapper.updateLastLoginBatch(batch);
+        } catch (Exception ex) {
+            log.warn("最近登录时间写回失败，等待下次重试: users={}, error={}", batch.size(), ex.getMessage());
+            for (UserEntity user : batch) {
+                record(user.getId(), user.getLastLoginAt());
+            }
+        }
+    }
+
+    private static LocalDateTime later(LocalDateTime a, LocalDateTime b) {
+        return a.isAfter(b) ? a : b;
+    }
+}
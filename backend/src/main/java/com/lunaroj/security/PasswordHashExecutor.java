@@ -0,0 +1,128 @@
+package com.lunaroj.security;
+
+import com.lunaroj.common.error.ErrorCode;
+import com.lunaroj.common.exception.BusinessException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * BCrypt 专用线程池。登录、改密等密码校验在这里消耗 CPU，线程数默认等于核数。
+ * 准入上限（执行中加排队）默认为线程数的 4 倍，远小于 Tomcat 请求线程数：比赛开始时的登录洪峰最多让这么多请求线程
+ * 挂起等待，其余请求在 tryAcquire 失败后立即以 {@link ErrorCode#TOO_MANY_REQUESTS} 拒绝，其他接口仍有线程可用。
+ * 排队耗时记入 lunaroj.password.hash.queue.wait。
+ */
+@Slf4j
+@Component
+public class PasswordHashExecutor {
+
+    private static final int DEFAULT_PENDING_PER_THREAD = 4;
+
+    private final ThreadPoolExecutor executor;
+    private final Semaphore admission;
+    private final int maxPending;
+    private final Timer queueWaitTimer;
+    private final Timer hashTimer;
+    private final Counter rejectedCounter;
+
+    public PasswordHashExecutor(
+            @Value("${app.security.password-hash.threads:0}") int threads,
+            @Value("${app.security.password-hash.max-pending:0}") int maxPending,
+            MeterRegistry meterRegistry
+    ) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.maxPending = Math.max(poolSize, maxPending > 0 ? maxPending : poolSize * DEFAULT_PENDING_PER_THREAD);
+        this.admission = new Semaphore(this.maxPending);
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                poolSize,
+                poolSize,
+                0L,
+                TimeUnit.MILLISECONDS,
+                // 准入信号量已限制总数，队列不会超过 maxPending
+                new ArrayBlockingQueue<>(this.maxPending),
+                runnable -> Thread.ofPlatform()
+                        .name("password-hash-" + threadIndex.getAndIncrement())
+                        .daemon(true)
+                        .unstarted(runnable),
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+        this.queueWaitTimer = Timer.builder("lunaroj.password.hash.queue.wait").register(meterRegistry);
+        this.hashTimer = Timer.builder("lunaroj.password.hash").register(meterRegistry);
+        this.rejectedCounter = Counter.builder("lunaroj.password.hash.rejected").register(meterRegistry);
+        Gauge.builder("lunaroj.password.hash.queue.size", executor, e -> e.getQueue().size()).register(meterRegistry);
+        Gauge.builder("lunaroj.password.hash.active", executor, ThreadPoolExecutor::getActiveCount).register(meterRegistry);
+        Gauge.builder("lunaroj.password.hash.pending", this, PasswordHashExecutor::pending).register(meterRegistry);
+        log.info("密码哈希线程池已创建: threads={}, maxPending={}", poolSize, this.maxPending);
+    }
+
+    /**
+     * 在哈希线程上执行 task 并等待结果，task 抛出的运行时异常原样抛出。
+     * 同一请求的多次 BCrypt 应放在一个 task 里，只排一次队。
+     */
+    public <T> T execute(Supplier<T> task) {
+        if (!admission.tryAcquire()) {
+            rejectedCounter.increment();
+            throw new BusinessException(ErrorCode.TOO_MANY_REQUESTS);
+        }
+        long submittedNanos = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                long startedNanos = System.nanoTime();
+                queueWaitTimer.record(startedNanos - submittedNanos, TimeUnit.NANOSECONDS);
+                try {
+                    return task.get();
+                } finally {
+                    hashTimer.record(System.nanoTime() - startedNanos, TimeUnit.NANOSECONDS);
+                    admission.release();
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            // 仅在关闭后发生
+            admission.release();
+            rejectedCounter.increment();
+            throw new BusinessException(ErrorCode.TOO_MANY_REQUESTS);
+        }
+        try {
+            return future.get();
+        } catch (InterruptedException ex) {
+            // 不取消任务：排队中被取消的任务不会执行，准入许可也就不会归还
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("password hash interrupted", ex);
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    int pending() {
+        return maxPending - admission.availablePermits();
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+}
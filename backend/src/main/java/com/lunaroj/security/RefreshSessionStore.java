@@ -0,0 +1,58 @@
+package com.lunaroj.security;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * refresh token 会话存储。每个会话是一个 auth:refresh:{userId}:{jti} 键，签发、吊销各是一条命令；
+ * 轮换是一个 Lua 脚本，只需一次往返，且同一 refresh token 在多端并发刷新时只有一个请求能轮换成功。
+ * 吊销用户全部会话见 {@link TokenGenerations}。
+ */
+@Component
+@RequiredArgsConstructor
+public class RefreshSessionStore {
+
+    private static final String AUTH_REFRESH_KEY_PREFIX = "auth:refresh:";
+
+    // KEYS: 旧会话, 新会话；ARGV: 会话值, 有效期(ms)。旧会话不存在时返回 0 且不签发
+    private static final RedisScript<Long> ROTATE_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('DEL', KEYS[1]) == 0 then
+                return 0
+            end
+            redis.call('SET', KEYS[2], ARGV[1], 'PX', ARGV[2])
+            return 1
+            """, Long.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    public void issue(Long userId, String tokenId, String username, Duration ttl) {
+        stringRedisTemplate.opsForValue().set(sessionKey(userId, tokenId), username, ttl);
+    }
+
+    /**
+     * 吊销旧会话并签发新会话，旧会话已失效（过期、已登出或已被其他请求轮换）时返回 false。
+     */
+    public boolean rotate(Long userId, String oldTokenId, String newTokenId, String username, Duration ttl) {
+        Long rotated = stringRedisTemplate.execute(
+                ROTATE_SCRIPT,
+                List.of(sessionKey(userId, oldTokenId), sessionKey(userId, newTokenId)),
+                username,
+                String.valueOf(ttl.toMillis())
+        );
+        return rotated != null && rotated == 1L;
+    }
+
+    public void revoke(Long userId, String tokenId) {
+        stringRedisTemplate.delete(sessionKey(userId, tokenId));
+    }
+
+    private static String sessionKey(Long userId, String tokenId) {
+        return AUTH_REFRESH_KEY_PREFIX + userId + ":" + tokenId;
+    }
+}
@@ -0,0 +1,98 @@
+package com.lunaroj.security;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+/**
+ * 用户令牌代数。每个令牌携带签发时的代数，低于当前代数的令牌一律失效，吊销用户全部登录态只需一次 INCR。
+ * 各实例在本地缓存当前代数，鉴权时无需访问 Redis：递增时广播新值，另按同步间隔在读取时后台重读，
+ * 兜底 pub/sub 丢消息。签发令牌用 {@link #latest} 直接读 Redis，本地缓存落后时也不会签发出一落地即失效的令牌。
+ */
+@Slf4j
+@Component
+public class TokenGenerations implements MessageListener {
+
+    private static final String AUTH_GENERATION_KEY_PREFIX = "auth:generation:";
+    private static final String AUTH_GENERATION_CHANNEL = "auth:generation:channel";
+    private static final String MESSAGE_SEPARATOR = ":";
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedisMessageListenerContainer redisMessageListenerContainer;
+    private final LoadingCache<Long, Long> generations;
+
+    public TokenGenerations(
+            StringRedisTemplate stringRedisTemplate,
+            RedisMessageListenerContainer redisMessageListenerContainer,
+            JwtProperties jwtProperties
+    ) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.redisMessageListenerContainer = redisMessageListenerContainer;
+        this.generations = Caffeine.newBuilder()
+                .maximumSize(Math.max(0L, jwtProperties.getGenerationCacheMaximumSize()))
+                .refreshAfterWrite(Duration.ofMillis(jwtProperties.getGenerationSyncMillis()))
+                .build(this::load);
+    }
+
+    @PostConstruct
+    public void subscribe() {
+        redisMessageListenerContainer.addMessageListener(this, new ChannelTopic(AUTH_GENERATION_CHANNEL));
+    }
+
+    public long current(Long userId) {
+        return generations.get(userId);
+    }
+
+    /**
+     * 从 Redis 读取当前代数并更新本地缓存，用于登录、刷新等签发令牌的场景。
+     */
+    public long latest(Long userId) {
+        return advance(userId, load(userId));
+    }
+
+    public boolean isCurrent(Long userId, long generation) {
+        return generation >= current(userId);
+    }
+
+    /**
+     * 使该用户此前签发的全部令牌失效。
+     */
+    public long bump(Long userId) {
+        Long generation = stringRedisTemplate.opsForValue().increment(AUTH_GENERATION_KEY_PREFIX + userId);
+        long value = generation == null ? 0L : generation;
+        advance(userId, value);
+        stringRedisTemplate.convertAndSend(AUTH_GENERATION_CHANNEL, userId + MESSAGE_SEPARATOR + value);
+        return value;
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int separatorIndex = body.indexOf(MESSAGE_SEPARATOR);
+        try {
+            advance(Long.parseLong(body.substring(0, separatorIndex)), Long.parseLong(body.substring(separatorIndex + 1)));
+        } catch (NumberFormatException | IndexOutOfBoundsException ex) {
+            log.warn("无效的令牌代数广播消息: {}", body);
+        }
+    }
+
+    // 代数只增不减，乱序到达的旧消息不会回退
+    private long advance(Long userId, long generation) {
+        return generations.asMap().merge(userId, generation, Math::max);
+    }
+
+    private Long load(Long userId) {
+        String value = stringRedisTemplate.opsForValue().get(AUTH_GENERATION_KEY_PREFIX + userId);
+        return value == null ? 0L : Long.parseLong(value);
+    }
+}
@@ -0,0 +1,23 @@
+package com.lunaroj.security;
+
+import java.util.UUID;
+
+/**
+ * 不可登录账号的密码占位值。BCrypt 哈希恒以 "$2" 开头，带该前缀的值不可能被任何明文匹配，
+ * 鉴权时可直接拒绝而无需执行 BCrypt。
+ */
+public final class UnloginablePassword {
+
+    public static final String PREFIX = "!unlogin!";
+
+    private UnloginablePassword() {
+    }
+
+    public static String generate() {
+        return PREFIX + UUID.randomUUID().toString().replace("-", "");
+    }
+
+    public static boolean isUnloginable(String encodedPassword) {
+        return encodedPassword == null || encodedPassword.startsWith(PREFIX);
+    }
+}
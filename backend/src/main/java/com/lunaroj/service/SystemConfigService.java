@@ -1,5 +1,7 @@
 package com.lunaroj.service;
 
+import com.lunaroj.model.bo.SystemConfigSnapshot;
+
 public interface SystemConfigService {
 
     String getString(String configKey, String defaultValue);
@@ -9,5 +11,10 @@ public interface SystemConfigService {
     long getLong(String configKey, long defaultValue);
 
     boolean isRegisterEnabled();
-}
 
+    SystemConfigSnapshot getSnapshot();
+
+    void updateConfig(String configKey, String configValue, Long updatedBy);
+
+    void reload();
+}
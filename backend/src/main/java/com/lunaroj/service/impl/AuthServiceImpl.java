@@ -7,8 +7,14 @@ import com.lunaroj.model.vo.AuthTokenVO;
 import com.lunaroj.model.entity.UserEntity;
 import com.lunaroj.mapper.UserMapper;
 import com.lunaroj.service.PermissionGroupService;
+import com.lunaroj.security.AccessTokenBlacklist;
 import com.lunaroj.security.JwtProperties;
 import com.lunaroj.security.JwtTokenProvider;
+import com.lunaroj.security.LastLoginTracker;
+import com.lunaroj.security.PasswordHashExecutor;
+import com.lunaroj.security.RefreshSessionStore;
+import com.lunaroj.security.TokenGenerations;
+import com.lunaroj.security.UnloginablePassword;
 import com.lunaroj.service.AuthService;
 import com.lunaroj.service.CaptchaService;
 import com.lunaroj.service.SystemConfigService;
@@ -18,7 +24,6 @@ import com.lunaroj.common.error.ErrorCode;
 import io.jsonwebtoken.Claims;
 import lombok.RequiredArgsConstructor;
 import org.springframework.dao.DuplicateKeyException;
-import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -32,19 +37,19 @@ import java.util.Date;
 @RequiredArgsConstructor
 public class AuthServiceImpl implements AuthService {
 
-    private static final String AUTH_BLACKLIST_KEY_PREFIX = "auth:blacklist:";
-    private static final String AUTH_REFRESH_KEY_PREFIX = "auth:refresh:";
-    private static final String AUTH_REFRESH_INDEX_KEY_PREFIX = "auth:refresh:index:";
-
     private final UserMapper userMapper;
     private final PermissionGroupService permissionGroupService;
     private final SystemConfigService systemConfigService;
     private final PasswordEncoder passwordEncoder;
+    private final PasswordHashExecutor passwordHashExecutor;
     private final CaptchaService captchaService;
     private final JwtTokenProvider jwtTokenProvider;
     private final JwtProperties jwtProperties;
-    private final StringRedisTemplate stringRedisTemplate;
+    private final RefreshSessionStore refreshSessionStore;
     private final UserQueryService userQueryService;
+    private final AccessTokenBlacklist accessTokenBlacklist;
+    private final TokenGenerations tokenGenerations;
+    private final LastLoginTracker lastLoginTracker;
 
     @Override
     @Transactional(rollbackFor = Exception.class)
@@ -63,7 +68,7 @@ public class AuthServiceImpl implements AuthService {
 
         UserEntity userEntity = new UserEntity();
         userEntity.setUsername(request.getUsername());
-        userEntity.setPassword(passwordEncoder.encode(request.getPassword()));
+        userEntity.setPassword(passwordHashExecutor.execute(() -> passwordEncoder.encode(request.getPassword())));
         userEntity.setNickname(StringUtils.hasText(request.getNickname()) ? request.getNickname() : request.getUsername());
         userEntity.setEmail(email);
         userEntity.setEmailVerified(Boolean.FALSE);
@@ -84,14 +89,14 @@ public class AuthServiceImpl implements AuthService {
     public AuthTokenVO login(LoginDTO request) {
         captchaService.verifyCaptcha(request.getCaptchaId(), request.getCaptchaCode());
         UserEntity userEntity = userQueryService.findActiveUserByUsername(request.getUsername());
-        if (userEntity == null || !passwordEncoder.matches(request.getPassword(), userEntity.getPassword())) {
+        // 迁移导入的不可登录账号直接拒绝，不执行 BCrypt
+        if (userEntity == null
+                || UnloginablePassword.isUnloginable(userEntity.getPassword())
+                || !passwordHashExecutor.execute(() -> passwordEncoder.matches(request.getPassword(), userEntity.getPassword()))) {
             throw new BusinessException(ErrorCode.PASSWORD_INCORRECT);
         }
 
-        UserEntity updateEntity = new UserEntity();
-        updateEntity.setId(userEntity.getId());
-        updateEntity.setLastLoginAt(LocalDateTime.now());
-        userMapper.updateById(updateEntity);
+        lastLoginTracker.record(userEntity.getId(), LocalDateTime.now());
 
         return issueTokens(userEntity);
     }
@@ -108,15 +113,25 @@ public class AuthServiceImpl implements AuthService {
         if (!StringUtils.hasText(tokenId)) {
             throw new BusinessException(ErrorCode.TOKEN_INVALID);
         }
-        String refreshKey = refreshSessionKey(userId, tokenId);
-        String refreshSession = stringRedisTemplate.opsForValue().getAndDelete(refreshKey);
-        if (!StringUtils.hasText(refreshSession)) {
+        // 修改密码等操作递增代数后，此前签发的 refresh token 全部失效；签发前直接读 Redis，不依赖本地缓存
+        long generation = tokenGenerations.latest(userId);
+        if (jwtTokenProvider.getGeneration(claims) < generation) {
+            throw new BusinessException(ErrorCode.REFRESH_SESSION_INVALID);
+        }
+        // 先原子地轮换会话，同一 refresh token 的并发刷新只有一个能成功
+        String newTokenId = jwtTokenProvider.newTokenId();
+        if (!refreshSessionStore.rotate(userId, tokenId, newTokenId, jwtTokenProvider.getUsername(claims), refreshExpire())) {
             throw new BusinessException(ErrorCode.REFRESH_SESSION_INVALID);
         }
-        removeRefreshTokenIndex(userId, tokenId);
 
-        UserEntity userEntity = userQueryService.getActiveUserByIdOrThrow(userId);
-        return issueTokens(userEntity);
+        UserEntity userEntity;
+        try {
+            userEntity = userQueryService.getActiveUserByIdOrThrow(userId);
+        } catch (BusinessException ex) {
+            refreshSessionStore.revoke(userId, newTokenId);
+            throw ex;
+        }
+        return createTokens(userEntity, newTokenId, generation);
     }
 
     @Override
@@ -134,29 +149,18 @@ public class AuthServiceImpl implements AuthService {
     }
 
     private AuthTokenVO issueTokens(UserEntity userEntity) {
+        String refreshTokenId = jwtTokenProvider.newTokenId();
+        refreshSessionStore.issue(userEntity.getId(), refreshTokenId, userEntity.getUsername(), refreshExpire());
+        return createTokens(userEntity, refreshTokenId, tokenGenerations.latest(userEntity.getId()));
+    }
+
+    private AuthTokenVO createTokens(UserEntity userEntity, String refreshTokenId, long generation) {
         Long userId = userEntity.getId();
         String username = userEntity.getUsername();
         String permissionGroup = permissionGroupService.getGroupNameById(userEntity.getPermissionGroupId());
 
-        String accessToken = jwtTokenProvider.createAccessToken(userId, username, permissionGroup);
-        String refreshToken = jwtTokenProvider.createRefreshToken(userId, username, permissionGroup);
-        Claims refreshClaims = jwtTokenProvider.parseClaims(refreshToken);
-        String refreshTokenId = refreshClaims.getId();
-        if (!StringUtils.hasText(refreshTokenId)) {
-            throw new BusinessException(ErrorCode.INTERNAL_ERROR, "刷新令牌缺少唯一标识");
-        }
-
-        String refreshKey = refreshSessionKey(userId, refreshTokenId);
-        String refreshIndexKey = refreshSessionIndexKey(userId);
-        Duration refreshExpire = Duration.ofSeconds(jwtProperties.getRefreshTokenExpireSeconds());
-        stringRedisTemplate.opsForValue().set(
-                refreshKey,
-                username,
-                refreshExpire
-        );
-        stringRedisTemplate.opsForSet().add(refreshIndexKey, refreshTokenId);
-        stringRedisTemplate.expire(refreshIndexKey, refreshExpire);
-
+        String accessToken = jwtTokenProvider.createAccessToken(userId, username, permissionGroup, generation);
+        String refreshToken = jwtTokenProvider.createRefreshToken(userId, username, permissionGroup, generation, refreshTokenId);
         return new AuthTokenVO(
                 accessToken,
                 refreshToken,
@@ -165,12 +169,8 @@ public class AuthServiceImpl implements AuthService {
         );
     }
 
-    private String refreshSessionKey(Long userId, String tokenId) {
-        return AUTH_REFRESH_KEY_PREFIX + userId + ":" + tokenId;
-    }
-
-    private String refreshSessionIndexKey(Long userId) {
-        return AUTH_REFRESH_INDEX_KEY_PREFIX + userId;
+    private Duration refreshExpire() {
+        return Duration.ofSeconds(jwtProperties.getRefreshTokenExpireSeconds());
     }
 
     private void blacklistAccessToken(String authorizationHeader) {
@@ -186,15 +186,7 @@ public class AuthServiceImpl implements AuthService {
         if (expiration == null) {
             return;
         }
-        long ttlMillis = expiration.getTime() - System.currentTimeMillis();
-        if (ttlMillis <= 0) {
-            return;
-        }
-        stringRedisTemplate.opsForValue().set(
-                AUTH_BLACKLIST_KEY_PREFIX + claims.getId(),
-                "1",
-                Duration.ofMillis(ttlMillis)
-        );
+        accessTokenBlacklist.revoke(claims.getId(), expiration.getTime());
     }
 
     private void revokeRefreshToken(String refreshToken) {
@@ -210,13 +202,7 @@ public class AuthServiceImpl implements AuthService {
         if (!StringUtils.hasText(tokenId)) {
             return;
         }
-        String refreshKey = refreshSessionKey(userId, tokenId);
-        stringRedisTemplate.delete(refreshKey);
-        removeRefreshTokenIndex(userId, tokenId);
-    }
-
-    private void removeRefreshTokenIndex(Long userId, String tokenId) {
-        stringRedisTemplate.opsForSet().remove(refreshSessionIndexKey(userId), tokenId);
+        refreshSessionStore.revoke(userId, tokenId);
     }
 }
 
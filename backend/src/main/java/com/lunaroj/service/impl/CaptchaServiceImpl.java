@@ -1,8 +1,7 @@
 package com.lunaroj.service.impl;
 
-import cn.hutool.captcha.CaptchaUtil;
-import cn.hutool.captcha.LineCaptcha;
 import com.lunaroj.model.vo.CaptchaVO;
+import com.lunaroj.security.CaptchaPool;
 import com.lunaroj.service.CaptchaService;
 import com.lunaroj.common.exception.BusinessException;
 import com.lunaroj.common.error.ErrorCode;
@@ -11,39 +10,26 @@ import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 
-import java.awt.Font;
 import java.time.Duration;
-import java.util.Locale;
 import java.util.UUID;
-import java.util.concurrent.ThreadLocalRandom;
 
 @Service
 public class CaptchaServiceImpl implements CaptchaService {
 
     private static final long DEFAULT_CAPTCHA_EXPIRE_SECONDS = 300L;
     private static final String CAPTCHA_KEY_PREFIX = "auth:captcha:";
-    private static final int CAPTCHA_WIDTH = 180;
-    private static final int CAPTCHA_HEIGHT = 64;
-    private static final int CAPTCHA_CODE_COUNT = 4;
-    private static final int CAPTCHA_INTERFERE_LINE_COUNT = 45;
-    private static final String[] CAPTCHA_FONT_FAMILIES = {
-            "Times New Roman",
-            "Georgia",
-            "Cambria",
-            "Consolas",
-            "Serif"
-    };
-    private static final int CAPTCHA_FONT_MIN_SIZE = 42;
-    private static final int CAPTCHA_FONT_MAX_SIZE = 48;
 
     private final StringRedisTemplate stringRedisTemplate;
+    private final CaptchaPool captchaPool;
     private final long captchaExpireSeconds;
 
     public CaptchaServiceImpl(
             StringRedisTemplate stringRedisTemplate,
+            CaptchaPool captchaPool,
             @Value("${app.security.captcha.expire-seconds:300}") long captchaExpireSeconds
     ) {
         this.stringRedisTemplate = stringRedisTemplate;
+        this.captchaPool = captchaPool;
         this.captchaExpireSeconds = captchaExpireSeconds > 0
                 ? captchaExpireSeconds
                 : DEFAULT_CAPTCHA_EXPIRE_SECONDS;
@@ -52,19 +38,12 @@ public class CaptchaServiceImpl implements CaptchaService {
     @Override
     public CaptchaVO generateCaptcha() {
         String captchaId = UUID.randomUUID().toString().replace("-", "");
-        LineCaptcha captcha = CaptchaUtil.createLineCaptcha(
-                CAPTCHA_WIDTH,
-                CAPTCHA_HEIGHT,
-                CAPTCHA_CODE_COUNT,
-                CAPTCHA_INTERFERE_LINE_COUNT
-        );
-        captcha.setFont(randomComplexFont());
-        String code = captcha.getCode().toLowerCase(Locale.ROOT);
+        CaptchaPool.RenderedCaptcha captcha = captchaPool.take();
 
         String captchaKey = CAPTCHA_KEY_PREFIX + captchaId;
-        stringRedisTemplate.opsForValue().set(captchaKey, code, Duration.ofSeconds(captchaExpireSeconds));
+        stringRedisTemplate.opsForValue().set(captchaKey, captcha.code(), Duration.ofSeconds(captchaExpireSeconds));
 
-        return new CaptchaVO(captchaId, captcha.getImageBase64Data());
+        return new CaptchaVO(captchaId, captcha.imageBase64());
     }
 
     @Override
@@ -85,17 +64,6 @@ public class CaptchaServiceImpl implements CaptchaService {
     public long getCaptchaExpireSeconds() {
         return captchaExpireSeconds;
     }
-
-    private Font randomComplexFont() {
-        ThreadLocalRandom random = ThreadLocalRandom.current();
-        String family = CAPTCHA_FONT_FAMILIES[random.nextInt(CAPTCHA_FONT_FAMILIES.length)];
-        int style = Font.BOLD;
-        if (random.nextBoolean()) {
-            style |= Font.ITALIC;
-        }
-        int size = random.nextInt(CAPTCHA_FONT_MIN_SIZE, CAPTCHA_FONT_MAX_SIZE + 1);
-        return new Font(family, style, size);
-    }
 }
 
 
@@ -1,58 +1,191 @@
 package com.lunaroj.service.impl;
 
+import com.lunaroj.model.bo.SystemConfigSnapshot;
 import com.lunaroj.model.entity.SystemConfigEntity;
 import com.lunaroj.mapper.SystemConfigMapper;
 import com.lunaroj.service.SystemConfigService;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 配置整体加载为不可变快照，读路径只访问内存。
+ * 修改配置时递增 Redis 中的版本号并广播，其余实例收到广播后重新加载；
+ * 另有定时版本比对兜底 pub/sub 丢消息，递增失败时也由该定时任务重试。
+ */
 @Slf4j
 @Service
 @RequiredArgsConstructor
-public class SystemConfigServiceImpl implements SystemConfigService {
+public class SystemConfigServiceImpl implements SystemConfigService, MessageListener {
 
-    private static final String CONFIG_REGISTER_ENABLED = "register_enabled";
+    private static final String SYSTEM_CONFIG_VERSION_KEY = "system:config:version";
+    private static final String SYSTEM_CONFIG_CHANNEL = "system:config:channel";
 
     private final SystemConfigMapper systemConfigMapper;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedisMessageListenerContainer redisMessageListenerContainer;
+
+    private volatile SystemConfigSnapshot snapshot;
+    // 配置已写库但版本号尚未递增成功
+    private volatile boolean versionBumpPending;
+
+    @PostConstruct
+    public void subscribe() {
+        redisMessageListenerContainer.addMessageListener(this, new ChannelTopic(SYSTEM_CONFIG_CHANNEL));
+    }
 
     @Override
     public String getString(String configKey, String defaultValue) {
-        SystemConfigEntity entity = systemConfigMapper.selectById(configKey);
-        if (entity == null || !StringUtils.hasText(entity.getConfigValue())) {
-            return defaultValue;
-        }
-        return entity.getConfigValue();
+        return getSnapshot().getString(configKey, defaultValue);
     }
 
     @Override
     public boolean getBoolean(String configKey, boolean defaultValue) {
-        String configValue = getString(configKey, null);
-        if (!StringUtils.hasText(configValue)) {
-            return defaultValue;
-        }
-        return Boolean.parseBoolean(configValue);
+        return getSnapshot().getBoolean(configKey, defaultValue);
     }
 
     @Override
     public long getLong(String configKey, long defaultValue) {
-        String configValue = getString(configKey, null);
-        if (!StringUtils.hasText(configValue)) {
-            return defaultValue;
+        return getSnapshot().getLong(configKey, defaultValue);
+    }
+
+    @Override
+    public boolean isRegisterEnabled() {
+        return getSnapshot().isRegisterEnabled();
+    }
+
+    @Override
+    public SystemConfigSnapshot getSnapshot() {
+        SystemConfigSnapshot current = snapshot;
+        if (current != null) {
+            return current;
+        }
+        synchronized (this) {
+            if (snapshot == null) {
+                reload();
+            }
+            return snapshot;
+        }
+    }
+
+    @Override
+    public void updateConfig(String configKey, String configValue, Long updatedBy) {
+        SystemConfigEntity entity = new SystemConfigEntity();
+        entity.setConfigKey(configKey);
+        entity.setConfigValue(configValue);
+        entity.setUpdatedBy(updatedBy);
+        entity.setUpdatedAt(LocalDateTime.now());
+        if (systemConfigMapper.updateById(entity) == 0) {
+            systemConfigMapper.insert(entity);
         }
+        bumpVersion();
+    }
+
+    @Override
+    public void reload() {
+        reload(readRemoteVersion());
+    }
+
+    @Scheduled(
+            initialDelayString = "${app.system-config.version-check-interval-millis:60000}",
+            fixedDelayString = "${app.system-config.version-check-interval-millis:60000}"
+    )
+    public void checkVersion() {
+        if (versionBumpPending) {
+            bumpVersion();
+            return;
+        }
+        SystemConfigSnapshot current = snapshot;
+        if (current == null) {
+            return;
+        }
+        long remoteVersion = readRemoteVersion();
+        if (remoteVersion != current.getVersion()) {
+            reload(remoteVersion);
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        long version;
         try {
-            return Long.parseLong(configValue);
+            version = Long.parseLong(body);
         } catch (NumberFormatException ex) {
-            log.warn("无效的 long 配置值: key={}, value={}, 使用默认值={}", configKey, configValue, defaultValue);
-            return defaultValue;
+            log.warn("无效的系统配置广播消息: {}", body);
+            return;
+        }
+        SystemConfigSnapshot current = snapshot;
+        if (current == null || current.getVersion() < version) {
+            reload(version);
         }
     }
 
-    @Override
-    public boolean isRegisterEnabled() {
-        return getBoolean(CONFIG_REGISTER_ENABLED, true);
+    /**
+     * 递增版本号并广播。递增失败时其余实例无从得知配置已变，标记为待递增，由定时任务重试直至成功；
+     * 广播失败则无需重试，版本号已变，定时版本比对会发现。
+     */
+    private synchronized void bumpVersion() {
+        versionBumpPending = true;
+        Long version;
+        try {
+            version = stringRedisTemplate.opsForValue().increment(SYSTEM_CONFIG_VERSION_KEY);
+        } catch (Exception ex) {
+            log.warn("递增系统配置版本号失败，将由定时任务重试: {}", ex.getMessage());
+            reload(currentVersion());
+            return;
+        }
+        versionBumpPending = false;
+        try {
+            stringRedisTemplate.convertAndSend(SYSTEM_CONFIG_CHANNEL, String.valueOf(version));
+        } catch (Exception ex) {
+            log.warn("广播系统配置变更失败，其余实例将依赖定时版本比对: {}", ex.getMessage());
+        }
+        reload(version);
     }
-}
 
+    private synchronized void reload(long version) {
+        List<SystemConfigEntity> entities = systemConfigMapper.selectList(null);
+        Map<String, String> values = new HashMap<>();
+        if (entities != null) {
+            for (SystemConfigEntity entity : entities) {
+                if (entity.getConfigKey() != null && entity.getConfigValue() != null) {
+                    values.put(entity.getConfigKey(), entity.getConfigValue());
+                }
+            }
+        }
+        snapshot = new SystemConfigSnapshot(version, values);
+    }
 
+    private long readRemoteVersion() {
+        try {
+            String version = stringRedisTemplate.opsForValue().get(SYSTEM_CONFIG_VERSION_KEY);
+            if (StringUtils.hasText(version)) {
+                return Long.parseLong(version);
+            }
+            return 0L;
+        } catch (Exception ex) {
+            log.warn("读取系统配置版本号失败: {}", ex.getMessage());
+            return currentVersion();
+        }
+    }
+
+    private long currentVersion() {
+        SystemConfigSnapshot current = snapshot;
+        return current == null ? 0L : current.getVersion();
+    }
+}
@@ -9,6 +9,9 @@ import com.lunaroj.model.vo.UserPublicProfileVO;
 import com.lunaroj.model.vo.UserProfileVO;
 import com.lunaroj.model.entity.UserEntity;
 import com.lunaroj.mapper.UserMapper;
+import com.lunaroj.security.PasswordHashExecutor;
+import com.lunaroj.security.TokenGenerations;
+import com.lunaroj.security.UnloginablePassword;
 import com.lunaroj.service.PermissionGroupService;
 import com.lunaroj.service.UserQueryService;
 import com.lunaroj.service.UserProfileService;
@@ -16,28 +19,22 @@ import com.lunaroj.common.exception.BusinessException;
 import com.lunaroj.common.error.ErrorCode;
 import lombok.RequiredArgsConstructor;
 import org.springframework.dao.DuplicateKeyException;
-import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
-import java.util.HashSet;
-import java.util.Set;
-
 @Service
 @RequiredArgsConstructor
 public class UserProfileServiceImpl implements UserProfileService {
 
-    private static final String AUTH_REFRESH_KEY_PREFIX = "auth:refresh:";
-    private static final String AUTH_REFRESH_INDEX_KEY_PREFIX = "auth:refresh:index:";
-
     private final UserMapper userMapper;
     private final PermissionGroupService permissionGroupService;
     private final PasswordEncoder passwordEncoder;
+    private final PasswordHashExecutor passwordHashExecutor;
     private final UserQueryService userQueryService;
     private final UserProfileConverter userProfileConverter;
-    private final StringRedisTemplate stringRedisTemplate;
+    private final TokenGenerations tokenGenerations;
 
     @Override
     public UserProfileVO getCurrentUserProfile(Long userId) {
@@ -128,46 +125,27 @@ public class UserProfileServiceImpl implements UserProfileService {
     @Transactional(rollbackFor = Exception.class)
     public void changePassword(Long userId, ChangePasswordDTO request) {
         UserEntity userEntity = userQueryService.getActiveUserByIdOrThrow(userId);
-        if (!passwordEncoder.matches(request.getOldPassword(), userEntity.getPassword())) {
+        if (UnloginablePassword.isUnloginable(userEntity.getPassword())) {
             throw new BusinessException(ErrorCode.PASSWORD_INCORRECT, "旧密码错误");
         }
-        if (passwordEncoder.matches(request.getNewPassword(), userEntity.getPassword())) {
-            throw new BusinessException(ErrorCode.BAD_REQUEST, "新密码不能与旧密码相同");
-        }
+        // 两次校验与新密码加密在同一个哈希任务里完成，只排一次队
+        String encodedPassword = passwordHashExecutor.execute(() -> {
+            if (!passwordEncoder.matches(request.getOldPassword(), userEntity.getPassword())) {
+                throw new BusinessException(ErrorCode.PASSWORD_INCORRECT, "旧密码错误");
+            }
+            if (passwordEncoder.matches(request.getNewPassword(), userEntity.getPassword())) {
+                throw new BusinessException(ErrorCode.BAD_REQUEST, "新密码不能与旧密码相同");
+            }
+            return passwordEncoder.encode(request.getNewPassword());
+        });
 
         UserEntity updateEntity = new UserEntity();
         updateEntity.setId(userId);
-        updateEntity.setPassword(passwordEncoder.encode(request.getNewPassword()));
+        updateEntity.setPassword(encodedPassword);
         userMapper.updateById(updateEntity);
 
-        revokeAllRefreshSessions(userId);
-    }
-
-    private void revokeAllRefreshSessions(Long userId) {
-        String refreshIndexKey = refreshSessionIndexKey(userId);
-        Set<String> refreshTokenIds = stringRedisTemplate.opsForSet().members(refreshIndexKey);
-        Set<String> refreshKeys = new HashSet<>();
-
-        if (refreshTokenIds != null && !refreshTokenIds.isEmpty()) {
-            for (String tokenId : refreshTokenIds) {
-                if (StringUtils.hasText(tokenId)) {
-                    refreshKeys.add(refreshSessionKey(userId, tokenId));
-                }
-            }
-        }
-
-        if (!refreshKeys.isEmpty()) {
-            stringRedisTemplate.delete(refreshKeys);
-        }
-        stringRedisTemplate.delete(refreshIndexKey);
-    }
-
-    private String refreshSessionKey(Long userId, String tokenId) {
-        return AUTH_REFRESH_KEY_PREFIX + userId + ":" + tokenId;
-    }
-
-    private String refreshSessionIndexKey(Long userId) {
-        return AUTH_REFRESH_INDEX_KEY_PREFIX + userId;
+        // 吊销该用户全部 access/refresh token
+        tokenGenerations.bump(userId);
     }
 
 }
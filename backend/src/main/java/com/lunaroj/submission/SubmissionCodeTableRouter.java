@@ -0,0 +1,46 @@
+package com.lunaroj.submission;
+
+import java.time.YearMonth;
+import java.util.function.Supplier;
+
+/**
+ * submission_code 按月分表的路由：在 {@link #route} 内执行的 SQL 中 submission_code 被替换为对应月份的表，
+ * 由 MyBatis-Plus 动态表名拦截器调用 {@link #resolve}。未指定路由时访问 submission_code 直接报错，
+ * 避免误写入仅作为建表模板的基表。
+ */
+public final class SubmissionCodeTableRouter {
+
+    private static final ThreadLocal<YearMonth> CURRENT = new ThreadLocal<>();
+
+    private SubmissionCodeTableRouter() {
+    }
+
+    public static <T> T route(long submissionId, Supplier<T> action) {
+        return route(SubmissionPartitions.monthOf(submissionId), action);
+    }
+
+    public static <T> T route(YearMonth month, Supplier<T> action) {
+        YearMonth previous = CURRENT.get();
+        CURRENT.set(month);
+        try {
+            return action.get();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    public static String resolve(String tableName) {
+        if (!SubmissionPartitions.CODE_TABLE.equalsIgnoreCase(tableName)) {
+            return tableName;
+        }
+        YearMonth month = CURRENT.get();
+        if (month == null) {
+            throw new IllegalStateException("submission_code accessed without a month route");
+        }
+        return SubmissionPartitions.codeTableName(month);
+    }
+}
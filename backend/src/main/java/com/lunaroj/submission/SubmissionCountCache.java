@@ -0,0 +1,39 @@
+package com.lunaroj.submission;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.lunaroj.mapper.SubmissionMapper;
+import com.lunaroj.submission.model.SubmissionQuery;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * 提交列表的近似总数。每组筛选条件只数到 countCap，结果缓存；过了刷新间隔后由首个访问者触发后台重数，
+ * 期间所有请求继续拿到旧值，翻页不会重复执行 COUNT。
+ */
+@Component
+public class SubmissionCountCache {
+
+    private final SubmissionMapper submissionMapper;
+    private final int countCap;
+    private final LoadingCache<SubmissionQuery, Long> counts;
+
+    public SubmissionCountCache(SubmissionMapper submissionMapper, SubmissionListProperties properties) {
+        this.submissionMapper = submissionMapper;
+        this.countCap = Math.max(1, properties.getCountCap());
+        this.counts = Caffeine.newBuilder()
+                .maximumSize(4096)
+                .refreshAfterWrite(Duration.ofMillis(properties.getCountRefreshMillis()))
+                .expireAfterWrite(Duration.ofMillis(properties.getCountExpireMillis()))
+                .build(query -> submissionMapper.countCapped(query, countCap));
+    }
+
+    public long count(SubmissionQuery query) {
+        return counts.get(query);
+    }
+
+    public boolean isCapped(long count) {
+        return count >= countCap;
+    }
+}
@@ -0,0 +1,39 @@
+package com.lunaroj.submission;
+
+import com.lunaroj.common.error.ErrorCode;
+import com.lunaroj.common.exception.BusinessException;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * 提交列表的键集游标，即上一页最后一行的 id，对外编码为 URL 安全的 Base64。
+ */
+@Data
+@AllArgsConstructor
+public class SubmissionCursor {
+
+    private long id;
+
+    public String encode() {
+        String raw = String.valueOf(id);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 空串返回 NULL，表示第一页。
+     */
+    public static SubmissionCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            return new SubmissionCursor(Long.parseLong(raw));
+        } catch (IllegalArgumentException ex) {
+            throw new BusinessException(ErrorCode.BAD_REQUEST, "游标无效");
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.lunaroj.submission;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "lunaroj.submission.list")
+public class SubmissionListProperties {
+
+    private int maxPageSize = 100;
+
+    // 计数只数到该值为止，更多的按该值展示
+    private int countCap = 10000;
+
+    // 计数超过该时长后，下一次读取触发后台重数，完成前返回旧值
+    private long countRefreshMillis = 30000;
+
+    private long countExpireMillis = 600000;
+
+    // 题目是否公开的缓存时长，题目发布或下线后最迟经过该时长生效
+    private long problemVisibleExpireMillis = 30000;
+}
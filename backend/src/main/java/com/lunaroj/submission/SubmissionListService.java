@@ -0,0 +1,135 @@
+package com.lunaroj.submission;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.lunaroj.mapper.ProblemMapper;
+import com.lunaroj.mapper.SubmissionMapper;
+import com.lunaroj.model.entity.ContestEntity;
+import com.lunaroj.model.entity.ProblemEntity;
+import com.lunaroj.model.entity.SubmissionEntity;
+import com.lunaroj.scoreboard.ContestCache;
+import com.lunaroj.submission.model.SubmissionListItem;
+import com.lunaroj.submission.model.SubmissionListPage;
+import com.lunaroj.submission.model.SubmissionQuery;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 提交列表：键集游标分页，不使用 OFFSET，任意深度的翻页代价相同；总数取自 {@link SubmissionCountCache}，
+ * 不随每页执行 COUNT(*)。
+ * <p>
+ * 筛选条件先按查看者收窄：未结束或隐藏的比赛只能看自己的提交；不按比赛筛选时只列练习提交，查看自己的提交除外；
+ * 未发布题目的提交只能看自己的，题目是否公开按题目缓存一小段时间。未设置结束时间的比赛视为未结束。
+ * 赛时关闭了运行信息的比赛，其提交不返回时间与内存。
+ */
+@Service
+public class SubmissionListService {
+
+    private static final int CONTEST_HIDDEN = 0;
+    private static final int PROBLEM_PUBLISHED = 2;
+
+    private final SubmissionMapper submissionMapper;
+    private final SubmissionCountCache countCache;
+    private final ContestCache contestCache;
+    private final LoadingCache<Long, Boolean> problemVisible;
+    private final int maxPageSize;
+
+    public SubmissionListService(
+            SubmissionMapper submissionMapper,
+            SubmissionCountCache countCache,
+            ContestCache contestCache,
+            ProblemMapper problemMapper,
+            SubmissionListProperties properties
+    ) {
+        this.submissionMapper = submissionMapper;
+        this.countCache = countCache;
+        this.contestCache = contestCache;
+        this.problemVisible = Caffeine.newBuilder()
+                .maximumSize(4096)
+                .expireAfterWrite(Duration.ofMillis(properties.getProblemVisibleExpireMillis()))
+                .build(problemId -> isPublished(problemMapper.selectById(problemId)));
+        this.maxPageSize = Math.max(1, properties.getMaxPageSize());
+    }
+
+    public SubmissionListPage list(SubmissionQuery query, Long viewerId, String cursor, int pageSize) {
+        int size = Math.min(Math.max(pageSize, 1), maxPageSize);
+        SubmissionQuery visible = visibleQuery(query, viewerId);
+        // 多取一行判断是否还有下一页
+        List<SubmissionEntity> rows = submissionMapper.selectPageByCursor(visible, SubmissionCursor.decode(cursor), size + 1);
+        SubmissionListPage page = new SubmissionListPage();
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < Math.min(size, rows.size()); i++) {
+            page.getRows().add(toItem(rows.get(i), now));
+        }
+        if (rows.size() > size) {
+            SubmissionEntity last = rows.get(size - 1);
+            page.setNextCursor(new SubmissionCursor(last.getId()).encode());
+        }
+        long total = countCache.count(visible);
+        page.setTotal(total);
+        page.setTotalCapped(countCache.isCapped(total));
+        return page;
+    }
+
+    private SubmissionQuery visibleQuery(SubmissionQuery query, Long viewerId) {
+        SubmissionQuery visible = new SubmissionQuery(
+                query.getUserId(),
+                query.getProblemId(),
+                query.getContestId(),
+                query.getStatus(),
+                query.getLanguage(),
+                false
+        );
+        if (query.getContestId() != null) {
+            ContestEntity contest = contestCache.find(query.getContestId());
+            if (contest == null || contest.getVisibility() == null || contest.getVisibility() == CONTEST_HIDDEN
+                    || notEnded(contest, LocalDateTime.now())) {
+                visible.setUserId(viewerId);
+            }
+        }
+        if (query.getProblemId() != null && !viewerId.equals(visible.getUserId())) {
+            if (!problemVisible.get(query.getProblemId())) {
+                visible.setUserId(viewerId);
+            }
+        }
+        visible.setPracticeOnly(query.getContestId() == null && !viewerId.equals(visible.getUserId()));
+        return visible;
+    }
+
+    private SubmissionListItem toItem(SubmissionEntity submission, LocalDateTime now) {
+        SubmissionListItem item = new SubmissionListItem();
+        item.setId(submission.getId());
+        item.setUserId(submission.getUserId());
+        item.setProblemId(submission.getProblemId());
+        item.setContestId(submission.getContestId());
+        item.setLanguage(submission.getLanguage());
+        item.setStatus(submission.getStatus());
+        item.setScore(submission.getScore());
+        item.setCodeLength(submission.getCodeLength());
+        item.setCreatedAt(submission.getCreatedAt());
+        if (!usageHidden(submission.getContestId(), now)) {
+            item.setTimeUsed(submission.getTimeUsed());
+            item.setMemoryUsed(submission.getMemoryUsed());
+        }
+        return item;
+    }
+
+    private boolean usageHidden(Long contestId, LocalDateTime now) {
+        if (contestId == null) {
+            return false;
+        }
+        ContestEntity contest = contestCache.find(contestId);
+        return contest != null && Boolean.FALSE.equals(contest.getSubmitInfoVisible()) && notEnded(contest, now);
+    }
+
+    private static boolean notEnded(ContestEntity contest, LocalDateTime now) {
+        return contest.getEndAt() == null || now.isBefore(contest.getEndAt());
+    }
+
+    private static boolean isPublished(ProblemEntity problem) {
+        return problem != null && problem.getDeletedAt() == null && Integer.valueOf(PROBLEM_PUBLISHED).equals(problem.getStatus());
+    }
+}
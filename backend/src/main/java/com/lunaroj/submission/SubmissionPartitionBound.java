@@ -0,0 +1,15 @@
+package com.lunaroj.submission;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * 一个月分区的名称与 id 上界，作为 REORGANIZE PARTITION 的参数。
+ */
+@Data
+@AllArgsConstructor
+public class SubmissionPartitionBound {
+
+    private String name;
+    private long upperBound;
+}
@@ -0,0 +1,183 @@
+package com.lunaroj.submission;
+
+import com.lunaroj.mapper.SubmissionPartitionMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 定时维护 submission 的月分区与 submission_code 的月表：
+ * <ul>
+ *     <li>为已有提交所在的各月及当月起 aheadMonths 个月建好代码表；新建的月表从分表前的 submission_code 复制该月代码</li>
+ *     <li>月分区从最后一个月分区（首次运行时从最早一条提交）所在月份之后补齐到当月起 aheadMonths 个月，
+ *     一次 REORGANIZE 从 p_max 中切出，历史数据按月落入各自分区</li>
+ *     <li>开启归档时，早于 archiveAfterMonths 个月的分区经 EXCHANGE PARTITION 移入 archive_submission_YYYYMM，
+ *     对应代码表改名为 archive_submission_code_YYYYMM，归档后的提交不再能查看代码</li>
+ * </ul>
+ * submission 未按 id 分区（如旧库未迁移）时只维护代码表。
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "lunaroj.submission.partition", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class SubmissionPartitionManager {
+
+    private final SubmissionPartitionMapper partitionMapper;
+    private final SubmissionPartitionProperties properties;
+
+    private final ExecutorService ddlExecutor = Executors.newSingleThreadExecutor(
+            Thread.ofPlatform().name("submission-partition").daemon(true).factory()
+    );
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public SubmissionPartitionManager(SubmissionPartitionMapper partitionMapper, SubmissionPartitionProperties properties) {
+        this.partitionMapper = partitionMapper;
+        this.properties = properties;
+    }
+
+    /**
+     * 只负责把维护任务交给独立线程：REORGANIZE 会复制整张表，若直接在 Spring 默认的单线程调度器上执行，
+     * 其余定时任务（评测结果写回、黑名单同步等）都要排在这条 DDL 之后。上一轮未结束时跳过本轮。
+     */
+    @Scheduled(
+            initialDelayString = "${lunaroj.submission.partition.initial-delay-millis:60000}",
+            fixedDelayString = "${lunaroj.submission.partition.check-interval-millis:3600000}"
+    )
+    public void maintain() {
+        if (!running.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            ddlExecutor.execute(() -> {
+                try {
+                    maintain(YearMonth.now());
+                } catch (Exception ex) {
+                    log.error("维护提交分区失败", ex);
+                } finally {
+                    running.set(false);
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            // 仅在关闭后发生
+            running.set(false);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        ddlExecutor.shutdownNow();
+    }
+
+    synchronized void maintain(YearMonth now) {
+        YearMonth end = now.plusMonths(Math.max(1, properties.getAheadMonths()) - 1);
+        Long minId = partitionMapper.selectMinSubmissionId();
+        Long maxId = partitionMapper.selectMaxSubmissionId();
+        YearMonth first = minId == null ? now : min(SubmissionPartitions.monthOf(minId), now);
+        if (maxId != null && SubmissionPartitions.monthOf(maxId).isAfter(end)) {
+            end = SubmissionPartitions.monthOf(maxId);
+        }
+        YearMonth cutoff = properties.getArchiveAfterMonths() > 0 ? now.minusMonths(properties.getArchiveAfterMonths()) : null;
+
+        List<String> codeTables = partitionMapper.selectCodeTables();
+        // 已归档月份的代码表已改名，不再重建
+        createCodeTables(codeTables, cutoff == null || first.isAfter(cutoff) ? first : cutoff, end, now);
+        List<String> partitions = partitionMapper.selectSubmissionPartitions();
+        boolean partitioned = partitions.contains(SubmissionPartitions.MAX_PARTITION);
+        if (partitioned) {
+            addPartitions(partitions, first, end);
+        } else {
+            log.warn("submission 表未按 id 分区，跳过分区维护");
+        }
+        if (cutoff != null) {
+            if (partitioned) {
+                archivePartitions(partitionMapper.selectSubmissionPartitions(), cutoff);
+            }
+            archiveCodeTables(codeTables, cutoff);
+        }
+    }
+
+    private void createCodeTables(List<String> existing, YearMonth first, YearMonth end, YearMonth now) {
+        Set<String> tables = new HashSet<>(existing);
+        for (YearMonth month = first; !month.isAfter(end); month = month.plusMonths(1)) {
+            String table = SubmissionPartitions.codeTableName(month);
+            if (tables.contains(table)) {
+                continue;
+            }
+            partitionMapper.createCodeTable(table);
+            if (!month.isAfter(now)) {
+                int copied = partitionMapper.copyLegacyCode(
+                        table,
+                        SubmissionPartitions.partitionUpperBound(month.minusMonths(1)),
+                        SubmissionPartitions.partitionUpperBound(month)
+                );
+                log.info("新建提交代码表: table={}, copiedRows={}", table, copied);
+            } else {
+                log.info("新建提交代码表: table={}", table);
+            }
+        }
+    }
+
+    private void addPartitions(List<String> partitions, YearMonth first, YearMonth end) {
+        // 只能在最后一个月分区之后追加；首次切分时从最早一条提交所在月份开始，历史数据不会全部落入当月
+        YearMonth last = partitions.stream()
+                .map(SubmissionPartitions::monthOfPartition)
+                .filter(Objects::nonNull)
+                .max(YearMonth::compareTo)
+                .orElse(null);
+        List<SubmissionPartitionBound> bounds = new ArrayList<>();
+        for (YearMonth month = last == null ? first : last.plusMonths(1); !month.isAfter(end); month = month.plusMonths(1)) {
+            bounds.add(new SubmissionPartitionBound(
+                    SubmissionPartitions.partitionName(month),
+                    SubmissionPartitions.partitionUpperBound(month)
+            ));
+        }
+        if (bounds.isEmpty()) {
+            return;
+        }
+        partitionMapper.addSubmissionPartitions(bounds);
+        log.info("新建提交分区: from={}, to={}", bounds.get(0).getName(), bounds.get(bounds.size() - 1).getName());
+    }
+
+    private void archivePartitions(List<String> partitions, YearMonth cutoff) {
+        for (String partition : partitions) {
+            YearMonth month = SubmissionPartitions.monthOfPartition(partition);
+            if (month == null || !month.isBefore(cutoff)) {
+                continue;
+            }
+            String archive = SubmissionPartitions.archiveTableName(month);
+            // 建表、交换、删分区均为 DDL，无法放进一个事务；中途失败需人工检查归档表后处理
+            partitionMapper.createArchiveTable(archive);
+            partitionMapper.removePartitioning(archive);
+            partitionMapper.exchangeSubmissionPartition(partition, archive);
+            partitionMapper.dropSubmissionPartition(partition);
+            log.info("归档提交分区: partition={}, table={}", partition, archive);
+        }
+    }
+
+    private void archiveCodeTables(List<String> codeTables, YearMonth cutoff) {
+        for (String table : codeTables) {
+            YearMonth month = SubmissionPartitions.monthOfCodeTable(table);
+            if (month == null || !month.isBefore(cutoff)) {
+                continue;
+            }
+            partitionMapper.renameTable(table, SubmissionPartitions.ARCHIVE_PREFIX + table);
+            log.info("归档提交代码表: table={}", table);
+        }
+    }
+
+    private static YearMonth min(YearMonth a, YearMonth b) {
+        return a.isBefore(b) ? a : b;
+    }
+}
@@ -0,0 +1,24 @@
+package com.lunaroj.submission;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "lunaroj.submission.partition")
+public class SubmissionPartitionProperties {
+
+    private boolean enabled = true;
+
+    // 提前建好的未来月份数，含当月
+    private int aheadMonths = 3;
+
+    // 早于该月数的分区与代码表移入归档表，0 表示不归档
+    private int archiveAfterMonths = 0;
+
+    // 启动后首次维护的延迟，避开启动阶段
+    private long initialDelayMillis = 60000;
+
+    private long checkIntervalMillis = 3600000;
+}
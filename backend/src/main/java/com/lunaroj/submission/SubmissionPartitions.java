@@ -0,0 +1,102 @@
+package com.lunaroj.submission;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * submission 的分区规则。id 由 MyBatis-Plus 默认雪花算法生成，高位即毫秒时间戳：
+ * submission 按 id 做 RANGE 分区、每月一个分区，submission_code 按月分表，二者都从 id 推出所属月份，
+ * 主键与唯一约束无需改动。按 created_at 的查询换算成 id 范围后即可裁剪分区。
+ * LocalDateTime 按 JVM 默认时区换算，需与数据库连接的 serverTimezone 一致。
+ */
+public final class SubmissionPartitions {
+
+    // 与 com.baomidou.mybatisplus.core.toolkit.Sequence 保持一致
+    private static final long TWEPOCH = 1288834974657L;
+    private static final int TIMESTAMP_SHIFT = 22;
+
+    // created_at 取数据库时间，与应用生成 id 的时间可能有偏差，换算边界时放宽
+    private static final Duration CLOCK_SKEW = Duration.ofMinutes(1);
+
+    private static final DateTimeFormatter MONTH_SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+
+    public static final String CODE_TABLE = "submission_code";
+    public static final String MAX_PARTITION = "p_max";
+    public static final String ARCHIVE_PREFIX = "archive_";
+
+    private SubmissionPartitions() {
+    }
+
+    /**
+     * 该时刻生成的最小 id。
+     */
+    public static long minIdAt(LocalDateTime time) {
+        long millis = time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        return Math.max(0L, millis - TWEPOCH) << TIMESTAMP_SHIFT;
+    }
+
+    public static LocalDateTime createdAtOf(long id) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli((id >>> TIMESTAMP_SHIFT) + TWEPOCH), ZoneId.systemDefault());
+    }
+
+    public static YearMonth monthOf(long id) {
+        return YearMonth.from(createdAtOf(id));
+    }
+
+    /**
+     * created_at >= time 的提交满足 id >= 该值。
+     */
+    public static long idLowerBound(LocalDateTime time) {
+        return minIdAt(time.minus(CLOCK_SKEW));
+    }
+
+    /**
+     * created_at < time 的提交满足 id < 该值。
+     */
+    public static long idUpperBound(LocalDateTime time) {
+        return minIdAt(time.plus(CLOCK_SKEW));
+    }
+
+    /**
+     * 分区 pYYYYMM 存放 id 小于次月首个 id 的提交。
+     */
+    public static long partitionUpperBound(YearMonth month) {
+        return minIdAt(month.plusMonths(1).atDay(1).atStartOfDay());
+    }
+
+    public static String partitionName(YearMonth month) {
+        return "p" + month.format(MONTH_SUFFIX);
+    }
+
+    /**
+     * 解析 pYYYYMM，其他名称返回 NULL。
+     */
+    public static YearMonth monthOfPartition(String partitionName) {
+        if (partitionName == null || !partitionName.matches("p\\d{6}")) {
+            return null;
+        }
+        return YearMonth.parse(partitionName.substring(1), MONTH_SUFFIX);
+    }
+
+    public static String codeTableName(YearMonth month) {
+        return CODE_TABLE + "_" + month.format(MONTH_SUFFIX);
+    }
+
+    /**
+     * 解析 submission_code_YYYYMM，其他名称返回 NULL。
+     */
+    public static YearMonth monthOfCodeTable(String tableName) {
+        if (tableName == null || !tableName.matches(CODE_TABLE + "_\\d{6}")) {
+            return null;
+        }
+        return YearMonth.parse(tableName.substring(CODE_TABLE.length() + 1), MONTH_SUFFIX);
+    }
+
+    public static String archiveTableName(YearMonth month) {
+        return ARCHIVE_PREFIX + "submission_" + month.format(MONTH_SUFFIX);
+    }
+}
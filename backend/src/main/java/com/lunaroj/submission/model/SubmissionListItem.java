@@ -0,0 +1,21 @@
+package com.lunaroj.submission.model;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+public class SubmissionListItem {
+
+    private Long id;
+    private Long userId;
+    private Long problemId;
+    private Long contestId;
+    private Integer language;
+    private Integer status;
+    private Integer score;
+    private Integer timeUsed;
+    private Integer memoryUsed;
+    private Integer codeLength;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,21 @@
+package com.lunaroj.submission.model;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class SubmissionListPage {
+
+    private List<SubmissionListItem> rows = new ArrayList<>();
+
+    // 下一页游标，没有更多数据时为 NULL
+    private String nextCursor;
+
+    // 近似总数，来自计数缓存，最多滞后一个刷新间隔
+    private long total;
+
+    // 总数达到计数上限，实际可能更多
+    private boolean totalCapped;
+}
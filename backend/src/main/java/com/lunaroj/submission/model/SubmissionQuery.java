@@ -0,0 +1,22 @@
+package com.lunaroj.submission.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 提交列表的筛选条件，同时作为计数缓存的键，放入缓存后不再修改。各字段为 NULL 表示不筛选。
+ * practiceOnly 只由服务端按可见性规则设置，请求传入的值会被覆盖。
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SubmissionQuery {
+
+    private Long userId;
+    private Long problemId;
+    private Long contestId;
+    private Integer status;
+    private Integer language;
+    private boolean practiceOnly;
+}
@@ -0,0 +1,84 @@
+package com.lunaroj.benchmark;
+
+import com.lunaroj.security.JwtProperties;
+import com.lunaroj.security.JwtTokenProvider;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 对比 access token 解析的三条路径：旧实现(每次重建密钥与解析器)、预构建解析器、预构建解析器+已验签缓存。
+ * 运行：mvn test-compile 后以测试 classpath 执行本类 main 方法。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtTokenProviderBenchmark {
+
+    private static final String SECRET = "Generalized-SAM-Parent-Tree-Gaussian-Elimination-Probability-DP";
+
+    private JwtTokenProvider cachedProvider;
+    private JwtTokenProvider uncachedProvider;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        cachedProvider = new JwtTokenProvider(properties(10000));
+        uncachedProvider = new JwtTokenProvider(properties(0));
+        token = cachedProvider.createAccessToken(1L, "alice", "USER", 0L);
+    }
+
+    @Benchmark
+    public Claims legacyRebuildKeyAndParser() {
+        return Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .build()
+                .parseSignedClaims(token)
+                .getPayload();
+    }
+
+    @Benchmark
+    public Claims precomputedParser() {
+        return uncachedProvider.parseClaims(token);
+    }
+
+    @Benchmark
+    public Claims precomputedParserWithVerifiedCache() {
+        return cachedProvider.parseClaims(token);
+    }
+
+    private static JwtProperties properties(long cacheSize) {
+        JwtProperties properties = new JwtProperties();
+        properties.setIssuer("lunar-oj");
+        properties.setSecret(SECRET);
+        properties.setAccessTokenExpireSeconds(1800);
+        properties.setRefreshTokenExpireSeconds(604800);
+        properties.setVerifiedTokenCacheMaximumSize(cacheSize);
+        return properties;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtTokenProviderBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,114 @@
+package com.lunaroj.benchmark;
+
+import com.lunaroj.constant.SubmissionStatus;
+import com.lunaroj.judge.checker.CompareMode;
+import com.lunaroj.judge.checker.OutputChecker;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 对比大输出下旧实现(整体解码为 String 后按行/去空白比较)与流式 ByteBuffer 比对器的耗时。
+ * 期望输出放在堆外缓冲区中以模拟 mmap 的测试点文件；选手输出每行带行末空格，走完整的 AC 路径。
+ * 运行：mvn test-compile 后以测试 classpath 执行本类 main 方法，建议 -Xmx2g。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OutputCheckerBenchmark {
+
+    @Param({"1048576", "67108864"})
+    private int outputBytes;
+
+    private final OutputChecker outputChecker = new OutputChecker();
+    private ByteBuffer expected;
+    private ByteBuffer actual;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(580);
+        StringBuilder expectedText = new StringBuilder(outputBytes + 64);
+        StringBuilder actualText = new StringBuilder(outputBytes + outputBytes / 8);
+        while (expectedText.length() < outputBytes) {
+            StringBuilder line = new StringBuilder();
+            int tokens = 1 + random.nextInt(8);
+            for (int t = 0; t < tokens; t++) {
+                if (t > 0) {
+                    line.append(' ');
+                }
+                line.append(random.nextInt(1_000_000_000));
+            }
+            expectedText.append(line).append('\n');
+            actualText.append(line).append(" \n");
+        }
+        expected = direct(expectedText.toString().getBytes(StandardCharsets.US_ASCII));
+        actual = ByteBuffer.wrap(actualText.toString().getBytes(StandardCharsets.US_ASCII));
+    }
+
+    @Benchmark
+    public SubmissionStatus legacyDecodeToString() {
+        String expectedText = StandardCharsets.UTF_8.decode(expected.duplicate()).toString();
+        String actualText = StandardCharsets.UTF_8.decode(actual.duplicate()).toString();
+        if (normalizeLines(expectedText).equals(normalizeLines(actualText))) {
+            return SubmissionStatus.AC;
+        }
+        return SubmissionStatus.WA;
+    }
+
+    @Benchmark
+    public SubmissionStatus streamingTrailingWhitespace() {
+        return outputChecker.check(expected, actual, CompareMode.TRAILING_WHITESPACE);
+    }
+
+    @Benchmark
+    public SubmissionStatus streamingToken() {
+        return outputChecker.check(expected, actual, CompareMode.TOKEN);
+    }
+
+    @Benchmark
+    public SubmissionStatus streamingExactSelf() {
+        return outputChecker.check(expected, expected, CompareMode.EXACT);
+    }
+
+    private static List<String> normalizeLines(String text) {
+        List<String> lines = new ArrayList<>();
+        for (String line : text.split("\n", -1)) {
+            lines.add(line.stripTrailing());
+        }
+        while (!lines.isEmpty() && lines.get(lines.size() - 1).isEmpty()) {
+            lines.remove(lines.size() - 1);
+        }
+        return lines;
+    }
+
+    private static ByteBuffer direct(byte[] bytes) {
+        return ByteBuffer.allocateDirect(bytes.length).put(bytes).flip();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(OutputCheckerBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
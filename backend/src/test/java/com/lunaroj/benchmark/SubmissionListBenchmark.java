@@ -0,0 +1,234 @@
+package com.lunaroj.benchmark;
+
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import com.baomidou.mybatisplus.extension.plugins.MybatisPlusInterceptor;
+import com.baomidou.mybatisplus.extension.plugins.inner.DynamicTableNameInnerInterceptor;
+import com.lunaroj.mapper.SubmissionMapper;
+import com.lunaroj.model.entity.SubmissionEntity;
+import com.lunaroj.submission.SubmissionCursor;
+import com.lunaroj.submission.SubmissionPartitions;
+import com.lunaroj.submission.model.SubmissionQuery;
+import org.apache.ibatis.datasource.unpooled.UnpooledDataSource;
+import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.session.LocalCacheScope;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.defaults.DefaultSqlSessionFactory;
+import org.apache.ibatis.transaction.jdbc.JdbcTransactionFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 提交列表深翻页：LIMIT/OFFSET + COUNT(*) 与线上路径（SubmissionMapper 的 id 键集游标 + 限额计数）的对比。
+ * 键集查询直接调用 {@link SubmissionMapper#selectPageByCursor} 与 {@link SubmissionMapper#countCapped}，
+ * 经动态表名把 submission 换成 submission_bench，SQL 与线上一致。
+ * 需要可用的 MySQL（连接参数同 application-integration.yml），首次运行向 submission_bench 灌入 100 万行，
+ * 表结构取自 submission（submission 索引变更后需先 DROP submission_bench）；用户 id 取 0~99，每个用户约 1 万条。
+ * 运行：mvn test-compile 后以测试 classpath 执行本类 main 方法。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SubmissionListBenchmark {
+
+    private static final String TABLE = "submission_bench";
+    private static final int ROWS = 1_000_000;
+    private static final int USERS = 100;
+    private static final int PAGE_SIZE = 20;
+    private static final int COUNT_CAP = 10000;
+    private static final long USER_ID = 7L;
+
+    // 翻到第几页：全表与单用户列表分别取该页
+    @Param({"10", "5000"})
+    private int page;
+
+    private Connection connection;
+    private SqlSession sqlSession;
+    private SubmissionMapper submissionMapper;
+    private final SubmissionQuery allQuery = new SubmissionQuery();
+    private final SubmissionQuery userQuery = new SubmissionQuery(USER_ID, null, null, null, null, false);
+    private SubmissionCursor cursor;
+    private SubmissionCursor userCursor;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        String url = "jdbc:mysql://" + env("MYSQL_HOST", "127.0.0.1") + ":" + env("MYSQL_PORT", "3306") + "/"
+                + env("MYSQL_TEST_DB", "lunaroj-test")
+                + "?useUnicode=true&characterEncoding=utf8&serverTimezone=Asia/Shanghai&useSSL=false"
+                + "&allowPublicKeyRetrieval=true&rewriteBatchedStatements=true";
+        String username = env("MYSQL_TEST_USER", "root");
+        String password = env("MYSQL_TEST_PASSWORD", "1437581");
+        connection = DriverManager.getConnection(url, username, password);
+        seedIfNeeded();
+        sqlSession = openSession(url, username, password);
+        submissionMapper = sqlSession.getMapper(SubmissionMapper.class);
+
+        long offset = (long) (page - 1) * PAGE_SIZE;
+        cursor = cursorAt("", Math.max(0, offset - 1));
+        userCursor = cursorAt("WHERE user_id = " + USER_ID + " ",
+                Math.max(0, Math.min(offset, ROWS / USERS - PAGE_SIZE) - 1));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        sqlSession.close();
+        connection.close();
+    }
+
+    @Benchmark
+    public long offsetWithCount() throws SQLException {
+        long sum = scan("SELECT id FROM " + TABLE + " ORDER BY id DESC LIMIT " + PAGE_SIZE
+                + " OFFSET " + (long) (page - 1) * PAGE_SIZE);
+        return sum + scan("SELECT COUNT(*) FROM " + TABLE);
+    }
+
+    @Benchmark
+    public long keysetWithCappedCount() {
+        long sum = sumIds(submissionMapper.selectPageByCursor(allQuery, cursor, PAGE_SIZE));
+        return sum + submissionMapper.countCapped(allQuery, COUNT_CAP);
+    }
+
+    @Benchmark
+    public long userOffsetWithCount() throws SQLException {
+        long offset = Math.min((long) (page - 1) * PAGE_SIZE, ROWS / USERS - PAGE_SIZE);
+        long sum = scan("SELECT id FROM " + TABLE + " WHERE user_id = " + USER_ID + " ORDER BY id DESC LIMIT "
+                + PAGE_SIZE + " OFFSET " + offset);
+        return sum + scan("SELECT COUNT(*) FROM " + TABLE + " WHERE user_id = " + USER_ID);
+    }
+
+    @Benchmark
+    public long userKeyset() {
+        return sumIds(submissionMapper.selectPageByCursor(userQuery, userCursor, PAGE_SIZE));
+    }
+
+    private SqlSession openSession(String url, String username, String password) {
+        MybatisConfiguration configuration = new MybatisConfiguration(new Environment(
+                "benchmark",
+                new JdbcTransactionFactory(),
+                new UnpooledDataSource("com.mysql.cj.jdbc.Driver", url, username, password)
+        ));
+        configuration.setMapUnderscoreToCamelCase(true);
+        // 每次调用都真正执行查询，不命中会话级缓存
+        configuration.setLocalCacheScope(LocalCacheScope.STATEMENT);
+        MybatisPlusInterceptor interceptor = new MybatisPlusInterceptor();
+        interceptor.addInnerInterceptor(new DynamicTableNameInnerInterceptor(
+                (sql, tableName) -> "submission".equalsIgnoreCase(tableName) ? TABLE : tableName
+        ));
+        configuration.addInterceptor(interceptor);
+        configuration.addMapper(SubmissionMapper.class);
+        return new DefaultSqlSessionFactory(configuration).openSession(true);
+    }
+
+    private SubmissionCursor cursorAt(String filter, long offset) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT id FROM " + TABLE + " " + filter + "ORDER BY id DESC LIMIT 1 OFFSET ?")) {
+            statement.setLong(1, offset);
+            try (ResultSet rs = statement.executeQuery()) {
+                rs.next();
+                return new SubmissionCursor(rs.getLong(1));
+            }
+        }
+    }
+
+    private static long sumIds(List<SubmissionEntity> rows) {
+        long sum = 0;
+        for (SubmissionEntity row : rows) {
+            sum += row.getId();
+        }
+        return sum;
+    }
+
+    private long scan(String sql) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            return sum(statement.executeQuery(sql));
+        }
+    }
+
+    private static long sum(ResultSet rs) throws SQLException {
+        long sum = 0;
+        try (rs) {
+            while (rs.next()) {
+                sum += rs.getLong(1);
+            }
+        }
+        return sum;
+    }
+
+    private void seedIfNeeded() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS " + TABLE + " LIKE submission");
+            try (ResultSet rs = statement.executeQuery("SELECT COUNT(*) FROM " + TABLE)) {
+                rs.next();
+                if (rs.getLong(1) >= ROWS) {
+                    return;
+                }
+            }
+            statement.execute("TRUNCATE TABLE " + TABLE);
+        }
+        // 一年内均匀分布，约每 30 秒一条
+        LocalDateTime start = LocalDateTime.now().minusYears(1);
+        connection.setAutoCommit(false);
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO " + TABLE + " (id, user_id, problem_id, code_length, language, status, score, created_at)"
+                        + " VALUES (?, ?, ?, ?, ?, ?, ?, ?)")) {
+            for (int i = 0; i < ROWS; i++) {
+                LocalDateTime createdAt = start.plusSeconds(i * 31L);
+                insert.setLong(1, SubmissionPartitions.minIdAt(createdAt) + i % 1024);
+                insert.setLong(2, i % USERS);
+                insert.setLong(3, 1000 + i % 500);
+                insert.setInt(4, 512 + i % 2048);
+                insert.setInt(5, i % 4);
+                insert.setInt(6, 4 + i % 9);
+                insert.setInt(7, i % 101);
+                insert.setTimestamp(8, Timestamp.valueOf(createdAt));
+                insert.addBatch();
+                if ((i + 1) % 5000 == 0) {
+                    insert.executeBatch();
+                    connection.commit();
+                }
+            }
+            insert.executeBatch();
+            connection.commit();
+        } finally {
+            connection.setAutoCommit(true);
+        }
+    }
+
+    private static String env(String name, String defaultValue) {
+        String value = System.getenv(name);
+        return value == null || value.isBlank() ? defaultValue : value;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(SubmissionListBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,89 @@
+package com.lunaroj.config;
+
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import com.lunaroj.mapper.SubmissionCodeMapper;
+import com.lunaroj.mapper.SubmissionPartitionMapper;
+import com.lunaroj.model.entity.SubmissionCodeEntity;
+import com.lunaroj.submission.SubmissionCodeTableRouter;
+import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.defaults.DefaultSqlSessionFactory;
+import org.apache.ibatis.transaction.jdbc.JdbcTransactionFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class MybatisPlusConfigTest {
+
+    private Connection connection;
+    private SqlSessionFactory sqlSessionFactory;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        connection = mock(Connection.class);
+        when(connection.prepareStatement(anyString())).thenAnswer(invocation -> mock(PreparedStatement.class));
+        DataSource dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+
+        MybatisConfiguration configuration = new MybatisConfiguration(
+                new Environment("test", new JdbcTransactionFactory(), dataSource)
+        );
+        configuration.addInterceptor(new MybatisPlusConfig().mybatisPlusInterceptor());
+        configuration.addMapper(SubmissionPartitionMapper.class);
+        configuration.addMapper(SubmissionCodeMapper.class);
+        sqlSessionFactory = new DefaultSqlSessionFactory(configuration);
+    }
+
+    @Test
+    void partitionMaintenanceShouldReachBaseCodeTableWithoutRoute() throws Exception {
+        try (SqlSession session = sqlSessionFactory.openSession()) {
+            SubmissionPartitionMapper mapper = session.getMapper(SubmissionPartitionMapper.class);
+            mapper.createCodeTable("submission_code_202401");
+            mapper.copyLegacyCode("submission_code_202401", 1L, 100L);
+        }
+
+        List<String> sqls = preparedSqls();
+        assertThat(sqls).hasSize(2);
+        assertThat(sqls.get(0)).contains("submission_code_202401 LIKE submission_code");
+        assertThat(sqls.get(1))
+                .contains("INSERT IGNORE INTO submission_code_202401")
+                .contains("FROM submission_code WHERE");
+    }
+
+    @Test
+    void codeMapperShouldStillBeRoutedByMonth() throws Exception {
+        SubmissionCodeEntity code = new SubmissionCodeEntity();
+        code.setSubmissionId(1L);
+        try (SqlSession session = sqlSessionFactory.openSession()) {
+            SubmissionCodeMapper mapper = session.getMapper(SubmissionCodeMapper.class);
+            SubmissionCodeTableRouter.route(YearMonth.of(2024, 1), () -> mapper.updateJudgeOutputBatch(List.of(code)));
+            assertThatThrownBy(() -> mapper.updateJudgeOutputBatch(List.of(code)))
+                    .hasRootCauseInstanceOf(IllegalStateException.class)
+                    .rootCause()
+                    .hasMessageContaining("without a month route");
+        }
+
+        assertThat(preparedSqls()).singleElement().asString().contains("UPDATE submission_code_202401");
+    }
+
+    private List<String> preparedSqls() throws Exception {
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        verify(connection, atLeastOnce()).prepareStatement(sql.capture());
+        return sql.getAllValues();
+    }
+}
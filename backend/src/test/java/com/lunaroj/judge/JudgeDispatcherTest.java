@@ -0,0 +1,329 @@
+package com.lunaroj.judge;
+
+import com.lunaroj.constant.JudgePriority;
+import com.lunaroj.constant.SubmissionLanguage;
+import com.lunaroj.constant.SubmissionStatus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lunaroj.judge.checker.OutputChecker;
+import com.lunaroj.judge.compile.CompileCache;
+import com.lunaroj.judge.model.CaseResult;
+import com.lunaroj.judge.model.JudgeResult;
+import com.lunaroj.judge.model.JudgeTask;
+import com.lunaroj.judge.model.TestcaseSpec;
+import com.lunaroj.judge.scoring.ScoringConfigParser;
+import com.lunaroj.judge.testcase.FileSystemTestcaseStore;
+import com.lunaroj.judge.testcase.TestcaseCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JudgeDispatcherTest {
+
+    @TempDir
+    Path testcaseDir;
+    @TempDir
+    Path testcaseCacheDir;
+    @TempDir
+    Path compileCacheDir;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final Map<Long, JudgeResult> results = new ConcurrentHashMap<>();
+    private final List<String> statusEvents = new CopyOnWriteArrayList<>();
+    private CountDownLatch judged;
+
+    private JudgeProperties properties;
+    private StandInSandbox sandbox;
+    private JudgeResultListener listener;
+    private JudgeSlots judgeSlots;
+    private JudgeDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        Files.writeString(testcaseDir.resolve("1.in"), "1 2\n");
+        Files.writeString(testcaseDir.resolve("1.out"), "3\n");
+        Files.writeString(testcaseDir.resolve("2.in"), "20 22\n");
+        Files.writeString(testcaseDir.resolve("2.out"), "42\n");
+
+        properties = new JudgeProperties();
+        properties.setSlots(1);
+        properties.setTestcaseDir(testcaseDir.toString());
+        properties.getTestcaseCache().setDir(testcaseCacheDir.toString());
+        properties.getCompileCache().setDir(compileCacheDir.toString());
+        // a+b，但对 20 22 故意输出错误答案
+        sandbox = new StandInSandbox(input -> {
+            String[] parts = input.trim().split(" ");
+            int sum = Integer.parseInt(parts[0]) + Integer.parseInt(parts[1]);
+            return (sum == 42 ? 41 : sum) + "\n";
+        });
+        listener = new JudgeResultListener() {
+            @Override
+            public void onStatusChanged(JudgeTask task, SubmissionStatus status) {
+                statusEvents.add(task.getSubmissionId() + ":" + status);
+            }
+
+            @Override
+            public void onJudged(JudgeTask task, JudgeResult result) {
+                results.put(task.getSubmissionId(), result);
+                judged.countDown();
+            }
+        };
+        dispatcher = newDispatcher(meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        dispatcher.stop();
+    }
+
+    @Test
+    void submitShouldJudgeAndRecordLatency() throws InterruptedException {
+        judged = new CountDownLatch(1);
+        dispatcher.start();
+
+        dispatcher.submit(task(1L, "int main(){}", JudgePriority.PRACTICE, "1"));
+
+        assertThat(judged.await(5, TimeUnit.SECONDS)).isTrue();
+        JudgeResult result = results.get(1L);
+        assertThat(result.getStatus()).isEqualTo(SubmissionStatus.AC);
+        assertThat(result.getPassCount()).isEqualTo(1);
+        assertThat(result.getTotalCount()).isEqualTo(1);
+        assertThat(result.getTimeUsed()).isEqualTo(4);
+        assertThat(result.getQueueWaitMillis()).isGreaterThanOrEqualTo(0);
+        assertThat(result.getJudgedAt()).isNotNull();
+        assertThat(statusEvents).containsExactly("1:CI", "1:RI");
+        assertThat(meterRegistry.get("lunaroj.judge.queue.wait").tag("priority", "PRACTICE").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("lunaroj.judge.compile").timer().count()).isEqualTo(1);
+        assertThat(sandbox.liveArtifactCount()).isZero();
+    }
+
+    @Test
+    void executeShouldReportFirstFailingCaseAndPassCount() {
+        judged = new CountDownLatch(1);
+
+        dispatcher.execute(enqueued(task(2L, "int main(){}", JudgePriority.CONTEST, "1", "2")));
+
+        JudgeResult result = results.get(2L);
+        assertThat(result.getStatus()).isEqualTo(SubmissionStatus.WA);
+        assertThat(result.getPassCount()).isEqualTo(1);
+        assertThat(result.getCaseResults()).extracting(caseResult -> caseResult.getStatus())
+                .containsExactly(SubmissionStatus.AC, SubmissionStatus.WA);
+    }
+
+    @Test
+    void executeShouldStopAtFirstFailureWhenAllOrNothing() {
+        judged = new CountDownLatch(1);
+        JudgeTask task = task(5L, "int main(){}", JudgePriority.CONTEST, "1", "2", "1", "1");
+        task.setScoringConfig("{\"type\":\"all\"}");
+        // 顺序评测时跳过哪些测试点是确定的
+        task.setCaseParallelism(1);
+
+        dispatcher.execute(enqueued(task));
+
+        JudgeResult result = results.get(5L);
+        assertThat(result.getStatus()).isEqualTo(SubmissionStatus.WA);
+        assertThat(result.getScore()).isZero();
+        assertThat(result.getTotalCount()).isEqualTo(4);
+        assertThat(result.getCaseResults()).extracting(CaseResult::getSortOrder).containsExactly(0, 1);
+    }
+
+    @Test
+    void executeShouldSkipOnlyRestOfFailedGroup() {
+        judged = new CountDownLatch(1);
+        JudgeTask task = task(6L, "int main(){}", JudgePriority.CONTEST, "1", "2", "1", "1");
+        task.setScoringConfig("""
+                {"type":"group","groups":[{"score":40,"cases":[0,1,2]},{"score":60,"cases":[3]}]}
+                """);
+        task.setCaseParallelism(1);
+
+        dispatcher.execute(enqueued(task));
+
+        JudgeResult result = results.get(6L);
+        assertThat(result.getStatus()).isEqualTo(SubmissionStatus.WA);
+        assertThat(result.getScore()).isEqualTo(60);
+        assertThat(result.getPassCount()).isEqualTo(2);
+        assertThat(result.getCaseResults()).extracting(CaseResult::getSortOrder).containsExactly(0, 1, 3);
+    }
+
+    @Test
+    void executeShouldReuseCompiledArtifactForIdenticalCode() {
+        judged = new CountDownLatch(2);
+
+        dispatcher.execute(enqueued(task(7L, "int main(){}", JudgePriority.CONTEST, "1")));
+        dispatcher.execute(enqueued(task(8L, "int main(){}", JudgePriority.PRACTICE, "1", "2")));
+
+        assertThat(sandbox.compileCount()).isEqualTo(1);
+        assertThat(results.get(8L).getStatus()).isEqualTo(SubmissionStatus.WA);
+        assertThat(meterRegistry.get("lunaroj.judge.compile.cache").tag("result", "hit").counter().count())
+                .isEqualTo(1.0);
+        assertThat(sandbox.liveArtifactCount()).isZero();
+    }
+
+    @Test
+    void executeShouldStopAtCompileError() {
+        judged = new CountDownLatch(1);
+
+        dispatcher.execute(enqueued(task(3L, "compile-error", JudgePriority.CONTEST, "1")));
+
+        JudgeResult result = results.get(3L);
+        assertThat(result.getStatus()).isEqualTo(SubmissionStatus.CE);
+        assertThat(result.getCompileOutput()).contains("error");
+        assertThat(result.getTimeUsed()).isNull();
+        assertThat(result.getCaseResults()).isEmpty();
+        assertThat(statusEvents).containsExactly("3:CI");
+    }
+
+    @Test
+    void executeShouldReturnNoTestDataWhenProblemHasNoTestcase() {
+        judged = new CountDownLatch(1);
+
+        dispatcher.execute(enqueued(task(4L, "int main(){}", JudgePriority.CONTEST)));
+
+        assertThat(results.get(4L).getStatus()).isEqualTo(SubmissionStatus.NT);
+    }
+
+    @Test
+    void queuedTasksShouldBeDispatchedByPriority() throws InterruptedException {
+        judged = new CountDownLatch(3);
+        List<Long> judgedOrder = new CopyOnWriteArrayList<>();
+        statusEvents.clear();
+        dispatcher.submit(task(10L, "int main(){}", JudgePriority.IDE, "1"));
+        dispatcher.submit(task(11L, "int main(){}", JudgePriority.PRACTICE, "1"));
+        dispatcher.submit(task(12L, "int main(){}", JudgePriority.IMPORTANT_CONTEST, "1"));
+
+        dispatcher.start();
+
+        assertThat(judged.await(5, TimeUnit.SECONDS)).isTrue();
+        statusEvents.stream()
+                .filter(event -> event.endsWith(":CI"))
+                .map(event -> Long.parseLong(event.substring(0, event.indexOf(':'))))
+                .forEach(judgedOrder::add);
+        assertThat(judgedOrder).containsExactly(12L, 11L, 10L);
+    }
+
+    @Test
+    void judgingShouldRunOnVirtualThreadsWithinSlotLimit() throws Exception {
+        dispatcher.stop();
+        properties.setSlots(2);
+        sandbox.setRunDelayMillis(50);
+        SimpleMeterRegistry slotMeterRegistry = new SimpleMeterRegistry();
+        dispatcher = newDispatcher(slotMeterRegistry);
+        judged = new CountDownLatch(6);
+        for (long id = 20; id < 26; id++) {
+            dispatcher.submit(task(id, "int main(){}", JudgePriority.CONTEST, "1"));
+        }
+
+        dispatcher.start();
+
+        assertThat(judged.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(results).hasSize(6);
+        assertThat(sandbox.maxRunningCount()).isEqualTo(2);
+        assertThat(sandbox.ranOnPlatformThread()).isFalse();
+        assertThat(slotMeterRegistry.get("lunaroj.judge.slots.total").gauge().value()).isEqualTo(2.0);
+    }
+
+    @Test
+    void executeShouldRunTestcasesInParallelAndMergeBySortOrder() throws Exception {
+        dispatcher.stop();
+        properties.setSlots(4);
+        sandbox.setRunDelayMillis(100);
+        dispatcher = newDispatcher(new SimpleMeterRegistry());
+        judged = new CountDownLatch(1);
+        JudgeTask task = task(30L, "int main(){}", JudgePriority.CONTEST, "1", "2", "1", "2");
+        task.setCaseParallelism(4);
+
+        dispatcher.execute(enqueued(task));
+
+        JudgeResult result = results.get(30L);
+        assertThat(result.getStatus()).isEqualTo(SubmissionStatus.WA);
+        assertThat(result.getPassCount()).isEqualTo(2);
+        assertThat(result.getCaseResults()).extracting(CaseResult::getSortOrder).containsExactly(0, 1, 2, 3);
+        assertThat(result.getCaseResults()).extracting(CaseResult::getStatus).containsExactly(
+                SubmissionStatus.AC, SubmissionStatus.WA, SubmissionStatus.AC, SubmissionStatus.WA);
+        assertThat(sandbox.maxRunningCount()).isEqualTo(4);
+        assertThat(result.getRunMillis()).isLessThan(300);
+        assertThat(judgeSlots.busy()).isZero();
+    }
+
+    @Test
+    void executeShouldReportLowestFailingCaseOfGroupWhenJudgingInParallel() throws Exception {
+        dispatcher.stop();
+        properties.setSlots(4);
+        sandbox.setRunDelayMillis(20);
+        dispatcher = newDispatcher(new SimpleMeterRegistry());
+        judged = new CountDownLatch(1);
+        JudgeTask task = task(31L, "int main(){}", JudgePriority.CONTEST, "1", "1", "2", "1", "2", "1", "1", "1");
+        task.setScoringConfig("{\"type\":\"all\"}");
+        task.setCaseParallelism(4);
+
+        dispatcher.execute(enqueued(task));
+
+        // 下标 2 之后的测试点可能被跳过，但下标不超过 2 的测试点总会评测
+        JudgeResult result = results.get(31L);
+        assertThat(result.getStatus()).isEqualTo(SubmissionStatus.WA);
+        assertThat(result.getCaseResults()).extracting(CaseResult::getSortOrder).startsWith(0, 1, 2);
+        assertThat(result.getCaseResults().get(2).getStatus()).isEqualTo(SubmissionStatus.WA);
+        assertThat(judgeSlots.busy()).isZero();
+    }
+
+    private JudgeDispatcher newDispatcher(SimpleMeterRegistry registry) throws IOException {
+        judgeSlots = new JudgeSlots(properties);
+        CompileCache compileCache = new CompileCache(sandbox, properties, registry);
+        compileCache.loadExisting();
+        JudgeRunner runner = new JudgeRunner(
+                sandbox,
+                judgeSlots,
+                compileCache,
+                testcaseCache(),
+                new OutputChecker(),
+                new ScoringConfigParser(new ObjectMapper()),
+                properties
+        );
+        return new JudgeDispatcher(runner, judgeSlots, List.of(listener), properties, registry);
+    }
+
+    private TestcaseCache testcaseCache() throws IOException {
+        TestcaseCache testcaseCache = new TestcaseCache(new FileSystemTestcaseStore(properties), properties);
+        testcaseCache.loadExisting();
+        return testcaseCache;
+    }
+
+    private JudgeTask enqueued(JudgeTask task) {
+        task.setEnqueuedAtNanos(System.nanoTime());
+        return task;
+    }
+
+    private static JudgeTask task(long submissionId, String code, JudgePriority priority, String... testcaseNames) {
+        JudgeTask task = new JudgeTask();
+        task.setSubmissionId(submissionId);
+        task.setUserId(1L);
+        task.setProblemId(1000L);
+        task.setLanguage(SubmissionLanguage.CPP);
+        task.setCode(code);
+        task.setPriority(priority);
+        task.setTimeLimitMillis(1000);
+        task.setMemoryLimitKb(262144);
+        for (int i = 0; i < testcaseNames.length; i++) {
+            TestcaseSpec testcase = new TestcaseSpec();
+            testcase.setTestcaseId((long) i + 1);
+            testcase.setSortOrder(i);
+            testcase.setInputPath(testcaseNames[i] + ".in");
+            testcase.setOutputPath(testcaseNames[i] + ".out");
+            task.getTestcases().add(testcase);
+        }
+        return task;
+    }
+}
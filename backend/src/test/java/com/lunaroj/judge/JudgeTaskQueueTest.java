@@ -0,0 +1,47 @@
+package com.lunaroj.judge;
+
+import com.lunaroj.constant.JudgePriority;
+import com.lunaroj.judge.model.JudgeTask;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JudgeTaskQueueTest {
+
+    @Test
+    void takeShouldReturnHigherPriorityFirstAndFifoWithinPriority() throws InterruptedException {
+        JudgeTaskQueue queue = new JudgeTaskQueue();
+        queue.offer(task(1L, JudgePriority.IDE));
+        queue.offer(task(2L, JudgePriority.PRACTICE));
+        queue.offer(task(3L, JudgePriority.IMPORTANT_CONTEST));
+        queue.offer(task(4L, JudgePriority.PRACTICE));
+        queue.offer(task(5L, JudgePriority.CONTEST));
+        queue.offer(task(6L, JudgePriority.IMPORTANT_CONTEST));
+
+        assertThat(queue.size()).isEqualTo(6);
+        assertThat(queue.size(JudgePriority.PRACTICE)).isEqualTo(2);
+        long[] order = new long[6];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = queue.take().getSubmissionId();
+        }
+
+        assertThat(order).containsExactly(3L, 6L, 5L, 2L, 4L, 1L);
+        assertThat(queue.size()).isZero();
+    }
+
+    @Test
+    void pollShouldReturnNullWhenEmptyAfterTimeout() throws InterruptedException {
+        JudgeTaskQueue queue = new JudgeTaskQueue();
+
+        assertThat(queue.poll(10, TimeUnit.MILLISECONDS)).isNull();
+    }
+
+    private static JudgeTask task(long submissionId, JudgePriority priority) {
+        JudgeTask task = new JudgeTask();
+        task.setSubmissionId(submissionId);
+        task.setPriority(priority);
+        return task;
+    }
+}
@@ -0,0 +1,122 @@
+package com.lunaroj.judge;
+
+import com.lunaroj.constant.SubmissionLanguage;
+import com.lunaroj.judge.sandbox.CompileResult;
+import com.lunaroj.judge.sandbox.JudgeSandbox;
+import com.lunaroj.judge.sandbox.RunRequest;
+import com.lunaroj.judge.sandbox.RunResult;
+import com.lunaroj.judge.sandbox.RunStatus;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.UnaryOperator;
+
+/**
+ * 测试用本地替身沙箱：代码含 "compile-error" 时编译失败，否则把输入交给 program 计算输出。
+ */
+class StandInSandbox implements JudgeSandbox {
+
+    private final UnaryOperator<String> program;
+    private final AtomicInteger artifactSequence = new AtomicInteger();
+    private final AtomicInteger compileCount = new AtomicInteger();
+    private final Set<String> liveArtifacts = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger runningCount = new AtomicInteger();
+    private final AtomicInteger maxRunningCount = new AtomicInteger();
+    private volatile long runDelayMillis;
+    private volatile boolean ranOnPlatformThread;
+
+    StandInSandbox(UnaryOperator<String> program) {
+        this.program = program;
+    }
+
+    @Override
+    public CompileResult compile(SubmissionLanguage language, String code) {
+        if (code.contains("compile-error")) {
+            return CompileResult.failure("main.cpp:1: error: expected ';'");
+        }
+        compileCount.incrementAndGet();
+        String artifactId = "artifact-" + artifactSequence.incrementAndGet();
+        liveArtifacts.add(artifactId);
+        return CompileResult.success(artifactId, "");
+    }
+
+    @Override
+    public RunResult run(RunRequest request) {
+        if (!liveArtifacts.contains(request.getArtifactId())) {
+            throw new IllegalStateException("unknown artifact " + request.getArtifactId());
+        }
+        String input;
+        try {
+            input = Files.readString(request.getInputFile());
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        int running = runningCount.incrementAndGet();
+        maxRunningCount.accumulateAndGet(running, Math::max);
+        if (!Thread.currentThread().isVirtual()) {
+            ranOnPlatformThread = true;
+        }
+        try {
+            if (runDelayMillis > 0) {
+                Thread.sleep(runDelayMillis);
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } finally {
+            runningCount.decrementAndGet();
+        }
+        RunResult result = new RunResult();
+        result.setStatus(RunStatus.OK);
+        result.setTimeMillis(input.length());
+        result.setMemoryKb(1024);
+        result.setStdout(program.apply(input).getBytes());
+        return result;
+    }
+
+    @Override
+    public void release(String artifactId) {
+        liveArtifacts.remove(artifactId);
+    }
+
+    @Override
+    public String compileFingerprint(SubmissionLanguage language) {
+        return "stand-in " + language;
+    }
+
+    @Override
+    public void exportArtifact(String artifactId, Path target) throws IOException {
+        Files.writeString(target, artifactId);
+    }
+
+    @Override
+    public String importArtifact(Path source) throws IOException {
+        String artifactId = Files.readString(source) + "-imported-" + artifactSequence.incrementAndGet();
+        liveArtifacts.add(artifactId);
+        return artifactId;
+    }
+
+    int liveArtifactCount() {
+        return liveArtifacts.size();
+    }
+
+    void setRunDelayMillis(long runDelayMillis) {
+        this.runDelayMillis = runDelayMillis;
+    }
+
+    int maxRunningCount() {
+        return maxRunningCount.get();
+    }
+
+    int compileCount() {
+        return compileCount.get();
+    }
+
+    boolean ranOnPlatformThread() {
+        return ranOnPlatformThread;
+    }
+}
@@ -0,0 +1,59 @@
+package com.lunaroj.judge.checker;
+
+import com.lunaroj.constant.SubmissionStatus;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OutputCheckerTest {
+
+    private final OutputChecker outputChecker = new OutputChecker();
+
+    @Test
+    void trailingWhitespaceModeShouldIgnoreLineEndsAndTrailingBlankLines() {
+        assertThat(check("1 2\n3\n", "1 2  \r\n3\n\n  \n", CompareMode.TRAILING_WHITESPACE))
+                .isEqualTo(SubmissionStatus.AC);
+        assertThat(check("1 2\n3", "1 2\n3\n", CompareMode.TRAILING_WHITESPACE)).isEqualTo(SubmissionStatus.AC);
+        assertThat(check("1 2\n3\n", "1  2\n3\n", CompareMode.TRAILING_WHITESPACE)).isEqualTo(SubmissionStatus.PE);
+        assertThat(check("1\n\n2\n", "1\n2\n", CompareMode.TRAILING_WHITESPACE)).isEqualTo(SubmissionStatus.PE);
+        assertThat(check("1 2\n3\n", "1 2\n4\n", CompareMode.TRAILING_WHITESPACE)).isEqualTo(SubmissionStatus.WA);
+        assertThat(check("1 2\n3\n", "1 2\n", CompareMode.TRAILING_WHITESPACE)).isEqualTo(SubmissionStatus.WA);
+    }
+
+    @Test
+    void exactModeShouldReportWhitespaceOnlyDifferenceAsPresentationError() {
+        assertThat(check("1 2\n", "1 2\n", CompareMode.EXACT)).isEqualTo(SubmissionStatus.AC);
+        assertThat(check("1 2\n", "1 2", CompareMode.EXACT)).isEqualTo(SubmissionStatus.PE);
+        assertThat(check("1 2\n", "1 3\n", CompareMode.EXACT)).isEqualTo(SubmissionStatus.WA);
+    }
+
+    @Test
+    void tokenModeShouldCompareWhitespaceSeparatedTokens() {
+        assertThat(check("1 2\n3\n", "  1\t2 3", CompareMode.TOKEN)).isEqualTo(SubmissionStatus.AC);
+        assertThat(check("", " \n", CompareMode.TOKEN)).isEqualTo(SubmissionStatus.AC);
+        assertThat(check("12 3", "1 23", CompareMode.TOKEN)).isEqualTo(SubmissionStatus.PE);
+        assertThat(check("12", "123", CompareMode.TOKEN)).isEqualTo(SubmissionStatus.WA);
+        assertThat(check("1 2", "1 2 3", CompareMode.TOKEN)).isEqualTo(SubmissionStatus.WA);
+    }
+
+    @Test
+    void checkShouldRespectBufferBoundsWithoutMovingPosition() {
+        ByteBuffer expected = ByteBuffer.wrap("xx42\nyy".getBytes(StandardCharsets.UTF_8), 2, 3);
+        ByteBuffer actual = ByteBuffer.allocateDirect(8).put("42  ".getBytes(StandardCharsets.UTF_8)).flip();
+
+        assertThat(outputChecker.check(expected, actual)).isEqualTo(SubmissionStatus.AC);
+        assertThat(expected.position()).isEqualTo(2);
+        assertThat(actual.position()).isZero();
+    }
+
+    private SubmissionStatus check(String expected, String actual, CompareMode mode) {
+        return outputChecker.check(
+                ByteBuffer.wrap(expected.getBytes(StandardCharsets.UTF_8)),
+                ByteBuffer.wrap(actual.getBytes(StandardCharsets.UTF_8)),
+                mode
+        );
+    }
+}
@@ -0,0 +1,172 @@
+package com.lunaroj.judge.compile;
+
+import com.lunaroj.constant.SubmissionLanguage;
+import com.lunaroj.judge.JudgeProperties;
+import com.lunaroj.judge.sandbox.CompileResult;
+import com.lunaroj.judge.sandbox.JudgeSandbox;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CompileCacheTest {
+
+    @TempDir
+    Path cacheDir;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private JudgeSandbox sandbox;
+    private JudgeProperties properties;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        sandbox = mock(JudgeSandbox.class);
+        when(sandbox.compileFingerprint(any())).thenAnswer(invocation -> "g++ -O2 " + invocation.getArgument(0));
+        when(sandbox.compile(any(), anyString())).thenAnswer(invocation ->
+                CompileResult.success("fresh-" + invocation.getArgument(1), "warning: unused"));
+        doAnswer(invocation -> {
+            Files.writeString(invocation.getArgument(1), "binary of " + invocation.getArgument(0));
+            return null;
+        }).when(sandbox).exportArtifact(anyString(), any(Path.class));
+        when(sandbox.importArtifact(any(Path.class))).thenAnswer(invocation ->
+                "imported:" + Files.readString(invocation.getArgument(0)));
+        properties = new JudgeProperties();
+        properties.getCompileCache().setDir(cacheDir.toString());
+    }
+
+    @Test
+    void compileShouldSkipSandboxOnHitAndKeepCompilerOutput() throws IOException {
+        CompileCache cache = newCache();
+
+        CompileResult first = cache.compile(SubmissionLanguage.CPP, "a");
+        CompileResult second = cache.compile(SubmissionLanguage.CPP, "a");
+        CompileResult otherLanguage = cache.compile(SubmissionLanguage.C, "a");
+
+        assertThat(first.getArtifactId()).isEqualTo("fresh-a");
+        assertThat(second.isSuccess()).isTrue();
+        assertThat(second.getArtifactId()).isEqualTo("imported:binary of fresh-a");
+        assertThat(second.getOutput()).isEqualTo("warning: unused");
+        assertThat(otherLanguage.getArtifactId()).isEqualTo("fresh-a");
+        verify(sandbox, times(2)).compile(any(), anyString());
+        assertThat(meterRegistry.get("lunaroj.judge.compile.cache").tag("result", "hit").counter().count()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("lunaroj.judge.compile.cache").tag("result", "miss").counter().count()).isEqualTo(2.0);
+    }
+
+    @Test
+    void compileShouldNotCacheFailuresAndShouldSurviveRestart() throws IOException {
+        when(sandbox.compile(SubmissionLanguage.CPP, "broken")).thenReturn(CompileResult.failure("error"));
+        CompileCache cache = newCache();
+        cache.compile(SubmissionLanguage.CPP, "broken");
+        cache.compile(SubmissionLanguage.CPP, "broken");
+        cache.compile(SubmissionLanguage.CPP, "a");
+
+        CompileResult restored = newCache().compile(SubmissionLanguage.CPP, "a");
+
+        assertThat(restored.getArtifactId()).isEqualTo("imported:binary of fresh-a");
+        verify(sandbox, times(3)).compile(any(), anyString());
+    }
+
+    @Test
+    void evictionShouldDropLeastRecentlyUsedArtifacts() throws IOException {
+        // 每个条目32 字节(产物 + 编译输出)
+        properties.getCompileCache().setMaxBytes(70);
+        CompileCache cache = newCache();
+
+        cache.compile(SubmissionLanguage.CPP, "a");
+        cache.compile(SubmissionLanguage.CPP, "b");
+        cache.compile(SubmissionLanguage.CPP, "a");
+        cache.compile(SubmissionLanguage.CPP, "c");
+
+        assertThat(cache.totalBytes()).isLessThanOrEqualTo(70);
+        assertThat(cache.compile(SubmissionLanguage.CPP, "a").getArtifactId()).startsWith("imported:");
+        assertThat(cache.compile(SubmissionLanguage.CPP, "b").getArtifactId()).isEqualTo("fresh-b");
+    }
+
+    @Test
+    void compileShouldRecompileWhenCachedArtifactIsMissingOrCorrupt() throws IOException {
+        CompileCache cache = newCache();
+        cache.compile(SubmissionLanguage.CPP, "a");
+        cache.compile(SubmissionLanguage.CPP, "b");
+        try (Stream<Path> files = Files.list(cacheDir)) {
+            List<Path> artifacts = files.filter(file -> file.toString().endsWith(".bin")).sorted().toList();
+            Files.delete(artifacts.get(0));
+            Files.writeString(artifacts.get(1), "truncated");
+        }
+
+        CompileResult a = cache.compile(SubmissionLanguage.CPP, "a");
+        CompileResult b = cache.compile(SubmissionLanguage.CPP, "b");
+
+        assertThat(a.getArtifactId()).isEqualTo("fresh-a");
+        assertThat(b.getArtifactId()).isEqualTo("fresh-b");
+        verify(sandbox, times(4)).compile(any(), anyString());
+        verify(sandbox, never()).importArtifact(any(Path.class));
+    }
+
+    @Test
+    void compileShouldPropagateSandboxImportFailureAndKeepEntry() throws IOException {
+        CompileCache cache = newCache();
+        cache.compile(SubmissionLanguage.CPP, "a");
+        when(sandbox.importArtifact(any(Path.class)))
+                .thenThrow(new IOException("sandbox down"))
+                .thenAnswer(invocation -> "imported:" + Files.readString(invocation.getArgument(0)));
+
+        assertThatThrownBy(() -> cache.compile(SubmissionLanguage.CPP, "a"))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("sandbox down");
+        CompileResult result = cache.compile(SubmissionLanguage.CPP, "a");
+
+        assertThat(result.getArtifactId()).isEqualTo("imported:binary of fresh-a");
+        verify(sandbox, times(1)).compile(any(), anyString());
+    }
+
+    @Test
+    void concurrentMissesOnVirtualThreadsShouldCompileOnce() throws Exception {
+        CountDownLatch compiling = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(sandbox.compile(SubmissionLanguage.CPP, "slow")).thenAnswer(invocation -> {
+            compiling.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return CompileResult.success("fresh-slow", "");
+        });
+        CompileCache cache = newCache();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<CompileResult> first = executor.submit(() -> cache.compile(SubmissionLanguage.CPP, "slow"));
+            assertThat(compiling.await(5, TimeUnit.SECONDS)).isTrue();
+            Future<CompileResult> second = executor.submit(() -> cache.compile(SubmissionLanguage.CPP, "slow"));
+            release.countDown();
+
+            assertThat(first.get(5, TimeUnit.SECONDS).getArtifactId()).isEqualTo("fresh-slow");
+            assertThat(second.get(5, TimeUnit.SECONDS).getArtifactId()).isEqualTo("imported:binary of fresh-slow");
+        }
+        verify(sandbox, times(1)).compile(SubmissionLanguage.CPP, "slow");
+    }
+
+    private CompileCache newCache() throws IOException {
+        CompileCache cache = new CompileCache(sandbox, properties, meterRegistry);
+        cache.loadExisting();
+        return cache;
+    }
+}
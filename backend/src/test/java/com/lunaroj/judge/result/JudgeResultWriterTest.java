@@ -0,0 +1,248 @@
+package com.lunaroj.judge.result;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lunaroj.constant.SubmissionStatus;
+import com.lunaroj.judge.JudgeProperties;
+import com.lunaroj.judge.model.CaseResult;
+import com.lunaroj.judge.model.JudgeResult;
+import com.lunaroj.judge.model.JudgeTask;
+import com.lunaroj.mapper.ProblemMapper;
+import com.lunaroj.mapper.SubmissionCodeMapper;
+import com.lunaroj.mapper.SubmissionMapper;
+import com.lunaroj.model.entity.ProblemEntity;
+import com.lunaroj.model.entity.SubmissionCodeEntity;
+import com.lunaroj.model.entity.SubmissionEntity;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.transaction.support.TransactionOperations.withoutTransaction;
+
+class JudgeResultWriterTest {
+
+    @TempDir
+    Path logDir;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private SubmissionMapper submissionMapper;
+    private SubmissionCodeMapper submissionCodeMapper;
+    private ProblemMapper problemMapper;
+    private JudgeProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        submissionMapper = mock(SubmissionMapper.class);
+        submissionCodeMapper = mock(SubmissionCodeMapper.class);
+        problemMapper = mock(ProblemMapper.class);
+        properties = new JudgeProperties();
+        properties.getResultWriter().setLogDir(logDir.toString());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flushShouldCoalesceResultsIntoBatchedStatements() throws IOException {
+        List<SubmissionEntity> writtenSubmissions = new ArrayList<>();
+        List<ProblemEntity> writtenDeltas = new ArrayList<>();
+        // 语句参数是可复用的子列表视图，调用时复制
+        doAnswer(invocation -> {
+            List<SubmissionEntity> rows = invocation.getArgument(0);
+            writtenSubmissions.addAll(rows);
+            return rows.size();
+        }).when(submissionMapper).updateJudgeResultBatch(anyList());
+        doAnswer(invocation -> {
+            List<ProblemEntity> rows = invocation.getArgument(0);
+            writtenDeltas.addAll(rows);
+            return rows.size();
+        }).when(problemMapper).addCountsBatch(anyList());
+        JudgeResultWriter writer = newWriter();
+
+        writer.onJudged(task(3L, 100L), result(SubmissionStatus.WA));
+        writer.onJudged(task(1L, 100L), result(SubmissionStatus.AC));
+        writer.onJudged(task(2L, 200L), result(SubmissionStatus.AC));
+        writer.onJudged(task(3L, 100L), result(SubmissionStatus.AC));
+        writer.flush();
+
+        verify(submissionMapper, times(1)).updateJudgeResultBatch(anyList());
+        assertThat(writtenSubmissions).extracting(SubmissionEntity::getId).containsExactly(1L, 2L, 3L);
+        assertThat(writtenSubmissions.get(2).getStatus()).isEqualTo(SubmissionStatus.AC.getCode());
+        assertThat(writtenDeltas).extracting(ProblemEntity::getId).containsExactly(100L, 200L);
+        // 提交 3 在批内出现两次，只按最后的 AC 计一次
+        assertThat(writtenDeltas.get(0).getSubmitCount()).isEqualTo(2);
+        assertThat(writtenDeltas.get(0).getAcceptCount()).isEqualTo(2);
+        ArgumentCaptor<List<SubmissionCodeEntity>> codes = ArgumentCaptor.forClass(List.class);
+        verify(submissionCodeMapper).updateJudgeOutputBatch(codes.capture());
+        assertThat(codes.getValue().get(0).getCaseResults())
+                .isEqualTo("[{\"sortOrder\":0,\"status\":4,\"timeMillis\":12,\"memoryKb\":2048}]");
+        assertThat(writer.pendingCount()).isZero();
+        assertThat(segments()).hasSize(1);
+    }
+
+    @Test
+    void pendingResultsShouldBeReplayedAfterCrash() throws IOException {
+        JudgeResultWriter crashed = newWriter();
+        crashed.onJudged(task(7L, 100L), result(SubmissionStatus.AC));
+
+        JudgeResultWriter restarted = newWriter();
+        restarted.flush();
+
+        ArgumentCaptor<List<SubmissionEntity>> submissions = ArgumentCaptor.captor();
+        verify(submissionMapper).updateJudgeResultBatch(submissions.capture());
+        assertThat(submissions.getValue()).extracting(SubmissionEntity::getId).containsExactly(7L);
+        // 仅剩重启后新开的空段
+        assertThat(segments()).hasSize(1);
+    }
+
+    @Test
+    void failedFlushShouldKeepResultsAndLogForRetry() throws IOException {
+        when(submissionMapper.updateJudgeResultBatch(anyList()))
+                .thenThrow(new IllegalStateException("db down"))
+                .thenReturn(1);
+        JudgeResultWriter writer = newWriter();
+        writer.onJudged(task(8L, 100L), result(SubmissionStatus.WA));
+
+        writer.flush();
+
+        assertThat(writer.pendingCount()).isEqualTo(1);
+        assertThat(segments()).hasSize(2);
+        verify(problemMapper, never()).addCountsBatch(anyList());
+
+        writer.flush();
+
+        assertThat(writer.pendingCount()).isZero();
+        assertThat(segments()).hasSize(1);
+        verify(problemMapper).addCountsBatch(anyList());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void countsShouldFollowStatusTransitionSoRewritesAreIdempotent() throws IOException {
+        when(submissionMapper.selectStatusForUpdate(anyList())).thenReturn(List.of(
+                submissionWithStatus(7L, SubmissionStatus.AC),
+                submissionWithStatus(8L, SubmissionStatus.WA)
+        ));
+        JudgeResultWriter writer = newWriter();
+        // 7 是崩溃后重放的已提交结果，8 由 WA 改判为 AC
+        writer.onJudged(task(7L, 100L), result(SubmissionStatus.AC));
+        writer.onJudged(task(8L, 100L), result(SubmissionStatus.AC));
+
+        writer.flush();
+
+        ArgumentCaptor<List<ProblemEntity>> deltas = ArgumentCaptor.forClass(List.class);
+        verify(problemMapper).addCountsBatch(deltas.capture());
+        assertThat(deltas.getValue()).hasSize(1);
+        assertThat(deltas.getValue().get(0).getSubmitCount()).isZero();
+        assertThat(deltas.getValue().get(0).getAcceptCount()).isEqualTo(1);
+    }
+
+    @Test
+    void poisonRecordShouldBeSplitOutAndDeadLettered() throws IOException {
+        properties.getResultWriter().setMaxAttempts(2);
+        List<Long> written = new ArrayList<>();
+        doAnswer(invocation -> {
+            List<SubmissionCodeEntity> rows = invocation.getArgument(0);
+            if (rows.stream().anyMatch(row -> row.getSubmissionId() == 5L)) {
+                throw new IllegalStateException("Table 'submission_code_201901' doesn't exist");
+            }
+            rows.forEach(row -> written.add(row.getSubmissionId()));
+            return rows.size();
+        }).when(submissionCodeMapper).updateJudgeOutputBatch(anyList());
+        JudgeResultWriter writer = newWriter();
+        writer.onJudged(task(4L, 100L), result(SubmissionStatus.AC));
+        writer.onJudged(task(5L, 100L), result(SubmissionStatus.AC));
+
+        writer.flush();
+
+        assertThat(written).containsExactly(4L);
+        assertThat(writer.pendingCount()).isEqualTo(1);
+
+        writer.onJudged(task(6L, 100L), result(SubmissionStatus.AC));
+        writer.flush();
+
+        assertThat(written).containsExactly(4L, 6L);
+        assertThat(writer.pendingCount()).isZero();
+        assertThat(Files.readString(logDir.resolve("dead-letter.log"))).contains("\"submissionId\":5");
+
+        // 死信记录不再重放
+        JudgeResultWriter restarted = newWriter();
+        assertThat(restarted.pendingCount()).isZero();
+    }
+
+    @Test
+    void onJudgedShouldKeepResultInMemoryWhenItCannotBeLogged() throws IOException {
+        JudgeResultWriter writer = newWriter();
+        writer.shutdown();
+
+        writer.onJudged(task(9L, 100L), result(SubmissionStatus.AC));
+        assertThat(writer.pendingCount()).isEqualTo(1);
+        writer.flush();
+
+        ArgumentCaptor<List<SubmissionEntity>> submissions = ArgumentCaptor.captor();
+        verify(submissionMapper).updateJudgeResultBatch(submissions.capture());
+        assertThat(submissions.getValue()).extracting(SubmissionEntity::getId).containsExactly(9L);
+        assertThat(writer.pendingCount()).isZero();
+    }
+
+    private JudgeResultWriter newWriter() throws IOException {
+        JudgeResultWriter writer = new JudgeResultWriter(
+                submissionMapper,
+                submissionCodeMapper,
+                problemMapper,
+                withoutTransaction(),
+                objectMapper,
+                properties
+        );
+        writer.recover();
+        return writer;
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> stream = Files.list(logDir)) {
+            return stream.toList();
+        }
+    }
+
+    private static SubmissionEntity submissionWithStatus(long id, SubmissionStatus status) {
+        SubmissionEntity submission = new SubmissionEntity();
+        submission.setId(id);
+        submission.setProblemId(100L);
+        submission.setStatus(status.getCode());
+        return submission;
+    }
+
+    private static JudgeTask task(long submissionId, long problemId) {
+        JudgeTask task = new JudgeTask();
+        task.setSubmissionId(submissionId);
+        task.setProblemId(problemId);
+        return task;
+    }
+
+    private static JudgeResult result(SubmissionStatus status) {
+        JudgeResult result = new JudgeResult();
+        result.setStatus(status);
+        result.setScore(status == SubmissionStatus.AC ? 100 : 0);
+        result.setTimeUsed(12);
+        result.setMemoryUsed(2048);
+        result.setPassCount(status == SubmissionStatus.AC ? 1 : 0);
+        result.setTotalCount(1);
+        result.setJudgedAt(LocalDateTime.of(2026, 10, 17, 12, 0));
+        result.getCaseResults().add(new CaseResult(0, status, 12, 2048));
+        return result;
+    }
+}
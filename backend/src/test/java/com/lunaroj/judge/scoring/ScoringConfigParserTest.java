@@ -0,0 +1,35 @@
+package com.lunaroj.judge.scoring;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ScoringConfigParserTest {
+
+    private final ScoringConfigParser parser = new ScoringConfigParser(new ObjectMapper());
+
+    @Test
+    void parseShouldMapCasesToGroups() {
+        ScoringConfig config = parser.parse("""
+                {"type":"group","groups":[{"score":30,"cases":[1,2]},{"score":70,"cases":[2,3]}]}
+                """);
+
+        assertThat(config.getType()).isEqualTo(ScoringConfig.Type.GROUP);
+        assertThat(config.groupOf(1)).isZero();
+        assertThat(config.groupOf(2)).isZero();
+        assertThat(config.groupOf(3)).isEqualTo(1);
+        assertThat(config.groupOf(4)).isEqualTo(-1);
+        assertThat(config.groupScore(1)).isEqualTo(70);
+        assertThat(parser.parse("{\"type\":\"all\"}").groupOf(99)).isZero();
+    }
+
+    @Test
+    void parseShouldFallBackToPerCaseWhenConfigIsMissingOrInvalid() {
+        assertThat(parser.parse(null)).isSameAs(ScoringConfig.PER_CASE);
+        assertThat(parser.parse("{\"type\":\"group\",\"groups\":[]}")).isSameAs(ScoringConfig.PER_CASE);
+        assertThat(parser.parse("{\"type\":\"group\",\"groups\":[{\"score\":10,\"cases\":[\"a\"]}]}"))
+                .isSameAs(ScoringConfig.PER_CASE);
+        assertThat(parser.parse("not json")).isSameAs(ScoringConfig.PER_CASE);
+    }
+}
@@ -0,0 +1,156 @@
+package com.lunaroj.judge.testcase;
+
+import com.lunaroj.judge.JudgeProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TestcaseCacheTest {
+
+    @TempDir
+    Path cacheDir;
+
+    private final Map<String, String> objects = new ConcurrentHashMap<>();
+    private final AtomicInteger downloads = new AtomicInteger();
+    private JudgeProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        properties = new JudgeProperties();
+        properties.getTestcaseCache().setDir(cacheDir.toString());
+        objects.put("p1/1.out", "hello\n");
+        objects.put("p2/1.out", "hello\n");
+        objects.put("p1/2.out", "world!\n");
+    }
+
+    @Test
+    void acquireShouldDownloadSameContentOnceAndExposeMappedView() throws Exception {
+        TestcaseCache cache = newCache();
+
+        try (CachedTestcase first = cache.acquire("p1/1.out", sha256("hello\n"));
+             CachedTestcase second = cache.acquire("p2/1.out", sha256("hello\n").toUpperCase())) {
+            ByteBuffer mapped = first.map();
+            assertThat(StandardCharsets.UTF_8.decode(mapped).toString()).isEqualTo("hello\n");
+            assertThat(second.map().remaining()).isEqualTo(6);
+            assertThat(second.path()).isEqualTo(first.path());
+        }
+
+        assertThat(downloads.get()).isEqualTo(1);
+        assertThat(cache.totalBytes()).isEqualTo(6);
+    }
+
+    @Test
+    void acquireShouldRejectContentWithUnexpectedHash() throws Exception {
+        TestcaseCache cache = newCache();
+
+        assertThatThrownBy(() -> cache.acquire("p1/2.out", sha256("other\n")))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("hash mismatch");
+        assertThat(cache.totalBytes()).isZero();
+        try (var files = Files.list(cacheDir)) {
+            assertThat(files).isEmpty();
+        }
+    }
+
+    @Test
+    void evictionShouldKeepReferencedFilesAndDropLeastRecentlyUsed() throws Exception {
+        properties.getTestcaseCache().setMaxBytes(10);
+        TestcaseCache cache = newCache();
+
+        CachedTestcase held = cache.acquire("p1/1.out", sha256("hello\n"));
+        try (CachedTestcase ignored = cache.acquire("p1/2.out", sha256("world!\n"))) {
+            assertThat(cache.totalBytes()).isEqualTo(13);
+        }
+        assertThat(cache.totalBytes()).isEqualTo(13);
+        objects.put("p3/1.out", "!\n");
+        try (CachedTestcase ignored = cache.acquire("p3/1.out", sha256("!\n"))) {
+            assertThat(cache.totalBytes()).isEqualTo(8);
+        }
+        assertThat(Files.exists(held.path())).isTrue();
+        assertThat(Files.exists(cacheDir.resolve(sha256("world!\n")))).isFalse();
+        held.close();
+    }
+
+    @Test
+    void existingFilesShouldBeVerifiedOnFirstUseAndRefetchedWhenCorrupt() throws Exception {
+        Files.writeString(cacheDir.resolve(sha256("hello\n")), "hell0\n");
+        Files.writeString(cacheDir.resolve("leftover.tmp"), "partial");
+        TestcaseCache cache = newCache();
+
+        try (CachedTestcase testcase = cache.acquire("p1/1.out", sha256("hello\n"))) {
+            assertThat(Files.readString(testcase.path())).isEqualTo("hello\n");
+        }
+        try (CachedTestcase testcase = cache.acquire("p1/1.out", sha256("hello\n"))) {
+            assertThat(testcase.size()).isEqualTo(6);
+        }
+
+        assertThat(downloads.get()).isEqualTo(1);
+        assertThat(Files.exists(cacheDir.resolve("leftover.tmp"))).isFalse();
+    }
+
+    @Test
+    void acquireWithoutHashShouldRefetchWhenObjectIsReplaced() throws Exception {
+        TestcaseCache cache = newCache();
+
+        try (CachedTestcase testcase = cache.acquire("p1/1.out", null)) {
+            assertThat(Files.readString(testcase.path())).isEqualTo("hello\n");
+        }
+        try (CachedTestcase testcase = cache.acquire("p1/1.out", "")) {
+            assertThat(Files.readString(testcase.path())).isEqualTo("hello\n");
+        }
+        objects.put("p1/1.out", "hello again\n");
+        try (CachedTestcase testcase = cache.acquire("p1/1.out", null)) {
+            assertThat(Files.readString(testcase.path())).isEqualTo("hello again\n");
+        }
+
+        assertThat(downloads.get()).isEqualTo(2);
+    }
+
+    private TestcaseCache newCache() throws IOException {
+        TestcaseCache cache = new TestcaseCache(new TestcaseStore() {
+            @Override
+            public InputStream open(String objectPath) throws IOException {
+                downloads.incrementAndGet();
+                return new ByteArrayInputStream(content(objectPath).getBytes(StandardCharsets.UTF_8));
+            }
+
+            @Override
+            public String version(String objectPath) throws IOException {
+                String content = content(objectPath);
+                return content.length() + "-" + content.hashCode();
+            }
+        }, properties);
+        cache.loadExisting();
+        return cache;
+    }
+
+    private String content(String objectPath) throws IOException {
+        String content = objects.get(objectPath);
+        if (content == null) {
+            throw new IOException("no such object: " + objectPath);
+        }
+        return content;
+    }
+
+    private static String sha256(String content) throws Exception {
+        return HexFormat.of().formatHex(
+                MessageDigest.getInstance("SHA-256").digest(content.getBytes(StandardCharsets.UTF_8))
+        );
+    }
+}
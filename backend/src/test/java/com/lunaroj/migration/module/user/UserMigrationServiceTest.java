@@ -0,0 +1,170 @@
+package com.lunaroj.migration.module.user;
+
+import com.lunaroj.mapper.UserMapper;
+import com.lunaroj.migration.core.MigrationCheckpointStore;
+import com.lunaroj.migration.model.MigrationProfile;
+import com.lunaroj.migration.model.SourceDatabaseConfig;
+import com.lunaroj.migration.source.ScnuojSourceClient;
+import com.lunaroj.migration.source.ScnuojUserCursor;
+import com.lunaroj.model.entity.UserEntity;
+import com.lunaroj.service.PermissionGroupService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.calls;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class UserMigrationServiceTest {
+
+    @Mock
+    private UserMapper userMapper;
+    @Mock
+    private PasswordEncoder passwordEncoder;
+    @Mock
+    private PermissionGroupService permissionGroupService;
+    @Mock
+    private MigrationCheckpointStore checkpointStore;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    @Mock
+    private ScnuojSourceClient sourceClient;
+    @Mock
+    private ScnuojUserCursor cursor;
+
+    private UserMigrationService service;
+    private MigrationProfile profile;
+
+    @BeforeEach
+    void setUp() {
+        service = new UserMigrationService(
+                userMapper,
+                passwordEncoder,
+                permissionGroupService,
+                checkpointStore,
+                new TransactionTemplate(transactionManager)
+        ) {
+            @Override
+            ScnuojSourceClient openSource(SourceDatabaseConfig sourceConfig) {
+                return sourceClient;
+            }
+        };
+        profile = new MigrationProfile();
+        profile.getExecution().setBatchSize(2);
+    }
+
+    @Test
+    void migrateShouldCommitProgressInTheBatchTransactionBeforeWritingCheckpointFile() throws Exception {
+        when(sourceClient.openUserCursor(anyList(), anyBoolean(), eq(0L), eq(2))).thenReturn(cursor);
+        when(cursor.hasNext()).thenReturn(true, true, false);
+        when(cursor.next()).thenReturn(records(1, 2), records(3, 4));
+
+        UserMigrationReport report = service.migrate(profile);
+
+        assertThat(report.getInserted()).isEqualTo(4);
+        InOrder order = inOrder(transactionManager, userMapper, checkpointStore);
+        for (long lastSourceId : new long[]{2L, 4L}) {
+            order.verify(transactionManager, calls(1)).getTransaction(any());
+            order.verify(userMapper, calls(1)).insertBatch(anyList());
+            order.verify(checkpointStore, calls(1)).saveCommittedUserProgress(report.getJobId(), lastSourceId, report);
+            order.verify(transactionManager, calls(1)).commit(any());
+            order.verify(checkpointStore, calls(1)).saveUserCheckpoint(any(UserMigrationCheckpoint.class));
+        }
+    }
+
+    @Test
+    void resumeShouldContinueFromCommittedProgressWhenCheckpointFileIsBehind() throws Exception {
+        // 第二批已随事务提交，但进程在写 checkpoint 文件前退出
+        UserMigrationCheckpoint fileCheckpoint = checkpoint(2L, 2);
+        UserMigrationCheckpoint committed = checkpoint(4L, 4);
+        when(checkpointStore.findCommittedUserProgress("job")).thenReturn(committed);
+        when(sourceClient.openUserCursor(anyList(), anyBoolean(), eq(4L), eq(2))).thenReturn(cursor);
+        when(cursor.hasNext()).thenReturn(true, false);
+        when(cursor.next()).thenReturn(records(5, 5));
+
+        UserMigrationReport report = service.resume(fileCheckpoint, profile);
+
+        assertThat(report.getProcessed()).isEqualTo(5);
+        assertThat(report.getInserted()).isEqualTo(5);
+        verify(userMapper).insertBatch(anyList());
+        verify(checkpointStore).saveCommittedUserProgress("job", 5L, report);
+    }
+
+    @Test
+    void resumeShouldKeepCheckpointFileWhenItIsNotBehind() throws Exception {
+        UserMigrationCheckpoint fileCheckpoint = checkpoint(4L, 4);
+        when(checkpointStore.findCommittedUserProgress("job")).thenReturn(checkpoint(4L, 4));
+        when(sourceClient.openUserCursor(anyList(), anyBoolean(), eq(4L), eq(2))).thenReturn(cursor);
+        when(cursor.hasNext()).thenReturn(false);
+
+        UserMigrationReport report = service.resume(fileCheckpoint, profile);
+
+        assertThat(report).isSameAs(fileCheckpoint.getReport());
+        assertThat(report.getProcessed()).isEqualTo(4);
+    }
+
+    @Test
+    void failedBatchShouldRollBackWithoutAdvancingProgress() throws Exception {
+        profile.getExecution().setFailFast(true);
+        when(sourceClient.openUserCursor(anyList(), anyBoolean(), anyLong(), anyInt())).thenReturn(cursor);
+        when(cursor.hasNext()).thenReturn(true);
+        when(cursor.next()).thenReturn(records(1, 2));
+        when(userMapper.insertBatch(anyList())).thenThrow(new IllegalStateException("duplicate"));
+        when(userMapper.insert(any(UserEntity.class)))
+                .thenReturn(1)
+                .thenThrow(new IllegalStateException("duplicate user2"));
+
+        assertThatThrownBy(() -> service.migrate(profile))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("duplicate user2");
+
+        verify(userMapper, times(2)).insert(any(UserEntity.class));
+        verify(transactionManager).rollback(any());
+        verify(transactionManager, never()).commit(any());
+        verify(checkpointStore, never()).saveCommittedUserProgress(any(), anyLong(), any());
+        verify(checkpointStore, never()).saveUserCheckpoint(any());
+    }
+
+    private static UserMigrationCheckpoint checkpoint(long lastSourceId, long imported) {
+        UserMigrationReport report = new UserMigrationReport();
+        report.setJobId("job");
+        report.setProcessed(imported);
+        report.setInserted(imported);
+        UserMigrationCheckpoint checkpoint = new UserMigrationCheckpoint();
+        checkpoint.setJobId("job");
+        checkpoint.setLastSourceId(lastSourceId);
+        checkpoint.setReport(report);
+        return checkpoint;
+    }
+
+    private static List<ScnuojUserRecord> records(long fromId, long toId) {
+        return LongStream.rangeClosed(fromId, toId).mapToObj(id -> {
+            ScnuojUserRecord record = new ScnuojUserRecord();
+            record.setId(id);
+            record.setUsername("user" + id);
+            return record;
+        }).toList();
+    }
+}
@@ -0,0 +1,102 @@
+package com.lunaroj.migration.source;
+
+import com.lunaroj.migration.module.user.ScnuojUserRecord;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ScnuojUserCursorTest {
+
+    @Test
+    void cursorShouldPageByLastIdUntilShortPage() {
+        List<Long> requestedAfter = new CopyOnWriteArrayList<>();
+        ScnuojUserCursor.PageFetcher fetcher = (lastId, limit) -> {
+            requestedAfter.add(lastId);
+            long end = Math.min(lastId + limit, 5);
+            return records(lastId + 1, end);
+        };
+
+        try (ScnuojUserCursor cursor = new ScnuojUserCursor(fetcher, 0L, 2, 1)) {
+            List<Long> ids = new ArrayList<>();
+            cursor.forEachRemaining(page -> page.forEach(record -> ids.add(record.getId())));
+
+            assertThat(ids).containsExactly(1L, 2L, 3L, 4L, 5L);
+            assertThat(requestedAfter).containsExactly(0L, 2L, 4L);
+            assertThat(cursor.hasNext()).isFalse();
+        }
+    }
+
+    @Test
+    void cursorShouldEndOnEmptyPageAfterFullPage() {
+        ScnuojUserCursor.PageFetcher fetcher = (lastId, limit) -> lastId < 2 ? records(lastId + 1, lastId + limit) : List.of();
+
+        try (ScnuojUserCursor cursor = new ScnuojUserCursor(fetcher, 0L, 2, 1)) {
+            assertThat(cursor.hasNext()).isTrue();
+            assertThat(cursor.next()).hasSize(2);
+            assertThat(cursor.hasNext()).isFalse();
+        }
+    }
+
+    @Test
+    void cursorShouldSurfaceReaderFailureWhilePageIsBuffered() throws Exception {
+        CountDownLatch failed = new CountDownLatch(1);
+        ScnuojUserCursor.PageFetcher fetcher = (lastId, limit) -> {
+            if (lastId == 0) {
+                return records(1, 2);
+            }
+            failed.countDown();
+            throw new AssertionError("source gone");
+        };
+
+        try (ScnuojUserCursor cursor = new ScnuojUserCursor(fetcher, 0L, 2, 1)) {
+            // 第一页已在队列中时读取线程失败
+            assertThat(failed.await(5, TimeUnit.SECONDS)).isTrue();
+            assertThat(cursor.next()).hasSize(2);
+            assertThatThrownBy(cursor::hasNext)
+                    .isInstanceOf(AssertionError.class)
+                    .hasMessage("source gone");
+            assertThat(cursor.hasNext()).isFalse();
+        }
+    }
+
+    @Test
+    void closeShouldStopReaderBlockedInFetch() throws Exception {
+        CountDownLatch fetching = new CountDownLatch(1);
+        ScnuojUserCursor.PageFetcher fetcher = (lastId, limit) -> {
+            fetching.countDown();
+            try {
+                new CountDownLatch(1).await();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            return records(lastId + 1, lastId + limit);
+        };
+
+        ScnuojUserCursor cursor = new ScnuojUserCursor(fetcher, 0L, 2, 1);
+        assertThat(fetching.await(5, TimeUnit.SECONDS)).isTrue();
+        cursor.close();
+
+        assertThat(cursor.hasNext()).isFalse();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (cursor.readerAlive() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(cursor.readerAlive()).isFalse();
+    }
+
+    private static List<ScnuojUserRecord> records(long fromId, long toId) {
+        return LongStream.rangeClosed(fromId, toId).mapToObj(id -> {
+            ScnuojUserRecord record = new ScnuojUserRecord();
+            record.setId(id);
+            return record;
+        }).toList();
+    }
+}
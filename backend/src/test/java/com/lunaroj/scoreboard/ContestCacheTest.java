@@ -0,0 +1,77 @@
+package com.lunaroj.scoreboard;
+
+import com.lunaroj.mapper.ContestMapper;
+import com.lunaroj.model.entity.ContestEntity;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ContestCacheTest {
+
+    @Mock
+    private ContestMapper contestMapper;
+
+    private ContestCache contestCache;
+
+    @BeforeEach
+    void setUp() {
+        contestCache = new ContestCache(contestMapper, new ScoreboardProperties());
+    }
+
+    @Test
+    void concurrentMissesShouldLoadContestOnce() throws Exception {
+        ContestEntity contest = new ContestEntity();
+        contest.setId(9L);
+        when(contestMapper.selectById(9L)).thenAnswer(invocation -> {
+            Thread.sleep(100);
+            return contest;
+        });
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<ContestEntity>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(16)) {
+            for (int i = 0; i < 16; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return contestCache.find(9L);
+                }));
+            }
+            start.countDown();
+            for (Future<ContestEntity> result : results) {
+                assertThat(result.get()).isSameAs(contest);
+            }
+        }
+
+        verify(contestMapper).selectById(9L);
+    }
+
+    @Test
+    void findShouldCacheMissingAndDeletedContests() {
+        ContestEntity deleted = new ContestEntity();
+        deleted.setId(8L);
+        deleted.setDeletedAt(LocalDateTime.now());
+        when(contestMapper.selectById(8L)).thenReturn(deleted);
+
+        assertThat(contestCache.find(8L)).isNull();
+        assertThat(contestCache.find(8L)).isNull();
+        assertThat(contestCache.find(7L)).isNull();
+        assertThat(contestCache.find(7L)).isNull();
+
+        verify(contestMapper).selectById(8L);
+        verify(contestMapper).selectById(7L);
+    }
+}
@@ -0,0 +1,58 @@
+package com.lunaroj.scoreboard;
+
+import com.lunaroj.mapper.ContestMapper;
+import com.lunaroj.model.entity.ContestEntity;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ContestPrewarmerTest {
+
+    @Mock
+    private ContestMapper contestMapper;
+    @Mock
+    private ContestCache contestCache;
+    @Mock
+    private ContestScoreboard contestScoreboard;
+    @Mock
+    private OiScoreboard oiScoreboard;
+
+    private ContestPrewarmer contestPrewarmer;
+
+    @BeforeEach
+    void setUp() {
+        contestPrewarmer = new ContestPrewarmer(
+                contestMapper,
+                contestCache,
+                contestScoreboard,
+                oiScoreboard,
+                new ScoreboardProperties()
+        );
+    }
+
+    @Test
+    void prewarmShouldRefreshMetadataEachRoundButWarmBoardsOnce() {
+        ContestEntity contest = new ContestEntity();
+        contest.setId(9L);
+        contest.setStartAt(LocalDateTime.now().plusMinutes(2));
+        when(contestMapper.selectStartingBetween(any(), any())).thenReturn(List.of(contest));
+
+        contestPrewarmer.prewarm();
+        contestPrewarmer.prewarm();
+
+        verify(contestCache, times(2)).put(contest);
+        verify(contestScoreboard).warm(contest, 50);
+        verify(oiScoreboard).warm(contest);
+    }
+}
@@ -0,0 +1,238 @@
+package com.lunaroj.scoreboard;
+
+import com.lunaroj.constant.ContestMode;
+import com.lunaroj.constant.SubmissionStatus;
+import com.lunaroj.judge.model.JudgeResult;
+import com.lunaroj.judge.model.JudgeTask;
+import com.lunaroj.mapper.ContestMapper;
+import com.lunaroj.mapper.SubmissionMapper;
+import com.lunaroj.model.entity.ContestEntity;
+import com.lunaroj.model.entity.SubmissionEntity;
+import com.lunaroj.scoreboard.model.ScoreboardPage;
+import com.lunaroj.submission.SubmissionPartitions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.DefaultTypedTuple;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ContestScoreboardTest {
+
+    private static final LocalDateTime START_AT = LocalDateTime.of(2026, 5, 1, 9, 0);
+
+    @Mock
+    private StringRedisTemplate stringRedisTemplate;
+    @Mock
+    private ContestMapper contestMapper;
+    @Mock
+    private SubmissionMapper submissionMapper;
+    @Mock
+    private ZSetOperations<String, String> zSetOperations;
+
+    private final ScoreboardProperties properties = new ScoreboardProperties();
+    private ContestScoreboard contestScoreboard;
+    private ContestEntity contest;
+
+    @BeforeEach
+    void setUp() {
+        contestScoreboard = new ContestScoreboard(
+                stringRedisTemplate, new ContestCache(contestMapper, properties), submissionMapper, properties);
+        contest = new ContestEntity();
+        contest.setId(9L);
+        contest.setMode(ContestMode.ACM.getCode());
+        contest.setStartAt(START_AT);
+        contest.setEndAt(START_AT.plusHours(5));
+        contest.setFreezeAt(START_AT.plusHours(4));
+        contest.setPenalty(20);
+    }
+
+    @Test
+    void packedScoreShouldOrderBySolvedThenPenaltyThenLastAccepted() {
+        long moreSolved = PackedScore.pack(3, 900, 290);
+        long lessPenalty = PackedScore.pack(2, 100, 80);
+        long morePenalty = PackedScore.pack(2, 120, 60);
+        long laterLastAccepted = PackedScore.pack(2, 120, 70);
+
+        assertThat(moreSolved).isGreaterThan(lessPenalty);
+        assertThat(lessPenalty).isGreaterThan(morePenalty);
+        assertThat(morePenalty).isGreaterThan(laterLastAccepted);
+        assertThat((double) moreSolved).isEqualTo(moreSolved);
+        assertThat(PackedScore.solved(moreSolved)).isEqualTo(3);
+        assertThat(PackedScore.penaltyMinutes(moreSolved)).isEqualTo(900);
+        assertThat(PackedScore.lastAcMinute(moreSolved)).isEqualTo(290);
+    }
+
+    @Test
+    void onJudgedShouldUpdateLiveAndFrozenViewsBeforeFreeze() {
+        when(contestMapper.selectById(9L)).thenReturn(contest);
+
+        contestScoreboard.onJudged(task(START_AT.plusMinutes(35).plusSeconds(59)), result(SubmissionStatus.AC));
+
+        verify(stringRedisTemplate).execute(
+                any(RedisScript.class),
+                eq(List.of(
+                        "scoreboard:{9}:live:rank", "scoreboard:{9}:live:user:7",
+                        "scoreboard:{9}:frozen:rank", "scoreboard:{9}:frozen:user:7"
+                )),
+                eq("7"), eq("100"), eq("1"), eq("35"), eq("20"), eq("0"), eq("1")
+        );
+    }
+
+    @Test
+    void onJudgedShouldOnlyMarkFrozenViewPendingAfterFreeze() {
+        when(contestMapper.selectById(9L)).thenReturn(contest);
+
+        contestScoreboard.onJudged(task(START_AT.plusHours(4).plusMinutes(1)), result(SubmissionStatus.WA));
+
+        verify(stringRedisTemplate).execute(
+                any(RedisScript.class), anyList(),
+                eq("7"), eq("100"), eq("0"), eq("241"), eq("20"), eq("1"), eq("1")
+        );
+    }
+
+    @Test
+    void onJudgedShouldIgnoreCompileErrorAndSubmissionsOutsideContest() {
+        when(contestMapper.selectById(9L)).thenReturn(contest);
+
+        contestScoreboard.onJudged(task(START_AT.plusMinutes(10)), result(SubmissionStatus.CE));
+        contestScoreboard.onJudged(task(START_AT.minusMinutes(1)), result(SubmissionStatus.AC));
+        contestScoreboard.onJudged(task(START_AT.plusHours(5)), result(SubmissionStatus.AC));
+
+        verify(stringRedisTemplate, never()).execute(any(RedisScript.class), anyList(), any(Object[].class));
+        verify(contestMapper).selectById(9L);
+    }
+
+    @Test
+    void pageShouldShareRankForTiedScoresAndParseCells() {
+        contest.setFreezeAt(null);
+        when(contestMapper.selectById(9L)).thenReturn(contest);
+        when(stringRedisTemplate.opsForZSet()).thenReturn(zSetOperations);
+        long tied = PackedScore.pack(2, 80, 50);
+        long lower = PackedScore.pack(1, 20, 20);
+        Set<ZSetOperations.TypedTuple<String>> entries = new LinkedHashSet<>(List.of(
+                new DefaultTypedTuple<>("1", (double) tied),
+                new DefaultTypedTuple<>("2", (double) tied),
+                new DefaultTypedTuple<>("3", (double) lower)
+        ));
+        when(zSetOperations.zCard("scoreboard:{9}:live:rank")).thenReturn(12L);
+        when(zSetOperations.reverseRangeWithScores("scoreboard:{9}:live:rank", 3, 5)).thenReturn(entries);
+        when(zSetOperations.count("scoreboard:{9}:live:rank", tied + 1, Double.POSITIVE_INFINITY)).thenReturn(2L);
+        when(stringRedisTemplate.executePipelined(any(RedisCallback.class))).thenReturn(List.of(
+                Map.of("100", "1,1,30,0"),
+                Map.of("101", "0,2,-1,1"),
+                Map.of()
+        ));
+
+        ScoreboardPage page = contestScoreboard.page(9L, false, 2, 3);
+
+        assertThat(page.isFrozen()).isFalse();
+        assertThat(page.getTotal()).isEqualTo(12);
+        assertThat(page.getRows()).extracting(row -> row.getRank()).containsExactly(3L, 3L, 6L);
+        assertThat(page.getRows().get(0).getSolved()).isEqualTo(2);
+        assertThat(page.getRows().get(0).getPenaltyMinutes()).isEqualTo(80);
+        assertThat(page.getRows().get(0).getCells().get(100L).getAcMinute()).isEqualTo(30);
+        assertThat(page.getRows().get(1).getCells().get(101L).getAcMinute()).isNull();
+        assertThat(page.getRows().get(1).getCells().get(101L).getPending()).isEqualTo(1);
+    }
+
+    @Test
+    void pageShouldServeRepeatedReadsFromOneRedisLoad() {
+        when(contestMapper.selectById(9L)).thenReturn(contest);
+        when(stringRedisTemplate.opsForZSet()).thenReturn(zSetOperations);
+        when(zSetOperations.zCard("scoreboard:{9}:live:rank")).thenReturn(0L);
+
+        ScoreboardPage first = contestScoreboard.page(9L, true, 1, 50);
+        ScoreboardPage second = contestScoreboard.page(9L, true, 1, 50);
+
+        assertThat(second).isSameAs(first);
+        verify(zSetOperations).zCard("scoreboard:{9}:live:rank");
+        verify(contestMapper).selectById(9L);
+    }
+
+    @Test
+    void rebuildShouldClearBothViewsAndReplaySubmissionsInIdOrder() {
+        when(contestMapper.selectById(9L)).thenReturn(contest);
+        when(stringRedisTemplate.opsForZSet()).thenReturn(zSetOperations);
+        when(zSetOperations.range("scoreboard:{9}:live:rank", 0, -1)).thenReturn(Set.of("7"));
+        when(zSetOperations.range("scoreboard:{9}:frozen:rank", 0, -1)).thenReturn(Set.of());
+        when(submissionMapper.selectContestResults(
+                9L, SubmissionStatus.AC.getCode(), SubmissionPartitions.idLowerBound(START_AT)
+        )).thenReturn(List.of(
+                submission(21L, SubmissionStatus.WA, START_AT.plusMinutes(10)),
+                submission(22L, SubmissionStatus.AC, START_AT.plusMinutes(30))
+        ));
+
+        contestScoreboard.rebuild(9L);
+
+        InOrder order = inOrder(stringRedisTemplate);
+        order.verify(stringRedisTemplate).delete(List.of(
+                "scoreboard:{9}:live:user:7", "scoreboard:{9}:live:rank", "scoreboard:{9}:frozen:rank"
+        ));
+        order.verify(stringRedisTemplate).execute(
+                any(RedisScript.class), anyList(),
+                eq("7"), eq("100"), eq("0"), eq("10"), eq("20"), eq("0"), eq("21")
+        );
+        order.verify(stringRedisTemplate).execute(
+                any(RedisScript.class), anyList(),
+                eq("7"), eq("100"), eq("1"), eq("30"), eq("20"), eq("0"), eq("22")
+        );
+    }
+
+    @Test
+    void isFrozenShouldHoldBetweenFreezeAndUnfreeze() {
+        contest.setUnfreezeAt(START_AT.plusHours(6));
+
+        assertThat(ContestScoreboard.isFrozen(contest, START_AT.plusHours(3))).isFalse();
+        assertThat(ContestScoreboard.isFrozen(contest, START_AT.plusHours(4))).isTrue();
+        assertThat(ContestScoreboard.isFrozen(contest, START_AT.plusHours(6))).isFalse();
+    }
+
+    private static JudgeTask task(LocalDateTime submittedAt) {
+        JudgeTask task = new JudgeTask();
+        task.setSubmissionId(1L);
+        task.setUserId(7L);
+        task.setProblemId(100L);
+        task.setContestId(9L);
+        task.setSubmittedAt(submittedAt);
+        return task;
+    }
+
+    private static SubmissionEntity submission(long id, SubmissionStatus status, LocalDateTime createdAt) {
+        SubmissionEntity submission = new SubmissionEntity();
+        submission.setId(id);
+        submission.setUserId(7L);
+        submission.setProblemId(100L);
+        submission.setStatus(status.getCode());
+        submission.setCreatedAt(createdAt);
+        return submission;
+    }
+
+    private static JudgeResult result(SubmissionStatus status) {
+        JudgeResult result = new JudgeResult();
+        result.setStatus(status);
+        return result;
+    }
+}
@@ -0,0 +1,107 @@
+package com.lunaroj.scoreboard;
+
+import com.lunaroj.constant.ContestMode;
+import com.lunaroj.constant.SubmissionStatus;
+import com.lunaroj.judge.model.JudgeResult;
+import com.lunaroj.judge.model.JudgeTask;
+import com.lunaroj.mapper.ContestMapper;
+import com.lunaroj.mapper.SubmissionMapper;
+import com.lunaroj.model.entity.ContestEntity;
+import com.lunaroj.model.entity.SubmissionEntity;
+import com.lunaroj.scoreboard.model.OiScoreboardPage;
+import com.lunaroj.scoreboard.model.OiScoreboardRow;
+import com.lunaroj.submission.SubmissionPartitions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class OiScoreboardTest {
+
+    private static final LocalDateTime START_AT = LocalDateTime.of(2026, 5, 1, 9, 0);
+    private static final long MIN_ID = SubmissionPartitions.idLowerBound(START_AT);
+
+    @Mock
+    private ContestMapper contestMapper;
+    @Mock
+    private SubmissionMapper submissionMapper;
+
+    private OiScoreboard oiScoreboard;
+
+    @BeforeEach
+    void setUp() {
+        ContestEntity contest = new ContestEntity();
+        contest.setId(9L);
+        contest.setMode(ContestMode.IOI.getCode());
+        contest.setStartAt(START_AT);
+        contest.setEndAt(START_AT.plusHours(4));
+        when(contestMapper.selectById(9L)).thenReturn(contest);
+        oiScoreboard = new OiScoreboard(new ContestCache(contestMapper, new ScoreboardProperties()), submissionMapper);
+    }
+
+    @Test
+    void onJudgedShouldUpdateRebuiltBoardIncrementally() {
+        when(submissionMapper.selectContestResults(9L, SubmissionStatus.AC.getCode(), MIN_ID)).thenReturn(List.of(
+                submission(1L, 7L, 100L, SubmissionStatus.WA, 40),
+                submission(2L, 8L, 100L, SubmissionStatus.AC, 100)
+        ));
+
+        oiScoreboard.onJudged(task(3L, 7L, 101L), result(SubmissionStatus.AC, 100));
+        oiScoreboard.onJudged(task(4L, 7L, 100L), result(SubmissionStatus.SE, 0));
+        OiScoreboardPage page = oiScoreboard.page(9L, 1, 20);
+
+        assertThat(page.getRows()).extracting(OiScoreboardRow::getUserId).containsExactly(7L, 8L);
+        assertThat(page.getRows().get(0).getTotalScore()).isEqualTo(140);
+        verify(submissionMapper, times(1)).selectContestResults(9L, SubmissionStatus.AC.getCode(), MIN_ID);
+    }
+
+    @Test
+    void invalidateShouldRebuildFromSubmissionsOnNextRead() {
+        when(submissionMapper.selectContestResults(9L, SubmissionStatus.AC.getCode(), MIN_ID)).thenReturn(List.of(submission(1L, 7L, 100L, SubmissionStatus.AC, 100)));
+
+        oiScoreboard.page(9L, 1, 20);
+        oiScoreboard.invalidate(9L);
+        OiScoreboardPage page = oiScoreboard.page(9L, 1, 20);
+
+        assertThat(page.getTotal()).isEqualTo(1);
+        verify(submissionMapper, times(2)).selectContestResults(9L, SubmissionStatus.AC.getCode(), MIN_ID);
+    }
+
+    private static SubmissionEntity submission(long id, long userId, long problemId, SubmissionStatus status, int score) {
+        SubmissionEntity submission = new SubmissionEntity();
+        submission.setId(id);
+        submission.setUserId(userId);
+        submission.setProblemId(problemId);
+        submission.setStatus(status.getCode());
+        submission.setScore(score);
+        submission.setCreatedAt(START_AT.plusMinutes(id));
+        return submission;
+    }
+
+    private static JudgeTask task(long submissionId, long userId, long problemId) {
+        JudgeTask task = new JudgeTask();
+        task.setSubmissionId(submissionId);
+        task.setUserId(userId);
+        task.setProblemId(problemId);
+        task.setContestId(9L);
+        task.setSubmittedAt(START_AT.plusMinutes(submissionId));
+        return task;
+    }
+
+    private static JudgeResult result(SubmissionStatus status, int score) {
+        JudgeResult result = new JudgeResult();
+        result.setStatus(status);
+        result.setScore(score);
+        return result;
+    }
+}
@@ -0,0 +1,54 @@
+package com.lunaroj.scoreboard;
+
+import com.lunaroj.scoreboard.model.OiScoreboardPage;
+import com.lunaroj.scoreboard.model.OiScoreboardRow;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ScoreMatrixTest {
+
+    @Test
+    void bestScoreModeShouldKeepHighestScoreAndShareRankOnEqualTotals() {
+        ScoreMatrix matrix = new ScoreMatrix(true);
+        matrix.apply(1L, 100L, 10L, 60, 5);
+        matrix.apply(1L, 100L, 11L, 40, 9);
+        matrix.apply(2L, 100L, 12L, 30, 7);
+        matrix.apply(2L, 101L, 13L, 30, 8);
+        matrix.apply(3L, 101L, 14L, 20, 3);
+
+        OiScoreboardPage page = matrix.page(0, 10);
+
+        assertThat(page.getTotal()).isEqualTo(3);
+        assertThat(page.getRows()).extracting(OiScoreboardRow::getUserId).containsExactly(1L, 2L, 3L);
+        assertThat(page.getRows()).extracting(OiScoreboardRow::getRank).containsExactly(1L, 1L, 3L);
+        assertThat(page.getRows().get(0).getScores()).containsEntry(100L, 60);
+    }
+
+    @Test
+    void lastSubmissionModeShouldFollowSubmissionIdRegardlessOfArrivalOrder() {
+        ScoreMatrix matrix = new ScoreMatrix(false);
+        matrix.apply(1L, 100L, 21L, 40, 9);
+        matrix.apply(1L, 100L, 20L, 100, 5);
+
+        assertThat(matrix.page(0, 10).getRows().get(0).getTotalScore()).isEqualTo(40);
+        assertThat(matrix.apply(1L, 100L, 21L, 40, 9)).isFalse();
+    }
+
+    @Test
+    void pageShouldKeepRanksAcrossOffsetAndSurviveGrowth() {
+        ScoreMatrix matrix = new ScoreMatrix(true);
+        for (long user = 1; user <= 40; user++) {
+            for (long problem = 1; problem <= 9; problem++) {
+                matrix.apply(user, problem, user * 100 + problem, user <= 20 ? 10 : (int) problem, 1);
+            }
+        }
+
+        OiScoreboardPage page = matrix.page(19, 3);
+
+        assertThat(page.getRows()).extracting(OiScoreboardRow::getRank).containsExactly(1L, 21L, 21L);
+        assertThat(page.getRows().get(0).getTotalScore()).isEqualTo(90);
+        assertThat(page.getRows().get(1).getTotalScore()).isEqualTo(45);
+        assertThat(page.getRows().get(1).getScores()).hasSize(9).containsEntry(9L, 9);
+    }
+}
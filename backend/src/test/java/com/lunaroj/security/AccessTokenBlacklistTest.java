@@ -0,0 +1,92 @@
+package com.lunaroj.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.DefaultTypedTuple;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AccessTokenBlacklistTest {
+
+    @Mock
+    private StringRedisTemplate stringRedisTemplate;
+    @Mock
+    private RedisMessageListenerContainer redisMessageListenerContainer;
+    @Mock
+    private ZSetOperations<String, String> zSetOperations;
+
+    private AccessTokenBlacklist accessTokenBlacklist;
+
+    @BeforeEach
+    void setUp() {
+        accessTokenBlacklist = new AccessTokenBlacklist(stringRedisTemplate, redisMessageListenerContainer);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void revokeShouldPersistIndexAndBroadcastInOneScript() {
+        long expireAt = System.currentTimeMillis() + 60_000L;
+
+        accessTokenBlacklist.revoke("jti-1", expireAt);
+
+        verify(stringRedisTemplate).execute(
+                any(RedisScript.class),
+                eq(List.of("auth:blacklist:{idx}:jti-1", "auth:blacklist:{idx}:index")),
+                eq("jti-1"), eq(String.valueOf(expireAt)), anyString(), anyString(),
+                eq("auth:blacklist:channel"), eq("jti-1:" + expireAt)
+        );
+        verify(stringRedisTemplate, never()).convertAndSend(anyString(), anyString());
+        assertThat(accessTokenBlacklist.isRevoked("jti-1")).isTrue();
+    }
+
+    @Test
+    void isRevokedShouldFallbackToRedisBeforeFirstSync() {
+        when(stringRedisTemplate.hasKey("auth:blacklist:{idx}:jti-2")).thenReturn(true);
+
+        assertThat(accessTokenBlacklist.isRevoked("jti-2")).isTrue();
+    }
+
+    @Test
+    void isRevokedShouldAnswerLocallyAfterSync() {
+        long expireAt = System.currentTimeMillis() + 60_000L;
+        when(stringRedisTemplate.opsForZSet()).thenReturn(zSetOperations);
+        when(zSetOperations.rangeByScoreWithScores(eq("auth:blacklist:{idx}:index"), anyDouble(), anyDouble()))
+                .thenReturn(Set.of(new DefaultTypedTuple<>("jti-3", (double) expireAt)));
+
+        accessTokenBlacklist.synchronize();
+
+        assertThat(accessTokenBlacklist.isRevoked("jti-3")).isTrue();
+        assertThat(accessTokenBlacklist.isRevoked("jti-4")).isFalse();
+        verify(stringRedisTemplate, never()).hasKey(anyString());
+    }
+
+    @Test
+    void onMessageShouldRecordBroadcastRevocation() {
+        long expireAt = System.currentTimeMillis() + 60_000L;
+        byte[] body = ("jti-5:" + expireAt).getBytes(StandardCharsets.UTF_8);
+
+        accessTokenBlacklist.onMessage(new DefaultMessage("auth:blacklist:channel".getBytes(StandardCharsets.UTF_8), body), null);
+
+        assertThat(accessTokenBlacklist.isRevoked("jti-5")).isTrue();
+    }
+}
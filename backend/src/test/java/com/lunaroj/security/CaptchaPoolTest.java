@@ -0,0 +1,45 @@
+package com.lunaroj.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CaptchaPoolTest {
+
+    @Test
+    void takeShouldRenderSynchronouslyWhenPoolNotStarted() {
+        CaptchaPool pool = new CaptchaPool(4, 1);
+
+        CaptchaPool.RenderedCaptcha captcha = pool.take();
+
+        assertThat(captcha.code()).hasSize(4).isEqualTo(captcha.code().toLowerCase());
+        assertThat(captcha.imageBase64()).startsWith("data:image/png;base64,");
+    }
+
+    @Test
+    void startShouldWarmPoolAndRefillBelowLowWater() throws InterruptedException {
+        CaptchaPool pool = new CaptchaPool(8, 4);
+        pool.start();
+        try {
+            assertThat(pool.size()).isGreaterThanOrEqualTo(4);
+
+            Set<String> images = new HashSet<>();
+            for (int i = 0; i < 6; i++) {
+                images.add(pool.take().imageBase64());
+            }
+            assertThat(images).hasSize(6);
+
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (pool.size() < 8 && System.nanoTime() < deadline) {
+                Thread.sleep(20);
+            }
+            assertThat(pool.size()).isEqualTo(8);
+        } finally {
+            pool.stop();
+        }
+    }
+}
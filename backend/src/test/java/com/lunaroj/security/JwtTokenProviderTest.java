@@ -0,0 +1,73 @@
+package com.lunaroj.security;
+
+import com.lunaroj.common.error.ErrorCode;
+import com.lunaroj.common.exception.BusinessException;
+import io.jsonwebtoken.Claims;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JwtTokenProviderTest {
+
+    private static final String SECRET = "Generalized-SAM-Parent-Tree-Gaussian-Elimination-Probability-DP";
+
+    @Test
+    void parseClaimsShouldReturnCachedClaimsForSameToken() {
+        JwtTokenProvider provider = new JwtTokenProvider(properties(1800, 100));
+        String token = provider.createAccessToken(1L, "alice", "USER", 3L);
+
+        Claims first = provider.parseClaims(token);
+        Claims second = provider.parseClaims(token);
+
+        assertThat(first.getSubject()).isEqualTo("1");
+        assertThat(provider.getUsername(first)).isEqualTo("alice");
+        assertThat(provider.getGeneration(first)).isEqualTo(3L);
+        assertThat(provider.isAccessToken(first)).isTrue();
+        assertThat(second).isSameAs(first);
+    }
+
+    @Test
+    void parseClaimsShouldRejectTamperedToken() {
+        JwtTokenProvider provider = new JwtTokenProvider(properties(1800, 100));
+        String token = provider.createAccessToken(1L, "alice", "USER", 0L);
+        provider.parseClaims(token);
+
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+
+        assertThatThrownBy(() -> provider.parseClaims(tampered))
+                .isInstanceOf(BusinessException.class)
+                .satisfies(ex -> assertThat(((BusinessException) ex).getErrorCode()).isEqualTo(ErrorCode.TOKEN_INVALID));
+    }
+
+    @Test
+    void parseClaimsShouldNotCacheExpiredToken() {
+        JwtTokenProvider provider = new JwtTokenProvider(properties(-60, 100));
+        String token = provider.createAccessToken(1L, "alice", "USER", 0L);
+
+        for (int i = 0; i < 2; i++) {
+            assertThatThrownBy(() -> provider.parseClaims(token))
+                    .isInstanceOf(BusinessException.class)
+                    .satisfies(ex -> assertThat(((BusinessException) ex).getErrorCode()).isEqualTo(ErrorCode.TOKEN_EXPIRED));
+        }
+    }
+
+    @Test
+    void parseClaimsShouldRejectBlankToken() {
+        JwtTokenProvider provider = new JwtTokenProvider(properties(1800, 100));
+
+        assertThatThrownBy(() -> provider.parseClaims(" "))
+                .isInstanceOf(BusinessException.class)
+                .satisfies(ex -> assertThat(((BusinessException) ex).getErrorCode()).isEqualTo(ErrorCode.TOKEN_INVALID));
+    }
+
+    private static JwtProperties properties(long accessExpireSeconds, long cacheSize) {
+        JwtProperties properties = new JwtProperties();
+        properties.setIssuer("test-issuer");
+        properties.setSecret(SECRET);
+        properties.setAccessTokenExpireSeconds(accessExpireSeconds);
+        properties.setRefreshTokenExpireSeconds(604800);
+        properties.setVerifiedTokenCacheMaximumSize(cacheSize);
+        return properties;
+    }
+}
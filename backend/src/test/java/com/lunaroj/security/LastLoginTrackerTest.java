@@ -0,0 +1,70 @@
+package com.lunaroj.security;
+
+import com.lunaroj.mapper.UserMapper;
+import com.lunaroj.model.entity.UserEntity;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class LastLoginTrackerTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2026, 3, 1, 12, 0);
+
+    @Mock
+    private UserMapper userMapper;
+
+    @Test
+    void flushShouldCoalesceLoginsIntoBatchesOrderedById() {
+        LastLoginTracker tracker = new LastLoginTracker(userMapper, 2);
+        tracker.record(3L, T0);
+        tracker.record(1L, T0.plusSeconds(5));
+        tracker.record(1L, T0.plusSeconds(1));
+        tracker.record(2L, T0);
+
+        tracker.flush();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<UserEntity>> captor = ArgumentCaptor.forClass(List.class);
+        verify(userMapper, times(2)).updateLastLoginBatch(captor.capture());
+        List<List<UserEntity>> batches = captor.getAllValues();
+        assertThat(batches.get(0)).extracting(UserEntity::getId).containsExactly(1L, 2L);
+        assertThat(batches.get(0).get(0).getLastLoginAt()).isEqualTo(T0.plusSeconds(5));
+        assertThat(batches.get(1)).extracting(UserEntity::getId).containsExactly(3L);
+        assertThat(tracker.pendingCount()).isZero();
+
+        tracker.flush();
+        verify(userMapper, times(2)).updateLastLoginBatch(anyList());
+    }
+
+    @Test
+    void flushShouldRequeueRecordsWhenWriteFails() {
+        LastLoginTracker tracker = new LastLoginTracker(userMapper, 500);
+        tracker.record(1L, T0);
+        when(userMapper.updateLastLoginBatch(anyList()))
+                .thenThrow(new IllegalStateException("db down"))
+                .thenReturn(1);
+
+        tracker.flush();
+        assertThat(tracker.pendingCount()).isEqualTo(1);
+        tracker.record(1L, T0.minusSeconds(10));
+        tracker.flush();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<UserEntity>> captor = ArgumentCaptor.forClass(List.class);
+        verify(userMapper, times(2)).updateLastLoginBatch(captor.capture());
+        assertThat(captor.getValue().get(0).getLastLoginAt()).isEqualTo(T0);
+        assertThat(tracker.pendingCount()).isZero();
+    }
+}
@@ -0,0 +1,120 @@
+package com.lunaroj.security;
+
+import com.lunaroj.common.error.ErrorCode;
+import com.lunaroj.common.exception.BusinessException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PasswordHashExecutorTest {
+
+    // Tomcat 默认请求线程数
+    private static final int REQUEST_THREADS = 200;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private PasswordHashExecutor executor;
+
+    @AfterEach
+    void tearDown() {
+        executor.stop();
+    }
+
+    @Test
+    void executeShouldRunOnHashThreadAndPropagateBusinessException() {
+        executor = new PasswordHashExecutor(1, 1, meterRegistry);
+
+        String threadName = executor.execute(() -> Thread.currentThread().getName());
+        assertThat(threadName).startsWith("password-hash-");
+
+        assertThatThrownBy(() -> executor.execute(() -> {
+            throw new BusinessException(ErrorCode.PASSWORD_INCORRECT);
+        }))
+                .isInstanceOf(BusinessException.class)
+                .satisfies(ex -> assertThat(((BusinessException) ex).getErrorCode()).isEqualTo(ErrorCode.PASSWORD_INCORRECT));
+        assertThat(meterRegistry.get("lunaroj.password.hash.queue.wait").timer().count()).isEqualTo(2);
+        assertThat(executor.pending()).isZero();
+    }
+
+    @Test
+    void executeShouldRejectWhenPendingLimitIsReached() throws Exception {
+        executor = new PasswordHashExecutor(1, 2, meterRegistry);
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Boolean> busy = CompletableFuture.supplyAsync(() -> executor.execute(() -> {
+            running.countDown();
+            awaitQuietly(release);
+            return true;
+        }));
+        assertThat(running.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<Boolean> queued = CompletableFuture.supplyAsync(() -> executor.execute(() -> true));
+        while (executor.pending() < 2) {
+            Thread.onSpinWait();
+        }
+
+        assertThatThrownBy(() -> executor.execute(() -> true))
+                .isInstanceOf(BusinessException.class)
+                .satisfies(ex -> assertThat(((BusinessException) ex).getErrorCode()).isEqualTo(ErrorCode.TOO_MANY_REQUESTS));
+        assertThat(meterRegistry.get("lunaroj.password.hash.rejected").counter().count()).isEqualTo(1.0);
+
+        release.countDown();
+        assertThat(busy.get(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(queued.get(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(executor.pending()).isZero();
+    }
+
+    @Test
+    void loginBurstShouldBeRejectedBeforeRequestThreadsAreExhausted() throws Exception {
+        // 默认准入上限：线程数的 4 倍
+        executor = new PasswordHashExecutor(2, 0, meterRegistry);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger rejected = new AtomicInteger();
+        List<Future<?>> requests = new ArrayList<>();
+
+        try (ExecutorService requestThreads = Executors.newFixedThreadPool(REQUEST_THREADS)) {
+            for (int i = 0; i < REQUEST_THREADS; i++) {
+                requests.add(requestThreads.submit(() -> {
+                    try {
+                        executor.execute(() -> {
+                            awaitQuietly(release);
+                            return true;
+                        });
+                    } catch (BusinessException ex) {
+                        rejected.incrementAndGet();
+                    }
+                }));
+            }
+            // 哈希线程全部卡住时，被拒绝的请求线程立即返回，只有准入上限内的请求线程在等待
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (rejected.get() < REQUEST_THREADS - 8 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertThat(rejected.get()).isEqualTo(REQUEST_THREADS - 8);
+            assertThat(executor.pending()).isEqualTo(8);
+            assertThat(requests.stream().filter(future -> !future.isDone()).count()).isEqualTo(8);
+
+            release.countDown();
+        }
+        assertThat(executor.pending()).isZero();
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
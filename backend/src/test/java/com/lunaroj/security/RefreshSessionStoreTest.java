@@ -0,0 +1,51 @@
+package com.lunaroj.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RefreshSessionStoreTest {
+
+    @Mock
+    private StringRedisTemplate stringRedisTemplate;
+
+    private RefreshSessionStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new RefreshSessionStore(stringRedisTemplate);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void rotateShouldPassBothSessionsInOneScript() {
+        when(stringRedisTemplate.execute(
+                any(RedisScript.class),
+                eq(List.of("auth:refresh:1:old", "auth:refresh:1:new")),
+                eq("alice"), eq("604800000")
+        )).thenReturn(1L);
+
+        assertThat(store.rotate(1L, "old", "new", "alice", Duration.ofDays(7))).isTrue();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void rotateShouldFailWhenOldSessionAlreadyConsumed() {
+        when(stringRedisTemplate.execute(any(RedisScript.class), any(List.class), any(Object[].class))).thenReturn(0L);
+
+        assertThat(store.rotate(1L, "old", "new", "alice", Duration.ofDays(7))).isFalse();
+    }
+}
@@ -0,0 +1,85 @@
+package com.lunaroj.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TokenGenerationsTest {
+
+    @Mock
+    private StringRedisTemplate stringRedisTemplate;
+    @Mock
+    private RedisMessageListenerContainer redisMessageListenerContainer;
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    private TokenGenerations tokenGenerations;
+
+    @BeforeEach
+    void setUp() {
+        JwtProperties properties = new JwtProperties();
+        tokenGenerations = new TokenGenerations(stringRedisTemplate, redisMessageListenerContainer, properties);
+        when(stringRedisTemplate.opsForValue()).thenReturn(valueOperations);
+    }
+
+    @Test
+    void currentShouldLoadOnceAndServeFromLocalCache() {
+        when(valueOperations.get("auth:generation:1")).thenReturn(null);
+
+        assertThat(tokenGenerations.isCurrent(1L, 0L)).isTrue();
+        assertThat(tokenGenerations.isCurrent(1L, 0L)).isTrue();
+
+        verify(valueOperations, times(1)).get("auth:generation:1");
+    }
+
+    @Test
+    void bumpShouldInvalidateOlderTokensAndBroadcast() {
+        when(valueOperations.increment("auth:generation:1")).thenReturn(1L);
+
+        tokenGenerations.bump(1L);
+
+        assertThat(tokenGenerations.isCurrent(1L, 0L)).isFalse();
+        assertThat(tokenGenerations.isCurrent(1L, 1L)).isTrue();
+        verify(stringRedisTemplate).convertAndSend("auth:generation:channel", "1:1");
+    }
+
+    @Test
+    void onMessageShouldNeverMoveGenerationBackwards() {
+        when(valueOperations.get("auth:generation:1")).thenReturn("2");
+        tokenGenerations.current(1L);
+
+        tokenGenerations.onMessage(message("1:3"), null);
+        tokenGenerations.onMessage(message("1:1"), null);
+
+        assertThat(tokenGenerations.current(1L)).isEqualTo(3L);
+    }
+
+    @Test
+    void latestShouldReadRedisEvenWhenCacheIsWarm() {
+        when(valueOperations.get("auth:generation:1")).thenReturn("0", "4");
+        tokenGenerations.current(1L);
+
+        // 其他实例已递增代数，本实例未收到广播
+        assertThat(tokenGenerations.latest(1L)).isEqualTo(4L);
+        assertThat(tokenGenerations.current(1L)).isEqualTo(4L);
+        verify(valueOperations, times(2)).get("auth:generation:1");
+    }
+
+    private static DefaultMessage message(String body) {
+        return new DefaultMessage("auth:generation:channel".getBytes(StandardCharsets.UTF_8), body.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -8,31 +8,40 @@ import com.lunaroj.model.dto.LoginDTO;
 import com.lunaroj.model.dto.RegisterDTO;
 import com.lunaroj.model.entity.UserEntity;
 import com.lunaroj.model.vo.AuthTokenVO;
+import com.lunaroj.security.AccessTokenBlacklist;
 import com.lunaroj.security.JwtProperties;
 import com.lunaroj.security.JwtTokenProvider;
+import com.lunaroj.security.LastLoginTracker;
+import com.lunaroj.security.RefreshSessionStore;
+import com.lunaroj.security.PasswordHashExecutor;
+import com.lunaroj.security.TokenGenerations;
+import com.lunaroj.security.UnloginablePassword;
 import com.lunaroj.service.CaptchaService;
 import com.lunaroj.service.PermissionGroupService;
 import com.lunaroj.service.SystemConfigService;
 import com.lunaroj.service.UserQueryService;
 import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.redis.core.SetOperations;
-import org.springframework.data.redis.core.StringRedisTemplate;
-import org.springframework.data.redis.core.ValueOperations;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Date;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -55,16 +64,20 @@ class AuthServiceImplTest {
     @Mock
     private JwtProperties jwtProperties;
     @Mock
-    private StringRedisTemplate stringRedisTemplate;
+    private RefreshSessionStore refreshSessionStore;
     @Mock
     private UserQueryService userQueryService;
     @Mock
-    private ValueOperations<String, String> valueOperations;
+    private AccessTokenBlacklist accessTokenBlacklist;
     @Mock
-    private SetOperations<String, String> setOperations;
+    private TokenGenerations tokenGenerations;
+    @Mock
+    private LastLoginTracker lastLoginTracker;
 
     private AuthServiceImpl authService;
 
+    private final PasswordHashExecutor passwordHashExecutor = new PasswordHashExecutor(1, 4, new SimpleMeterRegistry());
+
     @BeforeEach
     void setUp() {
         authService = new AuthServiceImpl(
@@ -72,14 +85,23 @@ class AuthServiceImplTest {
                 permissionGroupService,
                 systemConfigService,
                 passwordEncoder,
+                passwordHashExecutor,
                 captchaService,
                 jwtTokenProvider,
                 jwtProperties,
-                stringRedisTemplate,
-                userQueryService
+                refreshSessionStore,
+                userQueryService,
+                accessTokenBlacklist,
+                tokenGenerations,
+                lastLoginTracker
         );
     }
 
+    @AfterEach
+    void tearDown() {
+        passwordHashExecutor.stop();
+    }
+
     @Test
     void registerShouldCreateUserWithDefaultValues() {
         RegisterDTO request = new RegisterDTO();
@@ -138,19 +160,15 @@ class AuthServiceImplTest {
         user.setPassword("encoded-pass");
         user.setPermissionGroupId(2L);
 
-        Claims refreshClaims = org.mockito.Mockito.mock(Claims.class);
-        when(refreshClaims.getId()).thenReturn("rt-001");
-
         when(userQueryService.findActiveUserByUsername("alice")).thenReturn(user);
         when(passwordEncoder.matches("rawPass", "encoded-pass")).thenReturn(true);
-        when(stringRedisTemplate.opsForValue()).thenReturn(valueOperations);
-        when(stringRedisTemplate.opsForSet()).thenReturn(setOperations);
         when(jwtProperties.getAccessTokenExpireSeconds()).thenReturn(1800L);
         when(jwtProperties.getRefreshTokenExpireSeconds()).thenReturn(604800L);
         when(permissionGroupService.getGroupNameById(2L)).thenReturn("user");
-        when(jwtTokenProvider.createAccessToken(1L, "alice", "user")).thenReturn("access-token");
-        when(jwtTokenProvider.createRefreshToken(1L, "alice", "user")).thenReturn("refresh-token");
-        when(jwtTokenProvider.parseClaims("refresh-token")).thenReturn(refreshClaims);
+        when(jwtTokenProvider.newTokenId()).thenReturn("rt-001");
+        when(tokenGenerations.latest(1L)).thenReturn(2L);
+        when(jwtTokenProvider.createAccessToken(1L, "alice", "user", 2L)).thenReturn("access-token");
+        when(jwtTokenProvider.createRefreshToken(1L, "alice", "user", 2L, "rt-001")).thenReturn("refresh-token");
 
         AuthTokenVO vo = authService.login(request);
 
@@ -159,29 +177,40 @@ class AuthServiceImplTest {
         assertThat(vo.getTokenType()).isEqualTo("Bearer");
         assertThat(vo.getExpiresIn()).isEqualTo(1800L);
 
-        ArgumentCaptor<UserEntity> updateCaptor = ArgumentCaptor.forClass(UserEntity.class);
-        verify(userMapper).updateById(updateCaptor.capture());
-        assertThat(updateCaptor.getValue().getId()).isEqualTo(1L);
-        assertThat(updateCaptor.getValue().getLastLoginAt()).isNotNull();
+        verify(lastLoginTracker).record(eq(1L), any(LocalDateTime.class));
+        verify(userMapper, never()).updateById(any(UserEntity.class));
 
-        verify(valueOperations).set(
-                "auth:refresh:1:rt-001",
-                "alice",
-                Duration.ofSeconds(604800L)
-        );
-        verify(setOperations).add("auth:refresh:index:1", "rt-001");
-        verify(stringRedisTemplate).expire("auth:refresh:index:1", Duration.ofSeconds(604800L));
+        verify(refreshSessionStore).issue(1L, "rt-001", "alice", Duration.ofSeconds(604800L));
+    }
+
+    @Test
+    void loginShouldRejectUnloginablePasswordWithoutBcrypt() {
+        LoginDTO request = new LoginDTO();
+        request.setUsername("legacy");
+        request.setPassword("anything");
+        request.setCaptchaId("cid");
+        request.setCaptchaCode("code");
+
+        UserEntity user = new UserEntity();
+        user.setId(3L);
+        user.setUsername("legacy");
+        user.setPassword(UnloginablePassword.generate());
+        when(userQueryService.findActiveUserByUsername("legacy")).thenReturn(user);
+
+        assertThatThrownBy(() -> authService.login(request))
+                .isInstanceOf(BusinessException.class)
+                .satisfies(ex -> assertThat(((BusinessException) ex).getErrorCode()).isEqualTo(ErrorCode.PASSWORD_INCORRECT));
+
+        verify(passwordEncoder, never()).matches(any(), any());
+        verify(lastLoginTracker, never()).record(any(), any());
     }
 
     @Test
     void refreshShouldRotateTokensWhenSessionExists() {
-        Claims oldClaims = org.mockito.Mockito.mock(Claims.class);
+        Claims oldClaims = mock(Claims.class);
         when(oldClaims.getSubject()).thenReturn("1");
         when(oldClaims.getId()).thenReturn("old-rt");
 
-        Claims newClaims = org.mockito.Mockito.mock(Claims.class);
-        when(newClaims.getId()).thenReturn("new-rt");
-
         UserEntity user = new UserEntity();
         user.setId(1L);
         user.setUsername("alice");
@@ -189,42 +218,83 @@ class AuthServiceImplTest {
 
         when(jwtTokenProvider.parseClaims("old-refresh")).thenReturn(oldClaims);
         when(jwtTokenProvider.isRefreshToken(oldClaims)).thenReturn(true);
-        when(stringRedisTemplate.opsForValue()).thenReturn(valueOperations);
-        when(stringRedisTemplate.opsForSet()).thenReturn(setOperations);
+        when(tokenGenerations.latest(1L)).thenReturn(0L);
+        when(jwtTokenProvider.getUsername(oldClaims)).thenReturn("alice");
+        when(jwtTokenProvider.newTokenId()).thenReturn("new-rt");
         when(jwtProperties.getAccessTokenExpireSeconds()).thenReturn(1800L);
         when(jwtProperties.getRefreshTokenExpireSeconds()).thenReturn(604800L);
-        when(valueOperations.getAndDelete("auth:refresh:1:old-rt")).thenReturn("alice");
+        when(refreshSessionStore.rotate(1L, "old-rt", "new-rt", "alice", Duration.ofSeconds(604800L))).thenReturn(true);
         when(userQueryService.getActiveUserByIdOrThrow(1L)).thenReturn(user);
         when(permissionGroupService.getGroupNameById(2L)).thenReturn("user");
-        when(jwtTokenProvider.createAccessToken(1L, "alice", "user")).thenReturn("new-access");
-        when(jwtTokenProvider.createRefreshToken(1L, "alice", "user")).thenReturn("new-refresh");
-        when(jwtTokenProvider.parseClaims("new-refresh")).thenReturn(newClaims);
+        when(jwtTokenProvider.createAccessToken(1L, "alice", "user", 0L)).thenReturn("new-access");
+        when(jwtTokenProvider.createRefreshToken(1L, "alice", "user", 0L, "new-rt")).thenReturn("new-refresh");
 
         AuthTokenVO vo = authService.refresh("old-refresh");
 
         assertThat(vo.getAccessToken()).isEqualTo("new-access");
         assertThat(vo.getRefreshToken()).isEqualTo("new-refresh");
-        verify(setOperations).remove("auth:refresh:index:1", "old-rt");
-        verify(valueOperations).set("auth:refresh:1:new-rt", "alice", Duration.ofSeconds(604800L));
-        verify(setOperations).add("auth:refresh:index:1", "new-rt");
+        verify(refreshSessionStore).rotate(1L, "old-rt", "new-rt", "alice", Duration.ofSeconds(604800L));
+        verify(refreshSessionStore, never()).revoke(any(), any());
     }
 
     @Test
     void refreshShouldFailWhenRefreshSessionMissing() {
-        Claims oldClaims = org.mockito.Mockito.mock(Claims.class);
+        Claims oldClaims = mock(Claims.class);
         when(oldClaims.getSubject()).thenReturn("1");
         when(oldClaims.getId()).thenReturn("old-rt");
 
         when(jwtTokenProvider.parseClaims("old-refresh")).thenReturn(oldClaims);
         when(jwtTokenProvider.isRefreshToken(oldClaims)).thenReturn(true);
-        when(stringRedisTemplate.opsForValue()).thenReturn(valueOperations);
-        when(valueOperations.getAndDelete("auth:refresh:1:old-rt")).thenReturn(null);
+        when(tokenGenerations.latest(1L)).thenReturn(0L);
+        when(jwtTokenProvider.newTokenId()).thenReturn("new-rt");
+        when(jwtProperties.getRefreshTokenExpireSeconds()).thenReturn(604800L);
+        when(refreshSessionStore.rotate(eq(1L), eq("old-rt"), eq("new-rt"), any(), any())).thenReturn(false);
 
         assertThatThrownBy(() -> authService.refresh("old-refresh"))
                 .isInstanceOf(BusinessException.class)
                 .satisfies(ex -> assertThat(((BusinessException) ex).getErrorCode()).isEqualTo(ErrorCode.REFRESH_SESSION_INVALID));
 
         verify(userQueryService, never()).getActiveUserByIdOrThrow(any());
+        verify(jwtTokenProvider, never()).createRefreshToken(any(), any(), any(), anyLong(), any());
+    }
+
+    @Test
+    void refreshShouldRevokeRotatedSessionWhenUserNoLongerActive() {
+        Claims oldClaims = mock(Claims.class);
+        when(oldClaims.getSubject()).thenReturn("1");
+        when(oldClaims.getId()).thenReturn("old-rt");
+
+        when(jwtTokenProvider.parseClaims("old-refresh")).thenReturn(oldClaims);
+        when(jwtTokenProvider.isRefreshToken(oldClaims)).thenReturn(true);
+        when(tokenGenerations.latest(1L)).thenReturn(0L);
+        when(jwtTokenProvider.newTokenId()).thenReturn("new-rt");
+        when(jwtProperties.getRefreshTokenExpireSeconds()).thenReturn(604800L);
+        when(refreshSessionStore.rotate(eq(1L), eq("old-rt"), eq("new-rt"), any(), any())).thenReturn(true);
+        when(userQueryService.getActiveUserByIdOrThrow(1L)).thenThrow(new BusinessException(ErrorCode.USER_NOT_FOUND));
+
+        assertThatThrownBy(() -> authService.refresh("old-refresh"))
+                .isInstanceOf(BusinessException.class)
+                .satisfies(ex -> assertThat(((BusinessException) ex).getErrorCode()).isEqualTo(ErrorCode.USER_NOT_FOUND));
+
+        verify(refreshSessionStore).revoke(1L, "new-rt");
+    }
+
+    @Test
+    void refreshShouldRejectTokenFromRevokedGeneration() {
+        Claims oldClaims = mock(Claims.class);
+        when(oldClaims.getSubject()).thenReturn("1");
+        when(oldClaims.getId()).thenReturn("old-rt");
+
+        when(jwtTokenProvider.parseClaims("old-refresh")).thenReturn(oldClaims);
+        when(jwtTokenProvider.isRefreshToken(oldClaims)).thenReturn(true);
+        when(jwtTokenProvider.getGeneration(oldClaims)).thenReturn(1L);
+        when(tokenGenerations.latest(1L)).thenReturn(2L);
+
+        assertThatThrownBy(() -> authService.refresh("old-refresh"))
+                .isInstanceOf(BusinessException.class)
+                .satisfies(ex -> assertThat(((BusinessException) ex).getErrorCode()).isEqualTo(ErrorCode.REFRESH_SESSION_INVALID));
+
+        verify(refreshSessionStore, never()).rotate(any(), any(), any(), any(), any());
     }
 
     @Test
@@ -239,4 +309,18 @@ class AuthServiceImplTest {
         verify(jwtTokenProvider).parseClaims("bad-access");
         verify(jwtTokenProvider).parseClaims("bad-refresh");
     }
+
+    @Test
+    void logoutShouldRevokeAccessTokenUntilItExpires() {
+        Claims accessClaims = mock(Claims.class);
+        Date expiration = new Date(System.currentTimeMillis() + 60_000L);
+        when(accessClaims.getId()).thenReturn("at-001");
+        when(accessClaims.getExpiration()).thenReturn(expiration);
+        when(jwtTokenProvider.parseClaims("access-token")).thenReturn(accessClaims);
+        when(jwtTokenProvider.isAccessToken(accessClaims)).thenReturn(true);
+
+        authService.logout("Bearer access-token", null);
+
+        verify(accessTokenBlacklist).revoke("at-001", expiration.getTime());
+    }
 }
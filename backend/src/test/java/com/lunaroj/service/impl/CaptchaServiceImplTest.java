@@ -3,6 +3,7 @@ package com.lunaroj.service.impl;
 import com.lunaroj.common.error.ErrorCode;
 import com.lunaroj.common.exception.BusinessException;
 import com.lunaroj.model.vo.CaptchaVO;
+import com.lunaroj.security.CaptchaPool;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -32,7 +33,7 @@ class CaptchaServiceImplTest {
 
     @BeforeEach
     void setUp() {
-        captchaService = new CaptchaServiceImpl(stringRedisTemplate, 300L);
+        captchaService = new CaptchaServiceImpl(stringRedisTemplate, new CaptchaPool(4, 1), 300L);
     }
 
     @Test
@@ -7,8 +7,23 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -16,17 +31,24 @@ class SystemConfigServiceImplTest {
 
     @Mock
     private SystemConfigMapper systemConfigMapper;
+    @Mock
+    private StringRedisTemplate stringRedisTemplate;
+    @Mock
+    private RedisMessageListenerContainer redisMessageListenerContainer;
+    @Mock
+    private ValueOperations<String, String> valueOperations;
 
     private SystemConfigServiceImpl systemConfigService;
 
     @BeforeEach
     void setUp() {
-        systemConfigService = new SystemConfigServiceImpl(systemConfigMapper);
+        lenient().when(stringRedisTemplate.opsForValue()).thenReturn(valueOperations);
+        systemConfigService = new SystemConfigServiceImpl(systemConfigMapper, stringRedisTemplate, redisMessageListenerContainer);
     }
 
     @Test
     void getStringShouldReturnDefaultWhenConfigMissing() {
-        when(systemConfigMapper.selectById("missing_key")).thenReturn(null);
+        givenConfigs();
 
         String value = systemConfigService.getString("missing_key", "default-value");
 
@@ -38,7 +60,7 @@ class SystemConfigServiceImplTest {
         SystemConfigEntity entity = new SystemConfigEntity();
         entity.setConfigKey("site_name");
         entity.setConfigValue("LunarOJ");
-        when(systemConfigMapper.selectById("site_name")).thenReturn(entity);
+        givenConfigs(entity);
 
         String value = systemConfigService.getString("site_name", "default-value");
 
@@ -50,7 +72,7 @@ class SystemConfigServiceImplTest {
         SystemConfigEntity entity = new SystemConfigEntity();
         entity.setConfigKey("feature_x");
         entity.setConfigValue("  ");
-        when(systemConfigMapper.selectById("feature_x")).thenReturn(entity);
+        givenConfigs(entity);
 
         boolean enabled = systemConfigService.getBoolean("feature_x", true);
 
@@ -62,7 +84,7 @@ class SystemConfigServiceImplTest {
         SystemConfigEntity entity = new SystemConfigEntity();
         entity.setConfigKey("feature_x");
         entity.setConfigValue("false");
-        when(systemConfigMapper.selectById("feature_x")).thenReturn(entity);
+        givenConfigs(entity);
 
         boolean enabled = systemConfigService.getBoolean("feature_x", true);
 
@@ -74,7 +96,7 @@ class SystemConfigServiceImplTest {
         SystemConfigEntity entity = new SystemConfigEntity();
         entity.setConfigKey("feature_x");
         entity.setConfigValue("TRUE");
-        when(systemConfigMapper.selectById("feature_x")).thenReturn(entity);
+        givenConfigs(entity);
 
         boolean enabled = systemConfigService.getBoolean("feature_x", false);
 
@@ -86,7 +108,7 @@ class SystemConfigServiceImplTest {
         SystemConfigEntity entity = new SystemConfigEntity();
         entity.setConfigKey("limit");
         entity.setConfigValue("not_a_number");
-        when(systemConfigMapper.selectById("limit")).thenReturn(entity);
+        givenConfigs(entity);
 
         long value = systemConfigService.getLong("limit", 1024L);
 
@@ -98,7 +120,7 @@ class SystemConfigServiceImplTest {
         SystemConfigEntity entity = new SystemConfigEntity();
         entity.setConfigKey("limit");
         entity.setConfigValue("2048");
-        when(systemConfigMapper.selectById("limit")).thenReturn(entity);
+        givenConfigs(entity);
 
         long value = systemConfigService.getLong("limit", 1024L);
 
@@ -110,10 +132,105 @@ class SystemConfigServiceImplTest {
         SystemConfigEntity entity = new SystemConfigEntity();
         entity.setConfigKey("register_enabled");
         entity.setConfigValue("false");
-        when(systemConfigMapper.selectById("register_enabled")).thenReturn(entity);
+        givenConfigs(entity);
 
         boolean enabled = systemConfigService.isRegisterEnabled();
 
         assertThat(enabled).isFalse();
     }
+
+    @Test
+    void readsShouldBeServedFromSnapshotAfterFirstLoad() {
+        givenConfigs(config("register_enabled", "false"), config("submit_interval_millis", "3000"));
+
+        systemConfigService.isRegisterEnabled();
+        systemConfigService.getLong("submit_interval_millis", 1000L);
+        long interval = systemConfigService.getSnapshot().getSubmitIntervalMillis();
+
+        assertThat(interval).isEqualTo(3000L);
+        verify(systemConfigMapper, times(1)).selectList(isNull());
+    }
+
+    @Test
+    void onMessageShouldReloadWhenVersionAdvances() {
+        when(systemConfigMapper.selectList(isNull()))
+                .thenReturn(List.of(config("register_enabled", "true")))
+                .thenReturn(List.of(config("register_enabled", "false")));
+        assertThat(systemConfigService.isRegisterEnabled()).isTrue();
+
+        systemConfigService.onMessage(message("1"), null);
+        systemConfigService.onMessage(message("1"), null);
+
+        assertThat(systemConfigService.isRegisterEnabled()).isFalse();
+        assertThat(systemConfigService.getSnapshot().getVersion()).isEqualTo(1L);
+        verify(systemConfigMapper, times(2)).selectList(isNull());
+    }
+
+    @Test
+    void checkVersionShouldReloadWhenRemoteVersionDiffers() {
+        when(systemConfigMapper.selectList(isNull()))
+                .thenReturn(List.of(config("max_code_length", "100")))
+                .thenReturn(List.of(config("max_code_length", "200")));
+        when(valueOperations.get("system:config:version")).thenReturn("4").thenReturn("5");
+        assertThat(systemConfigService.getSnapshot().getMaxCodeLength()).isEqualTo(100L);
+
+        systemConfigService.checkVersion();
+
+        assertThat(systemConfigService.getSnapshot().getMaxCodeLength()).isEqualTo(200L);
+        assertThat(systemConfigService.getSnapshot().getVersion()).isEqualTo(5L);
+    }
+
+    @Test
+    void updateConfigShouldPersistBumpVersionAndBroadcast() {
+        when(systemConfigMapper.updateById(any(SystemConfigEntity.class))).thenReturn(0);
+        when(valueOperations.increment("system:config:version")).thenReturn(7L);
+        givenConfigs(config("register_enabled", "false"));
+
+        systemConfigService.updateConfig("register_enabled", "false", 1L);
+
+        verify(systemConfigMapper).insert(any(SystemConfigEntity.class));
+        verify(stringRedisTemplate).convertAndSend("system:config:channel", "7");
+        assertThat(systemConfigService.isRegisterEnabled()).isFalse();
+        assertThat(systemConfigService.getSnapshot().getVersion()).isEqualTo(7L);
+    }
+
+    @Test
+    void updateConfigShouldRetryVersionBumpUntilRedisRecovers() {
+        when(systemConfigMapper.updateById(any(SystemConfigEntity.class))).thenReturn(1);
+        when(valueOperations.increment("system:config:version"))
+                .thenThrow(new IllegalStateException("redis down"))
+                .thenReturn(8L);
+        when(valueOperations.get("system:config:version")).thenReturn("8");
+        givenConfigs(config("register_enabled", "false"));
+
+        systemConfigService.updateConfig("register_enabled", "false", 1L);
+
+        verify(stringRedisTemplate, never()).convertAndSend(anyString(), anyString());
+        assertThat(systemConfigService.isRegisterEnabled()).isFalse();
+
+        systemConfigService.checkVersion();
+        systemConfigService.checkVersion();
+
+        verify(valueOperations, times(2)).increment("system:config:version");
+        verify(stringRedisTemplate).convertAndSend("system:config:channel", "8");
+        assertThat(systemConfigService.getSnapshot().getVersion()).isEqualTo(8L);
+    }
+
+    private void givenConfigs(SystemConfigEntity... entities) {
+        when(systemConfigMapper.selectList(isNull())).thenReturn(Arrays.asList(entities));
+    }
+
+    private static SystemConfigEntity config(String configKey, String configValue) {
+        SystemConfigEntity entity = new SystemConfigEntity();
+        entity.setConfigKey(configKey);
+        entity.setConfigValue(configValue);
+        return entity;
+    }
+
+    private static DefaultMessage message(String body) {
+        return new DefaultMessage(
+                "system:config:channel".getBytes(StandardCharsets.UTF_8),
+                body.getBytes(StandardCharsets.UTF_8)
+        );
+    }
 }
@@ -7,22 +7,21 @@ import com.lunaroj.model.dto.ChangePasswordDTO;
 import com.lunaroj.model.dto.UpdateUserBasicDTO;
 import com.lunaroj.model.entity.UserEntity;
 import com.lunaroj.model.vo.UserProfileVO;
+import com.lunaroj.security.PasswordHashExecutor;
+import com.lunaroj.security.TokenGenerations;
 import com.lunaroj.service.PermissionGroupService;
 import com.lunaroj.service.UserQueryService;
 import com.lunaroj.utils.converter.UserProfileConverter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.redis.core.SetOperations;
-import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
-import java.util.Collection;
-import java.util.LinkedHashSet;
-import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -45,24 +44,30 @@ class UserProfileServiceImplTest {
     @Mock
     private UserProfileConverter userProfileConverter;
     @Mock
-    private StringRedisTemplate stringRedisTemplate;
-    @Mock
-    private SetOperations<String, String> setOperations;
+    private TokenGenerations tokenGenerations;
 
     private UserProfileServiceImpl userProfileService;
 
+    private final PasswordHashExecutor passwordHashExecutor = new PasswordHashExecutor(1, 4, new SimpleMeterRegistry());
+
     @BeforeEach
     void setUp() {
         userProfileService = new UserProfileServiceImpl(
                 userMapper,
                 permissionGroupService,
                 passwordEncoder,
+                passwordHashExecutor,
                 userQueryService,
                 userProfileConverter,
-                stringRedisTemplate
+                tokenGenerations
         );
     }
 
+    @AfterEach
+    void tearDown() {
+        passwordHashExecutor.stop();
+    }
+
     @Test
     void getCurrentUserProfileShouldFillPermissionDisplayName() {
         UserEntity user = new UserEntity();
@@ -118,8 +123,6 @@ class UserProfileServiceImplTest {
         when(passwordEncoder.matches("oldPass", "encoded-old")).thenReturn(true);
         when(passwordEncoder.matches("newPass", "encoded-old")).thenReturn(false);
         when(passwordEncoder.encode("newPass")).thenReturn("encoded-new");
-        when(stringRedisTemplate.opsForSet()).thenReturn(setOperations);
-        when(setOperations.members("auth:refresh:index:1")).thenReturn(new LinkedHashSet<>(Set.of("t1", "t2", " ")));
 
         ChangePasswordDTO request = new ChangePasswordDTO();
         request.setOldPassword("oldPass");
@@ -132,14 +135,7 @@ class UserProfileServiceImplTest {
         assertThat(updateCaptor.getValue().getId()).isEqualTo(1L);
         assertThat(updateCaptor.getValue().getPassword()).isEqualTo("encoded-new");
 
-        @SuppressWarnings("unchecked")
-        ArgumentCaptor<Collection<String>> keysCaptor = ArgumentCaptor.forClass(Collection.class);
-        verify(stringRedisTemplate).delete(keysCaptor.capture());
-        assertThat(keysCaptor.getValue()).containsExactlyInAnyOrder(
-                "auth:refresh:1:t1",
-                "auth:refresh:1:t2"
-        );
-        verify(stringRedisTemplate).delete("auth:refresh:index:1");
+        verify(tokenGenerations).bump(1L);
     }
 
     @Test
@@ -159,7 +155,7 @@ class UserProfileServiceImplTest {
                 .satisfies(ex -> assertThat(((BusinessException) ex).getErrorCode()).isEqualTo(ErrorCode.PASSWORD_INCORRECT));
 
         verify(userMapper, never()).updateById(any(UserEntity.class));
-        verify(stringRedisTemplate, never()).delete("auth:refresh:index:1");
+        verify(tokenGenerations, never()).bump(any());
     }
 
     @Test
@@ -179,6 +175,6 @@ class UserProfileServiceImplTest {
                 .satisfies(ex -> assertThat(((BusinessException) ex).getErrorCode()).isEqualTo(ErrorCode.BAD_REQUEST));
 
         verify(userMapper, never()).updateById(any(UserEntity.class));
-        verify(stringRedisTemplate, never()).delete("auth:refresh:index:1");
+        verify(tokenGenerations, never()).bump(any());
     }
 }
@@ -19,11 +19,14 @@ import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
@@ -114,6 +117,43 @@ class AuthFullChainStressIT {
         }
     }
 
+    @Test
+    void burstRefreshShouldRotateEachSessionExactlyOnce() throws Exception {
+        StressConfig config = loadStressConfigFromYaml();
+        String usernamePrefix = buildUsernamePrefix("refresh");
+        List<UserCredential> users = buildUsers(usernamePrefix, config.loginUsers(), DEFAULT_PASSWORD);
+        Map<String, String> refreshTokens = new ConcurrentHashMap<>();
+
+        try {
+            assertThat(fetchRegisterEnabled())
+                    .as("system_config.register_enabled 必须为 true 才能准备刷新压测用户")
+                    .isTrue();
+
+            assertBurstSucceeded("prepare-register-for-refresh", users.size(), runBurstRegister(users, config));
+            assertBurstSucceeded("prepare-login-for-refresh", users.size(), runBurstLogin(users, config, refreshTokens));
+
+            // 每个用户用同一个 refresh token 并发刷新两次，模拟多端同时刷新，只能有一次成功
+            BurstMetrics refreshMetrics = runBurst(
+                    users,
+                    config,
+                    credential -> {
+                        String refreshToken = refreshTokens.get(credential.username());
+                        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                            Future<Integer> first = executor.submit(() -> postRefresh(refreshToken, config));
+                            Future<Integer> second = executor.submit(() -> postRefresh(refreshToken, config));
+                            int succeeded = (first.get() == 0 ? 1 : 0) + (second.get() == 0 ? 1 : 0);
+                            if (succeeded != 1) {
+                                throw new IllegalStateException("并发刷新成功次数=" + succeeded);
+                            }
+                        }
+                    }
+            );
+            assertBurstSucceeded("refresh", users.size(), refreshMetrics);
+        } finally {
+            hardDeleteUsersByPrefix(usernamePrefix);
+        }
+    }
+
     private BurstMetrics runBurstRegister(List<UserCredential> users, StressConfig config) throws InterruptedException {
         return runBurst(
                 users,
@@ -138,6 +178,14 @@ class AuthFullChainStressIT {
     }
 
     private BurstMetrics runBurstLogin(List<UserCredential> users, StressConfig config) throws InterruptedException {
+        return runBurstLogin(users, config, new ConcurrentHashMap<>());
+    }
+
+    private BurstMetrics runBurstLogin(
+            List<UserCredential> users,
+            StressConfig config,
+            Map<String, String> refreshTokens
+    ) throws InterruptedException {
         return runBurst(
                 users,
                 config,
@@ -161,6 +209,7 @@ class AuthFullChainStressIT {
                     if (accessToken.isBlank() || refreshToken.isBlank()) {
                         throw new IllegalStateException("登录响应缺少 accessToken/refreshToken");
                     }
+                    refreshTokens.put(credential.username(), refreshToken);
                 }
         );
     }
@@ -223,6 +272,12 @@ class AuthFullChainStressIT {
         return executeRequest(request);
     }
 
+    // 返回业务码，刷新失败时业务码非 0
+    private int postRefresh(String refreshToken, StressConfig config) throws Exception {
+        JsonNode root = postJson("/api/auth/refresh", new RefreshPayload(refreshToken), config.requestTimeoutSeconds());
+        return root.path("code").asInt(-1);
+    }
+
     private boolean fetchRegisterEnabled() throws Exception {
         HttpRequest request = HttpRequest.newBuilder()
                 .uri(URI.create(apiUrl("/api/auth/register-enabled")))
@@ -350,6 +405,9 @@ class AuthFullChainStressIT {
     ) {
     }
 
+    private record RefreshPayload(String refreshToken) {
+    }
+
     private record BurstMetrics(
             Duration elapsed,
             int successCount,
@@ -0,0 +1,172 @@
+package com.lunaroj.submission;
+
+import com.lunaroj.common.exception.BusinessException;
+import com.lunaroj.mapper.ContestMapper;
+import com.lunaroj.mapper.ProblemMapper;
+import com.lunaroj.mapper.SubmissionMapper;
+import com.lunaroj.model.entity.ContestEntity;
+import com.lunaroj.model.entity.ProblemEntity;
+import com.lunaroj.model.entity.SubmissionEntity;
+import com.lunaroj.scoreboard.ContestCache;
+import com.lunaroj.scoreboard.ScoreboardProperties;
+import com.lunaroj.submission.model.SubmissionListItem;
+import com.lunaroj.submission.model.SubmissionListPage;
+import com.lunaroj.submission.model.SubmissionQuery;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SubmissionListServiceTest {
+
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2026, 5, 1, 9, 0);
+
+    @Mock
+    private SubmissionMapper submissionMapper;
+    @Mock
+    private ContestMapper contestMapper;
+    @Mock
+    private ProblemMapper problemMapper;
+
+    private SubmissionListService service;
+
+    @BeforeEach
+    void setUp() {
+        SubmissionListProperties properties = new SubmissionListProperties();
+        properties.setCountCap(3);
+        service = new SubmissionListService(
+                submissionMapper,
+                new SubmissionCountCache(submissionMapper, properties),
+                new ContestCache(contestMapper, new ScoreboardProperties()),
+                problemMapper,
+                properties
+        );
+    }
+
+    @Test
+    void listShouldReturnCursorOfLastRowWhenMoreRowsExist() {
+        SubmissionQuery query = new SubmissionQuery(7L, null, null, null, null, false);
+        when(submissionMapper.selectPageByCursor(eq(query), isNull(), eq(3)))
+                .thenReturn(List.of(submission(30L, 0), submission(20L, 0), submission(10L, 1)));
+        when(submissionMapper.countCapped(query, 3)).thenReturn(3L);
+
+        SubmissionListPage page = service.list(query, 7L, null, 2);
+
+        assertThat(page.getRows()).extracting(SubmissionListItem::getId).containsExactly(30L, 20L);
+        assertThat(page.getTotal()).isEqualTo(3);
+        assertThat(page.isTotalCapped()).isTrue();
+
+        when(submissionMapper.selectPageByCursor(eq(query), any(), eq(3))).thenReturn(List.of(submission(10L, 1)));
+        SubmissionListPage next = service.list(query, 7L, page.getNextCursor(), 2);
+
+        ArgumentCaptor<SubmissionCursor> cursor = ArgumentCaptor.forClass(SubmissionCursor.class);
+        verify(submissionMapper, times(2)).selectPageByCursor(eq(query), cursor.capture(), eq(3));
+        assertThat(cursor.getAllValues().get(1)).isEqualTo(new SubmissionCursor(20L));
+        assertThat(next.getRows()).extracting(SubmissionListItem::getId).containsExactly(10L);
+        assertThat(next.getNextCursor()).isNull();
+        // 翻页不重复计数
+        verify(submissionMapper, times(1)).countCapped(query, 3);
+    }
+
+    @Test
+    void cursorShouldRoundTripId() {
+        SubmissionCursor cursor = new SubmissionCursor(SubmissionPartitions.minIdAt(CREATED_AT) + 20);
+
+        assertThat(SubmissionCursor.decode(cursor.encode())).isEqualTo(cursor);
+    }
+
+    @Test
+    void listShouldOnlyShowViewersOwnSubmissionsOfRunningContest() {
+        ContestEntity contest = new ContestEntity();
+        contest.setId(9L);
+        contest.setVisibility(2);
+        contest.setEndAt(LocalDateTime.now().plusHours(1));
+        contest.setSubmitInfoVisible(false);
+        when(contestMapper.selectById(9L)).thenReturn(contest);
+        SubmissionEntity own = submission(30L, 0);
+        own.setContestId(9L);
+        own.setTimeUsed(15);
+        own.setMemoryUsed(2048);
+        SubmissionQuery visible = new SubmissionQuery(7L, null, 9L, null, null, false);
+        when(submissionMapper.selectPageByCursor(eq(visible), isNull(), eq(21))).thenReturn(List.of(own));
+
+        SubmissionListPage page = service.list(new SubmissionQuery(null, null, 9L, null, null, false), 7L, null, 20);
+
+        assertThat(page.getRows()).extracting(SubmissionListItem::getId).containsExactly(30L);
+        assertThat(page.getRows().get(0).getTimeUsed()).isNull();
+        assertThat(page.getRows().get(0).getMemoryUsed()).isNull();
+        verify(submissionMapper).countCapped(visible, 3);
+    }
+
+    @Test
+    void listShouldOnlyListPracticeSubmissionsOfOtherUsers() {
+        service.list(new SubmissionQuery(8L, null, null, null, null, false), 7L, null, 20);
+        service.list(new SubmissionQuery(7L, null, null, null, null, true), 7L, null, 20);
+
+        verify(submissionMapper).selectPageByCursor(eq(new SubmissionQuery(8L, null, null, null, null, true)), isNull(), eq(21));
+        verify(submissionMapper).selectPageByCursor(eq(new SubmissionQuery(7L, null, null, null, null, false)), isNull(), eq(21));
+    }
+
+    @Test
+    void listShouldRestrictUnpublishedProblemToViewer() {
+        ProblemEntity problem = new ProblemEntity();
+        problem.setId(100L);
+        problem.setStatus(0);
+        when(problemMapper.selectById(100L)).thenReturn(problem);
+
+        service.list(new SubmissionQuery(null, 100L, null, null, null, false), 7L, null, 20);
+        service.list(new SubmissionQuery(null, 100L, null, null, null, false), 7L, null, 20);
+
+        verify(submissionMapper, times(2)).selectPageByCursor(eq(new SubmissionQuery(7L, 100L, null, null, null, false)), isNull(), eq(21));
+        // 题目是否公开走缓存，不随每次请求回表
+        verify(problemMapper, times(1)).selectById(100L);
+    }
+
+    @Test
+    void listShouldTreatContestWithoutEndTimeAsRunning() {
+        ContestEntity contest = new ContestEntity();
+        contest.setId(9L);
+        contest.setVisibility(2);
+        contest.setSubmitInfoVisible(false);
+        when(contestMapper.selectById(9L)).thenReturn(contest);
+        SubmissionEntity own = submission(30L, 0);
+        own.setContestId(9L);
+        own.setTimeUsed(15);
+        SubmissionQuery visible = new SubmissionQuery(7L, null, 9L, null, null, false);
+        when(submissionMapper.selectPageByCursor(eq(visible), isNull(), eq(21))).thenReturn(List.of(own));
+
+        SubmissionListPage page = service.list(new SubmissionQuery(null, null, 9L, null, null, false), 7L, null, 20);
+
+        assertThat(page.getRows()).extracting(SubmissionListItem::getId).containsExactly(30L);
+        assertThat(page.getRows().get(0).getTimeUsed()).isNull();
+    }
+
+    @Test
+    void listShouldRejectMalformedCursor() {
+        assertThatThrownBy(() -> service.list(new SubmissionQuery(), 7L, "not-a-cursor", 20))
+                .isInstanceOf(BusinessException.class);
+    }
+
+    private static SubmissionEntity submission(long id, int secondsBefore) {
+        SubmissionEntity submission = new SubmissionEntity();
+        submission.setId(id);
+        submission.setUserId(7L);
+        submission.setCreatedAt(CREATED_AT.minusSeconds(secondsBefore));
+        return submission;
+    }
+}
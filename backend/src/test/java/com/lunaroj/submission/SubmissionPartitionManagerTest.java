@@ -0,0 +1,149 @@
+package com.lunaroj.submission;
+
+import com.lunaroj.mapper.SubmissionPartitionMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.YearMonth;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SubmissionPartitionManagerTest {
+
+    private static final YearMonth NOW = YearMonth.of(2026, 5);
+
+    @Mock
+    private SubmissionPartitionMapper partitionMapper;
+
+    private SubmissionPartitionProperties properties;
+    private SubmissionPartitionManager manager;
+
+    @BeforeEach
+    void setUp() {
+        properties = new SubmissionPartitionProperties();
+        properties.setAheadMonths(3);
+        manager = new SubmissionPartitionManager(partitionMapper, properties);
+    }
+
+    @Test
+    void maintainShouldAppendMissingMonthsAfterLastPartition() {
+        when(partitionMapper.selectSubmissionPartitions()).thenReturn(List.of("p202605", "p_max"));
+
+        manager.maintain(NOW);
+
+        verify(partitionMapper).createCodeTable("submission_code_202605");
+        verify(partitionMapper).createCodeTable("submission_code_202606");
+        verify(partitionMapper).createCodeTable("submission_code_202607");
+        verify(partitionMapper).addSubmissionPartitions(List.of(
+                bound(YearMonth.of(2026, 6)),
+                bound(YearMonth.of(2026, 7))
+        ));
+    }
+
+    @Test
+    void firstRunShouldSplitHistoryIntoMonthlyPartitionsAndCodeTables() {
+        when(partitionMapper.selectMinSubmissionId())
+                .thenReturn(SubmissionPartitions.minIdAt(YearMonth.of(2026, 2).atDay(10).atStartOfDay()));
+        when(partitionMapper.selectMaxSubmissionId()).thenReturn(SubmissionPartitions.minIdAt(NOW.atDay(3).atStartOfDay()));
+        when(partitionMapper.selectCodeTables()).thenReturn(List.of("submission_code_202603"));
+        when(partitionMapper.selectSubmissionPartitions()).thenReturn(List.of("p_max"));
+
+        manager.maintain(NOW);
+
+        verify(partitionMapper).addSubmissionPartitions(List.of(
+                bound(YearMonth.of(2026, 2)),
+                bound(YearMonth.of(2026, 3)),
+                bound(YearMonth.of(2026, 4)),
+                bound(NOW),
+                bound(YearMonth.of(2026, 6)),
+                bound(YearMonth.of(2026, 7))
+        ));
+        verify(partitionMapper, never()).createCodeTable("submission_code_202603");
+        verify(partitionMapper).createCodeTable("submission_code_202602");
+        verify(partitionMapper).copyLegacyCode("submission_code_202602",
+                SubmissionPartitions.partitionUpperBound(YearMonth.of(2026, 1)),
+                SubmissionPartitions.partitionUpperBound(YearMonth.of(2026, 2)));
+        verify(partitionMapper).copyLegacyCode("submission_code_202605",
+                SubmissionPartitions.partitionUpperBound(YearMonth.of(2026, 4)),
+                SubmissionPartitions.partitionUpperBound(NOW));
+        verify(partitionMapper).createCodeTable("submission_code_202607");
+        verify(partitionMapper, never()).copyLegacyCode(eq("submission_code_202607"), anyLong(), anyLong());
+    }
+
+    @Test
+    void maintainShouldSkipPartitionsWhenTableIsNotPartitioned() {
+        when(partitionMapper.selectSubmissionPartitions()).thenReturn(Arrays.asList((String) null));
+
+        manager.maintain(NOW);
+
+        verify(partitionMapper).createCodeTable("submission_code_202605");
+        verify(partitionMapper, never()).addSubmissionPartitions(anyList());
+    }
+
+    @Test
+    void maintainShouldArchiveOldMonths() {
+        properties.setArchiveAfterMonths(2);
+        when(partitionMapper.selectSubmissionPartitions())
+                .thenReturn(List.of("p202602", "p202603", "p202604", "p202605", "p202606", "p202607", "p_max"));
+        when(partitionMapper.selectCodeTables()).thenReturn(List.of("submission_code_202602", "submission_code_202603"));
+
+        manager.maintain(NOW);
+
+        InOrder order = inOrder(partitionMapper);
+        order.verify(partitionMapper).createArchiveTable("archive_submission_202602");
+        order.verify(partitionMapper).removePartitioning("archive_submission_202602");
+        order.verify(partitionMapper).exchangeSubmissionPartition("p202602", "archive_submission_202602");
+        order.verify(partitionMapper).dropSubmissionPartition("p202602");
+        verify(partitionMapper, never()).dropSubmissionPartition("p202603");
+        verify(partitionMapper).renameTable("submission_code_202602", "archive_submission_code_202602");
+        verify(partitionMapper, never()).renameTable("submission_code_202603", "archive_submission_code_202603");
+    }
+
+    @Test
+    void scheduledRunShouldLeaveSchedulerThreadAndSkipWhileStillRunning() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicReference<String> ddlThread = new AtomicReference<>();
+        when(partitionMapper.selectMinSubmissionId()).thenAnswer(invocation -> {
+            ddlThread.set(Thread.currentThread().getName());
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return null;
+        });
+
+        try {
+            manager.maintain();
+            assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+            manager.maintain();
+            release.countDown();
+        } finally {
+            manager.stop();
+        }
+
+        assertThat(ddlThread.get()).isEqualTo("submission-partition");
+        verify(partitionMapper, times(1)).selectMinSubmissionId();
+    }
+
+    private static SubmissionPartitionBound bound(YearMonth month) {
+        return new SubmissionPartitionBound(SubmissionPartitions.partitionName(month), SubmissionPartitions.partitionUpperBound(month));
+    }
+}
@@ -0,0 +1,53 @@
+package com.lunaroj.submission;
+
+import com.baomidou.mybatisplus.core.toolkit.IdWorker;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SubmissionPartitionsTest {
+
+    @Test
+    void minIdAtShouldMatchSnowflakeTimestamp() {
+        LocalDateTime before = LocalDateTime.now().minusSeconds(1);
+        long id = IdWorker.getId();
+        LocalDateTime after = LocalDateTime.now().plusSeconds(1);
+
+        assertThat(id).isBetween(SubmissionPartitions.minIdAt(before), SubmissionPartitions.minIdAt(after));
+        assertThat(SubmissionPartitions.createdAtOf(id)).isBetween(before, after);
+    }
+
+    @Test
+    void monthOfShouldRouteByIdTimestamp() {
+        LocalDateTime lastMilli = LocalDateTime.of(2026, 5, 31, 23, 59, 59, 999_000_000);
+        long id = SubmissionPartitions.minIdAt(lastMilli) | 0x3FFFFFL;
+
+        assertThat(SubmissionPartitions.monthOf(id)).isEqualTo(YearMonth.of(2026, 5));
+        assertThat(id).isLessThan(SubmissionPartitions.partitionUpperBound(YearMonth.of(2026, 5)));
+        assertThat(SubmissionPartitions.monthOf(SubmissionPartitions.partitionUpperBound(YearMonth.of(2026, 5))))
+                .isEqualTo(YearMonth.of(2026, 6));
+    }
+
+    @Test
+    void boundsShouldCoverClockSkew() {
+        LocalDateTime time = LocalDateTime.of(2026, 5, 1, 9, 0);
+
+        assertThat(SubmissionPartitions.idLowerBound(time)).isLessThan(SubmissionPartitions.minIdAt(time.minusSeconds(30)));
+        assertThat(SubmissionPartitions.idUpperBound(time)).isGreaterThan(SubmissionPartitions.minIdAt(time.plusSeconds(30)));
+    }
+
+    @Test
+    void namesShouldRoundTrip() {
+        YearMonth month = YearMonth.of(2026, 1);
+
+        assertThat(SubmissionPartitions.partitionName(month)).isEqualTo("p202601");
+        assertThat(SubmissionPartitions.monthOfPartition("p202601")).isEqualTo(month);
+        assertThat(SubmissionPartitions.monthOfPartition("p_max")).isNull();
+        assertThat(SubmissionPartitions.codeTableName(month)).isEqualTo("submission_code_202601");
+        assertThat(SubmissionPartitions.monthOfCodeTable("submission_code_202601")).isEqualTo(month);
+        assertThat(SubmissionPartitions.monthOfCodeTable("submission_code")).isNull();
+    }
+}
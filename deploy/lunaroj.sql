@@ -182,11 +182,14 @@ CREATE TABLE `submission` (
     `judged_at`    DATETIME        NULL     COMMENT '评测完成时间',
     `created_at`   DATETIME        NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '提交时间',
     PRIMARY KEY (`id`),
-    INDEX `idx_user_created`   (`user_id`, `created_at` DESC),
-    INDEX `idx_problem_status` (`problem_id`, `status`, `created_at` DESC),
-    INDEX `idx_problem_set_user` (`problem_set_id`, `user_id`, `created_at` DESC),
-    INDEX `idx_contest_user` (`contest_id`, `user_id`, `created_at` DESC)
-) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='提交记录';
+    INDEX `idx_user`             (`user_id`),
+    INDEX `idx_problem_status`   (`problem_id`, `status`),
+    INDEX `idx_problem_set_user` (`problem_set_id`, `user_id`),
+    INDEX `idx_contest_user`     (`contest_id`, `user_id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='提交记录'
+PARTITION BY RANGE (`id`) (
+    PARTITION `p_max` VALUES LESS THAN MAXVALUE
+);
 
 CREATE TABLE `submission_code` (
     `submission_id`  BIGINT UNSIGNED NOT NULL,
@@ -194,7 +197,7 @@ CREATE TABLE `submission_code` (
     `compile_output` TEXT            NULL     COMMENT '编译器输出(CE时非NULL)',
     `case_results`   JSON            NULL     COMMENT '测试点结果列表，CE时为NULL',
     PRIMARY KEY (`submission_id`)
-) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='提交代码(垂直分表)';
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='提交代码(垂直分表)，仅作按月分表 submission_code_YYYYMM 的建表模板';
 
 CREATE TABLE `problem_set` (
     `id`             BIGINT UNSIGNED NOT NULL,
@@ -371,3 +374,11 @@ CREATE TABLE `announcement` (
     INDEX `idx_visible_created` (`is_visible`, `created_at` DESC)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='全局公告';
 
+CREATE TABLE `migration_checkpoint` (
+    `job_id`         VARCHAR(64)     NOT NULL COMMENT '迁移任务ID',
+    `module`         VARCHAR(32)     NOT NULL COMMENT '迁移模块',
+    `last_source_id` BIGINT UNSIGNED NOT NULL COMMENT '最后一个已提交批次中的最大源ID',
+    `report`         MEDIUMTEXT      NOT NULL COMMENT '累计报告JSON',
+    `updated_at`     DATETIME        NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    PRIMARY KEY (`job_id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='旧系统迁移进度';